@@ -0,0 +1,106 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Fills {@code products.gtin} from the UPC of every existing product.
+ *
+ * <p>Check-digit validation and UPC-E expansion are computed in Java rather than SQL. The
+ * migration keeps its own copy of the normalization as it was when the column was introduced,
+ * so later changes to the application's barcode handling cannot change what this version
+ * writes. Products are read in pages by id and updated with JDBC batches; no cursor stays open
+ * while updating. Duplicate GTINs are resolved by V17 before the unique index is created.</p>
+ */
+public class V16__Backfill_products_gtin extends BaseJavaMigration {
+
+    private static final int PAGE_SIZE = 1000;
+
+    private static final String SELECT_PAGE_SQL =
+            "SELECT id, upc FROM products WHERE id > ? ORDER BY id LIMIT " + PAGE_SIZE;
+
+    private static final String UPDATE_SQL = "UPDATE products SET gtin = ? WHERE id = ?";
+
+    private static final Pattern CODE_PATTERN = Pattern.compile("^[0-9]{8,14}$");
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        UUID lastId = new UUID(0L, 0L);
+        try (PreparedStatement select = connection.prepareStatement(SELECT_PAGE_SQL);
+             PreparedStatement update = connection.prepareStatement(UPDATE_SQL)) {
+            while (true) {
+                select.setObject(1, lastId);
+                int read = 0;
+                int pending = 0;
+                try (ResultSet rows = select.executeQuery()) {
+                    while (rows.next()) {
+                        read++;
+                        lastId = rows.getObject("id", UUID.class);
+                        Long gtin = normalize(rows.getString("upc"));
+                        if (gtin != null) {
+                            update.setObject(1, gtin, Types.BIGINT);
+                            update.setObject(2, lastId);
+                            update.addBatch();
+                            pending++;
+                        }
+                    }
+                }
+                if (pending > 0) {
+                    update.executeBatch();
+                }
+                if (read < PAGE_SIZE) {
+                    return;
+                }
+            }
+        }
+    }
+
+    // Frozen copy of Gtin.normalize; do not change it, as applied migrations must stay reproducible
+    private static Long normalize(String code) {
+        if (code == null) {
+            return null;
+        }
+        String digits = code.trim();
+        if (!CODE_PATTERN.matcher(digits).matches()) {
+            return null;
+        }
+        if (hasValidCheckDigit(digits)) {
+            return Long.parseLong(digits);
+        }
+        String upcA = expandUpcE(digits);
+        return upcA != null && hasValidCheckDigit(upcA) ? Long.parseLong(upcA) : null;
+    }
+
+    private static boolean hasValidCheckDigit(String digits) {
+        int sum = 0;
+        int weight = 3;
+        for (int i = digits.length() - 2; i >= 0; i--) {
+            sum += (digits.charAt(i) - '0') * weight;
+            weight = 4 - weight;
+        }
+        return (10 - sum % 10) % 10 == digits.charAt(digits.length() - 1) - '0';
+    }
+
+    private static String expandUpcE(String upcE) {
+        if (upcE.length() != 8 || (upcE.charAt(0) != '0' && upcE.charAt(0) != '1')) {
+            return null;
+        }
+        String d = upcE.substring(1, 7);
+        String body = switch (d.charAt(5)) {
+            case '0', '1', '2' -> d.substring(0, 2) + d.charAt(5) + "0000" + d.substring(2, 5);
+            case '3' -> d.substring(0, 3) + "00000" + d.substring(3, 5);
+            case '4' -> d.substring(0, 4) + "00000" + d.charAt(4);
+            default -> d.substring(0, 5) + "0000" + d.charAt(5);
+        };
+        return upcE.charAt(0) + body + upcE.charAt(7);
+    }
+}
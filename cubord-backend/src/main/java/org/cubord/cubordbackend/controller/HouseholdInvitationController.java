@@ -10,6 +10,7 @@ import org.cubord.cubordbackend.dto.householdInvitation.HouseholdInvitationReque
 import org.cubord.cubordbackend.dto.householdInvitation.HouseholdInvitationResponse;
 import org.cubord.cubordbackend.dto.householdInvitation.HouseholdInvitationUpdateRequest;
 import org.cubord.cubordbackend.dto.householdInvitation.ResendInvitationRequest;
+import org.cubord.cubordbackend.dto.pagination.CursorPageResponse;
 import org.cubord.cubordbackend.service.HouseholdInvitationService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -115,6 +116,38 @@ public class HouseholdInvitationController {
                 .body(invitations);
     }
 
+    /**
+     * Retrieves one keyset page of a household's invitations, ordered by creation time.
+     *
+     * <p>Authorization: User must be a member of the household.</p>
+     *
+     * <p>Selected when the {@code limit} query parameter is present and no status filter is given.
+     * Pass the returned {@code nextCursor} as {@code cursor} to fetch the following page.</p>
+     *
+     * @param householdId UUID of the household
+     * @param limit Maximum number of invitations to return
+     * @param cursor Cursor from the previous page; omit for the first page
+     * @param includeTotal Whether to include the total number of invitations
+     * @return ResponseEntity containing a page of household invitations
+     */
+    @GetMapping(value = "/api/households/{householdId}/invitations", params = {"limit", "!status"})
+    @PreAuthorize("@security.canAccessHousehold(#householdId)")
+    public ResponseEntity<CursorPageResponse<HouseholdInvitationResponse>> getHouseholdInvitationsPage(
+            @PathVariable @NotNull UUID householdId,
+            @RequestParam int limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+
+        log.debug("Retrieving invitation page for household: {} (limit={})", householdId, limit);
+
+        CursorPageResponse<HouseholdInvitationResponse> response =
+                householdInvitationService.getHouseholdInvitations(householdId, cursor, limit, includeTotal);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(response);
+    }
+
     /**
      * Retrieves a specific invitation by ID.
      *
@@ -4,10 +4,20 @@ package org.cubord.cubordbackend.controller;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.cubord.cubordbackend.dto.pagination.CursorPageResponse;
+import org.cubord.cubordbackend.dto.pantryItem.AdjustPantryItemQuantityRequest;
+import org.cubord.cubordbackend.dto.pantryItem.BatchDeletePantryItemsResponse;
+import org.cubord.cubordbackend.dto.pantryItem.ConsumeProductRequest;
+import org.cubord.cubordbackend.dto.pantryItem.ConsumeProductResponse;
 import org.cubord.cubordbackend.dto.pantryItem.CreatePantryItemRequest;
+import org.cubord.cubordbackend.dto.pantryItem.MovePantryItemsRequest;
+import org.cubord.cubordbackend.dto.pantryItem.MovePantryItemsResponse;
+import org.cubord.cubordbackend.dto.pantryItem.PantryItemQuantityResponse;
 import org.cubord.cubordbackend.dto.pantryItem.PantryItemResponse;
+import org.cubord.cubordbackend.dto.pantryItem.PantryStatisticsResponse;
 import org.cubord.cubordbackend.dto.pantryItem.UpdatePantryItemRequest;
 import org.cubord.cubordbackend.service.PantryItemService;
 import org.springframework.data.domain.Page;
@@ -45,6 +55,7 @@ import java.util.concurrent.TimeUnit;
  *   <li><strong>PUT /api/pantry-items/{id}:</strong> Access to the pantry item's household</li>
  *   <li><strong>PATCH /api/pantry-items/{id}:</strong> Access to the pantry item's household</li>
  *   <li><strong>DELETE /api/pantry-items/{id}:</strong> Access to the pantry item's household</li>
+ *   <li><strong>POST /api/pantry-items/{id}/adjust:</strong> Access to the pantry item's household</li>
  *   <li><strong>Location endpoints:</strong> Access to the location's household</li>
  *   <li><strong>Household endpoints:</strong> Access to the household</li>
  * </ul>
@@ -62,6 +73,12 @@ import java.util.concurrent.TimeUnit;
 @Slf4j
 public class PantryItemController {
 
+    /**
+     * Largest number of item IDs accepted by one batch delete, so its access check and delete
+     * statements stay bounded.
+     */
+    static final int MAX_BATCH_DELETE_SIZE = 1_000;
+
     private final PantryItemService pantryItemService;
 
     // === Basic CRUD operations under /api/pantry-items ===
@@ -174,13 +191,40 @@ public class PantryItemController {
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * Adds a signed delta to the quantity of a pantry item in a single update.
+     *
+     * <p>Authorization: User must have access to the household containing the pantry item.</p>
+     *
+     * @param id      The UUID of the pantry item
+     * @param request DTO containing the units to add, or remove when negative
+     * @return ResponseEntity containing the adjusted quantity
+     */
+    @PostMapping("/api/pantry-items/{id}/adjust")
+    @PreAuthorize("@security.canAccessPantryItem(#id)")
+    public ResponseEntity<PantryItemQuantityResponse> adjustPantryItemQuantity(
+            @PathVariable @NotNull UUID id,
+            @Valid @RequestBody AdjustPantryItemQuantityRequest request) {
+        log.debug("Adjusting pantry item {} by {}", id, request.getDelta());
+
+        PantryItemQuantityResponse response = pantryItemService.adjustPantryItemQuantity(id, request.getDelta());
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(response);
+    }
+
     /**
      * Creates multiple pantry items in a batch operation.
      *
-     * <p>Authorization: Each item's location access is checked individually during creation.</p>
+     * <p>Authorization: User must have access to every referenced location. Access for all
+     * locations is checked once before any item is written.</p>
+     *
+     * <p>Requests for the same product, location, and expiration date are merged, so the
+     * response contains one entry per resulting pantry item.</p>
      *
      * @param requests List of pantry item creation requests
-     * @return ResponseEntity containing the created pantry items
+     * @return ResponseEntity containing the created or consolidated pantry items
      */
     @PostMapping("/api/pantry-items/batch")
     @PreAuthorize("isAuthenticated()")
@@ -198,23 +242,50 @@ public class PantryItemController {
     /**
      * Deletes multiple pantry items in a batch operation.
      *
-     * <p>Authorization: Each item's access is checked individually during deletion.
-     * Items without access are skipped.</p>
+     * <p>Authorization: Access is resolved for all items at once. Items without access
+     * are skipped and reported as forbidden.</p>
      *
-     * @param itemIds List of pantry item UUIDs to delete
-     * @return ResponseEntity containing the number of deleted items
+     * @param itemIds List of at most {@value #MAX_BATCH_DELETE_SIZE} pantry item UUIDs to delete
+     * @return ResponseEntity containing the deleted count and the per-ID outcome
      */
     @DeleteMapping("/api/pantry-items/batch")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<Map<String, Integer>> deleteMultiplePantryItems(
-            @RequestBody @NotEmpty List<UUID> itemIds) {
+    public ResponseEntity<BatchDeletePantryItemsResponse> deleteMultiplePantryItems(
+            @RequestBody @NotEmpty
+            @Size(max = MAX_BATCH_DELETE_SIZE, message = "At most " + MAX_BATCH_DELETE_SIZE + " items can be deleted at once")
+            List<UUID> itemIds) {
         log.debug("Deleting {} pantry items in batch", itemIds.size());
 
-        int deletedCount = pantryItemService.deleteMultiplePantryItems(itemIds);
+        BatchDeletePantryItemsResponse response = pantryItemService.deleteMultiplePantryItems(itemIds);
 
         return ResponseEntity.ok()
                 .contentType(MediaType.APPLICATION_JSON)
-                .body(Map.of("deletedCount", deletedCount));
+                .body(response);
+    }
+
+    /**
+     * Moves pantry items to another location in a single operation.
+     *
+     * <p>Authorization: User must have access to the target location and to every location the
+     * items are moved from. Access is checked once for all of them.</p>
+     *
+     * <p>Items matching the product and expiration date of an item already at the target are
+     * merged into it.</p>
+     *
+     * @param request DTO naming the target location and either item IDs or a source location
+     * @return ResponseEntity containing the move outcome and the resulting quantities
+     */
+    @PostMapping("/api/pantry-items/move")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<MovePantryItemsResponse> movePantryItems(
+            @Valid @RequestBody MovePantryItemsRequest request) {
+        log.debug("Moving pantry items to location: {}", request.getTargetLocationId());
+
+        MovePantryItemsResponse response = pantryItemService.movePantryItems(request);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(response);
     }
 
     // === Location-based endpoints ===
@@ -241,6 +312,64 @@ public class PantryItemController {
                 .body(response);
     }
 
+    /**
+     * Gets one keyset page of pantry items in a location.
+     *
+     * <p>Authorization: User must have access to the household containing the location.</p>
+     *
+     * <p>Selected when the {@code limit} query parameter is present. Items are ordered by product
+     * name, expiration date, and ID; pass the returned {@code nextCursor} as {@code cursor} to
+     * fetch the following page.</p>
+     *
+     * @param locationId   The UUID of the location
+     * @param limit        Maximum number of items to return
+     * @param cursor       Cursor from the previous page; omit for the first page
+     * @param includeTotal Whether to include the total number of items
+     * @return ResponseEntity containing a page of pantry items
+     */
+    @GetMapping(value = "/api/locations/{locationId}/pantry-items", params = "limit")
+    @PreAuthorize("@security.canAccessLocationForPantryItem(#locationId)")
+    public ResponseEntity<CursorPageResponse<PantryItemResponse>> getPantryItemsByLocationPage(
+            @PathVariable @NotNull UUID locationId,
+            @RequestParam int limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        log.debug("Retrieving pantry item page for location: {} (limit={})", locationId, limit);
+
+        CursorPageResponse<PantryItemResponse> response =
+                pantryItemService.getPantryItemsByLocation(locationId, cursor, limit, includeTotal);
+
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(1, TimeUnit.MINUTES))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(response);
+    }
+
+    /**
+     * Consumes units of a product from a location, emptying the variants that expire first.
+     *
+     * <p>Authorization: User must have access to the household containing the location.</p>
+     *
+     * @param locationId The UUID of the location
+     * @param productId  The UUID of the product
+     * @param request    DTO containing the number of units to consume
+     * @return ResponseEntity containing the consumed and remaining units and the drained items
+     */
+    @PostMapping("/api/locations/{locationId}/products/{productId}/consume")
+    @PreAuthorize("@security.canAccessLocationForPantryItem(#locationId)")
+    public ResponseEntity<ConsumeProductResponse> consumeProduct(
+            @PathVariable @NotNull UUID locationId,
+            @PathVariable @NotNull UUID productId,
+            @Valid @RequestBody ConsumeProductRequest request) {
+        log.debug("Consuming {} units of product {} in location {}", request.getQuantity(), productId, locationId);
+
+        ConsumeProductResponse response = pantryItemService.consumeProduct(locationId, productId, request.getQuantity());
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(response);
+    }
+
     // === Household-based endpoints ===
 
     /**
@@ -270,6 +399,39 @@ public class PantryItemController {
                 .body(response);
     }
 
+    /**
+     * Gets one keyset page of pantry items for a household.
+     *
+     * <p>Authorization: User must have access to the household.</p>
+     *
+     * <p>Selected when the {@code limit} query parameter is present. Unlike offset paging, no
+     * count query runs unless {@code includeTotal} is set, and deep pages cost the same as the first,
+     * since each page is an index seek from the cursor.</p>
+     *
+     * @param householdId  The UUID of the household
+     * @param limit        Maximum number of items to return
+     * @param cursor       Cursor from the previous page; omit for the first page
+     * @param includeTotal Whether to include the total number of items
+     * @return ResponseEntity containing a page of pantry items
+     */
+    @GetMapping(value = "/api/households/{householdId}/pantry-items", params = "limit")
+    @PreAuthorize("@security.canAccessHousehold(#householdId)")
+    public ResponseEntity<CursorPageResponse<PantryItemResponse>> getPantryItemsByHouseholdPage(
+            @PathVariable @NotNull UUID householdId,
+            @RequestParam int limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        log.debug("Retrieving pantry item page for household: {} (limit={})", householdId, limit);
+
+        CursorPageResponse<PantryItemResponse> response =
+                pantryItemService.getPantryItemsByHousehold(householdId, cursor, limit, includeTotal);
+
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(30, TimeUnit.SECONDS))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(response);
+    }
+
     /**
      * Gets low stock items for a household.
      *
@@ -294,6 +456,37 @@ public class PantryItemController {
                 .body(response);
     }
 
+    /**
+     * Gets one keyset page of low stock items for a household, ordered by quantity.
+     *
+     * <p>Authorization: User must have access to the household.</p>
+     *
+     * @param householdId  The UUID of the household
+     * @param threshold    Stock threshold (default: 5)
+     * @param limit        Maximum number of items to return
+     * @param cursor       Cursor from the previous page; omit for the first page
+     * @param includeTotal Whether to include the total number of items
+     * @return ResponseEntity containing a page of low stock items
+     */
+    @GetMapping(value = "/api/households/{householdId}/pantry-items/low-stock", params = "limit")
+    @PreAuthorize("@security.canAccessHousehold(#householdId)")
+    public ResponseEntity<CursorPageResponse<PantryItemResponse>> getLowStockItemsPage(
+            @PathVariable @NotNull UUID householdId,
+            @RequestParam(defaultValue = "5") int threshold,
+            @RequestParam int limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        log.debug("Retrieving low stock page (threshold: {}) for household: {}", threshold, householdId);
+
+        CursorPageResponse<PantryItemResponse> response =
+                pantryItemService.getLowStockItems(householdId, threshold, cursor, limit, includeTotal);
+
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(1, TimeUnit.MINUTES))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(response);
+    }
+
     /**
      * Gets expiring items for a household within a date range.
      *
@@ -326,6 +519,43 @@ public class PantryItemController {
                 .body(response);
     }
 
+    /**
+     * Gets one keyset page of expiring items for a household, ordered by expiration date.
+     *
+     * <p>Authorization: User must have access to the household.</p>
+     *
+     * @param householdId  The UUID of the household
+     * @param startDate    Start date for expiration check (default: today)
+     * @param endDate      End date for expiration check (default: 7 days from today)
+     * @param limit        Maximum number of items to return
+     * @param cursor       Cursor from the previous page; omit for the first page
+     * @param includeTotal Whether to include the total number of items
+     * @return ResponseEntity containing a page of expiring items
+     */
+    @GetMapping(value = "/api/households/{householdId}/pantry-items/expiring", params = "limit")
+    @PreAuthorize("@security.canAccessHousehold(#householdId)")
+    public ResponseEntity<CursorPageResponse<PantryItemResponse>> getExpiringItemsPage(
+            @PathVariable @NotNull UUID householdId,
+            @RequestParam(required = false) LocalDate startDate,
+            @RequestParam(required = false) LocalDate endDate,
+            @RequestParam int limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        LocalDate actualStartDate = startDate != null ? startDate : LocalDate.now();
+        LocalDate actualEndDate = endDate != null ? endDate : LocalDate.now().plusDays(7);
+
+        log.debug("Retrieving expiring page for household: {} (from {} to {})",
+                householdId, actualStartDate, actualEndDate);
+
+        CursorPageResponse<PantryItemResponse> response = pantryItemService.getExpiringItems(
+                householdId, actualStartDate, actualEndDate, cursor, limit, includeTotal);
+
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(5, TimeUnit.MINUTES))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(response);
+    }
+
     /**
      * Searches pantry items in a household by query string.
      *
@@ -351,20 +581,89 @@ public class PantryItemController {
     }
 
     /**
-     * Gets pantry statistics for a household.
+     * Gets one page of search results in a household.
      *
      * <p>Authorization: User must have access to the household.</p>
      *
+     * <p>Selected when the {@code page} query parameter is present. With trigram search enabled,
+     * results are typo tolerant and ranked by relevance.</p>
+     *
      * @param householdId The UUID of the household
+     * @param query       Search query string
+     * @param page        Page number
+     * @param size        Page size (default: 20)
+     * @return ResponseEntity containing a page of search results
+     */
+    @GetMapping(value = "/api/households/{householdId}/pantry-items/search", params = {"page", "!limit"})
+    @PreAuthorize("@security.canAccessHousehold(#householdId)")
+    public ResponseEntity<Page<PantryItemResponse>> searchPantryItemsRanked(
+            @PathVariable @NotNull UUID householdId,
+            @RequestParam @NotNull String query,
+            @RequestParam int page,
+            @RequestParam(defaultValue = "20") int size) {
+        log.debug("Searching pantry items in household: {} with query: {} (page={}, size={})",
+                householdId, query, page, size);
+
+        Page<PantryItemResponse> response =
+                pantryItemService.searchPantryItems(householdId, query, PageRequest.of(page, size));
+
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(1, TimeUnit.MINUTES))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(response);
+    }
+
+    /**
+     * Gets one keyset page of search results in a household.
+     *
+     * <p>Authorization: User must have access to the household.</p>
+     *
+     * @param householdId  The UUID of the household
+     * @param query        Search query string
+     * @param limit        Maximum number of items to return
+     * @param cursor       Cursor from the previous page; omit for the first page
+     * @param includeTotal Whether to include the total number of matches
+     * @return ResponseEntity containing a page of search results
+     */
+    @GetMapping(value = "/api/households/{householdId}/pantry-items/search", params = "limit")
+    @PreAuthorize("@security.canAccessHousehold(#householdId)")
+    public ResponseEntity<CursorPageResponse<PantryItemResponse>> searchPantryItemsPage(
+            @PathVariable @NotNull UUID householdId,
+            @RequestParam @NotNull String query,
+            @RequestParam int limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        log.debug("Searching pantry item page in household: {} with query: {}", householdId, query);
+
+        CursorPageResponse<PantryItemResponse> response =
+                pantryItemService.searchPantryItems(householdId, query, cursor, limit, includeTotal);
+
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(1, TimeUnit.MINUTES))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(response);
+    }
+
+    /**
+     * Gets pantry statistics for a household.
+     *
+     * <p>Authorization: User must have access to the household.</p>
+     *
+     * @param householdId        The UUID of the household
+     * @param lowStockThreshold  Quantity at or below which an item counts as low stock (default: 5)
+     * @param expiringWithinDays Days ahead within which an item counts as expiring (default: 7)
      * @return ResponseEntity containing pantry statistics
      */
     @GetMapping("/api/households/{householdId}/pantry-items/statistics")
     @PreAuthorize("@security.canAccessHousehold(#householdId)")
-    public ResponseEntity<Map<String, Object>> getPantryStatistics(
-            @PathVariable @NotNull UUID householdId) {
+    public ResponseEntity<PantryStatisticsResponse> getPantryStatistics(
+            @PathVariable @NotNull UUID householdId,
+            @RequestParam(defaultValue = "5") int lowStockThreshold,
+            @RequestParam(defaultValue = "7") int expiringWithinDays) {
         log.debug("Retrieving pantry statistics for household: {}", householdId);
 
-        Map<String, Object> response = pantryItemService.getPantryStatistics(householdId);
+        PantryStatisticsResponse response =
+                pantryItemService.getPantryStatistics(householdId, lowStockThreshold, expiringWithinDays);
 
         return ResponseEntity.ok()
                 .cacheControl(CacheControl.maxAge(30, TimeUnit.SECONDS))
@@ -1,17 +1,21 @@
 package org.cubord.cubordbackend.controller;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.cubord.cubordbackend.dto.product.BulkProductImportResponse;
 import org.cubord.cubordbackend.dto.product.ProductRequest;
 import org.cubord.cubordbackend.dto.product.ProductResponse;
 import org.cubord.cubordbackend.dto.product.ProductUpdateRequest;
 import org.cubord.cubordbackend.exception.ValidationException;
 import org.cubord.cubordbackend.service.ProductService;
 import org.cubord.cubordbackend.util.UrlValidator;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.CacheControl;
@@ -22,6 +26,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -50,6 +55,7 @@ import java.util.regex.Pattern;
  *   <li><strong>POST /products/bulk-import:</strong> Only administrators can bulk import</li>
  *   <li><strong>DELETE /products/bulk:</strong> Only administrators can bulk delete</li>
  *   <li><strong>POST /products/{id}/retry:</strong> Only administrators can retry API enrichment</li>
+ *   <li><strong>POST /products/catalog-import:</strong> Only administrators can import the product catalog</li>
  * </ul>
  *
  * <h2>Product Data Sources</h2>
@@ -92,6 +98,14 @@ public class ProductController {
      */
     private static final int MAX_SEARCH_QUERY_LENGTH = 100;
 
+    /**
+     * Longest latency budget a UPC lookup may request.
+     */
+    private static final long MAX_LATENCY_BUDGET_MS = 10_000;
+
+    @Value("${app.product-lookup.latency-budget:PT0.3S}")
+    private Duration defaultLatencyBudget;
+
     // ==================== Create Operations ====================
 
     /**
@@ -127,11 +141,11 @@ public class ProductController {
      * <p>Authorization: Only administrators can bulk import products.</p>
      *
      * @param requests List of product requests to import
-     * @return ResponseEntity containing a list of created products with 201 Created statuses
+     * @return ResponseEntity containing the outcome of every request with 200 OK status
      */
     @PostMapping("/bulk-import")
     @PreAuthorize("@security.isAdmin()")
-    public ResponseEntity<List<ProductResponse>> bulkImportProducts(
+    public ResponseEntity<BulkProductImportResponse> bulkImportProducts(
             @Valid @RequestBody @NotEmpty(message = "Product requests list cannot be empty") List<@Valid ProductRequest> requests) {
 
         log.debug("Bulk importing {} products", requests.size());
@@ -139,9 +153,9 @@ public class ProductController {
         // Validate all UPC formats for SSRF protection
         requests.forEach(request -> validateUpcFormat(request.getUpc()));
 
-        List<ProductResponse> response = productService.bulkImportProducts(requests);
+        BulkProductImportResponse response = productService.bulkImportProducts(requests);
 
-        return ResponseEntity.status(HttpStatus.CREATED)
+        return ResponseEntity.ok()
                 .contentType(MediaType.APPLICATION_JSON)
                 .body(response);
     }
@@ -177,24 +191,39 @@ public class ProductController {
      * <p><strong>Security Note:</strong> UPC is validated to prevent SSRF attacks
      * when fetching data from external APIs.</p>
      *
-     * @param upc The UPC of the product (8-14 digits)
+     * <p>Unknown UPCs are looked up in the external API for at most the latency budget
+     * ({@code app.product-lookup.latency-budget} unless given). A lookup that takes longer
+     * returns a provisional product with {@code requiresApiRetry} set, which is completed in the
+     * background and not cached by clients.</p>
+     *
+     * @param upc             The UPC of the product (8-14 digits)
+     * @param latencyBudgetMs Optional longest wait for the external API in milliseconds
      * @return ResponseEntity containing the product's details
      * @throws ValidationException if a UPC format is invalid
      */
     @GetMapping("/upc/{upc}")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<ProductResponse> getProductByUpc(
-            @PathVariable @NotBlank(message = "UPC cannot be blank") String upc) {
+            @PathVariable @NotBlank(message = "UPC cannot be blank") String upc,
+            @RequestParam(required = false)
+            @Min(value = 0, message = "Latency budget cannot be negative")
+            @Max(value = MAX_LATENCY_BUDGET_MS, message = "Latency budget cannot exceed " + MAX_LATENCY_BUDGET_MS + " ms")
+            Long latencyBudgetMs) {
 
         log.debug("Retrieving product by UPC: {}", upc);
 
         // Validate a UPC format for SSRF protection
         validateUpcFormat(upc);
 
-        ProductResponse response = productService.getProductByUpc(upc);
+        Duration latencyBudget = latencyBudgetMs != null ? Duration.ofMillis(latencyBudgetMs) : defaultLatencyBudget;
+        ProductResponse response = productService.getProductByUpc(upc, latencyBudget);
 
+        // Provisional products change once their lookup completes
+        CacheControl cacheControl = Boolean.TRUE.equals(response.getRequiresApiRetry())
+                ? CacheControl.noCache()
+                : CacheControl.maxAge(5, TimeUnit.MINUTES);
         return ResponseEntity.ok()
-                .cacheControl(CacheControl.maxAge(5, TimeUnit.MINUTES))
+                .cacheControl(cacheControl)
                 .contentType(MediaType.APPLICATION_JSON)
                 .body(response);
     }
@@ -358,6 +387,26 @@ public class ProductController {
                 .body(Map.of("processedCount", processedCount));
     }
 
+    /**
+     * Starts importing an Open Food Facts dump file from the server's import directory.
+     *
+     * <p>Authorization: Only administrators can import the product catalog.</p>
+     *
+     * @param file Name of the dump file inside the configured import directory
+     * @return ResponseEntity with 202 Accepted once the import has started
+     */
+    @PostMapping("/catalog-import")
+    @PreAuthorize("@security.isAdmin()")
+    public ResponseEntity<Map<String, String>> importCatalog(@RequestParam @NotBlank String file) {
+        log.debug("Starting catalog import of: {}", file);
+
+        productService.importCatalog(file);
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Map.of("file", file));
+    }
+
     // ==================== Delete Operations ====================
 
     /**
@@ -0,0 +1,42 @@
+package org.cubord.cubordbackend.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Running pantry counters for a household, kept in step with its pantry items so that
+ * household statistics can be read without scanning the items.
+ */
+@Entity
+@Table(name = "household_inventory_stats")
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(of = "householdId")
+public class HouseholdInventoryStats {
+
+    @Id
+    @Column(name = "household_id")
+    private UUID householdId;
+
+    private long totalItems;
+
+    private long distinctProducts;
+
+    private long zeroQuantityItems;
+
+    private long noExpirationItems;
+
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    public void onUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,41 @@
+package org.cubord.cubordbackend.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * Number of pantry items referencing a product within a household. A row exists only while
+ * the count is positive, which is what the distinct product counter is derived from.
+ */
+@Entity
+@Table(name = "household_product_counts")
+@IdClass(HouseholdProductCount.Key.class)
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(of = {"householdId", "productId"})
+public class HouseholdProductCount {
+
+    @Id
+    @Column(name = "household_id")
+    private UUID householdId;
+
+    @Id
+    @Column(name = "product_id")
+    private UUID productId;
+
+    private long itemCount;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private UUID householdId;
+        private UUID productId;
+    }
+}
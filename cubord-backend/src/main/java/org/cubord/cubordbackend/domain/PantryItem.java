@@ -8,6 +8,10 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "pantry_items")
+@NamedEntityGraph(name = PantryItem.WITH_DETAILS_GRAPH, attributeNodes = {
+        @NamedAttributeNode("product"),
+        @NamedAttributeNode("location")
+})
 @Getter
 @Setter
 @ToString(exclude = {"product", "location"})
@@ -17,6 +21,12 @@ import java.util.UUID;
 @EqualsAndHashCode(of = "id")
 public class PantryItem {
 
+    /**
+     * Entity graph that loads the product and location together with the item,
+     * covering everything needed to build a pantry item response in one query.
+     */
+    public static final String WITH_DETAILS_GRAPH = "PantryItem.withDetails";
+
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
@@ -37,14 +47,45 @@ public class PantryItem {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
+    /**
+     * Household of the location, copied so household listings can seek within one index.
+     */
+    @Column(name = "household_id", nullable = false)
+    private UUID householdId;
+
+    /**
+     * Name of the product, or an empty string if it has none; the leading sort key of
+     * name-ordered listings. Refreshed whenever the item is saved and when the product is renamed.
+     */
+    @Column(name = "product_name", nullable = false)
+    private String productName;
+
     @PrePersist
     public void onCreate() {
         this.createdAt = LocalDateTime.now();
         this.updatedAt = LocalDateTime.now();
+        copySortKeys();
     }
 
     @PreUpdate
     public void onUpdate() {
         this.updatedAt = LocalDateTime.now();
+        copySortKeys();
+    }
+
+    /**
+     * @return The value stored as {@code productName} for a product with the given name
+     */
+    public static String sortName(String productName) {
+        return productName != null ? productName : "";
+    }
+
+    private void copySortKeys() {
+        if (location != null && location.getHousehold() != null) {
+            this.householdId = location.getHousehold().getId();
+        }
+        if (product != null) {
+            this.productName = sortName(product.getName());
+        }
     }
 }
\ No newline at end of file
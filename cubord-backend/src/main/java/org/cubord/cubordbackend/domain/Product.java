@@ -2,6 +2,7 @@ package org.cubord.cubordbackend.domain;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.cubord.cubordbackend.util.Gtin;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
@@ -21,6 +22,9 @@ public class Product {
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
     private String upc;
+    // GTIN-14 value of the UPC, shared by all its barcode forms; null if the UPC is not a valid GTIN
+    @Column(unique = true)
+    private Long gtin;
     private String name;
     private String brand;
     private String category;
@@ -32,6 +36,8 @@ public class Product {
     private Boolean requiresApiRetry;
     private Integer retryAttempts;
     private LocalDateTime lastRetryAttempt;
+    // Null when due now; set to the end of the backoff or of an enrichment worker's claim
+    private LocalDateTime nextRetryAt;
     
     @Enumerated(EnumType.STRING)
     private ProductDataSource dataSource;
@@ -41,12 +47,14 @@ public class Product {
 
     @PrePersist
     public void onCreate() {
+        this.gtin = Gtin.normalize(upc);
         this.createdAt = LocalDateTime.now();
         this.updatedAt = LocalDateTime.now();
     }
 
     @PreUpdate
     public void onUpdate() {
+        this.gtin = Gtin.normalize(upc);
         this.updatedAt = LocalDateTime.now();
     }
 }
\ No newline at end of file
@@ -0,0 +1,43 @@
+package org.cubord.cubordbackend.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * Progress of importing a catalog dump file. Updated with every loaded chunk, so an interrupted
+ * import of the same, unchanged file resumes after {@code linesRead}.
+ */
+@Entity
+@Table(name = "product_import_checkpoints")
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(of = "source")
+public class ProductImportCheckpoint {
+
+    // Absolute path of the dump file
+    @Id
+    @Column(name = "source", length = 1024)
+    private String source;
+
+    // Size of the file when the import started; a different size means a new dump
+    @Column(name = "file_size", nullable = false)
+    private long fileSize;
+
+    @Column(name = "lines_read", nullable = false)
+    private long linesRead;
+
+    @Column(name = "products_imported", nullable = false)
+    private long productsImported;
+
+    // Null while the import is unfinished
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,31 @@
+package org.cubord.cubordbackend.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * A UPC the external product database reported as unknown. Lookups of the UPC are answered as not
+ * found without contacting the external API until the entry expires.
+ */
+@Entity
+@Table(name = "unknown_upcs")
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(of = "upc")
+public class UnknownUpc {
+
+    @Id
+    @Column(name = "upc")
+    private String upc;
+
+    @Column(name = "recorded_at", nullable = false)
+    private LocalDateTime recordedAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
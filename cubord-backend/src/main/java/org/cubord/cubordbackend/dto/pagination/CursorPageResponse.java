@@ -0,0 +1,51 @@
+package org.cubord.cubordbackend.dto.pagination;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A page of results from a keyset (cursor) paginated listing.
+ *
+ * <p>{@code nextCursor} is an opaque token to pass back for the following page and is null
+ * on the last page. {@code totalElements} is only populated when the caller asks for it.</p>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageResponse<T> {
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+    private Long totalElements;
+
+    /**
+     * Builds a page from rows fetched with a limit of {@code limit + 1}; the extra row only
+     * signals that another page exists and is not returned.
+     *
+     * @param rows          Rows fetched from the seek query
+     * @param limit         Requested page size
+     * @param mapper        Maps a row to its response
+     * @param cursorOf      Encodes the cursor of a row
+     * @param totalElements Total count, or null when not requested
+     */
+    public static <E, T> CursorPageResponse<T> fromRows(List<E> rows, int limit, Function<E, T> mapper,
+                                                        Function<E, String> cursorOf, Long totalElements) {
+        boolean hasNext = rows.size() > limit;
+        List<E> pageRows = hasNext ? rows.subList(0, limit) : rows;
+
+        return CursorPageResponse.<T>builder()
+                .content(pageRows.stream().map(mapper).toList())
+                .size(pageRows.size())
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? cursorOf.apply(pageRows.getLast()) : null)
+                .totalElements(totalElements)
+                .build();
+    }
+}
@@ -0,0 +1,17 @@
+package org.cubord.cubordbackend.dto.pantryItem;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.validation.constraints.NotNull;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdjustPantryItemQuantityRequest {
+    @NotNull
+    private Integer delta;
+}
@@ -0,0 +1,20 @@
+package org.cubord.cubordbackend.dto.pantryItem;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchDeletePantryItemsResponse {
+    private int deletedCount;
+    private List<UUID> deleted;
+    private List<UUID> forbidden;
+    private List<UUID> notFound;
+}
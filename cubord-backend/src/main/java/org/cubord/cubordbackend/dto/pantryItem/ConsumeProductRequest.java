@@ -0,0 +1,19 @@
+package org.cubord.cubordbackend.dto.pantryItem;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConsumeProductRequest {
+    @NotNull
+    @Min(1)
+    private Integer quantity;
+}
@@ -0,0 +1,21 @@
+package org.cubord.cubordbackend.dto.pantryItem;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConsumeProductResponse {
+    private UUID locationId;
+    private UUID productId;
+    private int consumed;
+    private int remaining;
+    private List<PantryItemQuantityResponse> items;
+}
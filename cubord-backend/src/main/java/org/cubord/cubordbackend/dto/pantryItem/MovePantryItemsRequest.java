@@ -0,0 +1,26 @@
+package org.cubord.cubordbackend.dto.pantryItem;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.validation.constraints.NotNull;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Request to move pantry items to another location. Exactly one of {@code itemIds} and
+ * {@code sourceLocationId} must be given; the latter moves every item in that location.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MovePantryItemsRequest {
+    @NotNull
+    private UUID targetLocationId;
+
+    private List<UUID> itemIds;
+    private UUID sourceLocationId;
+}
@@ -0,0 +1,21 @@
+package org.cubord.cubordbackend.dto.pantryItem;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PantryStatisticsResponse {
+    private long totalItems;
+    private long distinctProducts;
+    private long lowStockCount;
+    private long expiringCount;
+    private long noExpirationDateCount;
+    private long zeroQuantityCount;
+    private int lowStockThreshold;
+    private int expiringWithinDays;
+}
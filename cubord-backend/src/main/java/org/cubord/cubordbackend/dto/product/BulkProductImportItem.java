@@ -0,0 +1,34 @@
+package org.cubord.cubordbackend.dto.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.cubord.cubordbackend.domain.ProductDataSource;
+
+import java.util.UUID;
+
+/**
+ * Outcome of one request of a bulk product import, in request order.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkProductImportItem {
+
+    public enum Status {
+        CREATED,
+        ALREADY_EXISTS,
+        DUPLICATE,
+        INVALID,
+        FAILED
+    }
+
+    private int index;
+    private String upc;
+    private Status status;
+    private UUID productId;
+    private ProductDataSource dataSource;
+    private String message;
+}
@@ -0,0 +1,19 @@
+package org.cubord.cubordbackend.dto.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkProductImportResponse {
+    private int createdCount;
+    private int skippedCount;
+    private int failedCount;
+    private List<BulkProductImportItem> items;
+}
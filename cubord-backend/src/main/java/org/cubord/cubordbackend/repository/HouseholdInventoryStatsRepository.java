@@ -0,0 +1,25 @@
+package org.cubord.cubordbackend.repository;
+
+import jakarta.persistence.LockModeType;
+import org.cubord.cubordbackend.domain.HouseholdInventoryStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface HouseholdInventoryStatsRepository extends JpaRepository<HouseholdInventoryStats, UUID>,
+        HouseholdInventoryStatsRepositoryCustom {
+
+    /**
+     * Loads the counters of a household and locks the row until the transaction ends, so that
+     * concurrent pantry changes in the same household apply their deltas one after another.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM HouseholdInventoryStats s WHERE s.householdId = :householdId")
+    Optional<HouseholdInventoryStats> findByHouseholdIdForUpdate(@Param("householdId") UUID householdId);
+}
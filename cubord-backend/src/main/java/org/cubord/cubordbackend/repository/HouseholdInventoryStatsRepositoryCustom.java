@@ -0,0 +1,22 @@
+package org.cubord.cubordbackend.repository;
+
+import java.util.UUID;
+
+/**
+ * Creation of household counters that is safe against concurrent first use.
+ */
+public interface HouseholdInventoryStatsRepositoryCustom {
+
+    /**
+     * Inserts zeroed counters for a household unless it already has counters.
+     *
+     * <p>On PostgreSQL this is an {@code INSERT ... ON CONFLICT DO NOTHING}, so concurrent calls for
+     * the same household never fail: all but one wait for the inserting transaction and then insert
+     * nothing. Other databases check for an existing row first and may still fail on a racing
+     * insert.</p>
+     *
+     * @param householdId UUID of the household
+     * @return true if the counters were inserted by this call
+     */
+    boolean insertIfAbsent(UUID householdId);
+}
@@ -0,0 +1,51 @@
+package org.cubord.cubordbackend.repository;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.UUID;
+
+/**
+ * JDBC implementation of {@link HouseholdInventoryStatsRepositoryCustom}.
+ *
+ * <p>Runs on the connection bound to the current JPA transaction, so the inserted counters commit
+ * or roll back together with the pantry change that created them.</p>
+ */
+public class HouseholdInventoryStatsRepositoryImpl implements HouseholdInventoryStatsRepositoryCustom {
+
+    private static final String INSERT_IF_ABSENT_SQL =
+            "INSERT INTO household_inventory_stats (household_id, total_items, distinct_products, " +
+            "zero_quantity_items, no_expiration_items) VALUES (?, 0, 0, 0, 0) " +
+            "ON CONFLICT (household_id) DO NOTHING";
+
+    private static final String INSERT_IF_NOT_EXISTS_SQL =
+            "INSERT INTO household_inventory_stats (household_id, total_items, distinct_products, " +
+            "zero_quantity_items, no_expiration_items) SELECT ?, 0, 0, 0, 0 WHERE NOT EXISTS " +
+            "(SELECT 1 FROM household_inventory_stats WHERE household_id = ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile Boolean postgres;
+
+    public HouseholdInventoryStatsRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public boolean insertIfAbsent(UUID householdId) {
+        int inserted = isPostgres()
+                ? jdbcTemplate.update(INSERT_IF_ABSENT_SQL, householdId)
+                : jdbcTemplate.update(INSERT_IF_NOT_EXISTS_SQL, householdId, householdId);
+        return inserted > 0;
+    }
+
+    private boolean isPostgres() {
+        Boolean result = postgres;
+        if (result == null) {
+            result = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName()));
+            postgres = result;
+        }
+        return Boolean.TRUE.equals(result);
+    }
+}
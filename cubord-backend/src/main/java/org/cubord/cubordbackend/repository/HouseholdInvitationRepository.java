@@ -2,6 +2,8 @@ package org.cubord.cubordbackend.repository;
 
 import org.cubord.cubordbackend.domain.InvitationStatus;
 import org.cubord.cubordbackend.domain.HouseholdInvitation;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -15,6 +17,7 @@ import java.util.UUID;
 @Repository
 public interface HouseholdInvitationRepository extends JpaRepository<HouseholdInvitation, UUID> {
     List<HouseholdInvitation> findByHouseholdId(UUID householdId);
+    long countByHouseholdId(UUID householdId);
     List<HouseholdInvitation> findByHouseholdIdAndStatus(UUID householdId, InvitationStatus status);
     List<HouseholdInvitation> findByInvitedUserIdAndStatus(UUID invitedUserId, InvitationStatus status);
     boolean existsByHouseholdIdAndInvitedUserIdAndStatus(UUID householdId, UUID invitedUserId, InvitationStatus status);
@@ -53,4 +56,17 @@ public interface HouseholdInvitationRepository extends JpaRepository<HouseholdIn
             @Param("email") String email,
             @Param("status") InvitationStatus status,
             @Param("now") LocalDateTime now);
+
+    /**
+     * Keyset page of a household's invitations ordered by (createdAt, id), starting after the given cursor.
+     */
+    @EntityGraph(attributePaths = {"household", "invitedBy", "invitedUser"})
+    @Query("SELECT i FROM HouseholdInvitation i WHERE i.household.id = :householdId " +
+            "AND (i.createdAt > :afterCreatedAt OR (i.createdAt = :afterCreatedAt AND i.id > :afterId)) " +
+            "ORDER BY i.createdAt ASC, i.id ASC")
+    List<HouseholdInvitation> findPageByHouseholdId(
+            @Param("householdId") UUID householdId,
+            @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+            @Param("afterId") UUID afterId,
+            Limit limit);
 }
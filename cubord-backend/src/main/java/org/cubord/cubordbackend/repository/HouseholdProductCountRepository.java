@@ -0,0 +1,17 @@
+package org.cubord.cubordbackend.repository;
+
+import org.cubord.cubordbackend.domain.HouseholdProductCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface HouseholdProductCountRepository extends JpaRepository<HouseholdProductCount, HouseholdProductCount.Key> {
+
+    List<HouseholdProductCount> findByHouseholdIdAndProductIdIn(UUID householdId, Collection<UUID> productIds);
+
+    List<HouseholdProductCount> findByHouseholdId(UUID householdId);
+}
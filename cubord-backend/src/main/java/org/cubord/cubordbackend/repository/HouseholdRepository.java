@@ -1,6 +1,7 @@
 package org.cubord.cubordbackend.repository;
 import org.cubord.cubordbackend.domain.Household;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -17,4 +18,7 @@ public interface HouseholdRepository extends JpaRepository<Household, UUID> {
     boolean existsByNameAndMembersUserId(String name, UUID userId);
     List<Household> findAllByMembersUserId(UUID userId);
     List<Household> findAllByNameContainingIgnoreCaseAndMembersUserId(String namePattern, UUID userId);
+
+    @Query("SELECT h.id FROM Household h ORDER BY h.id")
+    List<UUID> findAllIds();
 }
\ No newline at end of file
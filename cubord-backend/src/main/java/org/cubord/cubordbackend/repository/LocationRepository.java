@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -64,4 +65,36 @@ public interface LocationRepository extends JpaRepository<Location, UUID> {
     boolean existsByIdAndHouseholdMembers_UserId(
             @Param("locationId") UUID locationId,
             @Param("userId") UUID userId);
-}
\ No newline at end of file
+
+    /**
+     * Counts how many of the given locations the user can access through household membership.
+     * Used for batch authorization checks in SecurityService.
+     */
+    @Query("SELECT COUNT(DISTINCT l.id) FROM Location l " +
+           "JOIN l.household h " +
+           "JOIN h.members m " +
+           "WHERE l.id IN :locationIds AND m.user.id = :userId")
+    long countByIdInAndHouseholdMembers_UserId(
+            @Param("locationIds") Collection<UUID> locationIds,
+            @Param("userId") UUID userId);
+
+    /**
+     * Resolves the household of a location without loading the entity.
+     */
+    @Query("SELECT l.household.id FROM Location l WHERE l.id = :locationId")
+    Optional<UUID> findHouseholdIdById(@Param("locationId") UUID locationId);
+
+    /**
+     * Resolves the household of each of the given locations without loading the entities.
+     */
+    @Query("SELECT l.id AS locationId, l.household.id AS householdId FROM Location l WHERE l.id IN :locationIds")
+    List<LocationHousehold> findHouseholdIdsByIdIn(@Param("locationIds") Collection<UUID> locationIds);
+
+    /**
+     * Projection of a location's household returned by {@link #findHouseholdIdsByIdIn}.
+     */
+    interface LocationHousehold {
+        UUID getLocationId();
+        UUID getHouseholdId();
+    }
+}
@@ -2,24 +2,73 @@ package org.cubord.cubordbackend.repository;
 
 
 import org.cubord.cubordbackend.domain.PantryItem;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface PantryItemRepository extends JpaRepository<PantryItem, UUID> {
+public interface PantryItemRepository extends JpaRepository<PantryItem, UUID>, PantryItemRepositoryCustom {
+
+    // Keyset pagination fragments. Items are ordered by (product name, expiration date, id) with
+    // missing expiration dates sorted last, using the item's copy of the product name. The seek is a
+    // row comparison on the key columns of idx_pantry_items_household_name_expiration_id and
+    // idx_pantry_items_location_name_expiration_id, so every page starts with an index seek.
+    String NAME_SORT_KEY = "p.productName";
+    String EXPIRATION_SORT_KEY = "COALESCE(p.expirationDate, {d '9999-12-31'})";
+    String SEEK_AFTER_NAME_CURSOR =
+            "AND (" + NAME_SORT_KEY + ", " + EXPIRATION_SORT_KEY + ", p.id) > " +
+            "(:afterName, :afterExpiration, :afterId) ";
+    String ORDER_BY_NAME_CURSOR = "ORDER BY " + NAME_SORT_KEY + " ASC, " + EXPIRATION_SORT_KEY + " ASC, p.id ASC";
+    String SEARCH_PREDICATE =
+            "AND (LOWER(p.product.name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) " +
+            "OR LOWER(p.product.brand) LIKE LOWER(CONCAT('%', :searchTerm, '%')) " +
+            "OR LOWER(COALESCE(p.notes, '')) LIKE LOWER(CONCAT('%', :searchTerm, '%'))) ";
+
+    // Trigram search fragments (PostgreSQL pg_trgm). A row matches when the term is word-similar to,
+    // or a substring of, the product name, brand, or notes. Candidates are collected per table, so each
+    // branch of the UNION only filters columns of one table and is served by its GIN trigram indexes;
+    // an OR across the joined tables could not use them. Rows are ranked by their best word similarity
+    // across the three columns.
+    String TRIGRAM_SEARCH_FROM =
+            "FROM (SELECT m.id FROM pantry_items m WHERE m.product_id IN (" +
+            "SELECT id FROM products WHERE :searchTerm <% name OR :searchTerm <% brand " +
+            "OR name ILIKE CONCAT('%', :searchTerm, '%') OR brand ILIKE CONCAT('%', :searchTerm, '%')) " +
+            "UNION " +
+            "SELECT id FROM pantry_items WHERE :searchTerm <% notes " +
+            "OR notes ILIKE CONCAT('%', :searchTerm, '%')) c " +
+            "JOIN pantry_items p ON p.id = c.id " +
+            "JOIN products pr ON pr.id = p.product_id " +
+            "JOIN locations l ON l.id = p.location_id " +
+            "WHERE l.household_id = :householdId ";
+    String TRIGRAM_SEEK_AFTER_NAME_CURSOR =
+            "AND (p.product_name, COALESCE(p.expiration_date, DATE '9999-12-31'), p.id) > " +
+            "(:afterName, :afterExpiration, :afterId) ";
+    String TRIGRAM_ORDER_BY_NAME_CURSOR =
+            "ORDER BY p.product_name ASC, COALESCE(p.expiration_date, DATE '9999-12-31') ASC, p.id ASC ";
+    String TRIGRAM_RANK =
+            "GREATEST(word_similarity(:searchTerm, COALESCE(pr.name, '')), " +
+            "word_similarity(:searchTerm, COALESCE(pr.brand, '')), " +
+            "word_similarity(:searchTerm, COALESCE(p.notes, '')))";
     
     // Basic location-based queries
+    // Listing queries use the details graph so responses can be built without per-item lazy loads
+    @EntityGraph(PantryItem.WITH_DETAILS_GRAPH)
     List<PantryItem> findByLocationId(UUID locationId);
+    @EntityGraph(PantryItem.WITH_DETAILS_GRAPH)
     List<PantryItem> findByLocationId(UUID locationId, Sort sort);
     long countByLocationId(UUID locationId);
     
@@ -44,6 +93,7 @@ public interface PantryItemRepository extends JpaRepository<PantryItem, UUID> {
     
     // Household-based queries (through location relationship)
     List<PantryItem> findByLocation_HouseholdId(UUID householdId);
+    @EntityGraph(PantryItem.WITH_DETAILS_GRAPH)
     Page<PantryItem> findByLocation_HouseholdId(UUID householdId, Pageable pageable);
     long countByLocation_HouseholdId(UUID householdId);
     
@@ -63,6 +113,7 @@ public interface PantryItemRepository extends JpaRepository<PantryItem, UUID> {
     List<PantryItem> findByProduct_CategoryAndLocation_HouseholdId(String category, UUID householdId);
     
     // Advanced queries using @Query annotation
+    @EntityGraph(PantryItem.WITH_DETAILS_GRAPH)
     @Query("SELECT p FROM PantryItem p WHERE p.location.household.id = :householdId " +
            "AND p.expirationDate BETWEEN :startDate AND :endDate " +
            "ORDER BY p.expirationDate ASC")
@@ -71,6 +122,7 @@ public interface PantryItemRepository extends JpaRepository<PantryItem, UUID> {
             @Param("startDate") LocalDate startDate,
             @Param("endDate") LocalDate endDate);
     
+    @EntityGraph(PantryItem.WITH_DETAILS_GRAPH)
     @Query("SELECT p FROM PantryItem p WHERE p.location.household.id = :householdId " +
            "AND p.quantity <= :threshold " +
            "ORDER BY p.quantity ASC, p.product.name ASC")
@@ -86,6 +138,7 @@ public interface PantryItemRepository extends JpaRepository<PantryItem, UUID> {
             @Param("locationId") UUID locationId,
             @Param("searchTerm") String searchTerm);
     
+    @EntityGraph(PantryItem.WITH_DETAILS_GRAPH)
     @Query("SELECT p FROM PantryItem p WHERE p.location.household.id = :householdId " +
            "AND (LOWER(p.product.name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) " +
            "OR LOWER(p.product.brand) LIKE LOWER(CONCAT('%', :searchTerm, '%')) " +
@@ -93,6 +146,31 @@ public interface PantryItemRepository extends JpaRepository<PantryItem, UUID> {
     List<PantryItem> searchItemsInHousehold(
             @Param("householdId") UUID householdId,
             @Param("searchTerm") String searchTerm);
+
+    @EntityGraph(PantryItem.WITH_DETAILS_GRAPH)
+    @Query("SELECT p FROM PantryItem p WHERE p.location.household.id = :householdId " +
+           SEARCH_PREDICATE + "ORDER BY p.product.name ASC, p.id ASC")
+    Page<PantryItem> searchItemsInHousehold(
+            @Param("householdId") UUID householdId,
+            @Param("searchTerm") String searchTerm,
+            Pageable pageable);
+
+    /**
+     * Typo-tolerant search ranked by trigram similarity, best match first. Returns IDs only so
+     * the matching items can be loaded with their details in one further query.
+     *
+     * <p>PostgreSQL only; requires the pg_trgm extension and indexes from the postgresql migrations.</p>
+     */
+    @Query(value = "SELECT p.id " + TRIGRAM_SEARCH_FROM + "ORDER BY " + TRIGRAM_RANK + " DESC, p.id ASC",
+           countQuery = "SELECT COUNT(*) " + TRIGRAM_SEARCH_FROM,
+           nativeQuery = true)
+    Page<UUID> searchRankedIdsInHousehold(
+            @Param("householdId") UUID householdId,
+            @Param("searchTerm") String searchTerm,
+            Pageable pageable);
+
+    @EntityGraph(PantryItem.WITH_DETAILS_GRAPH)
+    List<PantryItem> findWithDetailsByIdIn(Collection<UUID> ids);
     
     // Enhanced queries for better UI support
     @Query("SELECT p FROM PantryItem p WHERE p.location.household.id = :householdId " +
@@ -104,6 +182,42 @@ public interface PantryItemRepository extends JpaRepository<PantryItem, UUID> {
     List<PantryItem> findByLocationIdOrderByProductAndExpiration(UUID locationId);
     
     // Aggregate queries for statistics
+    /**
+     * Computes all household pantry counters in a single pass using conditional aggregation.
+     * Items expiring on or before {@code expiringBefore} count as expiring, including ones already expired.
+     */
+    @Query("SELECT COUNT(p) AS totalItems, " +
+           "COUNT(DISTINCT p.product.id) AS distinctProducts, " +
+           "COALESCE(SUM(CASE WHEN p.quantity <= :lowStockThreshold THEN 1 ELSE 0 END), 0) AS lowStockCount, " +
+           "COALESCE(SUM(CASE WHEN p.expirationDate <= :expiringBefore THEN 1 ELSE 0 END), 0) AS expiringCount, " +
+           "COALESCE(SUM(CASE WHEN p.expirationDate IS NULL THEN 1 ELSE 0 END), 0) AS noExpirationDateCount, " +
+           "COALESCE(SUM(CASE WHEN COALESCE(p.quantity, 0) = 0 THEN 1 ELSE 0 END), 0) AS zeroQuantityCount " +
+           "FROM PantryItem p WHERE p.location.household.id = :householdId")
+    PantryStatistics aggregateStatisticsByHouseholdId(
+            @Param("householdId") UUID householdId,
+            @Param("lowStockThreshold") Integer lowStockThreshold,
+            @Param("expiringBefore") LocalDate expiringBefore);
+
+    /**
+     * Counts only the threshold-dependent statistics, which cannot be kept as running counters.
+     * Only low stock and expiring items are matched, so the scan is limited to those rows.
+     */
+    @Query("SELECT COALESCE(SUM(CASE WHEN p.quantity <= :lowStockThreshold THEN 1 ELSE 0 END), 0) AS lowStockCount, " +
+           "COALESCE(SUM(CASE WHEN p.expirationDate <= :expiringBefore THEN 1 ELSE 0 END), 0) AS expiringCount " +
+           "FROM PantryItem p WHERE p.location.household.id = :householdId " +
+           "AND (p.quantity <= :lowStockThreshold OR p.expirationDate <= :expiringBefore)")
+    PantryThresholdCounts countThresholdItemsByHouseholdId(
+            @Param("householdId") UUID householdId,
+            @Param("lowStockThreshold") Integer lowStockThreshold,
+            @Param("expiringBefore") LocalDate expiringBefore);
+
+    /**
+     * Counts the pantry items of a household per product, used to rebuild the household's counters.
+     */
+    @Query("SELECT p.product.id AS productId, COUNT(p) AS itemCount FROM PantryItem p " +
+           "WHERE p.location.household.id = :householdId GROUP BY p.product.id")
+    List<ProductItemCount> countItemsPerProductByHouseholdId(@Param("householdId") UUID householdId);
+
     @Query("SELECT COUNT(DISTINCT p.product.id) FROM PantryItem p WHERE p.location.household.id = :householdId")
     long countDistinctProductsByHouseholdId(@Param("householdId") UUID householdId);
     
@@ -114,6 +228,110 @@ public interface PantryItemRepository extends JpaRepository<PantryItem, UUID> {
     @Query("SELECT SUM(p.quantity) FROM PantryItem p WHERE p.location.id = :locationId AND p.product.id = :productId")
     Integer sumQuantityByLocationAndProduct(@Param("locationId") UUID locationId, @Param("productId") UUID productId);
     
+    // Keyset pagination queries
+    @EntityGraph(PantryItem.WITH_DETAILS_GRAPH)
+    @Query("SELECT p FROM PantryItem p WHERE p.location.id = :locationId " +
+           SEEK_AFTER_NAME_CURSOR + ORDER_BY_NAME_CURSOR)
+    List<PantryItem> findPageByLocationId(
+            @Param("locationId") UUID locationId,
+            @Param("afterName") String afterName,
+            @Param("afterExpiration") LocalDate afterExpiration,
+            @Param("afterId") UUID afterId,
+            Limit limit);
+
+    @EntityGraph(PantryItem.WITH_DETAILS_GRAPH)
+    @Query("SELECT p FROM PantryItem p WHERE p.householdId = :householdId " +
+           SEEK_AFTER_NAME_CURSOR + ORDER_BY_NAME_CURSOR)
+    List<PantryItem> findPageByHouseholdId(
+            @Param("householdId") UUID householdId,
+            @Param("afterName") String afterName,
+            @Param("afterExpiration") LocalDate afterExpiration,
+            @Param("afterId") UUID afterId,
+            Limit limit);
+
+    @EntityGraph(PantryItem.WITH_DETAILS_GRAPH)
+    @Query("SELECT p FROM PantryItem p WHERE p.householdId = :householdId " +
+           SEARCH_PREDICATE + SEEK_AFTER_NAME_CURSOR + ORDER_BY_NAME_CURSOR)
+    List<PantryItem> searchPageInHousehold(
+            @Param("householdId") UUID householdId,
+            @Param("searchTerm") String searchTerm,
+            @Param("afterName") String afterName,
+            @Param("afterExpiration") LocalDate afterExpiration,
+            @Param("afterId") UUID afterId,
+            Limit limit);
+
+    @Query("SELECT COUNT(p) FROM PantryItem p WHERE p.location.household.id = :householdId " +
+           SEARCH_PREDICATE)
+    long countSearchItemsInHousehold(
+            @Param("householdId") UUID householdId,
+            @Param("searchTerm") String searchTerm);
+
+    /**
+     * Returns the IDs of one keyset page of trigram search results, in the order of
+     * {@link #searchPageInHousehold}. PostgreSQL only.
+     */
+    @Query(value = "SELECT p.id " + TRIGRAM_SEARCH_FROM + TRIGRAM_SEEK_AFTER_NAME_CURSOR +
+                   TRIGRAM_ORDER_BY_NAME_CURSOR + "LIMIT :limit",
+           nativeQuery = true)
+    List<UUID> searchTrigramPageIdsInHousehold(
+            @Param("householdId") UUID householdId,
+            @Param("searchTerm") String searchTerm,
+            @Param("afterName") String afterName,
+            @Param("afterExpiration") LocalDate afterExpiration,
+            @Param("afterId") UUID afterId,
+            @Param("limit") int limit);
+
+    @Query(value = "SELECT COUNT(*) " + TRIGRAM_SEARCH_FROM, nativeQuery = true)
+    long countTrigramSearchItemsInHousehold(
+            @Param("householdId") UUID householdId,
+            @Param("searchTerm") String searchTerm);
+
+    /**
+     * Keyset page of expiring items ordered by (expiration date, id).
+     */
+    @EntityGraph(PantryItem.WITH_DETAILS_GRAPH)
+    @Query("SELECT p FROM PantryItem p WHERE p.location.household.id = :householdId " +
+           "AND p.expirationDate BETWEEN :startDate AND :endDate " +
+           "AND (p.expirationDate > :afterExpiration OR (p.expirationDate = :afterExpiration AND p.id > :afterId)) " +
+           "ORDER BY p.expirationDate ASC, p.id ASC")
+    List<PantryItem> findExpiringPageInHousehold(
+            @Param("householdId") UUID householdId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate,
+            @Param("afterExpiration") LocalDate afterExpiration,
+            @Param("afterId") UUID afterId,
+            Limit limit);
+
+    @Query("SELECT COUNT(p) FROM PantryItem p WHERE p.location.household.id = :householdId " +
+           "AND p.expirationDate BETWEEN :startDate AND :endDate")
+    long countExpiringItemsInHouseholdBetweenDates(
+            @Param("householdId") UUID householdId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    /**
+     * Keyset page of low-stock items ordered by (quantity, product name, id).
+     */
+    @EntityGraph(PantryItem.WITH_DETAILS_GRAPH)
+    @Query("SELECT p FROM PantryItem p WHERE p.location.household.id = :householdId " +
+           "AND p.quantity <= :threshold " +
+           "AND (p.quantity > :afterQuantity OR (p.quantity = :afterQuantity AND (" +
+           NAME_SORT_KEY + " > :afterName OR (" + NAME_SORT_KEY + " = :afterName AND p.id > :afterId)))) " +
+           "ORDER BY p.quantity ASC, " + NAME_SORT_KEY + " ASC, p.id ASC")
+    List<PantryItem> findLowStockPageInHousehold(
+            @Param("householdId") UUID householdId,
+            @Param("threshold") Integer threshold,
+            @Param("afterQuantity") Integer afterQuantity,
+            @Param("afterName") String afterName,
+            @Param("afterId") UUID afterId,
+            Limit limit);
+
+    @Query("SELECT COUNT(p) FROM PantryItem p WHERE p.location.household.id = :householdId " +
+           "AND p.quantity <= :threshold")
+    long countLowStockItemsInHousehold(
+            @Param("householdId") UUID householdId,
+            @Param("threshold") Integer threshold);
+
     // Security check queries
     /**
      * Checks if a pantry item exists and the user has access to it through household membership.
@@ -127,4 +345,110 @@ public interface PantryItemRepository extends JpaRepository<PantryItem, UUID> {
     boolean existsByIdAndLocationHouseholdMembers_UserId(
             @Param("pantryItemId") UUID pantryItemId,
             @Param("userId") UUID userId);
+
+    /**
+     * Resolves, for every existing pantry item among the given IDs, whether the user has access to it
+     * through household membership. IDs that do not exist are absent from the result.
+     */
+    @Query("SELECT p.id AS id, CASE WHEN m.id IS NULL THEN false ELSE true END AS accessible, " +
+           "l.id AS locationId, l.household.id AS householdId " +
+           "FROM PantryItem p " +
+           "JOIN p.location l " +
+           "LEFT JOIN HouseholdMember m ON m.household = l.household AND m.user.id = :userId " +
+           "WHERE p.id IN :ids")
+    List<PantryItemAccess> findAccessByIdInAndUserId(
+            @Param("ids") Collection<UUID> ids,
+            @Param("userId") UUID userId);
+
+    /**
+     * Deletes the given pantry items with a single statement.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM PantryItem p WHERE p.id IN :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Copies the new name of a product to its pantry items, which are listed in name order.
+     *
+     * @param productName Name as stored by {@link PantryItem#sortName}
+     * @return Number of items updated
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE PantryItem p SET p.productName = :productName " +
+           "WHERE p.product.id = :productId AND p.productName <> :productName")
+    int updateProductName(
+            @Param("productId") UUID productId,
+            @Param("productName") String productName);
+
+    /**
+     * Adds a signed delta to the quantity of an item with a single statement, unless the
+     * resulting quantity would be negative.
+     *
+     * @return 1 if the item was adjusted, 0 if it does not exist or holds too few units
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE PantryItem p SET p.quantity = COALESCE(p.quantity, 0) + :delta, p.updatedAt = :updatedAt " +
+           "WHERE p.id = :id AND COALESCE(p.quantity, 0) + :delta >= 0")
+    int adjustQuantity(
+            @Param("id") UUID id,
+            @Param("delta") int delta,
+            @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * Reads the stock attributes of an item without loading the entity.
+     */
+    @Query("SELECT p.id AS id, l.household.id AS householdId, p.product.id AS productId, " +
+           "p.quantity AS quantity, p.expirationDate AS expirationDate " +
+           "FROM PantryItem p JOIN p.location l WHERE p.id = :id")
+    Optional<PantryItemStock> findStockById(@Param("id") UUID id);
+
+    /**
+     * Projection of the household pantry counters returned by {@link #aggregateStatisticsByHouseholdId}.
+     */
+    interface PantryStatistics {
+        long getTotalItems();
+        long getDistinctProducts();
+        long getLowStockCount();
+        long getExpiringCount();
+        long getNoExpirationDateCount();
+        long getZeroQuantityCount();
+    }
+
+    /**
+     * Projection of the threshold-dependent counters returned by {@link #countThresholdItemsByHouseholdId}.
+     */
+    interface PantryThresholdCounts {
+        long getLowStockCount();
+        long getExpiringCount();
+    }
+
+    /**
+     * Projection of the number of pantry items referencing a product.
+     */
+    interface ProductItemCount {
+        UUID getProductId();
+        long getItemCount();
+    }
+
+    /**
+     * Projection pairing a pantry item ID with the caller's access to it, along with the
+     * location and household the access was resolved through.
+     */
+    interface PantryItemAccess {
+        UUID getId();
+        boolean isAccessible();
+        UUID getLocationId();
+        UUID getHouseholdId();
+    }
+
+    /**
+     * Projection of an item's stock returned by {@link #findStockById}.
+     */
+    interface PantryItemStock {
+        UUID getId();
+        UUID getHouseholdId();
+        UUID getProductId();
+        Integer getQuantity();
+        LocalDate getExpirationDate();
+    }
 }
@@ -0,0 +1,172 @@
+package org.cubord.cubordbackend.repository;
+
+import org.cubord.cubordbackend.domain.PantryItem;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Set-based and locking operations for pantry items that bypass the persistence context.
+ *
+ * <p>These methods issue JDBC batch statements directly and do not run JPA lifecycle
+ * callbacks, so callers are responsible for assigning IDs and timestamps.</p>
+ */
+public interface PantryItemRepositoryCustom {
+
+    /**
+     * Inserts the given pantry items using a single JDBC batch.
+     *
+     * @param items Items with pre-assigned IDs, timestamps, product and location
+     */
+    void batchInsert(List<PantryItem> items);
+
+    /**
+     * Adds the given quantity to each pantry item using a single JDBC batch.
+     *
+     * @param quantityDeltas Map of pantry item ID to the quantity to add
+     */
+    void batchIncrementQuantities(Map<UUID, Integer> quantityDeltas);
+
+    /**
+     * Replaces the notes of each pantry item using a single JDBC batch.
+     *
+     * @param notes Map of pantry item ID to its new notes
+     */
+    void batchUpdateNotes(Map<UUID, String> notes);
+
+    /**
+     * Inserts the given item, or adds its quantity to the existing item with the same location,
+     * product, and expiration date, as one atomic operation.
+     *
+     * <p>On PostgreSQL this is a single {@code INSERT ... ON CONFLICT DO UPDATE} against the unique
+     * consolidation index, so concurrent calls never lose increments or create duplicates. Other
+     * databases lock the existing row before updating it; concurrent first inserts of the same key
+     * are only prevented where a matching unique constraint exists.</p>
+     *
+     * @param item Item with pre-assigned ID, timestamps, product and location
+     * @return The resulting row and whether it was newly inserted
+     */
+    ConsolidationResult insertOrConsolidate(PantryItem item);
+
+    /**
+     * Inserts or consolidates each of the given items as {@link #insertOrConsolidate} does, with
+     * one multi-row upsert per batch on PostgreSQL.
+     *
+     * <p>Items are written in consolidation key order, so concurrent batches lock shared items in
+     * the same order. No two items may share a location, product, and expiration date.</p>
+     *
+     * @param items Items with pre-assigned IDs, timestamps, product and location
+     * @return The outcome for each item, in the order of {@code items}
+     */
+    List<ConsolidationResult> batchInsertOrConsolidate(List<PantryItem> items);
+
+    /**
+     * Finds another pantry item with the given location, product, and expiration date, which an
+     * item changed to that key would collide with in the unique consolidation index.
+     *
+     * <p>Reads committed rows directly, so pending changes of the persistence context are not
+     * flushed by the lookup.</p>
+     *
+     * @param id             ID of the item being changed, excluded from the lookup
+     * @param locationId     Location of the changed item
+     * @param productId      Product of the changed item
+     * @param expirationDate Expiration date of the changed item, or null if it has none
+     * @return ID of the colliding item, if any
+     */
+    Optional<UUID> findConsolidationConflict(UUID id, UUID locationId, UUID productId, LocalDate expirationDate);
+
+    /**
+     * Locks and returns every variant of a product in a location, in the order stock is consumed:
+     * earliest expiration first, items without an expiration date last.
+     *
+     * @param locationId Location holding the variants
+     * @param productId  Product of the variants
+     * @return The locked variants in consumption order
+     */
+    List<StockEntry> findStockForUpdate(UUID locationId, UUID productId);
+
+    /**
+     * Returns the given pantry items without locking them.
+     *
+     * @param ids IDs of the items; IDs that do not exist are absent from the result
+     * @return The items as currently committed
+     */
+    List<ItemPlacement> findPlacements(Collection<UUID> ids);
+
+    /**
+     * Locks the given locations in ascending ID order, so transactions that lock the items of
+     * several locations after this call cannot deadlock one another.
+     *
+     * <p>On PostgreSQL the lock is {@code FOR NO KEY UPDATE}, which does not block inserts and
+     * updates of pantry items referencing the locations. Other databases lock {@code FOR UPDATE}.</p>
+     *
+     * @param locationIds IDs of the locations to lock
+     */
+    void lockLocations(Collection<UUID> locationIds);
+
+    /**
+     * Locks and returns the given pantry items.
+     *
+     * @param ids IDs of the items; IDs that do not exist are absent from the result
+     * @return The locked items
+     */
+    List<ItemPlacement> findPlacementsForUpdate(Collection<UUID> ids);
+
+    /**
+     * Locks and returns the items in a location, optionally restricted to some products.
+     *
+     * @param locationId Location holding the items
+     * @param productIds Products to restrict to, or null for every item in the location
+     * @return The locked items
+     */
+    List<ItemPlacement> findPlacementsAtLocationForUpdate(UUID locationId, Collection<UUID> productIds);
+
+    /**
+     * Moves the given pantry items to another location with set-based updates.
+     *
+     * @param ids        IDs of the items to move
+     * @param locationId Destination location
+     * @param updatedAt  Update timestamp to record on the moved items
+     * @return Number of items moved
+     */
+    int relocate(Collection<UUID> ids, UUID locationId, LocalDateTime updatedAt);
+
+    /**
+     * Outcome of {@link #insertOrConsolidate}.
+     *
+     * @param id       ID of the inserted or consolidated item
+     * @param quantity Quantity of the item after the operation
+     * @param inserted Whether a new item was inserted
+     */
+    record ConsolidationResult(UUID id, int quantity, boolean inserted) {
+    }
+
+    /**
+     * Stock of one product variant returned by {@link #findStockForUpdate}.
+     *
+     * @param id             ID of the pantry item
+     * @param quantity       Current quantity of the item
+     * @param expirationDate Expiration date of the item, or null if it has none
+     */
+    record StockEntry(UUID id, int quantity, LocalDate expirationDate) {
+    }
+
+    /**
+     * Placement and stock of a pantry item returned by the locking placement lookups.
+     *
+     * @param id             ID of the pantry item
+     * @param locationId     Location holding the item
+     * @param productId      Product of the item
+     * @param quantity       Current quantity of the item
+     * @param expirationDate Expiration date of the item, or null if it has none
+     * @param notes          Notes of the item, or null if it has none
+     */
+    record ItemPlacement(UUID id, UUID locationId, UUID productId, int quantity, LocalDate expirationDate,
+                         String notes) {
+    }
+}
@@ -0,0 +1,380 @@
+package org.cubord.cubordbackend.repository;
+
+import org.cubord.cubordbackend.domain.PantryItem;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * JDBC implementation of {@link PantryItemRepositoryCustom}.
+ *
+ * <p>Runs on the connection bound to the current JPA transaction, so the batches
+ * commit or roll back together with the surrounding service call. The consolidating
+ * upsert uses PostgreSQL's {@code ON CONFLICT} and falls back to a locking
+ * read-modify-write on other databases.</p>
+ */
+public class PantryItemRepositoryImpl implements PantryItemRepositoryCustom {
+
+    private static final int BATCH_SIZE = 100;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO pantry_items (id, product_id, location_id, expiration_date, quantity, " +
+            "unit_of_measure, notes, created_at, updated_at, household_id, product_name) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INCREMENT_SQL =
+            "UPDATE pantry_items SET quantity = COALESCE(quantity, 0) + ?, updated_at = ? WHERE id = ?";
+
+    private static final String UPDATE_NOTES_SQL =
+            "UPDATE pantry_items SET notes = ?, updated_at = ? WHERE id = ?";
+
+    // Conflict target matching uq_pantry_items_location_product_expiration; xmax is 0 only for fresh inserts
+    private static final String UPSERT_SQL =
+            "INSERT INTO pantry_items (id, product_id, location_id, expiration_date, quantity, " +
+            "unit_of_measure, notes, created_at, updated_at, household_id, product_name) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (location_id, product_id, COALESCE(expiration_date, DATE '9999-12-31')) " +
+            "DO UPDATE SET quantity = COALESCE(pantry_items.quantity, 0) + EXCLUDED.quantity, " +
+            "updated_at = EXCLUDED.updated_at " +
+            "RETURNING id, quantity, (xmax = 0) AS inserted";
+
+    // Multi-row form of UPSERT_SQL; rows are matched back to their items by consolidation key
+    private static final String BATCH_UPSERT_PREFIX_SQL =
+            "INSERT INTO pantry_items (id, product_id, location_id, expiration_date, quantity, " +
+            "unit_of_measure, notes, created_at, updated_at, household_id, product_name) VALUES ";
+
+    private static final String BATCH_UPSERT_ROW_SQL = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String BATCH_UPSERT_SUFFIX_SQL =
+            " ON CONFLICT (location_id, product_id, COALESCE(expiration_date, DATE '9999-12-31')) " +
+            "DO UPDATE SET quantity = COALESCE(pantry_items.quantity, 0) + EXCLUDED.quantity, " +
+            "updated_at = EXCLUDED.updated_at " +
+            "RETURNING id, location_id, product_id, expiration_date, quantity, (xmax = 0) AS inserted";
+
+    private static final int INSERT_COLUMNS = 11;
+
+    // Upserts take row locks in key order, so concurrent batches covering the same items cannot deadlock
+    private static final Comparator<PantryItem> CONSOLIDATION_ORDER = Comparator
+            .comparing((PantryItem item) -> item.getLocation().getId())
+            .thenComparing(item -> item.getProduct().getId())
+            .thenComparing(PantryItem::getExpirationDate, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private static final String LOCK_CONSOLIDATION_TARGET_SQL =
+            "SELECT id, quantity FROM pantry_items WHERE location_id = ? AND product_id = ? " +
+            "AND expiration_date = ? FOR UPDATE";
+
+    private static final String LOCK_CONSOLIDATION_TARGET_WITHOUT_DATE_SQL =
+            "SELECT id, quantity FROM pantry_items WHERE location_id = ? AND product_id = ? " +
+            "AND expiration_date IS NULL FOR UPDATE";
+
+    // Matches the expression of uq_pantry_items_location_product_expiration, so the index serves the lookup
+    private static final String CONSOLIDATION_CONFLICT_SQL =
+            "SELECT id FROM pantry_items WHERE location_id = ? AND product_id = ? " +
+            "AND COALESCE(expiration_date, DATE '9999-12-31') = ? AND id <> ?";
+
+    private static final LocalDate NO_EXPIRATION_DATE = LocalDate.of(9999, 12, 31);
+
+    private static final String LOCK_STOCK_SQL =
+            "SELECT id, quantity, expiration_date FROM pantry_items WHERE location_id = ? AND product_id = ? " +
+            "ORDER BY expiration_date ASC NULLS LAST, id FOR UPDATE";
+
+    // IN lists are split so statement parameter counts stay bounded
+    private static final int IN_CLAUSE_SIZE = 1_000;
+
+    private static final String PLACEMENTS_SQL =
+            "SELECT id, location_id, product_id, quantity, expiration_date, notes FROM pantry_items " +
+            "WHERE id IN (:ids)";
+
+    // Locations are only locked against concurrent item moves; NO KEY UPDATE still lets other
+    // transactions insert items referencing them, which take a KEY SHARE lock on the location
+    private static final String LOCK_LOCATIONS_SQL =
+            "SELECT id FROM locations WHERE id IN (:ids) ORDER BY id FOR NO KEY UPDATE";
+
+    private static final String LOCK_LOCATIONS_FALLBACK_SQL =
+            "SELECT id FROM locations WHERE id IN (:ids) ORDER BY id FOR UPDATE";
+
+    private static final String LOCK_PLACEMENTS_SQL =
+            "SELECT id, location_id, product_id, quantity, expiration_date, notes FROM pantry_items " +
+            "WHERE id IN (:ids) FOR UPDATE";
+
+    private static final String LOCK_LOCATION_PLACEMENTS_SQL =
+            "SELECT id, location_id, product_id, quantity, expiration_date, notes FROM pantry_items " +
+            "WHERE location_id = :locationId FOR UPDATE";
+
+    private static final String LOCK_LOCATION_PRODUCT_PLACEMENTS_SQL =
+            "SELECT id, location_id, product_id, quantity, expiration_date, notes FROM pantry_items " +
+            "WHERE location_id = :locationId AND product_id IN (:productIds) FOR UPDATE";
+
+    private static final String RELOCATE_SQL =
+            "UPDATE pantry_items SET location_id = :locationId, " +
+            "household_id = (SELECT household_id FROM locations WHERE id = :locationId), " +
+            "updated_at = :updatedAt WHERE id IN (:ids)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    private volatile Boolean postgres;
+
+    public PantryItemRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    @Override
+    public void batchInsert(List<PantryItem> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, items, BATCH_SIZE, PantryItemRepositoryImpl::setInsertParameters);
+    }
+
+    @Override
+    public void batchIncrementQuantities(Map<UUID, Integer> quantityDeltas) {
+        if (quantityDeltas.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Map.Entry<UUID, Integer>> entries = new ArrayList<>(quantityDeltas.entrySet());
+        jdbcTemplate.batchUpdate(INCREMENT_SQL, entries, BATCH_SIZE, (ps, entry) -> {
+            ps.setInt(1, entry.getValue());
+            ps.setObject(2, now, Types.TIMESTAMP);
+            ps.setObject(3, entry.getKey());
+        });
+    }
+
+    @Override
+    public void batchUpdateNotes(Map<UUID, String> notes) {
+        if (notes.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Map.Entry<UUID, String>> entries = new ArrayList<>(notes.entrySet());
+        jdbcTemplate.batchUpdate(UPDATE_NOTES_SQL, entries, BATCH_SIZE, (ps, entry) -> {
+            ps.setString(1, entry.getValue());
+            ps.setObject(2, now, Types.TIMESTAMP);
+            ps.setObject(3, entry.getKey());
+        });
+    }
+
+    @Override
+    public ConsolidationResult insertOrConsolidate(PantryItem item) {
+        if (isPostgres()) {
+            return jdbcTemplate.query(UPSERT_SQL, ps -> setInsertParameters(ps, item),
+                    (rs, rowNum) -> new ConsolidationResult(
+                            rs.getObject("id", UUID.class), rs.getInt("quantity"), rs.getBoolean("inserted")))
+                    .get(0);
+        }
+
+        List<ConsolidationResult> existing = item.getExpirationDate() != null
+                ? jdbcTemplate.query(LOCK_CONSOLIDATION_TARGET_SQL, this::mapLockedRow,
+                        item.getLocation().getId(), item.getProduct().getId(), item.getExpirationDate())
+                : jdbcTemplate.query(LOCK_CONSOLIDATION_TARGET_WITHOUT_DATE_SQL, this::mapLockedRow,
+                        item.getLocation().getId(), item.getProduct().getId());
+
+        if (existing.isEmpty()) {
+            batchInsert(List.of(item));
+            return new ConsolidationResult(item.getId(), item.getQuantity(), true);
+        }
+
+        ConsolidationResult target = existing.get(0);
+        jdbcTemplate.update(INCREMENT_SQL, ps -> {
+            ps.setInt(1, item.getQuantity());
+            ps.setObject(2, item.getUpdatedAt(), Types.TIMESTAMP);
+            ps.setObject(3, target.id());
+        });
+        return new ConsolidationResult(target.id(), target.quantity() + item.getQuantity(), false);
+    }
+
+    @Override
+    public List<ConsolidationResult> batchInsertOrConsolidate(List<PantryItem> items) {
+        List<PantryItem> ordered = new ArrayList<>(items);
+        ordered.sort(CONSOLIDATION_ORDER);
+
+        Map<ConsolidationTarget, ConsolidationResult> results = new HashMap<>();
+        if (isPostgres()) {
+            for (int start = 0; start < ordered.size(); start += BATCH_SIZE) {
+                upsertRows(ordered.subList(start, Math.min(start + BATCH_SIZE, ordered.size())), results);
+            }
+        } else {
+            for (PantryItem item : ordered) {
+                results.put(ConsolidationTarget.of(item), insertOrConsolidate(item));
+            }
+        }
+
+        return items.stream()
+                .map(item -> results.get(ConsolidationTarget.of(item)))
+                .toList();
+    }
+
+    @Override
+    public Optional<UUID> findConsolidationConflict(UUID id, UUID locationId, UUID productId,
+                                                    LocalDate expirationDate) {
+        return jdbcTemplate.queryForList(CONSOLIDATION_CONFLICT_SQL, UUID.class, locationId, productId,
+                expirationDate != null ? expirationDate : NO_EXPIRATION_DATE, id).stream().findFirst();
+    }
+
+    @Override
+    public List<StockEntry> findStockForUpdate(UUID locationId, UUID productId) {
+        return jdbcTemplate.query(LOCK_STOCK_SQL, (rs, rowNum) -> new StockEntry(
+                        rs.getObject("id", UUID.class),
+                        rs.getInt("quantity"),
+                        rs.getObject("expiration_date", LocalDate.class)),
+                locationId, productId);
+    }
+
+    @Override
+    public List<ItemPlacement> findPlacements(Collection<UUID> ids) {
+        List<ItemPlacement> placements = new ArrayList<>();
+        for (List<UUID> chunk : chunks(ids)) {
+            placements.addAll(namedJdbcTemplate.query(PLACEMENTS_SQL,
+                    new MapSqlParameterSource("ids", chunk), this::mapPlacement));
+        }
+        return placements;
+    }
+
+    @Override
+    public void lockLocations(Collection<UUID> locationIds) {
+        // One statement keeps the ORDER BY global, so lock order does not depend on chunking
+        namedJdbcTemplate.queryForList(isPostgres() ? LOCK_LOCATIONS_SQL : LOCK_LOCATIONS_FALLBACK_SQL,
+                new MapSqlParameterSource("ids", new ArrayList<>(locationIds)), UUID.class);
+    }
+
+    @Override
+    public List<ItemPlacement> findPlacementsForUpdate(Collection<UUID> ids) {
+        List<ItemPlacement> placements = new ArrayList<>();
+        for (List<UUID> chunk : chunks(ids)) {
+            placements.addAll(namedJdbcTemplate.query(LOCK_PLACEMENTS_SQL,
+                    new MapSqlParameterSource("ids", chunk), this::mapPlacement));
+        }
+        return placements;
+    }
+
+    @Override
+    public List<ItemPlacement> findPlacementsAtLocationForUpdate(UUID locationId, Collection<UUID> productIds) {
+        if (productIds == null) {
+            return namedJdbcTemplate.query(LOCK_LOCATION_PLACEMENTS_SQL,
+                    new MapSqlParameterSource("locationId", locationId), this::mapPlacement);
+        }
+
+        List<ItemPlacement> placements = new ArrayList<>();
+        for (List<UUID> chunk : chunks(productIds)) {
+            placements.addAll(namedJdbcTemplate.query(LOCK_LOCATION_PRODUCT_PLACEMENTS_SQL,
+                    new MapSqlParameterSource("locationId", locationId).addValue("productIds", chunk),
+                    this::mapPlacement));
+        }
+        return placements;
+    }
+
+    @Override
+    public int relocate(Collection<UUID> ids, UUID locationId, LocalDateTime updatedAt) {
+        int relocated = 0;
+        for (List<UUID> chunk : chunks(ids)) {
+            relocated += namedJdbcTemplate.update(RELOCATE_SQL, new MapSqlParameterSource("ids", chunk)
+                    .addValue("locationId", locationId)
+                    .addValue("updatedAt", updatedAt, Types.TIMESTAMP));
+        }
+        return relocated;
+    }
+
+    private ItemPlacement mapPlacement(ResultSet rs, int rowNum) throws SQLException {
+        return new ItemPlacement(
+                rs.getObject("id", UUID.class),
+                rs.getObject("location_id", UUID.class),
+                rs.getObject("product_id", UUID.class),
+                rs.getInt("quantity"),
+                rs.getObject("expiration_date", LocalDate.class),
+                rs.getString("notes"));
+    }
+
+    private static List<List<UUID>> chunks(Collection<UUID> ids) {
+        List<UUID> all = new ArrayList<>(ids);
+        List<List<UUID>> chunks = new ArrayList<>();
+        for (int start = 0; start < all.size(); start += IN_CLAUSE_SIZE) {
+            chunks.add(all.subList(start, Math.min(start + IN_CLAUSE_SIZE, all.size())));
+        }
+        return chunks;
+    }
+
+    private static void setInsertParameters(PreparedStatement ps, PantryItem item) throws SQLException {
+        setInsertParameters(ps, item, 0);
+    }
+
+    private static void setInsertParameters(PreparedStatement ps, PantryItem item, int offset) throws SQLException {
+        ps.setObject(offset + 1, item.getId());
+        ps.setObject(offset + 2, item.getProduct().getId());
+        ps.setObject(offset + 3, item.getLocation().getId());
+        ps.setObject(offset + 4, item.getExpirationDate(), Types.DATE);
+        ps.setObject(offset + 5, item.getQuantity(), Types.INTEGER);
+        ps.setString(offset + 6, item.getUnitOfMeasure());
+        ps.setString(offset + 7, item.getNotes());
+        ps.setObject(offset + 8, item.getCreatedAt(), Types.TIMESTAMP);
+        ps.setObject(offset + 9, item.getUpdatedAt(), Types.TIMESTAMP);
+        ps.setObject(offset + 10, item.getLocation().getHousehold() != null
+                ? item.getLocation().getHousehold().getId() : null);
+        ps.setString(offset + 11, PantryItem.sortName(item.getProduct().getName()));
+    }
+
+    private void upsertRows(List<PantryItem> rows, Map<ConsolidationTarget, ConsolidationResult> results) {
+        String sql = BATCH_UPSERT_PREFIX_SQL
+                + String.join(", ", Collections.nCopies(rows.size(), BATCH_UPSERT_ROW_SQL))
+                + BATCH_UPSERT_SUFFIX_SQL;
+        jdbcTemplate.query(sql, ps -> {
+            for (int row = 0; row < rows.size(); row++) {
+                setInsertParameters(ps, rows.get(row), row * INSERT_COLUMNS);
+            }
+        }, rs -> {
+            results.put(
+                    new ConsolidationTarget(
+                            rs.getObject("location_id", UUID.class),
+                            rs.getObject("product_id", UUID.class),
+                            rs.getObject("expiration_date", LocalDate.class)),
+                    new ConsolidationResult(
+                            rs.getObject("id", UUID.class), rs.getInt("quantity"), rs.getBoolean("inserted")));
+        });
+    }
+
+    private ConsolidationResult mapLockedRow(ResultSet rs, int rowNum) throws SQLException {
+        return new ConsolidationResult(rs.getObject("id", UUID.class), rs.getInt("quantity"), false);
+    }
+
+    private boolean isPostgres() {
+        Boolean result = postgres;
+        if (result == null) {
+            result = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName()));
+            postgres = result;
+        }
+        return Boolean.TRUE.equals(result);
+    }
+
+    /**
+     * Location, product, and expiration date under which items are consolidated.
+     */
+    private record ConsolidationTarget(UUID locationId, UUID productId, LocalDate expirationDate) {
+
+        private static ConsolidationTarget of(PantryItem item) {
+            return new ConsolidationTarget(
+                    item.getLocation().getId(), item.getProduct().getId(), item.getExpirationDate());
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package org.cubord.cubordbackend.repository;
+
+import org.cubord.cubordbackend.domain.ProductImportCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ProductImportCheckpointRepository extends JpaRepository<ProductImportCheckpoint, String> {
+}
@@ -1,25 +1,79 @@
 package org.cubord.cubordbackend.repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.cubord.cubordbackend.domain.Product;
 import org.cubord.cubordbackend.domain.ProductDataSource;
+import org.cubord.cubordbackend.util.Gtin;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, UUID> {
+public interface ProductRepository extends JpaRepository<Product, UUID>, ProductRepositoryCustom {
     
     // Basic queries
     Optional<Product> findByUpc(String upc);
     
+    List<Product> findByUpcIn(Collection<String> upcs);
+
+    Optional<Product> findByGtin(Long gtin);
+
+    List<Product> findByGtinIn(Collection<Long> gtins);
+
+    /**
+     * Finds the product of a barcode in any of its forms (UPC-A, EAN-13, EAN-8, UPC-E or
+     * GTIN-14) with one probe of the unique GTIN index. Codes that are not valid GTINs are
+     * matched by their exact UPC.
+     */
+    default Optional<Product> findByCode(String code) {
+        Long gtin = Gtin.normalize(code);
+        if (gtin != null) {
+            return findByGtin(gtin);
+        }
+        return code != null ? findByUpc(code.trim()) : Optional.empty();
+    }
+
+    /**
+     * Finds the products of several barcodes like {@link #findByCode}, with one query per kind of
+     * code. Match results to codes with {@link Gtin#canonical}.
+     */
+    default List<Product> findByCodeIn(Collection<String> codes) {
+        Set<Long> gtins = new HashSet<>();
+        Set<String> otherCodes = new HashSet<>();
+        for (String code : codes) {
+            Long gtin = Gtin.normalize(code);
+            if (gtin != null) {
+                gtins.add(gtin);
+            } else if (code != null) {
+                otherCodes.add(code.trim());
+            }
+        }
+        List<Product> products = new ArrayList<>();
+        if (!gtins.isEmpty()) {
+            products.addAll(findByGtinIn(gtins));
+        }
+        if (!otherCodes.isEmpty()) {
+            products.addAll(findByUpcIn(otherCodes));
+        }
+        return products;
+    }
+    
     List<Product> findByCategory(String category);
     
     List<Product> findByBrand(String brand);
@@ -36,6 +90,21 @@ public interface ProductRepository extends JpaRepository<Product, UUID> {
     List<Product> findByRequiresApiRetryTrueAndLastRetryAttemptBefore(LocalDateTime cutoffTime);
     
     List<Product> findByRequiresApiRetryTrueAndLastRetryAttemptIsNull();
+
+    /**
+     * Locks up to {@code limit} products that are due for API enrichment, oldest due first.
+     * Rows locked by another transaction are skipped rather than waited for, so concurrent
+     * enrichment workers claim disjoint chunks.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2")) // -2: SKIP LOCKED
+    @Query("SELECT p FROM Product p WHERE p.requiresApiRetry = true AND p.retryAttempts < :maxAttempts " +
+           "AND (p.nextRetryAt IS NULL OR p.nextRetryAt <= :now) " +
+           "ORDER BY p.nextRetryAt ASC NULLS FIRST, p.id ASC")
+    List<Product> findDueForEnrichmentForUpdate(
+            @Param("maxAttempts") int maxAttempts,
+            @Param("now") LocalDateTime now,
+            Limit limit);
     
     // Count queries
     long countByRequiresApiRetryTrue();
@@ -0,0 +1,68 @@
+package org.cubord.cubordbackend.repository;
+
+import org.cubord.cubordbackend.domain.Product;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Bulk loading of products that bypasses the persistence context.
+ *
+ * <p>These methods issue JDBC statements directly and do not run JPA lifecycle callbacks or
+ * update cached products; callers invalidate caches themselves.</p>
+ */
+public interface ProductRepositoryCustom {
+
+    /**
+     * Product data from an external catalog, keyed by UPC.
+     */
+    record CatalogEntry(String upc, String name, String brand, String category,
+                        String imageUrl, String imageSmallUrl) {
+    }
+
+    /**
+     * Number of products an upsert created and updated.
+     */
+    record CatalogUpsertResult(int inserted, int updated) {
+    }
+
+    /**
+     * GTIN of a product and its ID.
+     */
+    record GtinEntry(long gtin, UUID productId) {
+    }
+
+    /**
+     * Creates or updates one product per entry, matched by the GTIN of its UPC, as
+     * {@link org.cubord.cubordbackend.domain.ProductDataSource#OPEN_FOOD_FACTS} products that need
+     * no API enrichment. Values missing from an entry keep the existing product's value. Existing
+     * products from another source that do not await API data, such as manual and hybrid products,
+     * only get their missing fields filled and keep their data source. Entries whose UPC is not a
+     * valid GTIN are skipped. The GTINs of the entries are also removed from {@code unknown_upcs}.
+     *
+     * <p>On PostgreSQL the entries are streamed with {@code COPY} into a temporary staging table
+     * and merged with two set-based statements; other databases use JDBC batches.</p>
+     *
+     * @param entries Entries with distinct GTINs
+     * @return Number of products created and updated
+     */
+    CatalogUpsertResult upsertCatalogEntries(List<CatalogEntry> entries);
+
+    /**
+     * Inserts new products using JDBC batches, keyed by the GTINs of their UPCs, and removes them
+     * from {@code unknown_upcs}. Does not check for existing products with the same GTINs.
+     *
+     * @param products Products with pre-assigned IDs and timestamps
+     */
+    void batchInsert(List<Product> products);
+
+    /**
+     * Returns the GTINs and IDs of products in ascending GTIN order, starting after a GTIN.
+     * Pages follow the unique GTIN index, so reading the whole table keeps no cursor open.
+     *
+     * @param afterGtin GTIN to start after; -1 starts at the first product
+     * @param limit     Maximum number of entries
+     * @return Up to {@code limit} entries; fewer means the end of the table was reached
+     */
+    List<GtinEntry> findGtinEntriesAfter(long afterGtin, int limit);
+}
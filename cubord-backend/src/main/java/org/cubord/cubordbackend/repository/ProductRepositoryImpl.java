@@ -0,0 +1,287 @@
+package org.cubord.cubordbackend.repository;
+
+import org.cubord.cubordbackend.domain.Product;
+import org.cubord.cubordbackend.domain.ProductDataSource;
+import org.cubord.cubordbackend.util.Gtin;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * JDBC implementation of {@link ProductRepositoryCustom}.
+ *
+ * <p>Runs on the connection bound to the current JPA transaction, so a loaded chunk commits or
+ * rolls back together with the surrounding service call.</p>
+ */
+public class ProductRepositoryImpl implements ProductRepositoryCustom {
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String CATALOG_SOURCE = "'" + ProductDataSource.OPEN_FOOD_FACTS.name() + "'";
+
+    // Emptied by every commit, and private to the connection, so concurrent loads never see each other's rows
+    private static final String CREATE_STAGING_SQL =
+            "CREATE TEMPORARY TABLE IF NOT EXISTS product_catalog_staging (" +
+            "gtin BIGINT NOT NULL, upc VARCHAR(255) NOT NULL, name VARCHAR(255), brand VARCHAR(255), category VARCHAR(255), " +
+            "image_url VARCHAR(255), image_small_url VARCHAR(255)) ON COMMIT DELETE ROWS";
+
+    private static final String COPY_STAGING_SQL =
+            "COPY product_catalog_staging (gtin, upc, name, brand, category, image_url, image_small_url) " +
+            "FROM STDIN WITH (FORMAT csv)";
+
+    // Catalog data replaces products that came from it or still await API data; others only get gaps filled
+    private static final String CATALOG_OWNED =
+            "(p.data_source = " + CATALOG_SOURCE + " OR p.requires_api_retry = TRUE)";
+
+    private static final String MERGE_UPDATE_SQL =
+            "UPDATE products p SET " + catalogFields("s.name", "s.brand", "s.category", "s.image_url",
+            "s.image_small_url") + ", updated_at = ? FROM product_catalog_staging s WHERE p.gtin = s.gtin";
+
+    // Pantry items keep a copy of their product's name as listing sort key
+    private static final String MERGE_SYNC_PANTRY_NAMES_SQL =
+            "UPDATE pantry_items i SET product_name = COALESCE(p.name, '') " +
+            "FROM products p JOIN product_catalog_staging s ON s.gtin = p.gtin " +
+            "WHERE i.product_id = p.id AND i.product_name <> COALESCE(p.name, '')";
+
+    private static final String MERGE_INSERT_SQL =
+            "INSERT INTO products (id, upc, gtin, name, brand, category, image_url, image_small_url, data_source, " +
+            "requires_api_retry, retry_attempts, created_at, updated_at) " +
+            "SELECT gen_random_uuid(), s.upc, s.gtin, s.name, s.brand, s.category, s.image_url, s.image_small_url, " +
+            CATALOG_SOURCE + ", FALSE, 0, ?, ? FROM product_catalog_staging s " +
+            "WHERE NOT EXISTS (SELECT 1 FROM products p WHERE p.gtin = s.gtin)";
+
+    private static final String MERGE_FORGET_UNKNOWN_SQL =
+            "DELETE FROM unknown_upcs u USING product_catalog_staging s " +
+            "WHERE u.upc = LPAD(s.gtin::text, " + Gtin.LENGTH + ", '0')";
+
+    private static final String UPDATE_SQL =
+            "UPDATE products p SET " + catalogFields("?", "?", "?", "?", "?") + ", updated_at = ? WHERE p.gtin = ?";
+
+    private static final String SYNC_PANTRY_NAMES_SQL =
+            "UPDATE pantry_items SET product_name = " +
+            "COALESCE((SELECT p.name FROM products p WHERE p.id = pantry_items.product_id), '') " +
+            "WHERE product_id IN (SELECT id FROM products WHERE gtin = ?)";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO products (id, upc, gtin, name, brand, category, image_url, image_small_url, data_source, " +
+            "requires_api_retry, retry_attempts, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, " + CATALOG_SOURCE + ", FALSE, 0, ?, ?)";
+
+    private static final String INSERT_PRODUCT_SQL =
+            "INSERT INTO products (id, upc, gtin, name, brand, category, default_expiration_days, image_url, " +
+            "image_small_url, data_source, requires_api_retry, retry_attempts, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String FORGET_UNKNOWN_SQL = "DELETE FROM unknown_upcs WHERE upc = ?";
+
+    private static final String GTIN_PAGE_SQL =
+            "SELECT gtin, id FROM products WHERE gtin > ? ORDER BY gtin LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile Boolean postgres;
+
+    public ProductRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public CatalogUpsertResult upsertCatalogEntries(List<CatalogEntry> entries) {
+        List<KeyedEntry> keyed = new ArrayList<>(entries.size());
+        for (CatalogEntry entry : entries) {
+            Long gtin = Gtin.normalize(entry.upc());
+            if (gtin != null) {
+                keyed.add(new KeyedEntry(gtin, entry));
+            }
+        }
+        if (keyed.isEmpty()) {
+            return new CatalogUpsertResult(0, 0);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        return isPostgres() ? copyAndMerge(keyed, now) : batchUpsert(keyed, now);
+    }
+
+    @Override
+    public void batchInsert(List<Product> products) {
+        if (products.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_PRODUCT_SQL, products, BATCH_SIZE, (ps, product) -> {
+            ps.setObject(1, product.getId());
+            ps.setString(2, product.getUpc());
+            ps.setObject(3, Gtin.normalize(product.getUpc()), Types.BIGINT);
+            ps.setString(4, product.getName());
+            ps.setString(5, product.getBrand());
+            ps.setString(6, product.getCategory());
+            ps.setObject(7, product.getDefaultExpirationDays(), Types.INTEGER);
+            ps.setString(8, product.getImageUrl());
+            ps.setString(9, product.getImageSmallUrl());
+            ps.setString(10, product.getDataSource() != null ? product.getDataSource().name() : null);
+            ps.setObject(11, product.getRequiresApiRetry(), Types.BOOLEAN);
+            ps.setObject(12, product.getRetryAttempts(), Types.INTEGER);
+            ps.setObject(13, product.getCreatedAt(), Types.TIMESTAMP);
+            ps.setObject(14, product.getUpdatedAt(), Types.TIMESTAMP);
+        });
+        jdbcTemplate.batchUpdate(FORGET_UNKNOWN_SQL, products, BATCH_SIZE,
+                (ps, product) -> ps.setString(1, Gtin.canonical(product.getUpc())));
+    }
+
+    @Override
+    public List<GtinEntry> findGtinEntriesAfter(long afterGtin, int limit) {
+        return jdbcTemplate.query(GTIN_PAGE_SQL,
+                (rs, rowNum) -> new GtinEntry(rs.getLong("gtin"), rs.getObject("id", UUID.class)),
+                afterGtin, limit);
+    }
+
+    private CatalogUpsertResult copyAndMerge(List<KeyedEntry> entries, LocalDateTime now) {
+        return jdbcTemplate.execute((ConnectionCallback<CatalogUpsertResult>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(CREATE_STAGING_SQL);
+            }
+            try {
+                connection.unwrap(PGConnection.class).getCopyAPI()
+                        .copyIn(COPY_STAGING_SQL, new StringReader(toCsv(entries)));
+            } catch (IOException e) {
+                throw new SQLException("Failed to copy catalog entries into the staging table", e);
+            }
+
+            int updated;
+            try (PreparedStatement update = connection.prepareStatement(MERGE_UPDATE_SQL)) {
+                update.setObject(1, now, Types.TIMESTAMP);
+                updated = update.executeUpdate();
+            }
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate(MERGE_SYNC_PANTRY_NAMES_SQL);
+            }
+            int inserted;
+            try (PreparedStatement insert = connection.prepareStatement(MERGE_INSERT_SQL)) {
+                insert.setObject(1, now, Types.TIMESTAMP);
+                insert.setObject(2, now, Types.TIMESTAMP);
+                inserted = insert.executeUpdate();
+            }
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate(MERGE_FORGET_UNKNOWN_SQL);
+            }
+            return new CatalogUpsertResult(inserted, updated);
+        });
+    }
+
+    private CatalogUpsertResult batchUpsert(List<KeyedEntry> entries, LocalDateTime now) {
+        int[][] updateCounts = jdbcTemplate.batchUpdate(UPDATE_SQL, entries, BATCH_SIZE, (ps, keyed) -> {
+            CatalogEntry entry = keyed.entry();
+            ps.setString(1, entry.name());
+            ps.setString(2, entry.brand());
+            ps.setString(3, entry.category());
+            ps.setString(4, entry.imageUrl());
+            ps.setString(5, entry.imageSmallUrl());
+            ps.setObject(6, now, Types.TIMESTAMP);
+            ps.setLong(7, keyed.gtin());
+        });
+
+        List<KeyedEntry> missing = new ArrayList<>();
+        List<KeyedEntry> updated = new ArrayList<>();
+        int index = 0;
+        for (int[] batch : updateCounts) {
+            for (int count : batch) {
+                if (count == 0) {
+                    missing.add(entries.get(index));
+                } else {
+                    updated.add(entries.get(index));
+                }
+                index++;
+            }
+        }
+
+        jdbcTemplate.batchUpdate(SYNC_PANTRY_NAMES_SQL, updated, BATCH_SIZE,
+                (ps, keyed) -> ps.setLong(1, keyed.gtin()));
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, missing, BATCH_SIZE, (ps, keyed) -> {
+            CatalogEntry entry = keyed.entry();
+            ps.setObject(1, UUID.randomUUID());
+            ps.setString(2, entry.upc());
+            ps.setLong(3, keyed.gtin());
+            ps.setString(4, entry.name());
+            ps.setString(5, entry.brand());
+            ps.setString(6, entry.category());
+            ps.setString(7, entry.imageUrl());
+            ps.setString(8, entry.imageSmallUrl());
+            ps.setObject(9, now, Types.TIMESTAMP);
+            ps.setObject(10, now, Types.TIMESTAMP);
+        });
+        jdbcTemplate.batchUpdate(FORGET_UNKNOWN_SQL, entries, BATCH_SIZE,
+                (ps, keyed) -> ps.setString(1, Gtin.format(keyed.gtin())));
+
+        return new CatalogUpsertResult(missing.size(), entries.size() - missing.size());
+    }
+
+    /**
+     * Renders the entries as CSV for {@code COPY}; unquoted empty fields are read as null.
+     */
+    private static String toCsv(List<KeyedEntry> entries) {
+        StringBuilder csv = new StringBuilder(entries.size() * 144);
+        for (KeyedEntry keyed : entries) {
+            CatalogEntry entry = keyed.entry();
+            csv.append(keyed.gtin()).append(',');
+            appendCsvField(csv, entry.upc()).append(',');
+            appendCsvField(csv, entry.name()).append(',');
+            appendCsvField(csv, entry.brand()).append(',');
+            appendCsvField(csv, entry.category()).append(',');
+            appendCsvField(csv, entry.imageUrl()).append(',');
+            appendCsvField(csv, entry.imageSmallUrl()).append('\n');
+        }
+        return csv.toString();
+    }
+
+    private static StringBuilder appendCsvField(StringBuilder csv, String value) {
+        if (value == null) {
+            return csv;
+        }
+        return csv.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+
+    /**
+     * Renders the assignments of catalog values to a product aliased {@code p}. Products owned by the
+     * catalog take every non-null value and are marked as catalog products; other products only get
+     * missing fields filled and keep their data source. Retry state is cleared either way, since only
+     * owned products can await a retry.
+     */
+    private static String catalogFields(String name, String brand, String category, String imageUrl,
+                                        String imageSmallUrl) {
+        return catalogField("name", name) + ", " + catalogField("brand", brand) + ", "
+                + catalogField("category", category) + ", " + catalogField("image_url", imageUrl) + ", "
+                + catalogField("image_small_url", imageSmallUrl) + ", "
+                + "data_source = CASE WHEN " + CATALOG_OWNED + " THEN " + CATALOG_SOURCE + " ELSE p.data_source END, "
+                + "requires_api_retry = FALSE, next_retry_at = NULL";
+    }
+
+    private static String catalogField(String column, String value) {
+        return column + " = CASE WHEN " + CATALOG_OWNED + " OR p." + column + " IS NULL "
+                + "THEN COALESCE(" + value + ", p." + column + ") ELSE p." + column + " END";
+    }
+
+    private record KeyedEntry(long gtin, CatalogEntry entry) {
+    }
+
+    private boolean isPostgres() {
+        Boolean result = postgres;
+        if (result == null) {
+            result = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName()));
+            postgres = result;
+        }
+        return Boolean.TRUE.equals(result);
+    }
+}
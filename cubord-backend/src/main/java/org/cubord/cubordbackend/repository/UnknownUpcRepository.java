@@ -0,0 +1,33 @@
+package org.cubord.cubordbackend.repository;
+
+import org.cubord.cubordbackend.domain.UnknownUpc;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface UnknownUpcRepository extends JpaRepository<UnknownUpc, String> {
+
+    boolean existsByUpcAndExpiresAtAfter(String upc, LocalDateTime now);
+
+    @Query("SELECT u.upc FROM UnknownUpc u WHERE u.expiresAt > :now")
+    List<String> findActiveUpcs(@Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM UnknownUpc u WHERE u.upc = :upc")
+    int deleteByUpc(@Param("upc") String upc);
+
+    @Modifying
+    @Query("DELETE FROM UnknownUpc u WHERE u.upc IN :upcs")
+    int deleteByUpcIn(@Param("upcs") Collection<String> upcs);
+
+    @Modifying
+    @Query("DELETE FROM UnknownUpc u WHERE u.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -382,6 +382,71 @@ public class SecurityService {
         }
     }
 
+    /**
+     * Checks if the current user can access every one of the given locations for pantry item operations.
+     *
+     * <p>Resolves all locations with a single membership query, so batch operations
+     * can authorize once instead of once per item.</p>
+     *
+     * @param locationIds The locations to check access for (duplicates are ignored)
+     * @return true if the user can access all of the locations
+     */
+    @Transactional(readOnly = true)
+    public boolean canAccessLocationsForPantryItems(Collection<UUID> locationIds) {
+        if (locationIds == null || locationIds.isEmpty() || locationIds.stream().anyMatch(Objects::isNull)) {
+            log.debug("Location IDs are null or empty, denying access");
+            return false;
+        }
+
+        try {
+            UUID userId = getCurrentUserId();
+            Set<UUID> distinctIds = new HashSet<>(locationIds);
+
+            long accessible = locationRepository.countByIdInAndHouseholdMembers_UserId(distinctIds, userId);
+            boolean hasAccess = accessible == distinctIds.size();
+
+            log.debug("User {} access to {} locations for pantry items: {}", userId, distinctIds.size(), hasAccess);
+            return hasAccess;
+        } catch (AuthenticationRequiredException e) {
+            log.debug("No authenticated user, denying location access");
+            return false;
+        }
+    }
+
+    /**
+     * Checks if the current user can move pantry items to the given target location.
+     *
+     * <p>The user must be able to access the target location, the source location if one is given,
+     * and the current location of every listed item. Listed items that do not exist are ignored here,
+     * so they are reported as not found by the move itself.</p>
+     *
+     * @param targetLocationId The location the items are moved to
+     * @param itemIds          The items to move, or null when moving a whole source location
+     * @param sourceLocationId The location whose items are moved, or null when listing items
+     * @return true if the user can access every involved location
+     */
+    @Transactional(readOnly = true)
+    public boolean canMovePantryItems(UUID targetLocationId, Collection<UUID> itemIds, UUID sourceLocationId) {
+        if (targetLocationId == null) {
+            log.debug("Target location ID is null, denying access");
+            return false;
+        }
+
+        Set<UUID> locationIds = new HashSet<>();
+        locationIds.add(targetLocationId);
+        if (sourceLocationId != null) {
+            locationIds.add(sourceLocationId);
+        }
+        if (itemIds != null) {
+            List<UUID> existingIds = itemIds.stream().filter(Objects::nonNull).distinct().toList();
+            if (!existingIds.isEmpty()) {
+                pantryItemRepository.findPlacements(existingIds)
+                        .forEach(item -> locationIds.add(item.locationId()));
+            }
+        }
+        return canAccessLocationsForPantryItems(locationIds);
+    }
+
     // ==================== User Access Checks ====================
 
     /**
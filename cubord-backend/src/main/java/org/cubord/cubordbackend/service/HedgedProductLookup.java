@@ -0,0 +1,291 @@
+package org.cubord.cubordbackend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.cubord.cubordbackend.dto.product.ProductResponse;
+import org.cubord.cubordbackend.exception.ExternalServiceException;
+import org.cubord.cubordbackend.exception.NotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Looks up a UPC through an ordered list of {@link ProductDataProvider}s with hedged requests.
+ *
+ * <p>The first provider is asked right away. If it has not answered within its hedge delay, the
+ * {@code hedge-percentile} of its recent answer times, the next provider is asked as well, and so
+ * on down the list; the first product found wins. A provider that fails or does not know the UPC
+ * hands over to the next one at once. The lookup fails with {@link NotFoundException} only if
+ * every provider answered that it does not know the UPC, and with the first other failure
+ * otherwise.</p>
+ *
+ * <p>Until a provider has answered {@code minimum-samples} times it is hedged after
+ * {@code initial-hedge-delay}. Answers that lose the race are still timed, so hedge delays follow
+ * each provider's full latency. Per provider, {@code cubord.product.provider.latency} times the
+ * answers, {@code cubord.product.provider.requests} counts requests by reason (first, hedge,
+ * failover) and {@code cubord.product.provider.win-rate} reports the share of its requests that
+ * supplied the result.</p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class HedgedProductLookup {
+
+    private static final String METRIC_PREFIX = "cubord.product.provider";
+    private static final String SERVICE_NAME = "Product data providers";
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.product-providers.hedging-enabled:true}")
+    private boolean hedgingEnabled;
+
+    @Value("${app.product-providers.hedge-percentile:0.95}")
+    private double hedgePercentile;
+
+    @Value("${app.product-providers.initial-hedge-delay:PT0.5S}")
+    private Duration initialHedgeDelay;
+
+    @Value("${app.product-providers.min-hedge-delay:PT0.05S}")
+    private Duration minHedgeDelay;
+
+    @Value("${app.product-providers.latency-window-size:200}")
+    private int latencyWindowSize;
+
+    @Value("${app.product-providers.minimum-samples:20}")
+    private int minimumSamples;
+
+    private final Map<String, ProviderStats> stats = new ConcurrentHashMap<>();
+
+    /**
+     * Validates the hedging configuration on startup.
+     *
+     * @throws IllegalStateException if the configuration is invalid
+     */
+    @PostConstruct
+    void validateConfiguration() {
+        if (hedgePercentile <= 0 || hedgePercentile > 1) {
+            throw new IllegalStateException("Hedge percentile must be greater than 0 and at most 1");
+        }
+        if (latencyWindowSize <= 0 || minimumSamples <= 0 || minimumSamples > latencyWindowSize) {
+            throw new IllegalStateException("Minimum samples must be positive and fit the latency window");
+        }
+        if (initialHedgeDelay.isNegative() || minHedgeDelay.isNegative()) {
+            throw new IllegalStateException("Hedge delays cannot be negative");
+        }
+    }
+
+    /**
+     * Starts looking up a product through the providers.
+     *
+     * @param providers Providers in the order they are asked
+     * @param upc       Validated UPC/EAN code
+     * @return Future completed with the first product found, failing as described for this class
+     */
+    public CompletableFuture<ProductResponse> fetch(List<ProductDataProvider> providers, String upc) {
+        if (providers.isEmpty()) {
+            return CompletableFuture.failedFuture(
+                    new ExternalServiceException(SERVICE_NAME, "No product data providers configured"));
+        }
+        Lookup lookup = new Lookup(providers, upc);
+        lookup.askNext(0, "first");
+        return lookup.result;
+    }
+
+    /**
+     * @return How long a request to the provider runs before the next provider is asked as well
+     */
+    public Duration hedgeDelay(ProductDataProvider provider) {
+        return Duration.ofMillis(statsFor(provider).hedgeDelayMillis);
+    }
+
+    // ==================== Helper Methods ====================
+
+    private ProviderStats statsFor(ProductDataProvider provider) {
+        return stats.computeIfAbsent(provider.getName(), ProviderStats::new);
+    }
+
+    /**
+     * One UPC lookup across the providers.
+     */
+    private final class Lookup {
+
+        private final List<ProductDataProvider> providers;
+        private final String upc;
+        private final CompletableFuture<ProductResponse> result = new CompletableFuture<>();
+
+        // Guarded by this
+        private int asked;
+        private int failed;
+        private Throwable failure;
+        private boolean won;
+
+        private Lookup(List<ProductDataProvider> providers, String upc) {
+            this.providers = providers;
+            this.upc = upc;
+        }
+
+        /**
+         * Asks the next provider, unless the lookup is over or, for an expected index of zero or
+         * more, another provider has been asked since.
+         */
+        private void askNext(int expected, String reason) {
+            int index;
+            synchronized (this) {
+                if (result.isDone() || asked == providers.size() || (expected >= 0 && asked != expected)) {
+                    return;
+                }
+                index = asked++;
+            }
+            ProductDataProvider provider = providers.get(index);
+            ProviderStats providerStats = statsFor(provider);
+            providerStats.requested(reason);
+            log.debug("Asking product data provider {} for UPC {} ({})", provider.getName(), upc, reason);
+
+            long startedAt = System.nanoTime();
+            CompletableFuture<ProductResponse> answer;
+            try {
+                answer = provider.fetch(upc);
+            } catch (RuntimeException e) {
+                answer = CompletableFuture.failedFuture(e);
+            }
+            answer.whenComplete((product, error) ->
+                    onAnswer(providerStats, System.nanoTime() - startedAt, product, error));
+
+            if (hedgingEnabled && index + 1 < providers.size() && !answer.isDone()) {
+                CompletableFuture.delayedExecutor(providerStats.hedgeDelayMillis, TimeUnit.MILLISECONDS)
+                        .execute(() -> askNext(index + 1, "hedge"));
+            }
+        }
+
+        private void onAnswer(ProviderStats providerStats, long elapsedNanos, ProductResponse product,
+                              Throwable error) {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause()
+                    : error;
+            if (cause == null) {
+                providerStats.answered(providerStats.found, elapsedNanos);
+                synchronized (this) {
+                    if (won) {
+                        return;
+                    }
+                    won = true;
+                }
+                // The win is counted before the result is published, so callers see it in the metrics
+                providerStats.wins.increment();
+                log.debug("Product data provider {} supplied UPC {}", providerStats.name, upc);
+                result.complete(product);
+                return;
+            }
+
+            boolean notFound = cause instanceof NotFoundException;
+            if (notFound) {
+                providerStats.answered(providerStats.notFound, elapsedNanos);
+            } else {
+                providerStats.failed.record(elapsedNanos, TimeUnit.NANOSECONDS);
+                log.debug("Product data provider {} failed for UPC {}: {}", providerStats.name, upc, cause.getMessage());
+            }
+
+            Throwable outcome = null;
+            synchronized (this) {
+                if (failure == null || (failure instanceof NotFoundException && !notFound)) {
+                    failure = cause;
+                }
+                if (++failed == providers.size()) {
+                    outcome = failure;
+                }
+            }
+            if (outcome != null) {
+                result.completeExceptionally(outcome);
+            } else {
+                askNext(-1, "failover");
+            }
+        }
+    }
+
+    /**
+     * Metrics and recent answer times of one provider.
+     */
+    private final class ProviderStats {
+
+        private final String name;
+        private final Timer found;
+        private final Timer notFound;
+        private final Timer failed;
+        private final Counter wins;
+        private final Map<String, Counter> requests = new ConcurrentHashMap<>();
+
+        // Recent answer times in milliseconds, guarded by this
+        private final long[] latencies = new long[latencyWindowSize];
+        private int latencyCount;
+        private int latencyIndex;
+        private volatile long hedgeDelayMillis = initialHedgeDelay.toMillis();
+
+        private ProviderStats(String name) {
+            this.name = name;
+            found = latencyTimer("found");
+            notFound = latencyTimer("not_found");
+            failed = latencyTimer("failed");
+            wins = Counter.builder(METRIC_PREFIX + ".wins").tag("provider", name).register(meterRegistry);
+            for (String reason : List.of("first", "hedge", "failover")) {
+                requests.put(reason, Counter.builder(METRIC_PREFIX + ".requests")
+                        .tag("provider", name)
+                        .tag("reason", reason)
+                        .register(meterRegistry));
+            }
+            Gauge.builder(METRIC_PREFIX + ".win-rate", this, ProviderStats::winRate)
+                    .tag("provider", name)
+                    .register(meterRegistry);
+            Gauge.builder(METRIC_PREFIX + ".hedge-delay", this, stats -> stats.hedgeDelayMillis)
+                    .tag("provider", name)
+                    .baseUnit("milliseconds")
+                    .register(meterRegistry);
+        }
+
+        private Timer latencyTimer(String outcome) {
+            return Timer.builder(METRIC_PREFIX + ".latency")
+                    .tag("provider", name)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry);
+        }
+
+        private void requested(String reason) {
+            requests.get(reason).increment();
+        }
+
+        private double winRate() {
+            double total = requests.values().stream().mapToDouble(Counter::count).sum();
+            return total == 0 ? 0 : wins.count() / total;
+        }
+
+        /**
+         * Times an answer and moves the hedge delay to the percentile of recent answer times.
+         */
+        private synchronized void answered(Timer timer, long elapsedNanos) {
+            timer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+            latencies[latencyIndex] = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+            latencyIndex = (latencyIndex + 1) % latencies.length;
+            latencyCount = Math.min(latencyCount + 1, latencies.length);
+            if (latencyCount < minimumSamples) {
+                return;
+            }
+
+            long[] sorted = Arrays.copyOf(latencies, latencyCount);
+            Arrays.sort(sorted);
+            long percentile = sorted[(int) Math.min(sorted.length - 1, Math.ceil(hedgePercentile * sorted.length) - 1)];
+            hedgeDelayMillis = Math.max(minHedgeDelay.toMillis(), percentile);
+        }
+    }
+}
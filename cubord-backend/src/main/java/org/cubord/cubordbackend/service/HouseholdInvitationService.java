@@ -7,12 +7,15 @@ import org.cubord.cubordbackend.dto.householdInvitation.HouseholdInvitationReque
 import org.cubord.cubordbackend.dto.householdInvitation.HouseholdInvitationResponse;
 import org.cubord.cubordbackend.dto.householdInvitation.HouseholdInvitationUpdateRequest;
 import org.cubord.cubordbackend.dto.householdInvitation.ResendInvitationRequest;
+import org.cubord.cubordbackend.dto.pagination.CursorPageResponse;
 import org.cubord.cubordbackend.exception.*;
 import org.cubord.cubordbackend.repository.HouseholdInvitationRepository;
 import org.cubord.cubordbackend.repository.HouseholdMemberRepository;
 import org.cubord.cubordbackend.repository.HouseholdRepository;
 import org.cubord.cubordbackend.repository.UserRepository;
 import org.cubord.cubordbackend.security.SecurityService;
+import org.cubord.cubordbackend.util.CursorCodec;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -59,6 +62,7 @@ public class HouseholdInvitationService {
     private final SecurityService securityService;
 
     private static final int DEFAULT_INVITATION_EXPIRY_DAYS = 7;
+    private static final LocalDateTime FIRST_PAGE_CREATED_AT = LocalDateTime.of(1, 1, 1, 0, 0);
 
     // ==================== Create Operations ====================
 
@@ -180,6 +184,51 @@ public class HouseholdInvitationService {
                 .toList();
     }
 
+    /**
+     * Retrieves one keyset page of a household's invitations, ordered by creation time and ID.
+     *
+     * <p>Authorization: User must be a member of the household.</p>
+     *
+     * @param householdId  UUID of the household
+     * @param cursor       Cursor from the previous page, or null for the first page
+     * @param limit        Maximum number of invitations to return
+     * @param includeTotal Whether to count all of the household's invitations
+     * @return Page of invitations with a cursor for the next page
+     * @throws ValidationException if householdId is null, the limit is out of range, or the cursor is invalid
+     * @throws InsufficientPermissionException if the user doesn't have access (via @PreAuthorize)
+     */
+    @Transactional(readOnly = true)
+    @PreAuthorize("@security.canAccessHousehold(#householdId)")
+    public CursorPageResponse<HouseholdInvitationResponse> getHouseholdInvitations(
+            UUID householdId, String cursor, int limit, boolean includeTotal) {
+        if (householdId == null) {
+            throw new ValidationException("Household ID cannot be null");
+        }
+        CursorCodec.validateLimit(limit);
+
+        UUID currentUserId = securityService.getCurrentUserId();
+        log.debug("User {} retrieving invitation page for household {}", currentUserId, householdId);
+
+        LocalDateTime afterCreatedAt = FIRST_PAGE_CREATED_AT;
+        UUID afterId = CursorCodec.MIN_ID;
+        if (cursor != null) {
+            List<String> keys = CursorCodec.decode(cursor, 2);
+            try {
+                afterCreatedAt = LocalDateTime.parse(keys.get(0));
+                afterId = UUID.fromString(keys.get(1));
+            } catch (RuntimeException e) {
+                throw new ValidationException("Invalid pagination cursor", e);
+            }
+        }
+
+        List<HouseholdInvitation> rows = householdInvitationRepository.findPageByHouseholdId(
+                householdId, afterCreatedAt, afterId, Limit.of(limit + 1));
+        Long total = includeTotal ? householdInvitationRepository.countByHouseholdId(householdId) : null;
+
+        return CursorPageResponse.fromRows(rows, limit, this::mapToResponse,
+                invitation -> CursorCodec.encode(invitation.getCreatedAt(), invitation.getId()), total);
+    }
+
     /**
      * Retrieves household invitations filtered by status.
      *
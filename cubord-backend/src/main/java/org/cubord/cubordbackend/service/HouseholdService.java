@@ -62,6 +62,7 @@ public class HouseholdService {
     private final HouseholdRepository householdRepository;
     private final HouseholdMemberRepository householdMemberRepository;
     private final SecurityService securityService;
+    private final InventoryStatsService inventoryStatsService;
 
     // ==================== Create Operations ====================
 
@@ -115,6 +116,7 @@ public class HouseholdService {
                     .build();
 
             householdMemberRepository.save(ownerMember);
+            inventoryStatsService.initialize(savedHousehold.getId());
 
             log.info("User {} successfully created household with ID: {}", currentUserId, savedHousehold.getId());
             return mapToHouseholdResponse(savedHousehold);
@@ -0,0 +1,41 @@
+package org.cubord.cubordbackend.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.cubord.cubordbackend.repository.HouseholdRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Periodically recomputes every household's inventory counters from its pantry items.
+ *
+ * <p>Each household is reconciled in its own transaction, so a failure in one household does not
+ * roll back the others and counter locks are only held briefly.</p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryStatsReconciler {
+
+    private final HouseholdRepository householdRepository;
+    private final InventoryStatsService inventoryStatsService;
+
+    @Scheduled(cron = "${app.inventory-stats.reconcile-cron:0 30 3 * * *}")
+    public void reconcileAll() {
+        int reconciled = 0;
+        int drifted = 0;
+        for (UUID householdId : householdRepository.findAllIds()) {
+            try {
+                if (inventoryStatsService.reconcile(householdId)) {
+                    drifted++;
+                }
+                reconciled++;
+            } catch (RuntimeException e) {
+                log.error("Failed to reconcile inventory counters for household {}", householdId, e);
+            }
+        }
+        log.info("Reconciled inventory counters for {} households, {} had drifted", reconciled, drifted);
+    }
+}
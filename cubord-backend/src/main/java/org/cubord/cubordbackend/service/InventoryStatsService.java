@@ -0,0 +1,286 @@
+package org.cubord.cubordbackend.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.cubord.cubordbackend.domain.HouseholdInventoryStats;
+import org.cubord.cubordbackend.domain.HouseholdProductCount;
+import org.cubord.cubordbackend.domain.PantryItem;
+import org.cubord.cubordbackend.exception.ValidationException;
+import org.cubord.cubordbackend.repository.HouseholdInventoryStatsRepository;
+import org.cubord.cubordbackend.repository.HouseholdProductCountRepository;
+import org.cubord.cubordbackend.repository.PantryItemRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Service maintaining the running pantry counters of each household.
+ *
+ * <p>Pantry item writes report the footprint of every affected item before and after the change.
+ * The resulting deltas are applied to the household's counters in the caller's transaction while
+ * holding a row lock on them, so concurrent changes within a household are applied one after another
+ * and the counters commit or roll back together with the items.</p>
+ *
+ * <p>Counters that were never initialized are created on first use and rebuilt from the pantry
+ * items; concurrent first changes wait for the one that created them and then apply their deltas.
+ * {@link InventoryStatsReconciler} periodically rebuilds all counters to correct any drift.</p>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryStatsService {
+
+    private final HouseholdInventoryStatsRepository statsRepository;
+    private final HouseholdProductCountRepository productCountRepository;
+    private final PantryItemRepository pantryItemRepository;
+
+    /**
+     * The attributes of a pantry item that the household counters depend on.
+     *
+     * @param householdId      Household containing the item
+     * @param productId        Product of the item
+     * @param zeroQuantity     Whether the item has no quantity left
+     * @param noExpirationDate Whether the item has no expiration date
+     */
+    public record ItemFootprint(UUID householdId, UUID productId, boolean zeroQuantity, boolean noExpirationDate) {
+
+        public static ItemFootprint of(UUID householdId, UUID productId, Integer quantity, LocalDate expirationDate) {
+            return new ItemFootprint(householdId, productId, quantity == null || quantity == 0, expirationDate == null);
+        }
+
+        public static ItemFootprint of(PantryItem item) {
+            return of(item.getLocation().getHousehold().getId(), item.getProduct().getId(),
+                    item.getQuantity(), item.getExpirationDate());
+        }
+    }
+
+    /**
+     * Creates empty counters for a newly created household.
+     *
+     * @param householdId UUID of the new household
+     * @throws ValidationException if householdId is null
+     */
+    @Transactional
+    public void initialize(UUID householdId) {
+        if (householdId == null) {
+            throw new ValidationException("Household ID cannot be null");
+        }
+        statsRepository.save(HouseholdInventoryStats.builder().householdId(householdId).build());
+    }
+
+    /**
+     * Retrieves the counters of a household.
+     *
+     * @param householdId UUID of the household
+     * @return The counters, or empty if they have not been initialized yet
+     */
+    @Transactional(readOnly = true)
+    public Optional<HouseholdInventoryStats> getStats(UUID householdId) {
+        return statsRepository.findById(householdId);
+    }
+
+    /**
+     * Records a change to a single pantry item.
+     *
+     * @param before Footprint of the item before the change, or null if it was created
+     * @param after  Footprint of the item after the change, or null if it was deleted
+     */
+    @Transactional
+    public void recordChange(ItemFootprint before, ItemFootprint after) {
+        recordChanges(
+                before != null ? List.of(before) : List.of(),
+                after != null ? List.of(after) : List.of());
+    }
+
+    /**
+     * Records a set of pantry item changes. An updated item appears in both collections.
+     *
+     * <p>Deltas are combined per household first, and households are locked in ID order so that
+     * concurrent batches spanning several households cannot deadlock.</p>
+     *
+     * @param removed Footprints that no longer exist after the change
+     * @param added   Footprints that exist after the change
+     */
+    @Transactional
+    public void recordChanges(Collection<ItemFootprint> removed, Collection<ItemFootprint> added) {
+        Map<UUID, Delta> deltas = new TreeMap<>();
+        removed.forEach(footprint -> deltas.computeIfAbsent(footprint.householdId(), id -> new Delta())
+                .add(footprint, -1));
+        added.forEach(footprint -> deltas.computeIfAbsent(footprint.householdId(), id -> new Delta())
+                .add(footprint, 1));
+
+        deltas.forEach((householdId, delta) -> {
+            if (!delta.isEmpty()) {
+                applyDelta(householdId, delta);
+            }
+        });
+    }
+
+    /**
+     * Recomputes the counters of a household from its pantry items.
+     *
+     * @param householdId UUID of the household
+     * @return true if the stored counters differed from the recomputed ones
+     */
+    @Transactional
+    public boolean reconcile(UUID householdId) {
+        boolean created = statsRepository.insertIfAbsent(householdId);
+        HouseholdInventoryStats stats = lockStats(householdId);
+
+        boolean drifted = rebuild(householdId, stats) || created;
+        if (drifted) {
+            log.warn("Corrected drifted inventory counters for household {}", householdId);
+        }
+        return drifted;
+    }
+
+    // ==================== Helper Methods ====================
+
+    /**
+     * Applies a delta to the locked counters of a household, including the per-product counts
+     * the distinct product counter is derived from.
+     */
+    private void applyDelta(UUID householdId, Delta delta) {
+        // Concurrent first changes wait for the one that inserts the counters instead of failing on its key
+        boolean created = statsRepository.insertIfAbsent(householdId);
+        HouseholdInventoryStats stats = lockStats(householdId);
+        if (created) {
+            // The rebuilt counters already include this change
+            log.debug("Initializing inventory counters for household {}", householdId);
+            rebuild(householdId, stats);
+            return;
+        }
+
+        Map<UUID, Long> productDeltas = delta.products.entrySet().stream()
+                .filter(entry -> entry.getValue() != 0)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+
+        long distinctDelta = 0;
+        if (!productDeltas.isEmpty()) {
+            Map<UUID, HouseholdProductCount> counts = productCountRepository
+                    .findByHouseholdIdAndProductIdIn(householdId, productDeltas.keySet()).stream()
+                    .collect(Collectors.toMap(HouseholdProductCount::getProductId, count -> count));
+
+            for (Map.Entry<UUID, Long> entry : productDeltas.entrySet()) {
+                HouseholdProductCount count = counts.get(entry.getKey());
+                long before = count != null ? count.getItemCount() : 0;
+                long after = before + entry.getValue();
+
+                if (before <= 0 && after > 0) {
+                    distinctDelta++;
+                } else if (before > 0 && after <= 0) {
+                    distinctDelta--;
+                }
+
+                if (after > 0) {
+                    if (count == null) {
+                        count = HouseholdProductCount.builder()
+                                .householdId(householdId)
+                                .productId(entry.getKey())
+                                .build();
+                    }
+                    count.setItemCount(after);
+                    productCountRepository.save(count);
+                } else if (count != null) {
+                    productCountRepository.delete(count);
+                }
+            }
+        }
+
+        stats.setTotalItems(stats.getTotalItems() + delta.totalItems);
+        stats.setDistinctProducts(stats.getDistinctProducts() + distinctDelta);
+        stats.setZeroQuantityItems(stats.getZeroQuantityItems() + delta.zeroQuantityItems);
+        stats.setNoExpirationItems(stats.getNoExpirationItems() + delta.noExpirationItems);
+
+        if (stats.getTotalItems() < 0 || stats.getDistinctProducts() < 0
+                || stats.getZeroQuantityItems() < 0 || stats.getNoExpirationItems() < 0) {
+            log.warn("Inventory counters for household {} went negative; they will be corrected on reconciliation",
+                    householdId);
+        }
+    }
+
+    /**
+     * Locks the counters of a household, which must exist.
+     */
+    private HouseholdInventoryStats lockStats(UUID householdId) {
+        return statsRepository.findByHouseholdIdForUpdate(householdId)
+                .orElseThrow(() -> new IllegalStateException("Inventory counters missing for household " + householdId));
+    }
+
+    /**
+     * Overwrites the given counters and the household's product counts with values computed from
+     * its pantry items.
+     *
+     * @return true if any stored value differed from the computed one
+     */
+    private boolean rebuild(UUID householdId, HouseholdInventoryStats stats) {
+        // The thresholds are irrelevant here; only the household-wide counters are used
+        PantryItemRepository.PantryStatistics actual =
+                pantryItemRepository.aggregateStatisticsByHouseholdId(householdId, 0, LocalDate.now());
+        Map<UUID, Long> actualCounts = pantryItemRepository.countItemsPerProductByHouseholdId(householdId).stream()
+                .collect(Collectors.toMap(
+                        PantryItemRepository.ProductItemCount::getProductId,
+                        PantryItemRepository.ProductItemCount::getItemCount));
+
+        boolean drifted = stats.getTotalItems() != actual.getTotalItems()
+                || stats.getDistinctProducts() != actual.getDistinctProducts()
+                || stats.getZeroQuantityItems() != actual.getZeroQuantityCount()
+                || stats.getNoExpirationItems() != actual.getNoExpirationDateCount();
+
+        for (HouseholdProductCount count : productCountRepository.findByHouseholdId(householdId)) {
+            Long itemCount = actualCounts.remove(count.getProductId());
+            if (itemCount == null) {
+                productCountRepository.delete(count);
+                drifted = true;
+            } else if (itemCount != count.getItemCount()) {
+                count.setItemCount(itemCount);
+                productCountRepository.save(count);
+                drifted = true;
+            }
+        }
+        if (!actualCounts.isEmpty()) {
+            actualCounts.forEach((productId, itemCount) -> productCountRepository.save(HouseholdProductCount.builder()
+                    .householdId(householdId)
+                    .productId(productId)
+                    .itemCount(itemCount)
+                    .build()));
+            drifted = true;
+        }
+
+        stats.setTotalItems(actual.getTotalItems());
+        stats.setDistinctProducts(actual.getDistinctProducts());
+        stats.setZeroQuantityItems(actual.getZeroQuantityCount());
+        stats.setNoExpirationItems(actual.getNoExpirationDateCount());
+        statsRepository.save(stats);
+        return drifted;
+    }
+
+    /**
+     * Net change to the counters of one household.
+     */
+    private static final class Delta {
+        private long totalItems;
+        private long zeroQuantityItems;
+        private long noExpirationItems;
+        private final Map<UUID, Long> products = new HashMap<>();
+
+        void add(ItemFootprint footprint, int sign) {
+            totalItems += sign;
+            if (footprint.zeroQuantity()) {
+                zeroQuantityItems += sign;
+            }
+            if (footprint.noExpirationDate()) {
+                noExpirationItems += sign;
+            }
+            products.merge(footprint.productId(), (long) sign, Long::sum);
+        }
+
+        boolean isEmpty() {
+            return totalItems == 0 && zeroQuantityItems == 0 && noExpirationItems == 0
+                    && products.values().stream().allMatch(change -> change == 0);
+        }
+    }
+}
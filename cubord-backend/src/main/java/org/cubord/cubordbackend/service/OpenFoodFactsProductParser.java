@@ -0,0 +1,247 @@
+package org.cubord.cubordbackend.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import lombok.extern.slf4j.Slf4j;
+import org.cubord.cubordbackend.dto.product.ProductResponse;
+import org.cubord.cubordbackend.exception.ExternalServiceException;
+import org.cubord.cubordbackend.exception.NotFoundException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Streaming parser for Open Food Facts product responses.
+ *
+ * <p>Reads the response token by token and keeps only the fields Cubord stores, skipping every
+ * other value without materializing it, so the body is never buffered as a whole. Pair it with
+ * {@link #FIELDS} in the request to keep the download small as well.</p>
+ *
+ * <p>Search responses listing several products, as returned for a batch of codes, are read by
+ * {@link #parseSearch(InputStream)} and resolved per UPC with {@link #productFor(Map, String)}.
+ * Lines of the JSONL product dump are read by {@link #parseDumpLine(String)}.</p>
+ */
+@Slf4j
+class OpenFoodFactsProductParser {
+
+    /**
+     * Value for the API's {@code fields} parameter, limiting the product to the fields read here.
+     */
+    static final String FIELDS = "product_name,brands,categories,image_url,image_small_url";
+
+    /**
+     * Value for the search API's {@code fields} parameter; adds the code to match products to UPCs.
+     */
+    static final String SEARCH_FIELDS = "code," + FIELDS;
+
+    private static final String SERVICE_NAME = "Open Food Facts API";
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    /**
+     * Parses a product response.
+     *
+     * @param body Response body; not closed by this method
+     * @param upc  UPC being fetched
+     * @return ProductResponse with the product's name, brand, first category and image URLs
+     * @throws NotFoundException        if the response reports the product as not found
+     * @throws ExternalServiceException if the response is empty, malformed or lacks a name and brand
+     */
+    ProductResponse parse(InputStream body, String upc) {
+        ProductResponse.ProductResponseBuilder builder = ProductResponse.builder().upc(upc);
+        Integer status = null;
+        boolean hasProduct = false;
+
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new ExternalServiceException(SERVICE_NAME, "Empty response received");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("status".equals(field) && value == JsonToken.VALUE_NUMBER_INT) {
+                    status = parser.getIntValue();
+                } else if ("product".equals(field) && value == JsonToken.START_OBJECT) {
+                    readProduct(parser, builder);
+                    hasProduct = true;
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        } catch (IOException e) {
+            log.error("Failed to parse API response for UPC: {}", upc, e);
+            throw new ExternalServiceException(SERVICE_NAME, "Failed to parse response", e);
+        }
+
+        if (status != null && status == 0) {
+            log.debug("Product not found in external database for UPC: {}", upc);
+            throw new NotFoundException("Product not found in external database for UPC: " + upc);
+        }
+        if (!hasProduct) {
+            log.warn("No product data found in API response for UPC: {}", upc);
+            throw new ExternalServiceException(SERVICE_NAME, "No product data in response");
+        }
+
+        return checked(builder.build(), upc);
+    }
+
+    /**
+     * Parses a search response listing the products found for a batch of codes.
+     *
+     * @param body Response body; not closed by this method
+     * @return Products keyed by their code without leading zeros
+     * @throws ExternalServiceException if the response is empty or malformed
+     */
+    Map<String, ProductResponse> parseSearch(InputStream body) {
+        Map<String, ProductResponse> products = new HashMap<>();
+
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new ExternalServiceException(SERVICE_NAME, "Empty response received");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (!"products".equals(field) || value != JsonToken.START_ARRAY) {
+                    parser.skipChildren();
+                    continue;
+                }
+                JsonToken element;
+                while ((element = parser.nextToken()) != JsonToken.END_ARRAY) {
+                    if (element != JsonToken.START_OBJECT) {
+                        parser.skipChildren();
+                        continue;
+                    }
+                    ProductResponse.ProductResponseBuilder builder = ProductResponse.builder();
+                    String code = readProduct(parser, builder);
+                    if (code != null) {
+                        products.putIfAbsent(withoutLeadingZeros(code), builder.build());
+                    }
+                }
+            }
+        } catch (IOException e) {
+            log.error("Failed to parse API search response", e);
+            throw new ExternalServiceException(SERVICE_NAME, "Failed to parse response", e);
+        }
+
+        log.debug("Parsed {} products from API search response", products.size());
+        return products;
+    }
+
+    /**
+     * Picks the product for one UPC out of a parsed search response.
+     *
+     * <p>Codes are matched without leading zeros, since the API may list a UPC-A under its
+     * EAN-13 form.</p>
+     *
+     * @param products Result of {@link #parseSearch(InputStream)}
+     * @param upc      UPC that was requested
+     * @return ProductResponse for the UPC, with the same checks as {@link #parse(InputStream, String)}
+     * @throws NotFoundException        if the response does not list the UPC
+     * @throws ExternalServiceException if the listed product lacks a name and brand
+     */
+    ProductResponse productFor(Map<String, ProductResponse> products, String upc) {
+        ProductResponse product = products.get(withoutLeadingZeros(upc));
+        if (product == null) {
+            log.debug("Product not found in external database for UPC: {}", upc);
+            throw new NotFoundException("Product not found in external database for UPC: " + upc);
+        }
+        return checked(ProductResponse.builder()
+                .upc(upc)
+                .name(product.getName())
+                .brand(product.getBrand())
+                .category(product.getCategory())
+                .imageUrl(product.getImageUrl())
+                .imageSmallUrl(product.getImageSmallUrl())
+                .build(), upc);
+    }
+
+    /**
+     * Parses one line of the JSONL product dump, which holds a whole product object.
+     *
+     * <p>Unlike API responses, the product is not checked for a name or brand.</p>
+     *
+     * @param line Line of the dump
+     * @return ProductResponse with the product's code as UPC, or null if it lists no code
+     * @throws IOException if the line is not a JSON object
+     */
+    ProductResponse parseDumpLine(String line) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(line)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Dump line is not a JSON object");
+            }
+            ProductResponse.ProductResponseBuilder builder = ProductResponse.builder();
+            String code = readProduct(parser, builder);
+            return code != null ? builder.upc(code).build() : null;
+        }
+    }
+
+    /**
+     * @return First entry of a comma-separated category list
+     */
+    static String firstCategory(String categories) {
+        int commaIndex = categories.indexOf(',');
+        return commaIndex > 0 ? categories.substring(0, commaIndex).trim() : categories;
+    }
+
+    // ==================== Helper Methods ====================
+
+    private ProductResponse checked(ProductResponse productResponse, String upc) {
+        if (isBlank(productResponse.getName()) && isBlank(productResponse.getBrand())) {
+            log.warn("Insufficient product data returned from API for UPC: {}", upc);
+            throw new ExternalServiceException(SERVICE_NAME, "Insufficient product data returned");
+        }
+
+        log.debug("Parsed product for UPC: {} - name: '{}', brand: '{}', category: '{}'",
+                upc, productResponse.getName(), productResponse.getBrand(), productResponse.getCategory());
+        return productResponse;
+    }
+
+    /**
+     * Reads a product object into the builder.
+     *
+     * @return The product's code, if listed
+     */
+    private String readProduct(JsonParser parser, ProductResponse.ProductResponseBuilder builder) throws IOException {
+        String code = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (value != JsonToken.VALUE_STRING) {
+                parser.skipChildren();
+                continue;
+            }
+            String text = parser.getText();
+            if (text.isEmpty()) {
+                continue;
+            }
+            switch (field) {
+                case "code" -> code = text;
+                case "product_name" -> builder.name(text);
+                case "brands" -> builder.brand(text);
+                case "categories" -> builder.category(firstCategory(text));
+                case "image_url" -> builder.imageUrl(text);
+                case "image_small_url" -> builder.imageSmallUrl(text);
+                default -> {
+                    // Not stored
+                }
+            }
+        }
+        return code;
+    }
+
+    private static String withoutLeadingZeros(String code) {
+        int start = 0;
+        while (start < code.length() - 1 && code.charAt(start) == '0') {
+            start++;
+        }
+        return code.substring(start);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isEmpty();
+    }
+}
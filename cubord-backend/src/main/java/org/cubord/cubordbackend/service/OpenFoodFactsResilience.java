@@ -0,0 +1,440 @@
+package org.cubord.cubordbackend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.cubord.cubordbackend.exception.ServiceUnavailableException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+/**
+ * Guards calls to Open Food Facts with a circuit breaker, a bulkhead and an adaptive timeout.
+ *
+ * <ul>
+ *   <li><strong>Circuit breaker:</strong> once at least {@code minimum-calls} of the last
+ *   {@code sliding-window-size} calls are recorded and the failure rate reaches
+ *   {@code failure-rate-threshold} percent, calls are rejected for {@code open-duration}. Then up
+ *   to {@code half-open-calls} trial calls are let through; one failure reopens the circuit and
+ *   that many successes close it.</li>
+ *   <li><strong>Bulkhead:</strong> at most {@code max-concurrent-calls} calls are outbound at once;
+ *   further calls are rejected rather than queued.</li>
+ *   <li><strong>Adaptive timeout:</strong> each call gets {@code timeout-multiplier} times the
+ *   {@code timeout-percentile} of recent latencies, between {@code min-timeout} and
+ *   {@code app.openfoodfacts.timeout}. Timed-out calls count at their full budget, so the timeout
+ *   grows back when the API slows down for good.</li>
+ * </ul>
+ *
+ * <p>The configured API and every mirror have their own circuit and adaptive timeout, so a failing
+ * or slow API does not hold back lookups from a healthy mirror; all of them share the bulkhead.
+ * The no-argument methods refer to the API's circuit.</p>
+ *
+ * <p>Rejections throw {@link ServiceUnavailableException} without touching the network, which
+ * callers treat like any other lookup failure. State is published as
+ * {@code cubord.openfoodfacts.*} metrics, tagged with the endpoint, and as the
+ * {@code openFoodFacts} health component, which follows the API's circuit.</p>
+ */
+@Component("openFoodFacts")
+@RequiredArgsConstructor
+@Slf4j
+public class OpenFoodFactsResilience implements HealthIndicator {
+
+    /**
+     * Circuit breaker states.
+     */
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    /**
+     * Endpoint tag of the configured API's circuit.
+     */
+    public static final String API_ENDPOINT = "api";
+
+    private static final String METRIC_PREFIX = "cubord.openfoodfacts";
+    private static final Status CIRCUIT_OPEN = new Status("CIRCUIT_OPEN");
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.openfoodfacts.timeout:5000}")
+    private long maxTimeoutMillis;
+
+    @Value("${app.openfoodfacts.resilience.failure-rate-threshold:50}")
+    private int failureRateThreshold;
+
+    @Value("${app.openfoodfacts.resilience.sliding-window-size:20}")
+    private int slidingWindowSize;
+
+    @Value("${app.openfoodfacts.resilience.minimum-calls:10}")
+    private int minimumCalls;
+
+    @Value("${app.openfoodfacts.resilience.open-duration:PT30S}")
+    private Duration openDuration;
+
+    @Value("${app.openfoodfacts.resilience.half-open-calls:3}")
+    private int halfOpenCalls;
+
+    @Value("${app.openfoodfacts.resilience.max-concurrent-calls:16}")
+    private int maxConcurrentCalls;
+
+    @Value("${app.openfoodfacts.resilience.timeout-percentile:0.99}")
+    private double timeoutPercentile;
+
+    @Value("${app.openfoodfacts.resilience.timeout-multiplier:2.0}")
+    private double timeoutMultiplier;
+
+    @Value("${app.openfoodfacts.resilience.min-timeout:PT0.5S}")
+    private Duration minTimeout;
+
+    @Value("${app.openfoodfacts.resilience.latency-window-size:200}")
+    private int latencyWindowSize;
+
+    // Replaced in tests to control time
+    private LongSupplier ticker = System::nanoTime;
+
+    private Semaphore bulkhead;
+    private Circuit apiCircuit;
+    private final Map<String, Circuit> circuits = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        bulkhead = new Semaphore(maxConcurrentCalls);
+        Gauge.builder(METRIC_PREFIX + ".bulkhead.available", bulkhead, Semaphore::availablePermits)
+                .register(meterRegistry);
+        apiCircuit = circuit(API_ENDPOINT);
+    }
+
+    /**
+     * Admits a call to the configured API if its circuit and the bulkhead allow it.
+     *
+     * @return Handle to report the call's outcome and release its bulkhead slot with
+     * @throws ServiceUnavailableException if the circuit is open or the bulkhead is full
+     */
+    public Call acquire() {
+        return apiCircuit.acquire();
+    }
+
+    /**
+     * Admits a call to an endpoint if the endpoint's circuit and the bulkhead allow it.
+     *
+     * @param endpoint Name of the endpoint, e.g. a mirror's host
+     * @return Handle to report the call's outcome and release its bulkhead slot with
+     * @throws ServiceUnavailableException if the circuit is open or the bulkhead is full
+     */
+    public Call acquire(String endpoint) {
+        return circuit(endpoint).acquire();
+    }
+
+    public State getState() {
+        return apiCircuit.getState();
+    }
+
+    /**
+     * @return Failure rate of the API's sliding window in percent, or -1 before
+     *         {@code minimum-calls} are recorded
+     */
+    public double getFailureRate() {
+        return apiCircuit.getFailureRate();
+    }
+
+    public long getTimeoutMillis() {
+        return apiCircuit.timeoutMillis;
+    }
+
+    /**
+     * @return Circuit state of an endpoint
+     */
+    public State getState(String endpoint) {
+        return circuit(endpoint).getState();
+    }
+
+    @Override
+    public Health health() {
+        State current = getState();
+        Health.Builder health = Health.status(current == State.OPEN ? CIRCUIT_OPEN : Status.UP)
+                .withDetail("state", current)
+                .withDetail("failureRate", getFailureRate())
+                .withDetail("availableConcurrentCalls", bulkhead.availablePermits())
+                .withDetail("timeoutMillis", getTimeoutMillis());
+        Map<String, State> mirrors = new LinkedHashMap<>();
+        circuits.forEach((endpoint, circuit) -> {
+            if (circuit != apiCircuit) {
+                mirrors.put(endpoint, circuit.getState());
+            }
+        });
+        if (!mirrors.isEmpty()) {
+            health.withDetail("mirrors", mirrors);
+        }
+        return health.build();
+    }
+
+    /**
+     * An admitted call. Exactly one outcome is recorded, whichever is reported first, and the
+     * bulkhead slot is released once.
+     */
+    public final class Call {
+
+        private final Circuit circuit;
+        private final long timeoutMillis;
+        private final long startedAt;
+        private final AtomicBoolean recorded = new AtomicBoolean();
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Call(Circuit circuit, long timeoutMillis, long startedAt) {
+            this.circuit = circuit;
+            this.timeoutMillis = timeoutMillis;
+            this.startedAt = startedAt;
+        }
+
+        /**
+         * @return Time budget for this call in milliseconds
+         */
+        public long timeoutMillis() {
+            return timeoutMillis;
+        }
+
+        /**
+         * Records that the API answered, including "not found" and other client-level answers.
+         */
+        public void succeeded() {
+            if (recorded.compareAndSet(false, true)) {
+                circuit.successes.increment();
+                circuit.onOutcome(false, Duration.ofNanos(ticker.getAsLong() - startedAt).toMillis());
+            }
+        }
+
+        /**
+         * Records a transport failure or a server error.
+         */
+        public void failed() {
+            if (recorded.compareAndSet(false, true)) {
+                circuit.failures.increment();
+                circuit.onOutcome(true, -1);
+            }
+        }
+
+        /**
+         * Records that the call exceeded its budget; counts as a failure taking the full budget.
+         */
+        public void timedOut() {
+            if (recorded.compareAndSet(false, true)) {
+                circuit.timeouts.increment();
+                circuit.onOutcome(true, timeoutMillis);
+            }
+        }
+
+        /**
+         * Frees the bulkhead slot; call once the outbound request has finished.
+         */
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                bulkhead.release();
+            }
+        }
+    }
+
+    // ==================== Helper Methods ====================
+
+    private Circuit circuit(String endpoint) {
+        return circuits.computeIfAbsent(endpoint, Circuit::new);
+    }
+
+    /**
+     * Circuit breaker and adaptive timeout of one endpoint.
+     */
+    private final class Circuit {
+
+        private final String endpoint;
+
+        // Guarded by this
+        private State state = State.CLOSED;
+        private final boolean[] outcomes = new boolean[slidingWindowSize];
+        private int outcomeCount;
+        private int outcomeIndex;
+        private int failureCount;
+        private long openedAt;
+        private int halfOpenPermits;
+        private int halfOpenSuccesses;
+
+        // Recent latencies in milliseconds, guarded by this
+        private final long[] latencies = new long[latencyWindowSize];
+        private int latencyCount;
+        private int latencyIndex;
+        private volatile long timeoutMillis = maxTimeoutMillis;
+
+        private final Counter successes;
+        private final Counter failures;
+        private final Counter timeouts;
+        private final Counter circuitOpenRejections;
+        private final Counter bulkheadFullRejections;
+
+        private Circuit(String endpoint) {
+            this.endpoint = endpoint;
+            successes = counter(".calls", "outcome", "success");
+            failures = counter(".calls", "outcome", "failure");
+            timeouts = counter(".calls", "outcome", "timeout");
+            circuitOpenRejections = counter(".rejections", "reason", "circuit_open");
+            bulkheadFullRejections = counter(".rejections", "reason", "bulkhead_full");
+            for (State candidate : State.values()) {
+                Gauge.builder(METRIC_PREFIX + ".circuit.state", this, c -> c.getState() == candidate ? 1 : 0)
+                        .tag("endpoint", endpoint)
+                        .tag("state", candidate.name().toLowerCase())
+                        .register(meterRegistry);
+            }
+            Gauge.builder(METRIC_PREFIX + ".circuit.failure-rate", this, Circuit::getFailureRate)
+                    .tag("endpoint", endpoint)
+                    .baseUnit("percent")
+                    .register(meterRegistry);
+            Gauge.builder(METRIC_PREFIX + ".timeout", this, c -> c.timeoutMillis)
+                    .tag("endpoint", endpoint)
+                    .baseUnit("milliseconds")
+                    .register(meterRegistry);
+        }
+
+        private Counter counter(String name, String tag, String value) {
+            return Counter.builder(METRIC_PREFIX + name)
+                    .tag("endpoint", endpoint)
+                    .tag(tag, value)
+                    .register(meterRegistry);
+        }
+
+        private Call acquire() {
+            boolean trial = admitThroughCircuit();
+            if (!bulkhead.tryAcquire()) {
+                if (trial) {
+                    returnTrialPermit();
+                }
+                bulkheadFullRejections.increment();
+                throw new ServiceUnavailableException(
+                        "Too many concurrent Open Food Facts lookups (limit " + maxConcurrentCalls + ")", null);
+            }
+            // Trial calls get the full budget so a recovered but slower API can close the circuit
+            return new Call(this, trial ? maxTimeoutMillis : timeoutMillis, ticker.getAsLong());
+        }
+
+        private synchronized State getState() {
+            transitionIfOpenDurationElapsed();
+            return state;
+        }
+
+        private synchronized double getFailureRate() {
+            return outcomeCount < minimumCalls ? -1 : failureCount * 100.0 / outcomeCount;
+        }
+
+        private synchronized boolean admitThroughCircuit() {
+            transitionIfOpenDurationElapsed();
+            if (state == State.OPEN) {
+                circuitOpenRejections.increment();
+                throw new ServiceUnavailableException(
+                        "Open Food Facts lookups are suspended after repeated failures (" + endpoint + ")", null);
+            }
+            if (state == State.HALF_OPEN) {
+                if (halfOpenPermits == 0) {
+                    circuitOpenRejections.increment();
+                    throw new ServiceUnavailableException(
+                            "Open Food Facts lookups are being probed after repeated failures (" + endpoint + ")", null);
+                }
+                halfOpenPermits--;
+                return true;
+            }
+            return false;
+        }
+
+        private synchronized void returnTrialPermit() {
+            if (state == State.HALF_OPEN) {
+                halfOpenPermits++;
+            }
+        }
+
+        private synchronized void onOutcome(boolean failure, long latencyMillis) {
+            if (latencyMillis >= 0) {
+                recordLatency(latencyMillis);
+            }
+            switch (state) {
+                case HALF_OPEN -> {
+                    if (failure) {
+                        open();
+                    } else if (++halfOpenSuccesses >= halfOpenCalls) {
+                        close();
+                    }
+                }
+                case CLOSED -> {
+                    recordOutcome(failure);
+                    if (outcomeCount >= minimumCalls && failureCount * 100.0 / outcomeCount >= failureRateThreshold) {
+                        open();
+                    }
+                }
+                case OPEN -> {
+                    // Late outcome of a call admitted before the circuit opened
+                }
+            }
+        }
+
+        private void recordOutcome(boolean failure) {
+            if (outcomeCount == outcomes.length) {
+                if (outcomes[outcomeIndex]) {
+                    failureCount--;
+                }
+            } else {
+                outcomeCount++;
+            }
+            outcomes[outcomeIndex] = failure;
+            if (failure) {
+                failureCount++;
+            }
+            outcomeIndex = (outcomeIndex + 1) % outcomes.length;
+        }
+
+        private void recordLatency(long latencyMillis) {
+            latencies[latencyIndex] = latencyMillis;
+            latencyIndex = (latencyIndex + 1) % latencies.length;
+            latencyCount = Math.min(latencyCount + 1, latencies.length);
+            if (latencyCount < minimumCalls) {
+                return;
+            }
+
+            long[] sorted = Arrays.copyOf(latencies, latencyCount);
+            Arrays.sort(sorted);
+            long percentile = sorted[(int) Math.min(sorted.length - 1, Math.ceil(timeoutPercentile * sorted.length) - 1)];
+            long adaptive = (long) Math.ceil(percentile * timeoutMultiplier);
+            timeoutMillis = Math.max(minTimeout.toMillis(), Math.min(maxTimeoutMillis, adaptive));
+        }
+
+        private void transitionIfOpenDurationElapsed() {
+            if (state == State.OPEN && ticker.getAsLong() - openedAt >= openDuration.toNanos()) {
+                state = State.HALF_OPEN;
+                halfOpenPermits = halfOpenCalls;
+                halfOpenSuccesses = 0;
+                log.info("Open Food Facts circuit of {} half-open; probing with up to {} calls", endpoint, halfOpenCalls);
+            }
+        }
+
+        private void open() {
+            state = State.OPEN;
+            openedAt = ticker.getAsLong();
+            log.warn("Open Food Facts circuit of {} opened (failure rate {}%); rejecting lookups for {}", endpoint,
+                    outcomeCount == 0 ? 100 : Math.round(failureCount * 100.0 / outcomeCount), openDuration);
+        }
+
+        private void close() {
+            state = State.CLOSED;
+            Arrays.fill(outcomes, false);
+            outcomeCount = 0;
+            outcomeIndex = 0;
+            failureCount = 0;
+            log.info("Open Food Facts circuit of {} closed", endpoint);
+        }
+    }
+}
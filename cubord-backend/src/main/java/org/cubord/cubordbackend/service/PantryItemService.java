@@ -2,29 +2,47 @@ package org.cubord.cubordbackend.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.cubord.cubordbackend.domain.HouseholdInventoryStats;
 import org.cubord.cubordbackend.domain.Location;
 import org.cubord.cubordbackend.domain.PantryItem;
 import org.cubord.cubordbackend.domain.Product;
 import org.cubord.cubordbackend.dto.location.LocationResponse;
+import org.cubord.cubordbackend.dto.pagination.CursorPageResponse;
+import org.cubord.cubordbackend.dto.pantryItem.BatchDeletePantryItemsResponse;
+import org.cubord.cubordbackend.dto.pantryItem.ConsumeProductResponse;
 import org.cubord.cubordbackend.dto.pantryItem.CreatePantryItemRequest;
+import org.cubord.cubordbackend.dto.pantryItem.MovePantryItemsRequest;
+import org.cubord.cubordbackend.dto.pantryItem.MovePantryItemsResponse;
+import org.cubord.cubordbackend.dto.pantryItem.PantryItemQuantityResponse;
 import org.cubord.cubordbackend.dto.pantryItem.PantryItemResponse;
+import org.cubord.cubordbackend.dto.pantryItem.PantryStatisticsResponse;
 import org.cubord.cubordbackend.dto.pantryItem.UpdatePantryItemRequest;
 import org.cubord.cubordbackend.dto.product.ProductResponse;
+import org.cubord.cubordbackend.exception.BusinessRuleViolationException;
+import org.cubord.cubordbackend.exception.ConflictException;
 import org.cubord.cubordbackend.exception.DataIntegrityException;
 import org.cubord.cubordbackend.exception.InsufficientPermissionException;
 import org.cubord.cubordbackend.exception.NotFoundException;
 import org.cubord.cubordbackend.exception.ValidationException;
 import org.cubord.cubordbackend.repository.LocationRepository;
 import org.cubord.cubordbackend.repository.PantryItemRepository;
+import org.cubord.cubordbackend.repository.PantryItemRepositoryCustom;
 import org.cubord.cubordbackend.repository.ProductRepository;
 import org.cubord.cubordbackend.security.SecurityService;
+import org.cubord.cubordbackend.util.CursorCodec;
+import org.cubord.cubordbackend.util.Gtin;
+import org.springframework.data.domain.Limit;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -58,11 +76,24 @@ import java.util.stream.Collectors;
 @Slf4j
 public class PantryItemService {
 
+    static final int DEFAULT_LOW_STOCK_THRESHOLD = 5;
+    static final int DEFAULT_EXPIRING_WITHIN_DAYS = 7;
+
+    // Bounds used by the keyset queries; see PantryItemRepository#EXPIRATION_SORT_KEY
+    private static final LocalDate MIN_DATE = LocalDate.of(1, 1, 1);
+    private static final LocalDate NO_EXPIRATION_DATE = LocalDate.of(9999, 12, 31);
+    private static final int NOTES_MAX_LENGTH = 500;
+
     private final PantryItemRepository pantryItemRepository;
     private final LocationRepository locationRepository;
     private final ProductRepository productRepository;
     private final SecurityService securityService;
     private final ProductService productService;
+    private final InventoryStatsService inventoryStatsService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.search.trigram-enabled:false}")
+    private boolean trigramSearchEnabled;
 
     // ==================== Create Operations ====================
 
@@ -73,7 +104,13 @@ public class PantryItemService {
      * This is enforced by checking if the user is a member of the household that owns the location.</p>
      *
      * <p>If an item with the same product, location, and expiration date exists,
-     * the quantities are consolidated instead of creating a duplicate.</p>
+     * the quantities are consolidated instead of creating a duplicate. The check and the
+     * write are a single upsert, so concurrent requests for the same item cannot create
+     * duplicates or lose quantity.</p>
+     *
+     * <p>A scanned UPC is resolved before the pantry transaction opens, so an external lookup for
+     * a new product holds no pooled connection, and the product it creates is committed before the
+     * item refers to it.</p>
      *
      * @param request DTO containing pantry item information
      * @return PantryItemResponse containing the created or updated pantry item's details
@@ -82,7 +119,6 @@ public class PantryItemService {
      * @throws InsufficientPermissionException if a user cannot access the household
      * @throws DataIntegrityException          if save operation fails
      */
-    @Transactional
     @PreAuthorize("@security.canAccessLocationForPantryItem(#request.locationId)")
     public PantryItemResponse createPantryItem(CreatePantryItemRequest request) {
         if (request == null) {
@@ -95,75 +131,179 @@ public class PantryItemService {
         // Validate required fields
         validateCreateRequest(request);
 
+        Map<String, UUID> scannedProducts = lookUpScannedProducts(List.of(request));
+        return transactionTemplate.execute(status -> insertPantryItem(request, scannedProducts, currentUserId));
+    }
+
+    private PantryItemResponse insertPantryItem(CreatePantryItemRequest request, Map<String, UUID> scannedProducts,
+                                                UUID currentUserId) {
         // Load and validate location
         Location location = locationRepository.findById(request.getLocationId())
                 .orElseThrow(() -> new NotFoundException("Location not found with ID: " + request.getLocationId()));
 
         // Load and validate product
         // Resolve product by ID or UPC
-        Product product = resolveProduct(request);
+        Product product = resolveProduct(request, scannedProducts);
 
-        // Check for existing item to consolidate
-        Optional<PantryItem> existingItem = pantryItemRepository.findByLocationIdAndProductIdAndExpirationDate(
-                request.getLocationId(),
-                product.getId(),
-                request.getExpirationDate()
-        );
-
-        if (existingItem.isPresent()) {
-            // Consolidate quantities
-            PantryItem item = existingItem.get();
-            int newQuantity = item.getQuantity() + request.getQuantity();
-            item.setQuantity(newQuantity);
-
-            log.debug("Consolidating pantry item {} with {} units (new total: {})",
-                    item.getId(), request.getQuantity(), newQuantity);
-
-            PantryItem saved = pantryItemRepository.save(item);
-            return mapToResponse(saved);
-        }
-
-        // Create a new pantry item
-        PantryItem pantryItem = PantryItem.builder()
+        LocalDateTime now = LocalDateTime.now();
+        PantryItem candidate = PantryItem.builder()
+                .id(UUID.randomUUID())
                 .product(product)
                 .location(location)
                 .quantity(request.getQuantity())
                 .expirationDate(request.getExpirationDate())
                 .notes(request.getNotes())
+                .createdAt(now)
+                .updatedAt(now)
                 .build();
 
+        // Insert, or add to the item with the same product, location, and expiration date, atomically
+        PantryItemRepositoryCustom.ConsolidationResult result;
         try {
-            PantryItem saved = pantryItemRepository.save(pantryItem);
-            log.debug("Created new pantry item with ID: {}", saved.getId());
-            return mapToResponse(saved);
+            result = pantryItemRepository.insertOrConsolidate(candidate);
         } catch (Exception e) {
             log.error("Failed to save pantry item for user {}", currentUserId, e);
             throw new DataIntegrityException("Failed to create pantry item: " + e.getMessage());
         }
+
+        UUID householdId = location.getHousehold().getId();
+        if (result.inserted()) {
+            log.debug("Created new pantry item with ID: {}", result.id());
+            inventoryStatsService.recordChange(null, InventoryStatsService.ItemFootprint.of(candidate));
+            return mapToResponse(candidate);
+        }
+
+        log.debug("Consolidated pantry item {} with {} units (new total: {})",
+                result.id(), request.getQuantity(), result.quantity());
+
+        PantryItem consolidated = pantryItemRepository.findById(result.id())
+                .orElseThrow(() -> new NotFoundException("Pantry item not found with ID: " + result.id()));
+        inventoryStatsService.recordChange(
+                InventoryStatsService.ItemFootprint.of(householdId, product.getId(),
+                        result.quantity() - request.getQuantity(), consolidated.getExpirationDate()),
+                InventoryStatsService.ItemFootprint.of(householdId, product.getId(),
+                        result.quantity(), consolidated.getExpirationDate()));
+        return mapToResponse(consolidated, result.quantity(), now);
     }
 
     /**
      * Creates multiple pantry items in a single batch operation.
      *
-     * <p>Authorization: User must have access to the household for each location.
-     * Each item is validated individually.</p>
+     * <p>Authorization: User must have access to the household for every referenced location.
+     * Access is resolved for all locations with a single query.</p>
+     *
+     * <p>The batch is processed set-wise: locations and products are loaded in bulk, requests
+     * sharing the same product, location, and expiration date are merged in memory, and the merged
+     * items are written with batched upserts that consolidate into existing items. As with
+     * {@link #createPantryItem}, a concurrent request for the same item is consolidated rather than
+     * failing the batch. Scanned UPCs are resolved before the transaction opens, as in
+     * {@link #createPantryItem}.</p>
      *
      * @param requests List of create requests
-     * @return List of created/updated pantry item responses
-     * @throws ValidationException if any request is invalid
+     * @return List of created/updated pantry item responses, one per distinct resulting item
+     * @throws ValidationException             if any request is invalid
+     * @throws NotFoundException               if any location or product is not found
+     * @throws InsufficientPermissionException if a user cannot access one of the households
+     * @throws DataIntegrityException          if the batch write fails
      */
-    @Transactional
+    @PreAuthorize("@security.canAccessLocationsForPantryItems(#requests?.![#this?.locationId])")
     public List<PantryItemResponse> createMultiplePantryItems(List<CreatePantryItemRequest> requests) {
         if (requests == null || requests.isEmpty()) {
             throw new ValidationException("Pantry item requests list cannot be null or empty");
         }
+        if (requests.stream().anyMatch(Objects::isNull)) {
+            throw new ValidationException("Pantry item request cannot be null");
+        }
 
         UUID currentUserId = securityService.getCurrentUserId();
         log.debug("User {} creating {} pantry items in batch", currentUserId, requests.size());
 
-        return requests.stream()
-                .map(this::createPantryItem)
-                .collect(Collectors.toList());
+        requests.forEach(this::validateCreateRequest);
+
+        Map<String, UUID> scannedProducts = lookUpScannedProducts(requests);
+        return transactionTemplate.execute(status -> insertPantryItems(requests, scannedProducts, currentUserId));
+    }
+
+    private List<PantryItemResponse> insertPantryItems(List<CreatePantryItemRequest> requests,
+                                                       Map<String, UUID> scannedProducts, UUID currentUserId) {
+        // Load every referenced location and product in bulk
+        Map<UUID, Location> locations = loadLocations(requests);
+        Map<CreatePantryItemRequest, Product> products = resolveProducts(requests, scannedProducts);
+
+        // Merge requests that target the same item
+        Map<ConsolidationKey, PendingItem> pending = new LinkedHashMap<>();
+        for (CreatePantryItemRequest request : requests) {
+            Product product = products.get(request);
+            ConsolidationKey key = new ConsolidationKey(
+                    request.getLocationId(), product.getId(), request.getExpirationDate());
+            pending.computeIfAbsent(key, k -> new PendingItem(locations.get(k.locationId()), product))
+                    .add(request);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<PantryItem> candidates = new ArrayList<>(pending.size());
+        for (Map.Entry<ConsolidationKey, PendingItem> entry : pending.entrySet()) {
+            PendingItem item = entry.getValue();
+            candidates.add(PantryItem.builder()
+                    .id(UUID.randomUUID())
+                    .product(item.product)
+                    .location(item.location)
+                    .quantity(item.quantity)
+                    .expirationDate(entry.getKey().expirationDate())
+                    .notes(item.notes)
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .build());
+        }
+
+        // Insert, or add to the existing item with the same key, atomically for every merged request
+        List<PantryItemRepositoryCustom.ConsolidationResult> results;
+        try {
+            results = pantryItemRepository.batchInsertOrConsolidate(candidates);
+        } catch (Exception e) {
+            log.error("Failed to write pantry item batch for user {}", currentUserId, e);
+            throw new DataIntegrityException("Failed to create pantry items: " + e.getMessage());
+        }
+
+        // Consolidated items are loaded with one query for their notes and creation time
+        Set<UUID> consolidatedIds = results.stream()
+                .filter(result -> !result.inserted())
+                .map(PantryItemRepositoryCustom.ConsolidationResult::id)
+                .collect(Collectors.toSet());
+        Map<UUID, PantryItem> consolidatedItems = consolidatedIds.isEmpty()
+                ? Map.of()
+                : pantryItemRepository.findAllById(consolidatedIds).stream()
+                        .collect(Collectors.toMap(PantryItem::getId, item -> item));
+
+        List<PantryItemResponse> responses = new ArrayList<>(candidates.size());
+        List<InventoryStatsService.ItemFootprint> replacedFootprints = new ArrayList<>();
+        List<InventoryStatsService.ItemFootprint> resultingFootprints = new ArrayList<>(candidates.size());
+        for (int i = 0; i < candidates.size(); i++) {
+            PantryItem candidate = candidates.get(i);
+            PantryItemRepositoryCustom.ConsolidationResult result = results.get(i);
+            if (result.inserted()) {
+                responses.add(mapToResponse(candidate));
+                resultingFootprints.add(InventoryStatsService.ItemFootprint.of(candidate));
+                continue;
+            }
+
+            PantryItem existing = consolidatedItems.get(result.id());
+            if (existing == null) {
+                throw new NotFoundException("Pantry item not found with ID: " + result.id());
+            }
+            UUID householdId = candidate.getLocation().getHousehold().getId();
+            UUID productId = candidate.getProduct().getId();
+            responses.add(mapToResponse(existing, result.quantity(), now));
+            replacedFootprints.add(InventoryStatsService.ItemFootprint.of(householdId, productId,
+                    result.quantity() - candidate.getQuantity(), candidate.getExpirationDate()));
+            resultingFootprints.add(InventoryStatsService.ItemFootprint.of(householdId, productId,
+                    result.quantity(), candidate.getExpirationDate()));
+        }
+        inventoryStatsService.recordChanges(replacedFootprints, resultingFootprints);
+
+        log.debug("Batch of {} requests produced {} new and {} consolidated pantry items",
+                requests.size(), candidates.size() - consolidatedIds.size(), consolidatedIds.size());
+        return responses;
     }
 
     // ==================== Read Operations ====================
@@ -351,6 +491,9 @@ public class PantryItemService {
     /**
      * Searches pantry items in a household by search term.
      *
+     * <p>When trigram search is enabled, matching is typo tolerant and results are ordered by
+     * relevance.</p>
+     *
      * @param householdId UUID of the household
      * @param searchTerm  Term to search for in product names, brands, and notes
      * @return List of PantryItemResponse objects matching the search
@@ -371,56 +514,337 @@ public class PantryItemService {
         log.debug("User {} searching pantry items in household {} with term: {}",
                 currentUserId, householdId, searchTerm);
 
-        List<PantryItem> items = pantryItemRepository.searchItemsInHousehold(householdId, searchTerm);
+        List<PantryItem> items = trigramSearchEnabled
+                ? findRankedMatches(householdId, searchTerm.trim(), Pageable.unpaged()).getContent()
+                : pantryItemRepository.searchItemsInHousehold(householdId, searchTerm);
         return items.stream()
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
     }
 
     /**
-     * Gets pantry statistics for a household.
+     * Retrieves one page of search results in a household.
      *
-     * <p>Authorization: User must have access to the household.</p>
+     * <p>When trigram search is enabled, matching is typo tolerant and results are ranked by
+     * similarity to the search term, best match first. Otherwise results are substring matches
+     * ordered by product name.</p>
      *
      * @param householdId UUID of the household
-     * @return Map containing pantry statistics (totalItems, distinctProducts, lowStockCount, expiringCount, noExpirationDateCount)
-     * @throws ValidationException             if householdId is null
+     * @param searchTerm  Term to search for in product names, brands, and notes
+     * @param pageable    Pagination information
+     * @return Page of matching pantry items
+     * @throws ValidationException             if a search term is null or empty
+     * @throws InsufficientPermissionException if a user is not a member of the household
+     */
+    @Transactional(readOnly = true)
+    @PreAuthorize("@security.canAccessHousehold(#householdId)")
+    public Page<PantryItemResponse> searchPantryItems(UUID householdId, String searchTerm, Pageable pageable) {
+        if (householdId == null) {
+            throw new ValidationException("Household ID cannot be null");
+        }
+        if (searchTerm == null || searchTerm.trim().isEmpty()) {
+            throw new ValidationException("Search term cannot be null or empty");
+        }
+
+        UUID currentUserId = securityService.getCurrentUserId();
+        log.debug("User {} searching pantry items in household {} with term: {} ({})",
+                currentUserId, householdId, searchTerm, pageable);
+
+        Page<PantryItem> items = trigramSearchEnabled
+                ? findRankedMatches(householdId, searchTerm.trim(), pageable)
+                : pantryItemRepository.searchItemsInHousehold(householdId, searchTerm, pageable);
+        return items.map(this::mapToResponse);
+    }
+
+    // ==================== Keyset Pagination ====================
+
+    /**
+     * Retrieves one keyset page of pantry items in a location, ordered by product name,
+     * expiration date (missing dates last), and ID.
+     *
+     * <p>Authorization: User must have access to the household containing the location.</p>
+     *
+     * @param locationId   UUID of the location
+     * @param cursor       Cursor from the previous page, or null for the first page
+     * @param limit        Maximum number of items to return
+     * @param includeTotal Whether to count all matching items
+     * @return Page of pantry items with a cursor for the next page
+     * @throws ValidationException             if locationId is null, the limit is out of range, or the cursor is invalid
+     * @throws InsufficientPermissionException if a user cannot access the household
+     */
+    @Transactional(readOnly = true)
+    @PreAuthorize("@security.canAccessLocationForPantryItem(#locationId)")
+    public CursorPageResponse<PantryItemResponse> getPantryItemsByLocation(
+            UUID locationId, String cursor, int limit, boolean includeTotal) {
+        if (locationId == null) {
+            throw new ValidationException("Location ID cannot be null");
+        }
+        CursorCodec.validateLimit(limit);
+
+        UUID currentUserId = securityService.getCurrentUserId();
+        log.debug("User {} retrieving pantry item page for location: {}", currentUserId, locationId);
+
+        NameCursor after = NameCursor.decode(cursor);
+        List<PantryItem> rows = pantryItemRepository.findPageByLocationId(
+                locationId, after.name(), after.expirationDate(), after.id(), Limit.of(limit + 1));
+        Long total = includeTotal ? pantryItemRepository.countByLocationId(locationId) : null;
+
+        return CursorPageResponse.fromRows(rows, limit, this::mapToResponse, NameCursor::encode, total);
+    }
+
+    /**
+     * Retrieves one keyset page of pantry items in a household, ordered by product name,
+     * expiration date (missing dates last), and ID.
+     *
+     * <p>Unlike the offset-based variant, no count query runs unless requested, and deep
+     * pages cost the same as the first one: each page is a seek in an index on the item's
+     * household, product name, expiration date, and ID.</p>
+     *
+     * <p>Authorization: User must have access to the household.</p>
+     *
+     * @param householdId  UUID of the household
+     * @param cursor       Cursor from the previous page, or null for the first page
+     * @param limit        Maximum number of items to return
+     * @param includeTotal Whether to count all matching items
+     * @return Page of pantry items with a cursor for the next page
+     * @throws ValidationException             if householdId is null, the limit is out of range, or the cursor is invalid
      * @throws InsufficientPermissionException if a user cannot access the household
      */
     @Transactional(readOnly = true)
     @PreAuthorize("@security.canAccessHousehold(#householdId)")
-    public Map<String, Object> getPantryStatistics(UUID householdId) {
+    public CursorPageResponse<PantryItemResponse> getPantryItemsByHousehold(
+            UUID householdId, String cursor, int limit, boolean includeTotal) {
         if (householdId == null) {
             throw new ValidationException("Household ID cannot be null");
         }
+        CursorCodec.validateLimit(limit);
 
         UUID currentUserId = securityService.getCurrentUserId();
-        log.debug("User {} retrieving pantry statistics for household: {}", currentUserId, householdId);
+        log.debug("User {} retrieving pantry item page for household: {}", currentUserId, householdId);
 
-        Map<String, Object> statistics = new HashMap<>();
+        NameCursor after = NameCursor.decode(cursor);
+        List<PantryItem> rows = pantryItemRepository.findPageByHouseholdId(
+                householdId, after.name(), after.expirationDate(), after.id(), Limit.of(limit + 1));
+        Long total = includeTotal ? pantryItemRepository.countByLocation_HouseholdId(householdId) : null;
 
-        // Total items count
-        long totalItems = pantryItemRepository.countByLocation_HouseholdId(householdId);
-        statistics.put("totalItems", totalItems);
+        return CursorPageResponse.fromRows(rows, limit, this::mapToResponse, NameCursor::encode, total);
+    }
 
-        // Distinct products count
-        long distinctProducts = pantryItemRepository.countDistinctProductsByHouseholdId(householdId);
-        statistics.put("distinctProducts", distinctProducts);
+    /**
+     * Retrieves one keyset page of low stock items for a household, ordered by quantity,
+     * product name, and ID.
+     *
+     * <p>Authorization: User must have access to the household.</p>
+     *
+     * @param householdId  UUID of the household
+     * @param threshold    Stock threshold (items with quantity <= threshold)
+     * @param cursor       Cursor from the previous page, or null for the first page
+     * @param limit        Maximum number of items to return
+     * @param includeTotal Whether to count all matching items
+     * @return Page of low-stock pantry items with a cursor for the next page
+     * @throws ValidationException             if householdId is null, a threshold is negative, the limit is out of range, or the cursor is invalid
+     * @throws InsufficientPermissionException if a user cannot access the household
+     */
+    @Transactional(readOnly = true)
+    @PreAuthorize("@security.canAccessHousehold(#householdId)")
+    public CursorPageResponse<PantryItemResponse> getLowStockItems(
+            UUID householdId, int threshold, String cursor, int limit, boolean includeTotal) {
+        if (householdId == null) {
+            throw new ValidationException("Household ID cannot be null");
+        }
+        if (threshold < 0) {
+            throw new ValidationException("Threshold cannot be negative");
+        }
+        CursorCodec.validateLimit(limit);
 
-        // Low stock items (threshold of 5)
-        List<PantryItem> lowStockItems = pantryItemRepository.findLowStockItemsInHousehold(householdId, 5);
-        statistics.put("lowStockCount", lowStockItems.size());
+        UUID currentUserId = securityService.getCurrentUserId();
+        log.debug("User {} retrieving low stock page (threshold: {}) for household: {}",
+                currentUserId, threshold, householdId);
 
-        // Expiring items (within 7 days)
-        LocalDate sevenDaysFromNow = LocalDate.now().plusDays(7);
-        long expiringCount = pantryItemRepository.countExpiringItemsByHouseholdIdAndDate(householdId, sevenDaysFromNow);
-        statistics.put("expiringCount", expiringCount);
+        StockCursor after = StockCursor.decode(cursor);
+        List<PantryItem> rows = pantryItemRepository.findLowStockPageInHousehold(
+                householdId, threshold, after.quantity(), after.name(), after.id(), Limit.of(limit + 1));
+        Long total = includeTotal ? pantryItemRepository.countLowStockItemsInHousehold(householdId, threshold) : null;
 
-        // Items without expiration date
-        List<PantryItem> noExpirationItems = pantryItemRepository.findByExpirationDateIsNullAndLocation_HouseholdId(householdId);
-        statistics.put("noExpirationDateCount", noExpirationItems.size());
+        return CursorPageResponse.fromRows(rows, limit, this::mapToResponse, StockCursor::encode, total);
+    }
 
-        return statistics;
+    /**
+     * Retrieves one keyset page of expiring items for a household within a date range,
+     * ordered by expiration date and ID.
+     *
+     * <p>Authorization: User must have access to the household.</p>
+     *
+     * @param householdId  UUID of the household
+     * @param startDate    Start date for expiration check
+     * @param endDate      End date for expiration check
+     * @param cursor       Cursor from the previous page, or null for the first page
+     * @param limit        Maximum number of items to return
+     * @param includeTotal Whether to count all matching items
+     * @return Page of expiring pantry items with a cursor for the next page
+     * @throws ValidationException             if householdId or a date is null, the limit is out of range, or the cursor is invalid
+     * @throws InsufficientPermissionException if a user cannot access the household
+     */
+    @Transactional(readOnly = true)
+    @PreAuthorize("@security.canAccessHousehold(#householdId)")
+    public CursorPageResponse<PantryItemResponse> getExpiringItems(
+            UUID householdId, LocalDate startDate, LocalDate endDate, String cursor, int limit, boolean includeTotal) {
+        if (householdId == null) {
+            throw new ValidationException("Household ID cannot be null");
+        }
+        if (startDate == null || endDate == null) {
+            throw new ValidationException("Start date and end date cannot be null");
+        }
+        CursorCodec.validateLimit(limit);
+
+        UUID currentUserId = securityService.getCurrentUserId();
+        log.debug("User {} retrieving expiring page for household {} between {} and {}",
+                currentUserId, householdId, startDate, endDate);
+
+        ExpirationCursor after = ExpirationCursor.decode(cursor);
+        List<PantryItem> rows = pantryItemRepository.findExpiringPageInHousehold(
+                householdId, startDate, endDate, after.expirationDate(), after.id(), Limit.of(limit + 1));
+        Long total = includeTotal
+                ? pantryItemRepository.countExpiringItemsInHouseholdBetweenDates(householdId, startDate, endDate)
+                : null;
+
+        return CursorPageResponse.fromRows(rows, limit, this::mapToResponse, ExpirationCursor::encode, total);
+    }
+
+    /**
+     * Retrieves one keyset page of search results in a household, ordered by product name,
+     * expiration date (missing dates last), and ID.
+     *
+     * <p>When trigram search is enabled, matching is typo tolerant as in the other searches, but
+     * results keep this order so that cursors stay stable across pages.</p>
+     *
+     * @param householdId  UUID of the household
+     * @param searchTerm   Term to search for in product names, brands, and notes
+     * @param cursor       Cursor from the previous page, or null for the first page
+     * @param limit        Maximum number of items to return
+     * @param includeTotal Whether to count all matching items
+     * @return Page of matching pantry items with a cursor for the next page
+     * @throws ValidationException             if a search term is null or empty, the limit is out of range, or the cursor is invalid
+     * @throws InsufficientPermissionException if a user is not a member of the household
+     */
+    @Transactional(readOnly = true)
+    @PreAuthorize("@security.canAccessHousehold(#householdId)")
+    public CursorPageResponse<PantryItemResponse> searchPantryItems(
+            UUID householdId, String searchTerm, String cursor, int limit, boolean includeTotal) {
+        if (householdId == null) {
+            throw new ValidationException("Household ID cannot be null");
+        }
+        if (searchTerm == null || searchTerm.trim().isEmpty()) {
+            throw new ValidationException("Search term cannot be null or empty");
+        }
+        CursorCodec.validateLimit(limit);
+
+        UUID currentUserId = securityService.getCurrentUserId();
+        log.debug("User {} searching pantry item page in household {} with term: {}",
+                currentUserId, householdId, searchTerm);
+
+        NameCursor after = NameCursor.decode(cursor);
+        List<PantryItem> rows;
+        Long total = null;
+        if (trigramSearchEnabled) {
+            String term = searchTerm.trim();
+            rows = findInOrder(pantryItemRepository.searchTrigramPageIdsInHousehold(
+                    householdId, term, after.name(), after.expirationDate(), after.id(), limit + 1));
+            if (includeTotal) {
+                total = pantryItemRepository.countTrigramSearchItemsInHousehold(householdId, term);
+            }
+        } else {
+            rows = pantryItemRepository.searchPageInHousehold(
+                    householdId, searchTerm, after.name(), after.expirationDate(), after.id(), Limit.of(limit + 1));
+            if (includeTotal) {
+                total = pantryItemRepository.countSearchItemsInHousehold(householdId, searchTerm);
+            }
+        }
+
+        return CursorPageResponse.fromRows(rows, limit, this::mapToResponse, NameCursor::encode, total);
+    }
+
+    /**
+     * Gets pantry statistics for a household using the default thresholds.
+     *
+     * <p>Authorization: User must have access to the household.</p>
+     *
+     * @param householdId UUID of the household
+     * @return Pantry statistics for the household
+     * @throws ValidationException             if householdId is null
+     * @throws InsufficientPermissionException if a user cannot access the household
+     * @see #getPantryStatistics(UUID, int, int)
+     */
+    @Transactional(readOnly = true)
+    @PreAuthorize("@security.canAccessHousehold(#householdId)")
+    public PantryStatisticsResponse getPantryStatistics(UUID householdId) {
+        return getPantryStatistics(householdId, DEFAULT_LOW_STOCK_THRESHOLD, DEFAULT_EXPIRING_WITHIN_DAYS);
+    }
+
+    /**
+     * Gets pantry statistics for a household.
+     *
+     * <p>Authorization: User must have access to the household.</p>
+     *
+     * <p>Household-wide counters are read from the running counters maintained by
+     * {@link InventoryStatsService}, so only the threshold-dependent counts query pantry items.
+     * Households whose counters have not been initialized fall back to a single aggregate query.</p>
+     *
+     * @param householdId        UUID of the household
+     * @param lowStockThreshold  Items with quantity at or below this value count as low stock
+     * @param expiringWithinDays Items expiring within this many days (or already expired) count as expiring
+     * @return Pantry statistics for the household
+     * @throws ValidationException             if householdId is null or a threshold is negative
+     * @throws InsufficientPermissionException if a user cannot access the household
+     */
+    @Transactional(readOnly = true)
+    @PreAuthorize("@security.canAccessHousehold(#householdId)")
+    public PantryStatisticsResponse getPantryStatistics(UUID householdId, int lowStockThreshold, int expiringWithinDays) {
+        if (householdId == null) {
+            throw new ValidationException("Household ID cannot be null");
+        }
+        if (lowStockThreshold < 0) {
+            throw new ValidationException("Low stock threshold cannot be negative");
+        }
+        if (expiringWithinDays < 0) {
+            throw new ValidationException("Expiring window cannot be negative");
+        }
+
+        UUID currentUserId = securityService.getCurrentUserId();
+        log.debug("User {} retrieving pantry statistics for household: {}", currentUserId, householdId);
+
+        LocalDate expiringBefore = LocalDate.now().plusDays(expiringWithinDays);
+        Optional<HouseholdInventoryStats> counters = inventoryStatsService.getStats(householdId);
+        if (counters.isPresent()) {
+            HouseholdInventoryStats stats = counters.get();
+            PantryItemRepository.PantryThresholdCounts thresholdCounts = pantryItemRepository
+                    .countThresholdItemsByHouseholdId(householdId, lowStockThreshold, expiringBefore);
+
+            return PantryStatisticsResponse.builder()
+                    .totalItems(stats.getTotalItems())
+                    .distinctProducts(stats.getDistinctProducts())
+                    .lowStockCount(thresholdCounts.getLowStockCount())
+                    .expiringCount(thresholdCounts.getExpiringCount())
+                    .noExpirationDateCount(stats.getNoExpirationItems())
+                    .zeroQuantityCount(stats.getZeroQuantityItems())
+                    .lowStockThreshold(lowStockThreshold)
+                    .expiringWithinDays(expiringWithinDays)
+                    .build();
+        }
+
+        PantryItemRepository.PantryStatistics statistics = pantryItemRepository.aggregateStatisticsByHouseholdId(
+                householdId, lowStockThreshold, expiringBefore);
+
+        return PantryStatisticsResponse.builder()
+                .totalItems(statistics.getTotalItems())
+                .distinctProducts(statistics.getDistinctProducts())
+                .lowStockCount(statistics.getLowStockCount())
+                .expiringCount(statistics.getExpiringCount())
+                .noExpirationDateCount(statistics.getNoExpirationDateCount())
+                .zeroQuantityCount(statistics.getZeroQuantityCount())
+                .lowStockThreshold(lowStockThreshold)
+                .expiringWithinDays(expiringWithinDays)
+                .build();
     }
 
     // ==================== Update Operations ====================
@@ -435,6 +859,7 @@ public class PantryItemService {
      * @return PantryItemResponse containing the updated pantry item's details
      * @throws ValidationException             if id or request is null
      * @throws NotFoundException               if pantry item or location not found
+     * @throws ConflictException               if another item in the location has the new product and expiration date
      * @throws InsufficientPermissionException if a user cannot access the household
      */
     @Transactional
@@ -455,6 +880,8 @@ public class PantryItemService {
 
         PantryItem pantryItem = pantryItemRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Pantry item not found with ID: " + id));
+        InventoryStatsService.ItemFootprint before = InventoryStatsService.ItemFootprint.of(pantryItem);
+        ConsolidationKey previous = consolidationKey(pantryItem);
 
         // Update location if provided
         if (request.getLocationId() != null && !request.getLocationId().equals(pantryItem.getLocation().getId())) {
@@ -472,8 +899,10 @@ public class PantryItemService {
         pantryItem.setQuantity(request.getQuantity());
         pantryItem.setExpirationDate(request.getExpirationDate());
         pantryItem.setNotes(request.getNotes());
+        rejectConsolidationConflict(pantryItem, previous);
 
         PantryItem updated = pantryItemRepository.save(pantryItem);
+        inventoryStatsService.recordChange(before, InventoryStatsService.ItemFootprint.of(updated));
         log.debug("Updated pantry item: {}", id);
         return mapToResponse(updated);
     }
@@ -488,6 +917,7 @@ public class PantryItemService {
      * @return PantryItemResponse containing the updated pantry item's details
      * @throws ValidationException             if id or patchData is null
      * @throws NotFoundException               if pantry item not found
+     * @throws ConflictException               if another item in the location has the new product and expiration date
      * @throws InsufficientPermissionException if a user cannot access the household
      */
     @Transactional
@@ -505,15 +935,328 @@ public class PantryItemService {
 
         PantryItem pantryItem = pantryItemRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Pantry item not found with ID: " + id));
+        InventoryStatsService.ItemFootprint before = InventoryStatsService.ItemFootprint.of(pantryItem);
+        ConsolidationKey previous = consolidationKey(pantryItem);
 
         // Apply patch operations
         applyPatchOperations(pantryItem, patchData);
+        rejectConsolidationConflict(pantryItem, previous);
 
         PantryItem updated = pantryItemRepository.save(pantryItem);
+        inventoryStatsService.recordChange(before, InventoryStatsService.ItemFootprint.of(updated));
         log.debug("Patched pantry item: {}", id);
         return mapToResponse(updated);
     }
 
+    /**
+     * Adds a signed delta to the quantity of a pantry item.
+     *
+     * <p>Authorization: User must have access to the household containing the pantry item.</p>
+     *
+     * <p>The adjustment is a single conditional update, so concurrent adjustments never overwrite
+     * each other and the quantity can never drop below zero. The item entity is not loaded.</p>
+     *
+     * @param id    UUID of the pantry item
+     * @param delta Units to add, or remove when negative
+     * @return The adjusted quantity of the item
+     * @throws ValidationException             if id or delta is null or delta is zero
+     * @throws NotFoundException               if pantry item not found
+     * @throws BusinessRuleViolationException  if the item holds fewer units than would be removed
+     * @throws InsufficientPermissionException if a user cannot access the household
+     */
+    @Transactional
+    @PreAuthorize("@security.canAccessPantryItem(#id)")
+    public PantryItemQuantityResponse adjustPantryItemQuantity(UUID id, Integer delta) {
+        if (id == null) {
+            throw new ValidationException("Pantry item ID cannot be null");
+        }
+        if (delta == null || delta == 0) {
+            throw new ValidationException("Quantity delta must be a non-zero value");
+        }
+
+        UUID currentUserId = securityService.getCurrentUserId();
+        log.debug("User {} adjusting pantry item {} by {}", currentUserId, id, delta);
+
+        int updated = pantryItemRepository.adjustQuantity(id, delta, LocalDateTime.now());
+        PantryItemRepository.PantryItemStock stock = pantryItemRepository.findStockById(id)
+                .orElseThrow(() -> new NotFoundException("Pantry item not found with ID: " + id));
+        if (updated == 0) {
+            throw new BusinessRuleViolationException("Cannot remove " + -delta + " units from pantry item " + id
+                    + " holding " + stock.getQuantity());
+        }
+
+        // The row is locked by the update, so the quantity read back is exactly the adjusted one
+        int quantity = stock.getQuantity();
+        inventoryStatsService.recordChange(
+                InventoryStatsService.ItemFootprint.of(stock.getHouseholdId(), stock.getProductId(),
+                        quantity - delta, stock.getExpirationDate()),
+                InventoryStatsService.ItemFootprint.of(stock.getHouseholdId(), stock.getProductId(),
+                        quantity, stock.getExpirationDate()));
+        log.debug("Adjusted pantry item {} to {} units", id, quantity);
+
+        return PantryItemQuantityResponse.builder()
+                .id(id)
+                .quantity(quantity)
+                .expirationDate(stock.getExpirationDate())
+                .build();
+    }
+
+    /**
+     * Consumes units of a product from a location, draining its variants in expiration order.
+     *
+     * <p>Authorization: User must have access to the household containing the location.</p>
+     *
+     * <p>Variants expiring first are emptied first and variants without an expiration date last.
+     * All variants are locked up front and decremented with one JDBC batch, so the operation is
+     * all-or-nothing and no item entity is loaded. Emptied items are kept with a quantity of zero.</p>
+     *
+     * @param locationId UUID of the location
+     * @param productId  UUID of the product
+     * @param quantity   Number of units to consume
+     * @return The consumed and remaining units, and the quantity of every drained item
+     * @throws ValidationException             if any argument is null or quantity is not positive
+     * @throws NotFoundException               if the location is not found
+     * @throws BusinessRuleViolationException  if the location holds fewer units of the product
+     * @throws InsufficientPermissionException if a user cannot access the household
+     */
+    @Transactional
+    @PreAuthorize("@security.canAccessLocationForPantryItem(#locationId)")
+    public ConsumeProductResponse consumeProduct(UUID locationId, UUID productId, Integer quantity) {
+        if (locationId == null) {
+            throw new ValidationException("Location ID cannot be null");
+        }
+        if (productId == null) {
+            throw new ValidationException("Product ID cannot be null");
+        }
+        if (quantity == null || quantity <= 0) {
+            throw new ValidationException("Quantity to consume must be a positive value");
+        }
+
+        UUID currentUserId = securityService.getCurrentUserId();
+        log.debug("User {} consuming {} units of product {} in location {}",
+                currentUserId, quantity, productId, locationId);
+
+        UUID householdId = locationRepository.findHouseholdIdById(locationId)
+                .orElseThrow(() -> new NotFoundException("Location not found with ID: " + locationId));
+
+        List<PantryItemRepositoryCustom.StockEntry> stock =
+                pantryItemRepository.findStockForUpdate(locationId, productId);
+        int available = stock.stream().mapToInt(PantryItemRepositoryCustom.StockEntry::quantity).sum();
+        if (available < quantity) {
+            throw new BusinessRuleViolationException("Cannot consume " + quantity + " units of product "
+                    + productId + "; only " + available + " available in location " + locationId);
+        }
+
+        Map<UUID, Integer> decrements = new LinkedHashMap<>();
+        List<PantryItemQuantityResponse> drained = new ArrayList<>();
+        List<InventoryStatsService.ItemFootprint> before = new ArrayList<>();
+        List<InventoryStatsService.ItemFootprint> after = new ArrayList<>();
+        int outstanding = quantity;
+        for (PantryItemRepositoryCustom.StockEntry entry : stock) {
+            if (outstanding == 0) {
+                break;
+            }
+            int taken = Math.min(entry.quantity(), outstanding);
+            if (taken == 0) {
+                continue;
+            }
+            outstanding -= taken;
+            decrements.put(entry.id(), -taken);
+            drained.add(PantryItemQuantityResponse.builder()
+                    .id(entry.id())
+                    .quantity(entry.quantity() - taken)
+                    .expirationDate(entry.expirationDate())
+                    .build());
+            before.add(InventoryStatsService.ItemFootprint.of(
+                    householdId, productId, entry.quantity(), entry.expirationDate()));
+            after.add(InventoryStatsService.ItemFootprint.of(
+                    householdId, productId, entry.quantity() - taken, entry.expirationDate()));
+        }
+
+        pantryItemRepository.batchIncrementQuantities(decrements);
+        inventoryStatsService.recordChanges(before, after);
+        log.debug("Consumed {} units of product {} from {} items", quantity, productId, drained.size());
+
+        return ConsumeProductResponse.builder()
+                .locationId(locationId)
+                .productId(productId)
+                .consumed(quantity)
+                .remaining(available - quantity)
+                .items(drained)
+                .build();
+    }
+
+    /**
+     * Moves pantry items to another location, merging them into matching items already there.
+     *
+     * <p>Authorization: User must have access to the target location and to every location the
+     * items are moved from. Access for all of them is checked with a single query before any item
+     * is locked or reported missing, and the locations of listed items are confirmed again once
+     * they are locked.</p>
+     *
+     * <p>The items are either listed explicitly or taken from a whole source location. A moved item
+     * whose product and expiration date match an item at the target is folded into that item;
+     * otherwise it is relocated. The involved locations are locked in ID order first, so opposing
+     * concurrent moves wait for each other instead of deadlocking. Items are then read as locked rows
+     * and written with a fixed number of set-based statements, so the cost does not grow with
+     * per-item round trips. The distinct notes of folded items are appended to the notes of the item
+     * they are folded into.</p>
+     *
+     * @param request DTO naming the target location and the items or source location to move
+     * @return The number of moved and merged items, and the resulting quantity of each affected item
+     * @throws ValidationException             if the request is invalid
+     * @throws NotFoundException               if any listed item is not found
+     * @throws ConflictException               if the combined notes of merged items exceed their length limit
+     * @throws InsufficientPermissionException if a user cannot access every involved location
+     */
+    @Transactional
+    @PreAuthorize("@security.canMovePantryItems(#request?.targetLocationId, #request?.itemIds, #request?.sourceLocationId)")
+    public MovePantryItemsResponse movePantryItems(MovePantryItemsRequest request) {
+        if (request == null) {
+            throw new ValidationException("Move request cannot be null");
+        }
+        UUID targetLocationId = request.getTargetLocationId();
+        if (targetLocationId == null) {
+            throw new ValidationException("Target location ID cannot be null");
+        }
+        boolean byItems = request.getItemIds() != null && !request.getItemIds().isEmpty();
+        if (byItems == (request.getSourceLocationId() != null)) {
+            throw new ValidationException("Exactly one of item IDs or source location ID must be provided");
+        }
+        if (byItems && request.getItemIds().stream().anyMatch(Objects::isNull)) {
+            throw new ValidationException("Item IDs list cannot contain null values");
+        }
+        if (targetLocationId.equals(request.getSourceLocationId())) {
+            throw new ValidationException("Source and target location must differ");
+        }
+
+        UUID currentUserId = securityService.getCurrentUserId();
+        log.debug("User {} moving pantry items to location {}", currentUserId, targetLocationId);
+
+        List<PantryItemRepositoryCustom.ItemPlacement> moving;
+        Set<UUID> locationIds = new HashSet<>();
+        locationIds.add(targetLocationId);
+        if (byItems) {
+            Set<UUID> requestedIds = new LinkedHashSet<>(request.getItemIds());
+            pantryItemRepository.findPlacements(requestedIds).forEach(item -> locationIds.add(item.locationId()));
+            pantryItemRepository.lockLocations(locationIds);
+            moving = pantryItemRepository.findPlacementsForUpdate(requestedIds);
+            if (moving.size() < requestedIds.size()) {
+                moving.forEach(item -> requestedIds.remove(item.id()));
+                throw new NotFoundException("Pantry items not found with IDs: " + requestedIds);
+            }
+            // Items may have moved after the @PreAuthorize check, so access is confirmed where they are locked
+            moving.forEach(item -> locationIds.add(item.locationId()));
+            authorizeLocations(locationIds);
+        } else {
+            locationIds.add(request.getSourceLocationId());
+            pantryItemRepository.lockLocations(locationIds);
+            moving = pantryItemRepository.findPlacementsAtLocationForUpdate(request.getSourceLocationId(), null);
+        }
+
+        // Items already at the target stay in place
+        List<PantryItemRepositoryCustom.ItemPlacement> toMove = moving.stream()
+                .filter(item -> !item.locationId().equals(targetLocationId))
+                .toList();
+        if (toMove.isEmpty()) {
+            log.debug("No pantry items to move to location {}", targetLocationId);
+            return MovePantryItemsResponse.builder()
+                    .targetLocationId(targetLocationId)
+                    .items(List.of())
+                    .build();
+        }
+
+        Map<UUID, UUID> households = locationRepository.findHouseholdIdsByIdIn(locationIds).stream()
+                .collect(Collectors.toMap(
+                        LocationRepository.LocationHousehold::getLocationId,
+                        LocationRepository.LocationHousehold::getHouseholdId));
+        UUID targetHouseholdId = households.get(targetLocationId);
+
+        // Every item at the target, keyed the way items are consolidated, including relocated ones
+        Set<UUID> productIds = toMove.stream()
+                .map(PantryItemRepositoryCustom.ItemPlacement::productId)
+                .collect(Collectors.toSet());
+        Map<ConsolidationKey, PantryItemRepositoryCustom.ItemPlacement> destination = new LinkedHashMap<>();
+        for (PantryItemRepositoryCustom.ItemPlacement item
+                : pantryItemRepository.findPlacementsAtLocationForUpdate(targetLocationId, productIds)) {
+            destination.putIfAbsent(moveKey(targetLocationId, item), item);
+        }
+
+        List<UUID> relocated = new ArrayList<>();
+        List<UUID> merged = new ArrayList<>();
+        Map<UUID, Integer> increments = new LinkedHashMap<>();
+        Map<UUID, MergedNotes> mergedNotes = new LinkedHashMap<>();
+        List<InventoryStatsService.ItemFootprint> before = new ArrayList<>();
+        for (PantryItemRepositoryCustom.ItemPlacement item : toMove) {
+            before.add(InventoryStatsService.ItemFootprint.of(households.get(item.locationId()),
+                    item.productId(), item.quantity(), item.expirationDate()));
+
+            ConsolidationKey key = moveKey(targetLocationId, item);
+            PantryItemRepositoryCustom.ItemPlacement receiver = destination.get(key);
+            if (receiver == null) {
+                destination.put(key, item);
+                relocated.add(item.id());
+            } else {
+                increments.merge(receiver.id(), item.quantity(), Integer::sum);
+                mergedNotes.computeIfAbsent(receiver.id(), id -> new MergedNotes(receiver.notes())).add(item.notes());
+                merged.add(item.id());
+            }
+        }
+
+        // Notes are combined rather than dropped, and a merge that cannot keep them all is refused
+        Map<UUID, String> notes = new LinkedHashMap<>();
+        mergedNotes.forEach((id, combined) -> {
+            if (combined.changed) {
+                String joined = combined.toString();
+                if (joined.length() > NOTES_MAX_LENGTH) {
+                    throw new ConflictException("Combined notes of the items merged into pantry item " + id
+                            + " exceed " + NOTES_MAX_LENGTH + " characters");
+                }
+                notes.put(id, joined);
+            }
+        });
+
+        Set<UUID> relocatedIds = new HashSet<>(relocated);
+        List<InventoryStatsService.ItemFootprint> after = new ArrayList<>();
+        List<PantryItemQuantityResponse> items = new ArrayList<>();
+        for (PantryItemRepositoryCustom.ItemPlacement item : destination.values()) {
+            boolean moved = relocatedIds.contains(item.id());
+            Integer added = increments.get(item.id());
+            if (!moved && added == null) {
+                continue;
+            }
+            if (!moved) {
+                before.add(InventoryStatsService.ItemFootprint.of(
+                        targetHouseholdId, item.productId(), item.quantity(), item.expirationDate()));
+            }
+            int quantity = item.quantity() + (added != null ? added : 0);
+            after.add(InventoryStatsService.ItemFootprint.of(
+                    targetHouseholdId, item.productId(), quantity, item.expirationDate()));
+            items.add(PantryItemQuantityResponse.builder()
+                    .id(item.id())
+                    .quantity(quantity)
+                    .expirationDate(item.expirationDate())
+                    .build());
+        }
+
+        // Only items without a counterpart at the target are relocated, so the consolidation index holds
+        pantryItemRepository.batchIncrementQuantities(increments);
+        pantryItemRepository.batchUpdateNotes(notes);
+        if (!merged.isEmpty()) {
+            pantryItemRepository.deleteAllByIdIn(merged);
+        }
+        pantryItemRepository.relocate(relocated, targetLocationId, LocalDateTime.now());
+        inventoryStatsService.recordChanges(before, after);
+
+        log.debug("Moved {} pantry items to location {} ({} merged)", toMove.size(), targetLocationId, merged.size());
+        return MovePantryItemsResponse.builder()
+                .targetLocationId(targetLocationId)
+                .movedCount(toMove.size())
+                .mergedCount(merged.size())
+                .items(items)
+                .build();
+    }
+
     // ==================== Delete Operations ====================
 
     /**
@@ -539,7 +1282,9 @@ public class PantryItemService {
         PantryItem pantryItem = pantryItemRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Pantry item not found with ID: " + id));
 
+        InventoryStatsService.ItemFootprint before = InventoryStatsService.ItemFootprint.of(pantryItem);
         pantryItemRepository.delete(pantryItem);
+        inventoryStatsService.recordChange(before, null);
         log.debug("Deleted pantry item: {}", id);
     }
 
@@ -547,41 +1292,127 @@ public class PantryItemService {
      * Deletes multiple pantry items in a batch operation.
      *
      * <p>Authorization: User must have access to the household for each pantry item.
-     * Items the user doesn't have access to are skipped with a warning.</p>
+     * Access for all IDs is resolved with one membership-joined query, and the accessible
+     * items are removed with a single delete statement. Items the user cannot access are
+     * reported as forbidden and left untouched.</p>
+     *
+     * <p>The accessible items are locked before they are deleted, and the household counters
+     * are updated from the locked rows, so a concurrent quantity change or move cannot leave
+     * the counters out of step. Items deleted concurrently are reported as not found.</p>
      *
      * @param itemIds List of pantry item UUIDs to delete
-     * @return Number of items successfully deleted
-     * @throws ValidationException if itemIds is null or empty
+     * @return Per-ID outcome of the batch delete
+     * @throws ValidationException if itemIds is null, empty, or contains null
      */
     @Transactional
-    public int deleteMultiplePantryItems(List<UUID> itemIds) {
+    public BatchDeletePantryItemsResponse deleteMultiplePantryItems(List<UUID> itemIds) {
         if (itemIds == null || itemIds.isEmpty()) {
             throw new ValidationException("Item IDs list cannot be null or empty");
         }
+        if (itemIds.stream().anyMatch(Objects::isNull)) {
+            throw new ValidationException("Item IDs list cannot contain null values");
+        }
 
         UUID currentUserId = securityService.getCurrentUserId();
         log.debug("User {} deleting {} pantry items in batch", currentUserId, itemIds.size());
 
-        int deletedCount = 0;
-        for (UUID itemId : itemIds) {
-            try {
-                if (securityService.canAccessPantryItem(itemId)) {
-                    deletePantryItem(itemId);
-                    deletedCount++;
-                } else {
-                    log.warn("User {} attempted to delete pantry item {} without access", currentUserId, itemId);
-                }
-            } catch (NotFoundException e) {
-                log.warn("Pantry item {} not found during batch delete", itemId);
+        Set<UUID> requestedIds = new LinkedHashSet<>(itemIds);
+        Map<UUID, PantryItemRepository.PantryItemAccess> access = resolveAccess(requestedIds, currentUserId);
+        List<UUID> accessibleIds = requestedIds.stream()
+                .filter(itemId -> access.containsKey(itemId) && access.get(itemId).isAccessible())
+                .toList();
+
+        // Lock the accessible items, so the counters are updated from the rows actually deleted
+        Map<UUID, PantryItemRepositoryCustom.ItemPlacement> locked = new HashMap<>();
+        if (!accessibleIds.isEmpty()) {
+            for (PantryItemRepositoryCustom.ItemPlacement placement
+                    : pantryItemRepository.findPlacementsForUpdate(accessibleIds)) {
+                locked.put(placement.id(), placement);
+            }
+        }
+
+        // Items moved since access was checked are checked again now that they are locked
+        Set<UUID> relocated = new HashSet<>();
+        for (PantryItemRepositoryCustom.ItemPlacement placement : locked.values()) {
+            if (!placement.locationId().equals(access.get(placement.id()).getLocationId())) {
+                relocated.add(placement.id());
             }
         }
+        if (!relocated.isEmpty()) {
+            access.keySet().removeAll(relocated);
+            access.putAll(resolveAccess(relocated, currentUserId));
+        }
+
+        List<UUID> deleted = new ArrayList<>();
+        List<UUID> forbidden = new ArrayList<>();
+        List<UUID> notFound = new ArrayList<>();
+        List<InventoryStatsService.ItemFootprint> footprints = new ArrayList<>();
+        for (UUID itemId : requestedIds) {
+            PantryItemRepository.PantryItemAccess itemAccess = access.get(itemId);
+            PantryItemRepositoryCustom.ItemPlacement placement = locked.get(itemId);
+            if (itemAccess == null) {
+                notFound.add(itemId);
+            } else if (!itemAccess.isAccessible()) {
+                forbidden.add(itemId);
+            } else if (placement == null) {
+                // Deleted by another transaction after access was checked
+                notFound.add(itemId);
+            } else {
+                deleted.add(itemId);
+                footprints.add(InventoryStatsService.ItemFootprint.of(itemAccess.getHouseholdId(),
+                        placement.productId(), placement.quantity(), placement.expirationDate()));
+            }
+        }
+
+        if (!forbidden.isEmpty()) {
+            log.warn("User {} attempted to delete {} pantry items without access", currentUserId, forbidden.size());
+        }
 
-        log.debug("Deleted {} out of {} pantry items", deletedCount, itemIds.size());
-        return deletedCount;
+        int deletedCount = 0;
+        if (!deleted.isEmpty()) {
+            deletedCount = pantryItemRepository.deleteAllByIdIn(deleted);
+            inventoryStatsService.recordChanges(footprints, List.of());
+        }
+
+        log.debug("Deleted {} out of {} pantry items", deletedCount, requestedIds.size());
+        return BatchDeletePantryItemsResponse.builder()
+                .deletedCount(deletedCount)
+                .deleted(deleted)
+                .forbidden(forbidden)
+                .notFound(notFound)
+                .build();
     }
 
     // ==================== Helper Methods ====================
 
+    /**
+     * Verifies that the current user can access all of the given locations.
+     *
+     * @throws InsufficientPermissionException if any location is not accessible
+     */
+    private void authorizeLocations(Collection<UUID> locationIds) {
+        if (!securityService.canAccessLocationsForPantryItems(locationIds)) {
+            throw new InsufficientPermissionException("You do not have access to every location involved");
+        }
+    }
+
+    private Map<UUID, PantryItemRepository.PantryItemAccess> resolveAccess(Collection<UUID> itemIds, UUID userId) {
+        Map<UUID, PantryItemRepository.PantryItemAccess> access = new HashMap<>();
+        for (PantryItemRepository.PantryItemAccess row : pantryItemRepository.findAccessByIdInAndUserId(itemIds, userId)) {
+            // An item is accessible if any membership row grants access
+            access.merge(row.getId(), row, (first, second) -> first.isAccessible() ? first : second);
+        }
+        return access;
+    }
+
+    private static ConsolidationKey consolidationKey(PantryItem item) {
+        return new ConsolidationKey(item.getLocation().getId(), item.getProduct().getId(), item.getExpirationDate());
+    }
+
+    private static ConsolidationKey moveKey(UUID locationId, PantryItemRepositoryCustom.ItemPlacement item) {
+        return new ConsolidationKey(locationId, item.productId(), item.expirationDate());
+    }
+
     /**
      * Validates a create pantry item request.
      *
@@ -614,28 +1445,159 @@ public class PantryItemService {
     }
 
     /**
-     * Resolves a Product from either a productId or a UPC.
-     * If only UPC is provided, looks up (or auto-creates) the product via ProductService.
+     * Resolves a Product from either a productId or a UPC resolved beforehand.
      *
      * @param request the pantry item creation request
+     * @param scannedProducts product IDs of the scanned UPCs, from {@link #lookUpScannedProducts}
      * @return the resolved Product entity
-     * @throws ValidationException if neither productId nor UPC is provided
      * @throws NotFoundException if the product cannot be resolved
      */
-    private Product resolveProduct(CreatePantryItemRequest request) {
+    private Product resolveProduct(CreatePantryItemRequest request, Map<String, UUID> scannedProducts) {
         if (request.getProductId() != null) {
             return productRepository.findById(request.getProductId())
                     .orElseThrow(() -> new NotFoundException("Product not found with ID: " + request.getProductId()));
         }
 
-        if (request.getUpc() != null && !request.getUpc().trim().isEmpty()) {
-            // Look up by UPC — this will auto-create from Open Food Facts if not found locally
-            ProductResponse productResponse = productService.getProductByUpc(request.getUpc());
-            return productRepository.findById(productResponse.getId())
-                    .orElseThrow(() -> new NotFoundException("Product not found after UPC lookup"));
+        UUID scannedId = scannedProducts.get(Gtin.canonical(request.getUpc()));
+        return Optional.ofNullable(scannedId)
+                .flatMap(productRepository::findById)
+                .orElseThrow(() -> new NotFoundException("Product not found after UPC lookup"));
+    }
+
+    /**
+     * Resolves the UPCs of requests without a product ID to product IDs, creating products from the
+     * external API where needed. The UPCs of a batch are resolved with
+     * {@link ProductService#getProductsByUpcs} rather than one lookup each.
+     *
+     * <p>Runs before the pantry transaction: the lookup of a new product may wait on the external
+     * API, and {@link ProductService} commits the product it creates in its own transaction, so the
+     * pantry transaction and concurrent scans of the same UPC all see it.</p>
+     *
+     * @param requests Validated create requests
+     * @return Map of canonical UPC ({@link Gtin#canonical}) to product ID
+     * @throws NotFoundException if a UPC is unknown locally and to the external API
+     */
+    private Map<String, UUID> lookUpScannedProducts(List<CreatePantryItemRequest> requests) {
+        Map<String, String> upcs = new LinkedHashMap<>();
+        for (CreatePantryItemRequest request : requests) {
+            if (request.getProductId() == null) {
+                upcs.putIfAbsent(Gtin.canonical(request.getUpc()), request.getUpc());
+            }
+        }
+        if (upcs.isEmpty()) {
+            return Map.of();
+        }
+
+        // Look up by UPC — this will auto-create from Open Food Facts if not found locally
+        if (upcs.size() == 1) {
+            Map.Entry<String, String> scanned = upcs.entrySet().iterator().next();
+            return Map.of(scanned.getKey(), productService.getProductByUpc(scanned.getValue()).getId());
+        }
+        // A batch is resolved together: one query for known products, concurrent fetches and one
+        // insert for the missing ones
+        Map<String, UUID> productIds = new HashMap<>();
+        productService.getProductsByUpcs(upcs.values())
+                .forEach((key, product) -> productIds.put(key, product.getId()));
+        return productIds;
+    }
+
+    /**
+     * Loads all locations referenced by a batch with a single query.
+     *
+     * @param requests Batch create requests
+     * @return Map of location ID to location
+     * @throws NotFoundException if any location does not exist
+     */
+    private Map<UUID, Location> loadLocations(List<CreatePantryItemRequest> requests) {
+        Set<UUID> locationIds = requests.stream()
+                .map(CreatePantryItemRequest::getLocationId)
+                .collect(Collectors.toSet());
+
+        Map<UUID, Location> locations = locationRepository.findAllById(locationIds).stream()
+                .collect(Collectors.toMap(Location::getId, location -> location));
+
+        for (UUID locationId : locationIds) {
+            if (!locations.containsKey(locationId)) {
+                throw new NotFoundException("Location not found with ID: " + locationId);
+            }
+        }
+        return locations;
+    }
+
+    /**
+     * Resolves the product for every request in a batch.
+     *
+     * <p>Every product, referenced by ID or by a UPC resolved beforehand, is loaded with one query.</p>
+     *
+     * @param requests Batch create requests
+     * @param scannedProducts Product IDs of the scanned UPCs, from {@link #lookUpScannedProducts}
+     * @return Map of request to its resolved product
+     * @throws NotFoundException if any product cannot be resolved
+     */
+    private Map<CreatePantryItemRequest, Product> resolveProducts(List<CreatePantryItemRequest> requests,
+                                                                  Map<String, UUID> scannedProducts) {
+        Set<UUID> productIds = new HashSet<>(scannedProducts.values());
+        for (CreatePantryItemRequest request : requests) {
+            if (request.getProductId() != null) {
+                productIds.add(request.getProductId());
+            }
+        }
+        Map<UUID, Product> productsById = productRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, product -> product));
+
+        Map<CreatePantryItemRequest, Product> resolved = new IdentityHashMap<>();
+        for (CreatePantryItemRequest request : requests) {
+            Product product;
+            if (request.getProductId() != null) {
+                product = productsById.get(request.getProductId());
+                if (product == null) {
+                    throw new NotFoundException("Product not found with ID: " + request.getProductId());
+                }
+            } else {
+                product = productsById.get(scannedProducts.get(Gtin.canonical(request.getUpc())));
+                if (product == null) {
+                    throw new NotFoundException("Product not found after UPC lookup");
+                }
+            }
+            resolved.put(request, product);
+        }
+        return resolved;
+    }
+
+    /**
+     * Runs the ranked trigram search and loads the matching items with their details,
+     * keeping the ranking order.
+     *
+     * @param householdId UUID of the household
+     * @param searchTerm  Trimmed search term
+     * @param pageable    Pagination information
+     * @return Page of matching items, best match first
+     */
+    private Page<PantryItem> findRankedMatches(UUID householdId, String searchTerm, Pageable pageable) {
+        Page<UUID> ids = pantryItemRepository.searchRankedIdsInHousehold(householdId, searchTerm, pageable);
+        if (ids.isEmpty()) {
+            return new PageImpl<>(List.of(), ids.getPageable(), ids.getTotalElements());
         }
 
-        throw new ValidationException("Either productId or upc must be provided");
+        return new PageImpl<>(findInOrder(ids.getContent()), ids.getPageable(), ids.getTotalElements());
+    }
+
+    /**
+     * Loads pantry items with their details, in the order of the given IDs.
+     *
+     * @param ids IDs of the items in result order
+     * @return Items that still exist, in the order of {@code ids}
+     */
+    private List<PantryItem> findInOrder(List<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, PantryItem> items = pantryItemRepository.findWithDetailsByIdIn(ids).stream()
+                .collect(Collectors.toMap(PantryItem::getId, item -> item));
+        return ids.stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
+                .toList();
     }
 
     /**
@@ -684,6 +1646,28 @@ public class PantryItemService {
         });
     }
 
+    /**
+     * Rejects an update that moves an item onto the location and expiration date of another item
+     * of the same product, which the unique consolidation index does not allow. Such stock is
+     * combined by moving the item instead, which merges the quantities.
+     *
+     * @param pantryItem Item with the update applied but not yet flushed
+     * @param previous   Consolidation key of the item before the update
+     * @throws ConflictException if another item has the updated location, product, and expiration date
+     */
+    private void rejectConsolidationConflict(PantryItem pantryItem, ConsolidationKey previous) {
+        ConsolidationKey key = consolidationKey(pantryItem);
+        if (key.equals(previous)) {
+            return;
+        }
+        pantryItemRepository.findConsolidationConflict(
+                        pantryItem.getId(), key.locationId(), key.productId(), key.expirationDate())
+                .ifPresent(conflictId -> {
+                    throw new ConflictException("Pantry item " + conflictId
+                            + " already holds this product with the same expiration date in the location");
+                });
+    }
+
     /**
      * Maps a PantryItem entity to a PantryItemResponse DTO.
      *
@@ -691,6 +1675,19 @@ public class PantryItemService {
      * @return PantryItemResponse DTO
      */
     private PantryItemResponse mapToResponse(PantryItem pantryItem) {
+        return mapToResponse(pantryItem, pantryItem.getQuantity(), pantryItem.getUpdatedAt());
+    }
+
+    /**
+     * Maps a PantryItem entity to a PantryItemResponse DTO, overriding the quantity and update time.
+     * Used when the row was changed by a set-based statement and the entity is stale.
+     *
+     * @param pantryItem Entity to map
+     * @param quantity   Quantity after the update
+     * @param updatedAt  Time of the update
+     * @return PantryItemResponse DTO
+     */
+    private PantryItemResponse mapToResponse(PantryItem pantryItem, Integer quantity, LocalDateTime updatedAt) {
         return PantryItemResponse.builder()
                 .id(pantryItem.getId())
                 .product(ProductResponse.builder()
@@ -706,11 +1703,147 @@ public class PantryItemService {
                         .description(pantryItem.getLocation().getDescription())
                         .householdId(pantryItem.getLocation().getHousehold().getId())
                         .build())
-                .quantity(pantryItem.getQuantity())
+                .quantity(quantity)
                 .expirationDate(pantryItem.getExpirationDate())
                 .notes(pantryItem.getNotes())
                 .createdAt(pantryItem.getCreatedAt())
-                .updatedAt(pantryItem.getUpdatedAt())
+                .updatedAt(updatedAt)
                 .build();
     }
+
+    /**
+     * Keyset position for listings ordered by (product name, expiration date, id). Missing
+     * names and expiration dates are represented by the same values the queries sort on.
+     */
+    private record NameCursor(String name, LocalDate expirationDate, UUID id) {
+        private static final NameCursor FIRST = new NameCursor("", MIN_DATE, CursorCodec.MIN_ID);
+
+        static NameCursor decode(String cursor) {
+            if (cursor == null) {
+                return FIRST;
+            }
+            List<String> keys = CursorCodec.decode(cursor, 3);
+            try {
+                return new NameCursor(keys.get(0), LocalDate.parse(keys.get(1)), UUID.fromString(keys.get(2)));
+            } catch (RuntimeException e) {
+                throw new ValidationException("Invalid pagination cursor", e);
+            }
+        }
+
+        static String encode(PantryItem item) {
+            LocalDate expirationDate = item.getExpirationDate();
+            return CursorCodec.encode(
+                    sortName(item),
+                    expirationDate != null ? expirationDate : NO_EXPIRATION_DATE,
+                    item.getId());
+        }
+    }
+
+    /**
+     * Keyset position for listings ordered by (expiration date, id).
+     */
+    private record ExpirationCursor(LocalDate expirationDate, UUID id) {
+        private static final ExpirationCursor FIRST = new ExpirationCursor(MIN_DATE, CursorCodec.MIN_ID);
+
+        static ExpirationCursor decode(String cursor) {
+            if (cursor == null) {
+                return FIRST;
+            }
+            List<String> keys = CursorCodec.decode(cursor, 2);
+            try {
+                return new ExpirationCursor(LocalDate.parse(keys.get(0)), UUID.fromString(keys.get(1)));
+            } catch (RuntimeException e) {
+                throw new ValidationException("Invalid pagination cursor", e);
+            }
+        }
+
+        static String encode(PantryItem item) {
+            return CursorCodec.encode(item.getExpirationDate(), item.getId());
+        }
+    }
+
+    /**
+     * Keyset position for listings ordered by (quantity, product name, id).
+     */
+    private record StockCursor(Integer quantity, String name, UUID id) {
+        private static final StockCursor FIRST = new StockCursor(Integer.MIN_VALUE, "", CursorCodec.MIN_ID);
+
+        static StockCursor decode(String cursor) {
+            if (cursor == null) {
+                return FIRST;
+            }
+            List<String> keys = CursorCodec.decode(cursor, 3);
+            try {
+                return new StockCursor(Integer.valueOf(keys.get(0)), keys.get(1), UUID.fromString(keys.get(2)));
+            } catch (RuntimeException e) {
+                throw new ValidationException("Invalid pagination cursor", e);
+            }
+        }
+
+        static String encode(PantryItem item) {
+            return CursorCodec.encode(item.getQuantity(), sortName(item), item.getId());
+        }
+    }
+
+    /**
+     * @return The product name the listing queries sort the item by
+     */
+    private static String sortName(PantryItem item) {
+        return item.getProductName() != null
+                ? item.getProductName()
+                : PantryItem.sortName(item.getProduct().getName());
+    }
+
+    /**
+     * Identity of a pantry item for consolidation purposes.
+     */
+    private record ConsolidationKey(UUID locationId, UUID productId, LocalDate expirationDate) {
+    }
+
+    /**
+     * Accumulates the batch requests that resolve to the same pantry item.
+     */
+    private static final class PendingItem {
+        private final Location location;
+        private final Product product;
+        private int quantity;
+        private String notes;
+
+        private PendingItem(Location location, Product product) {
+            this.location = location;
+            this.product = product;
+        }
+
+        private void add(CreatePantryItemRequest request) {
+            quantity += request.getQuantity();
+            if (notes == null) {
+                notes = request.getNotes();
+            }
+        }
+    }
+
+    /**
+     * Collects the distinct non-blank notes of the items merged into one item, its own notes first.
+     */
+    private static final class MergedNotes {
+        private final Set<String> parts = new LinkedHashSet<>();
+        private boolean changed;
+
+        private MergedNotes(String notes) {
+            if (notes != null && !notes.isBlank()) {
+                parts.add(notes.strip());
+            }
+        }
+
+        private void add(String notes) {
+            if (notes != null && !notes.isBlank() && parts.add(notes.strip())) {
+                changed = true;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return String.join("; ", parts);
+        }
+    }
 }
\ No newline at end of file
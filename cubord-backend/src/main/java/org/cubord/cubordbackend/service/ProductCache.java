@@ -0,0 +1,268 @@
+package org.cubord.cubordbackend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.cubord.cubordbackend.dto.product.ProductResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded in-memory cache of product lookups by UPC.
+ *
+ * <p>Entries are evicted least-recently-used once {@code app.product-cache.maximum-size} is
+ * exceeded, and expire {@code app.product-cache.expire-after-write} after being loaded. Entries
+ * older than {@code app.product-cache.refresh-after-write} are still served, while a background
+ * reload replaces them, so popular products are always answered from memory.</p>
+ *
+ * <p>Invalidations bump a generation counter; loads that started before an invalidation are
+ * discarded rather than re-populating the cache with data read before the change. Hits, misses,
+ * evictions, refreshes and the current size are published under {@code cubord.product.cache.*}.</p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductCache {
+
+    private static final String METRIC_PREFIX = "cubord.product.cache";
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.product-cache.maximum-size:10000}")
+    private int maximumSize;
+
+    @Value("${app.product-cache.expire-after-write:PT24H}")
+    private Duration expireAfterWrite;
+
+    @Value("${app.product-cache.refresh-after-write:PT1H}")
+    private Duration refreshAfterWrite;
+
+    @Value("${app.product-cache.refresh-threads:2}")
+    private int refreshThreads;
+
+    // Monotonic clock; replaceable in tests
+    private LongSupplier ticker = System::nanoTime;
+
+    private final AtomicLong generation = new AtomicLong();
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    private Map<String, Entry> entries;
+    private ExecutorService refreshExecutor;
+
+    private Counter hits;
+    private Counter misses;
+    private Counter sizeEvictions;
+    private Counter expiredEvictions;
+    private Counter refreshSuccesses;
+    private Counter refreshFailures;
+
+    /**
+     * Validates the configuration and registers the cache metrics.
+     *
+     * @throws IllegalStateException if a size, duration or thread count is not positive
+     */
+    @PostConstruct
+    public void init() {
+        if (maximumSize <= 0 || refreshThreads <= 0
+                || expireAfterWrite.isNegative() || expireAfterWrite.isZero()
+                || refreshAfterWrite.isNegative() || refreshAfterWrite.isZero()) {
+            throw new IllegalStateException("Product cache sizes, durations and thread counts must be positive");
+        }
+
+        entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > maximumSize) {
+                    sizeEvictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+        refreshExecutor = Executors.newFixedThreadPool(refreshThreads, runnable -> {
+            Thread thread = new Thread(runnable, "product-cache-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        hits = Counter.builder(METRIC_PREFIX + ".gets").tag("result", "hit").register(meterRegistry);
+        misses = Counter.builder(METRIC_PREFIX + ".gets").tag("result", "miss").register(meterRegistry);
+        sizeEvictions = Counter.builder(METRIC_PREFIX + ".evictions").tag("cause", "size").register(meterRegistry);
+        expiredEvictions = Counter.builder(METRIC_PREFIX + ".evictions").tag("cause", "expired")
+                .register(meterRegistry);
+        refreshSuccesses = Counter.builder(METRIC_PREFIX + ".refreshes").tag("outcome", "success")
+                .register(meterRegistry);
+        refreshFailures = Counter.builder(METRIC_PREFIX + ".refreshes").tag("outcome", "failure")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".size", this, ProductCache::size).register(meterRegistry);
+
+        log.info("Product cache initialized: maximumSize={}, expireAfterWrite={}, refreshAfterWrite={}",
+                maximumSize, expireAfterWrite, refreshAfterWrite);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    /**
+     * Returns the cached product for a UPC, loading it on a miss.
+     *
+     * <p>A stale entry is returned immediately and reloaded in the background with the same
+     * loader. Null results are not cached.</p>
+     *
+     * @param upc    UPC to look up
+     * @param loader Resolves a UPC to a product, or null if there is none
+     * @return The cached or loaded product, or null if the loader found none
+     */
+    public ProductResponse get(String upc, Function<String, ProductResponse> loader) {
+        long now = ticker.getAsLong();
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(upc);
+            if (entry != null && now - entry.loadedAt() >= expireAfterWrite.toNanos()) {
+                entries.remove(upc);
+                expiredEvictions.increment();
+                entry = null;
+            }
+        }
+
+        if (entry != null) {
+            hits.increment();
+            if (now - entry.loadedAt() >= refreshAfterWrite.toNanos()) {
+                scheduleRefresh(upc, loader);
+            }
+            return entry.value();
+        }
+
+        misses.increment();
+        long loadGeneration = generation.get();
+        ProductResponse loaded = loader.apply(upc);
+        if (loaded != null) {
+            putIfCurrent(upc, loaded, loadGeneration);
+        }
+        return loaded;
+    }
+
+    /**
+     * Caches a product that was just created or resolved outside {@link #get}.
+     *
+     * @param upc     UPC of the product
+     * @param product Product to cache
+     */
+    public void put(String upc, ProductResponse product) {
+        putIfCurrent(upc, product, generation.get());
+    }
+
+    /**
+     * Removes a UPC from the cache. Inside a transaction the entry is removed only after commit,
+     * so a lookup running before the commit cannot re-cache the previous state, and a rollback
+     * leaves the cache untouched.
+     *
+     * @param upc UPC to remove; null is ignored
+     */
+    public void invalidate(String upc) {
+        if (upc == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(upc);
+                }
+            });
+        } else {
+            evict(upc);
+        }
+    }
+
+    /**
+     * Removes every entry from the cache.
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * @return Number of cached entries, including stale ones
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    // ==================== Helper Methods ====================
+
+    private void evict(String upc) {
+        generation.incrementAndGet();
+        synchronized (entries) {
+            entries.remove(upc);
+        }
+    }
+
+    private void putIfCurrent(String upc, ProductResponse product, long loadGeneration) {
+        synchronized (entries) {
+            // Skip values read before an invalidation; they may predate the change
+            if (generation.get() == loadGeneration) {
+                entries.put(upc, new Entry(product, ticker.getAsLong()));
+            }
+        }
+    }
+
+    private void scheduleRefresh(String upc, Function<String, ProductResponse> loader) {
+        if (!refreshing.add(upc)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> refresh(upc, loader));
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(upc);
+            log.debug("Skipped refresh of UPC {}: executor shut down", upc);
+        }
+    }
+
+    private void refresh(String upc, Function<String, ProductResponse> loader) {
+        try {
+            long loadGeneration = generation.get();
+            ProductResponse reloaded = loader.apply(upc);
+            if (reloaded != null) {
+                putIfCurrent(upc, reloaded, loadGeneration);
+            } else {
+                evict(upc);
+            }
+            refreshSuccesses.increment();
+        } catch (Exception e) {
+            // Keep serving the stale entry until it expires
+            refreshFailures.increment();
+            log.warn("Failed to refresh cached product for UPC {}: {}", upc, e.getMessage());
+        } finally {
+            refreshing.remove(upc);
+        }
+    }
+
+    private record Entry(ProductResponse value, long loadedAt) {
+    }
+}
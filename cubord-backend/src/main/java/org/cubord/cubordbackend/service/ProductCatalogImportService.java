@@ -0,0 +1,129 @@
+package org.cubord.cubordbackend.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.cubord.cubordbackend.domain.Product;
+import org.cubord.cubordbackend.domain.ProductImportCheckpoint;
+import org.cubord.cubordbackend.exception.NotFoundException;
+import org.cubord.cubordbackend.repository.ProductImportCheckpointRepository;
+import org.cubord.cubordbackend.repository.ProductRepository;
+import org.cubord.cubordbackend.repository.ProductRepositoryCustom.CatalogEntry;
+import org.cubord.cubordbackend.repository.ProductRepositoryCustom.CatalogUpsertResult;
+import org.cubord.cubordbackend.util.Gtin;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Transactions of catalog dump imports and admin bulk imports.
+ *
+ * <p>Each chunk of products is loaded in one transaction together with the import's checkpoint,
+ * so after an interruption the checkpoint names exactly the lines already committed. UPCs
+ * recorded as unknown to the external database are forgotten in the same transaction once their
+ * products exist.</p>
+ *
+ * @see ProductCatalogImporter
+ * @see ProductService#bulkImportProducts
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductCatalogImportService {
+
+    private final ProductRepository productRepository;
+    private final ProductImportCheckpointRepository checkpointRepository;
+    private final ProductCache productCache;
+    private final ProductGtinIndex productGtinIndex;
+    private final UnknownUpcFilter unknownUpcFilter;
+
+    /**
+     * Returns the checkpoint to continue an unfinished import of the same file from, or starts a
+     * new one at the first line if the file was completed, changed or never imported.
+     *
+     * @param source   Absolute path of the dump file
+     * @param fileSize Current size of the file
+     * @return Checkpoint whose {@code linesRead} lines are already imported
+     */
+    @Transactional
+    public ProductImportCheckpoint startOrResume(String source, long fileSize) {
+        Optional<ProductImportCheckpoint> existing = checkpointRepository.findById(source);
+        if (existing.isPresent() && existing.get().getCompletedAt() == null
+                && existing.get().getFileSize() == fileSize) {
+            log.info("Resuming catalog import of {} after line {}", source, existing.get().getLinesRead());
+            return existing.get();
+        }
+
+        ProductImportCheckpoint checkpoint = existing.orElseGet(() -> ProductImportCheckpoint.builder()
+                .source(source)
+                .build());
+        checkpoint.setFileSize(fileSize);
+        checkpoint.setLinesRead(0);
+        checkpoint.setProductsImported(0);
+        checkpoint.setCompletedAt(null);
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+        return checkpointRepository.save(checkpoint);
+    }
+
+    /**
+     * Upserts a chunk of products and advances the checkpoint past it.
+     *
+     * @param source    Absolute path of the dump file
+     * @param entries   Products read from the chunk, with distinct GTINs
+     * @param linesRead Lines of the file read up to the end of the chunk
+     * @return Updated checkpoint
+     * @throws NotFoundException if the import was not started
+     */
+    @Transactional
+    public ProductImportCheckpoint applyChunk(String source, List<CatalogEntry> entries, long linesRead) {
+        ProductImportCheckpoint checkpoint = checkpointRepository.findById(source)
+                .orElseThrow(() -> new NotFoundException("Product import checkpoint", source));
+
+        CatalogUpsertResult result = productRepository.upsertCatalogEntries(entries);
+        entries.forEach(entry -> productCache.invalidate(Gtin.canonical(entry.upc())));
+        // Entries without a valid GTIN are not imported
+        unknownUpcFilter.forgetAll(entries.stream()
+                .filter(entry -> Gtin.normalize(entry.upc()) != null)
+                .map(entry -> Gtin.canonical(entry.upc()))
+                .toList());
+
+        checkpoint.setLinesRead(linesRead);
+        checkpoint.setProductsImported(checkpoint.getProductsImported() + result.inserted() + result.updated());
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+        log.debug("Imported {} new and {} updated products from {} up to line {}",
+                result.inserted(), result.updated(), source, linesRead);
+        return checkpoint;
+    }
+
+    /**
+     * Upserts the last chunk of products and marks the import as completed.
+     *
+     * @param source    Absolute path of the dump file
+     * @param entries   Products read from the last chunk, with distinct GTINs
+     * @param linesRead Lines of the file
+     * @return Completed checkpoint
+     * @throws NotFoundException if the import was not started
+     */
+    @Transactional
+    public ProductImportCheckpoint complete(String source, List<CatalogEntry> entries, long linesRead) {
+        ProductImportCheckpoint checkpoint = applyChunk(source, entries, linesRead);
+        checkpoint.setCompletedAt(checkpoint.getUpdatedAt());
+        return checkpoint;
+    }
+
+    /**
+     * Inserts the products of a bulk import, all or none, and indexes them once committed. Their
+     * UPCs are no longer recorded as unknown, as for products created one by one.
+     *
+     * @param products New products with pre-assigned IDs, timestamps and distinct GTINs
+     */
+    @Transactional
+    public void insertProducts(List<Product> products) {
+        productRepository.batchInsert(products);
+        unknownUpcFilter.forgetAll(products.stream().map(product -> Gtin.canonical(product.getUpc())).toList());
+        products.forEach(product -> productGtinIndex.put(Gtin.normalize(product.getUpc()), product.getId()));
+        log.debug("Inserted {} products", products.size());
+    }
+}
@@ -0,0 +1,328 @@
+package org.cubord.cubordbackend.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.cubord.cubordbackend.domain.ProductImportCheckpoint;
+import org.cubord.cubordbackend.dto.product.ProductResponse;
+import org.cubord.cubordbackend.exception.ConflictException;
+import org.cubord.cubordbackend.exception.InternalServerException;
+import org.cubord.cubordbackend.exception.NotFoundException;
+import org.cubord.cubordbackend.exception.UnsupportedFormatException;
+import org.cubord.cubordbackend.exception.ValidationException;
+import org.cubord.cubordbackend.repository.ProductRepositoryCustom.CatalogEntry;
+import org.cubord.cubordbackend.util.Gtin;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Imports the public Open Food Facts product dump from a local file into the product catalog,
+ * so scans of catalogued products never need the external API.
+ *
+ * <p>Reads the JSONL dump ({@code .jsonl}) or the tab-separated CSV export ({@code .csv}),
+ * optionally gzipped ({@code .gz}), one line at a time, and loads the products in chunks of
+ * {@code app.product-catalog-import.chunk-size} via {@link ProductCatalogImportService}. Products
+ * whose code is not a valid GTIN or without both name and brand are skipped. Each chunk commits together
+ * with a checkpoint, so importing the same, unchanged file again after an interruption resumes
+ * after the last committed chunk.</p>
+ *
+ * <p>Runs as an admin job through {@link ProductService#importCatalog(String)} for files in
+ * {@code app.product-catalog-import.directory}, or at startup for the file named by
+ * {@code app.product-catalog-import.file}; with {@code exit-when-done} the application then
+ * exits, which makes it a command-line importer. Only one import runs at a time.</p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductCatalogImporter implements ApplicationRunner {
+
+    private static final int MAX_TEXT_LENGTH = 255;
+    private static final int READ_BUFFER_SIZE = 1 << 20;
+    private static final String[] SUPPORTED_FORMATS = {".jsonl", ".jsonl.gz", ".csv", ".csv.gz"};
+
+    private final ProductCatalogImportService importService;
+    private final UnknownUpcFilter unknownUpcFilter;
+    private final ProductCache productCache;
+    private final ProductGtinIndex productGtinIndex;
+    private final ApplicationContext applicationContext;
+    private final OpenFoodFactsProductParser productParser = new OpenFoodFactsProductParser();
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Value("${app.product-catalog-import.directory:}")
+    private String directory;
+
+    @Value("${app.product-catalog-import.file:}")
+    private String startupFile;
+
+    @Value("${app.product-catalog-import.exit-when-done:false}")
+    private boolean exitWhenDone;
+
+    @Value("${app.product-catalog-import.chunk-size:5000}")
+    private int chunkSize;
+
+    /**
+     * Summary of an import run.
+     *
+     * @param linesSkipped Lines of this run that held no importable product
+     * @param resumed      Whether the run continued an interrupted import
+     */
+    public record ImportResult(String source, long linesRead, long productsImported, long linesSkipped,
+                               boolean resumed) {
+    }
+
+    private enum DumpFormat {
+        JSONL, CSV
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (startupFile.isBlank()) {
+            return;
+        }
+        int exitCode = 0;
+        try {
+            importDump(Path.of(startupFile));
+        } catch (RuntimeException e) {
+            log.error("Catalog import of {} failed", startupFile, e);
+            exitCode = 1;
+        }
+        if (exitWhenDone) {
+            int status = exitCode;
+            System.exit(SpringApplication.exit(applicationContext, () -> status));
+        }
+    }
+
+    /**
+     * Starts importing a dump file from the import directory in the background.
+     *
+     * @param fileName Name of the file, relative to {@code app.product-catalog-import.directory}
+     * @throws ValidationException        if no import directory is configured
+     * @throws NotFoundException          if the file does not exist inside the import directory
+     * @throws UnsupportedFormatException if the file is not a supported dump format
+     * @throws ConflictException          if an import is already running
+     */
+    public void startImport(String fileName) {
+        if (directory.isBlank()) {
+            throw new ValidationException("Catalog import directory is not configured");
+        }
+        if (fileName == null || fileName.isBlank()) {
+            throw new ValidationException("Catalog dump file name cannot be null or empty");
+        }
+        Path base = Path.of(directory).toAbsolutePath().normalize();
+        Path file = base.resolve(fileName).normalize();
+        // Never read outside the import directory
+        if (!file.startsWith(base) || !Files.isRegularFile(file)) {
+            throw new NotFoundException("Catalog dump", fileName);
+        }
+        formatOf(file);
+
+        acquire();
+        Thread.ofVirtual().name("product-catalog-import").start(() -> {
+            try {
+                runImport(file);
+            } catch (RuntimeException e) {
+                log.error("Catalog import of {} failed", file, e);
+            } finally {
+                running.set(false);
+            }
+        });
+    }
+
+    /**
+     * Imports a dump file on the calling thread, resuming an interrupted import of it.
+     *
+     * @param file Dump file
+     * @return Summary of the run
+     * @throws UnsupportedFormatException if the file is not a supported dump format
+     * @throws ConflictException          if an import is already running
+     * @throws InternalServerException    if the file cannot be read
+     */
+    public ImportResult importDump(Path file) {
+        formatOf(file);
+        acquire();
+        try {
+            return runImport(file);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    // ==================== Helper Methods ====================
+
+    private void acquire() {
+        if (!running.compareAndSet(false, true)) {
+            throw new ConflictException("A catalog import is already running");
+        }
+    }
+
+    private ImportResult runImport(Path file) {
+        Path path = file.toAbsolutePath().normalize();
+        String source = path.toString();
+        DumpFormat format = formatOf(path);
+
+        try (BufferedReader reader = open(path)) {
+            ProductImportCheckpoint checkpoint = importService.startOrResume(source, Files.size(path));
+            long resumeAfter = checkpoint.getLinesRead();
+            log.info("Importing catalog dump {} from line {}", source, resumeAfter + 1);
+
+            Map<String, Integer> columns = null;
+            Map<String, CatalogEntry> chunk = new LinkedHashMap<>();
+            long lineNumber = 0;
+            long skipped = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (format == DumpFormat.CSV && columns == null) {
+                    columns = readHeader(line);
+                    continue;
+                }
+                if (lineNumber <= resumeAfter) {
+                    continue;
+                }
+
+                CatalogEntry entry = toEntry(format == DumpFormat.CSV ? readCsvLine(line, columns) : readJsonLine(line));
+                if (entry == null) {
+                    skipped++;
+                    continue;
+                }
+                // Later lines of the same GTIN win
+                String key = Gtin.canonical(entry.upc());
+                chunk.remove(key);
+                chunk.put(key, entry);
+                if (chunk.size() >= chunkSize) {
+                    checkpoint = importService.applyChunk(source, new ArrayList<>(chunk.values()), lineNumber);
+                    chunk.clear();
+                }
+            }
+            checkpoint = importService.complete(source, new ArrayList<>(chunk.values()), lineNumber);
+
+            unknownUpcFilter.rebuild();
+            productCache.invalidateAll();
+            productGtinIndex.rebuild();
+            log.info("Imported catalog dump {}: {} products from {} lines, {} lines skipped",
+                    source, checkpoint.getProductsImported(), lineNumber, skipped);
+            return new ImportResult(source, lineNumber, checkpoint.getProductsImported(), skipped, resumeAfter > 0);
+        } catch (IOException e) {
+            throw new InternalServerException("Failed to read catalog dump " + source + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static DumpFormat formatOf(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".gz")) {
+            name = name.substring(0, name.length() - ".gz".length());
+        }
+        if (name.endsWith(".jsonl")) {
+            return DumpFormat.JSONL;
+        }
+        if (name.endsWith(".csv")) {
+            return DumpFormat.CSV;
+        }
+        throw new UnsupportedFormatException(file.getFileName().toString(), SUPPORTED_FORMATS);
+    }
+
+    private static BufferedReader open(Path file) throws IOException {
+        InputStream in = Files.newInputStream(file);
+        try {
+            if (file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".gz")) {
+                in = new GZIPInputStream(in, READ_BUFFER_SIZE);
+            }
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+        return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), READ_BUFFER_SIZE);
+    }
+
+    private static Map<String, Integer> readHeader(String line) {
+        String[] names = line.split("\t", -1);
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            columns.putIfAbsent(names[i].trim(), i);
+        }
+        if (!columns.containsKey("code")) {
+            throw new ValidationException("Catalog dump header has no 'code' column");
+        }
+        return columns;
+    }
+
+    private static ProductResponse readCsvLine(String line, Map<String, Integer> columns) {
+        String[] values = line.split("\t", -1);
+        String categories = column(values, columns, "categories");
+        return ProductResponse.builder()
+                .upc(column(values, columns, "code"))
+                .name(column(values, columns, "product_name"))
+                .brand(column(values, columns, "brands"))
+                .category(categories != null ? OpenFoodFactsProductParser.firstCategory(categories) : null)
+                .imageUrl(column(values, columns, "image_url"))
+                .imageSmallUrl(column(values, columns, "image_small_url"))
+                .build();
+    }
+
+    private static String column(String[] values, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        return index != null && index < values.length ? values[index] : null;
+    }
+
+    private ProductResponse readJsonLine(String line) {
+        try {
+            return productParser.parseDumpLine(line);
+        } catch (IOException e) {
+            log.debug("Skipping malformed catalog dump line: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * @return Entry to load, or null if the product's UPC is not a valid GTIN or it has neither name nor brand
+     */
+    private static CatalogEntry toEntry(ProductResponse product) {
+        if (product == null || product.getUpc() == null) {
+            return null;
+        }
+        String upc = product.getUpc().trim();
+        String name = text(product.getName());
+        String brand = text(product.getBrand());
+        if (Gtin.normalize(upc) == null || (name == null && brand == null)) {
+            return null;
+        }
+        return new CatalogEntry(upc, name, brand, text(product.getCategory()),
+                url(product.getImageUrl()), url(product.getImageSmallUrl()));
+    }
+
+    private static String text(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.length() > MAX_TEXT_LENGTH ? trimmed.substring(0, MAX_TEXT_LENGTH) : trimmed;
+    }
+
+    // A truncated URL is useless, so overlong ones are dropped
+    private static String url(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.length() > MAX_TEXT_LENGTH ? null : trimmed;
+    }
+}
@@ -0,0 +1,48 @@
+package org.cubord.cubordbackend.service;
+
+import org.cubord.cubordbackend.dto.product.ProductResponse;
+import org.cubord.cubordbackend.exception.ExternalServiceException;
+import org.cubord.cubordbackend.exception.NotFoundException;
+import org.cubord.cubordbackend.exception.ServiceUnavailableException;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Source of product data for UPCs that are not in the local database.
+ *
+ * <p>{@link UpcApiService} resolves single UPC lookups through an ordered list of providers: the
+ * configured Open Food Facts API, its mirrors, and every Spring bean implementing this interface,
+ * such as a stand-in server for development. Providers are sorted by
+ * {@link org.springframework.core.Ordered} or {@link org.springframework.core.annotation.Order};
+ * beans declaring neither come last. {@link HedgedProductLookup} asks them in that order and
+ * takes the first product found.</p>
+ *
+ * <p>Implementations must not block the calling thread: start the lookup and return its future.</p>
+ */
+public interface ProductDataProvider {
+
+    /**
+     * Order of the configured Open Food Facts API.
+     */
+    int OPEN_FOOD_FACTS_ORDER = 0;
+
+    /**
+     * Order of the first configured Open Food Facts mirror; further mirrors follow.
+     */
+    int OPEN_FOOD_FACTS_MIRROR_ORDER = 1000;
+
+    /**
+     * @return Name of the provider, used in logs and as the {@code provider} metric tag
+     */
+    String getName();
+
+    /**
+     * Starts looking up a product.
+     *
+     * @param upc Validated UPC/EAN code of 8-14 digits
+     * @return Future completed with the product data. It fails with {@link NotFoundException} if
+     *         the provider does not know the product, with {@link ServiceUnavailableException} if
+     *         the lookup was rejected, and with {@link ExternalServiceException} otherwise
+     */
+    CompletableFuture<ProductResponse> fetch(String upc);
+}
@@ -0,0 +1,253 @@
+package org.cubord.cubordbackend.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.cubord.cubordbackend.domain.PantryItem;
+import org.cubord.cubordbackend.domain.Product;
+import org.cubord.cubordbackend.domain.ProductDataSource;
+import org.cubord.cubordbackend.dto.product.ProductResponse;
+import org.cubord.cubordbackend.repository.PantryItemRepository;
+import org.cubord.cubordbackend.repository.ProductRepository;
+import org.cubord.cubordbackend.util.Gtin;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Short transactions of the background API enrichment of products.
+ *
+ * <p>{@link #claimDue} locks a chunk of due products with {@code FOR UPDATE SKIP LOCKED} and
+ * leases them by moving {@code nextRetryAt} past {@code app.product-enrichment.claim-timeout}, so
+ * other workers skip them while their lookups run outside any transaction. {@link #applyOutcomes}
+ * then records the results in a second transaction. Failed attempts back off exponentially from
+ * {@code lastRetryAttempt}: {@code backoff-base} doubled per attempt, capped at
+ * {@code backoff-max}. A claim that is never applied, e.g. because the node stopped, simply
+ * expires and the products become due again.</p>
+ *
+ * @see ProductEnrichmentWorker
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductEnrichmentService {
+
+    private final ProductRepository productRepository;
+    private final ProductCache productCache;
+    private final PantryItemRepository pantryItemRepository;
+
+    @Value("${app.product-enrichment.claim-timeout:PT10M}")
+    private Duration claimTimeout;
+
+    @Value("${app.product-enrichment.backoff-base:PT5M}")
+    private Duration backoffBase;
+
+    @Value("${app.product-enrichment.backoff-max:PT6H}")
+    private Duration backoffMax;
+
+    /**
+     * A product claimed for enrichment.
+     */
+    public record Claim(UUID productId, String upc) {
+    }
+
+    /**
+     * Result of looking up a claimed product.
+     */
+    public record Outcome(UUID productId, Result result, ProductResponse apiData) {
+
+        public enum Result {
+            /** The API returned product data */
+            ENRICHED,
+            /** The API does not know the product */
+            NOT_FOUND,
+            /** The lookup failed */
+            FAILED,
+            /** The lookup was rejected before reaching the API; not counted as an attempt */
+            REJECTED
+        }
+    }
+
+    /**
+     * Claims up to {@code chunkSize} products that are due for enrichment and not claimed by
+     * another worker.
+     *
+     * @param maxAttempts Products with this many attempts are no longer retried
+     * @param chunkSize   Maximum number of products to claim
+     * @return Claimed products, oldest due first
+     */
+    @Transactional
+    public List<Claim> claimDue(int maxAttempts, int chunkSize) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Product> due = productRepository.findDueForEnrichmentForUpdate(maxAttempts, now, Limit.of(chunkSize));
+        LocalDateTime leaseEnd = now.plus(claimTimeout);
+        for (Product product : due) {
+            product.setNextRetryAt(leaseEnd);
+        }
+        log.debug("Claimed {} products for API enrichment until {}", due.size(), leaseEnd);
+        return due.stream()
+                .map(product -> new Claim(product.getId(), product.getUpc()))
+                .toList();
+    }
+
+    /**
+     * Records lookup outcomes of claimed products.
+     *
+     * @param outcomes    Outcomes of one chunk of claims
+     * @param maxAttempts Products reaching this many attempts stop being retried
+     * @return Number of products enriched
+     */
+    @Transactional
+    public int applyOutcomes(List<Outcome> outcomes, int maxAttempts) {
+        Map<UUID, Product> products = productRepository.findAllById(
+                        outcomes.stream().map(Outcome::productId).toList()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        LocalDateTime now = LocalDateTime.now();
+        int enriched = 0;
+
+        for (Outcome outcome : outcomes) {
+            Product product = products.get(outcome.productId());
+            if (product == null || !Boolean.TRUE.equals(product.getRequiresApiRetry())) {
+                // Deleted or edited while the lookup ran
+                continue;
+            }
+            if (apply(product, outcome, maxAttempts, now)) {
+                enriched++;
+            }
+        }
+        return enriched;
+    }
+
+    /**
+     * Records the lookup outcome of a provisional product, created from a UPC scan whose lookup
+     * outlasted its latency budget.
+     *
+     * <p>Data found for a product still holding only placeholder values replaces them, making it
+     * an {@link ProductDataSource#OPEN_FOOD_FACTS} product. If a user entered product data while
+     * the lookup ran, those values are kept, only missing ones are filled from the API, and the
+     * product becomes {@link ProductDataSource#HYBRID}. Other outcomes are recorded like those of
+     * {@link #applyOutcomes}.</p>
+     *
+     * @param outcome     Outcome of the product's lookup
+     * @param maxAttempts Products reaching this many attempts stop being retried
+     * @return true if the product was enriched
+     */
+    @Transactional
+    public boolean completeProvisional(Outcome outcome, int maxAttempts) {
+        Product product = productRepository.findById(outcome.productId()).orElse(null);
+        if (product == null || !Boolean.TRUE.equals(product.getRequiresApiRetry())) {
+            return false;
+        }
+        if (outcome.result() != Outcome.Result.ENRICHED || !hasUserData(product)) {
+            return apply(product, outcome, maxAttempts, LocalDateTime.now());
+        }
+
+        productCache.invalidate(Gtin.canonical(product.getUpc()));
+        String previousName = product.getName();
+        fillMissing(product, outcome.apiData());
+        syncPantryItemNames(product, previousName);
+        product.setDataSource(ProductDataSource.HYBRID);
+        product.setRequiresApiRetry(false);
+        product.setNextRetryAt(null);
+        log.debug("Merged external API data into edited product {}", product.getId());
+        return true;
+    }
+
+    // ==================== Helper Methods ====================
+
+    /**
+     * Applies one outcome to a product awaiting enrichment.
+     *
+     * @return true if the product was enriched
+     */
+    private boolean apply(Product product, Outcome outcome, int maxAttempts, LocalDateTime now) {
+        // Retry bookkeeping is part of the response, so every outcome changes the cached product
+        productCache.invalidate(Gtin.canonical(product.getUpc()));
+
+        switch (outcome.result()) {
+            case ENRICHED -> {
+                String previousName = product.getName();
+                ProductService.enrichProductWithApiData(product, outcome.apiData());
+                syncPantryItemNames(product, previousName);
+                product.setDataSource(ProductDataSource.OPEN_FOOD_FACTS);
+                product.setRequiresApiRetry(false);
+                product.setNextRetryAt(null);
+                log.debug("Enriched product {} from external API", product.getId());
+                return true;
+            }
+            case NOT_FOUND, FAILED -> {
+                product.setRetryAttempts(product.getRetryAttempts() + 1);
+                product.setLastRetryAttempt(now);
+                if (product.getRetryAttempts() >= maxAttempts) {
+                    product.setRequiresApiRetry(false);
+                    product.setNextRetryAt(null);
+                    log.warn("Product {} exceeded max retry attempts ({})", product.getId(), maxAttempts);
+                } else {
+                    product.setNextRetryAt(now.plus(backoff(product.getRetryAttempts())));
+                }
+            }
+            case REJECTED -> product.setNextRetryAt(null);
+        }
+        return false;
+    }
+
+    /**
+     * Copies a changed product name to the product's pantry items, which are listed in name order.
+     */
+    private void syncPantryItemNames(Product product, String previousName) {
+        if (!Objects.equals(previousName, product.getName())) {
+            pantryItemRepository.updateProductName(product.getId(), PantryItem.sortName(product.getName()));
+        }
+    }
+
+    /**
+     * @return true if the product has values beyond those of a provisional product
+     */
+    private static boolean hasUserData(Product product) {
+        return !ProductService.PLACEHOLDER_NAME.equals(product.getName())
+                || product.getBrand() != null || product.getCategory() != null
+                || product.getImageUrl() != null || product.getImageSmallUrl() != null;
+    }
+
+    private static void fillMissing(Product product, ProductResponse apiData) {
+        if (isBlank(product.getName()) || ProductService.PLACEHOLDER_NAME.equals(product.getName())) {
+            product.setName(apiData.getName() != null && !apiData.getName().isBlank()
+                    ? apiData.getName() : product.getName());
+        }
+        if (isBlank(product.getBrand())) {
+            product.setBrand(apiData.getBrand());
+        }
+        if (isBlank(product.getCategory())) {
+            product.setCategory(apiData.getCategory());
+        }
+        if (isBlank(product.getImageUrl())) {
+            product.setImageUrl(apiData.getImageUrl());
+        }
+        if (isBlank(product.getImageSmallUrl())) {
+            product.setImageSmallUrl(apiData.getImageSmallUrl());
+        }
+        product.setUpdatedAt(LocalDateTime.now());
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    /**
+     * @return Wait before the attempt following {@code attempts} failed ones
+     */
+    Duration backoff(int attempts) {
+        int doublings = Math.min(Math.max(attempts - 1, 0), 30);
+        Duration backoff = backoffBase.multipliedBy(1L << doublings);
+        return backoff.compareTo(backoffMax) > 0 ? backoffMax : backoff;
+    }
+}
@@ -0,0 +1,156 @@
+package org.cubord.cubordbackend.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.cubord.cubordbackend.dto.product.ProductResponse;
+import org.cubord.cubordbackend.exception.NotFoundException;
+import org.cubord.cubordbackend.exception.ServiceUnavailableException;
+import org.cubord.cubordbackend.service.ProductEnrichmentService.Claim;
+import org.cubord.cubordbackend.service.ProductEnrichmentService.Outcome;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
+
+/**
+ * Periodically enriches products that are waiting for external API data.
+ *
+ * <p>Works in chunks of {@code app.product-enrichment.chunk-size}: claim due products in one
+ * short transaction, look them up in batches through
+ * {@link UpcApiService#fetchProductDataBatchInBackground} with no transaction open, then record
+ * the outcomes in a second short transaction. Claims skip rows locked by other workers and lease the claimed ones, so every app
+ * node can run the worker. A run stops when nothing is due, after
+ * {@code max-chunks-per-run} chunks, or when lookups are being rejected.</p>
+ *
+ * <p>Lookups that outlast the latency budget of a UPC scan are finished through
+ * {@link #completeInBackground} instead of waiting for the next run.</p>
+ *
+ * @see ProductEnrichmentService
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductEnrichmentWorker {
+
+    private final ProductEnrichmentService enrichmentService;
+    private final UpcApiService upcApiService;
+
+    @Value("${app.product-enrichment.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.product-enrichment.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.product-enrichment.chunk-size:50}")
+    private int chunkSize;
+
+    @Value("${app.product-enrichment.max-chunks-per-run:20}")
+    private int maxChunksPerRun;
+
+    @Scheduled(fixedDelayString = "${app.product-enrichment.interval:PT1M}",
+            initialDelayString = "${app.product-enrichment.interval:PT1M}")
+    public void enrichDueProducts() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            int enriched = enrichDue(maxAttempts);
+            if (enriched > 0) {
+                log.info("Enriched {} products from the external API", enriched);
+            }
+        } catch (RuntimeException e) {
+            log.error("Product enrichment run failed", e);
+        }
+    }
+
+    /**
+     * Runs enrichment chunks until nothing is due, the chunk limit is reached, or lookups are
+     * rejected.
+     *
+     * @param maxAttempts Products reaching this many attempts stop being retried
+     * @return Number of products enriched
+     */
+    public int enrichDue(int maxAttempts) {
+        int enriched = 0;
+        for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+            List<Claim> claims = enrichmentService.claimDue(maxAttempts, chunkSize);
+            if (claims.isEmpty()) {
+                break;
+            }
+            List<Outcome> outcomes = lookUp(claims);
+            enriched += enrichmentService.applyOutcomes(outcomes, maxAttempts);
+
+            if (outcomes.stream().anyMatch(outcome -> outcome.result() == Outcome.Result.REJECTED)) {
+                log.info("External API lookups are being rejected; pausing product enrichment");
+                break;
+            }
+            if (claims.size() < chunkSize) {
+                break;
+            }
+        }
+        return enriched;
+    }
+
+    /**
+     * Records the outcome of a provisional product's lookup once it completes, on the thread
+     * that completes it. Failures are counted as attempts, so the product is retried by later
+     * runs with the usual backoff.
+     *
+     * @param productId ID of the provisional product
+     * @param lookup    External lookup of the product's UPC that is still running
+     */
+    public void completeInBackground(UUID productId, CompletableFuture<ProductResponse> lookup) {
+        lookup.whenComplete((apiData, error) -> {
+            try {
+                if (enrichmentService.completeProvisional(await(productId, lookup), maxAttempts)) {
+                    log.debug("Completed provisional product {} from the external API", productId);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Failed to complete provisional product {}: {}", productId, e.getMessage());
+            }
+        });
+    }
+
+    // ==================== Helper Methods ====================
+
+    /**
+     * Looks up the claimed products, several per API request.
+     */
+    private List<Outcome> lookUp(List<Claim> claims) {
+        Map<String, CompletableFuture<ProductResponse>> lookups = start(claims);
+        return claims.stream()
+                .map(claim -> await(claim.productId(), lookups.get(claim.upc())))
+                .toList();
+    }
+
+    private Map<String, CompletableFuture<ProductResponse>> start(List<Claim> claims) {
+        try {
+            return upcApiService.fetchProductDataBatchInBackground(claims.stream().map(Claim::upc).toList());
+        } catch (RuntimeException e) {
+            CompletableFuture<ProductResponse> failed = CompletableFuture.failedFuture(e);
+            return claims.stream().collect(Collectors.toMap(Claim::upc, claim -> failed, (first, second) -> first));
+        }
+    }
+
+    private Outcome await(UUID productId, CompletableFuture<ProductResponse> lookup) {
+        try {
+            return new Outcome(productId, Outcome.Result.ENRICHED, lookup.join());
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof NotFoundException) {
+                return new Outcome(productId, Outcome.Result.NOT_FOUND, null);
+            }
+            if (cause instanceof ServiceUnavailableException) {
+                return new Outcome(productId, Outcome.Result.REJECTED, null);
+            }
+            log.debug("Failed to enrich product {}: {}", productId, cause.getMessage());
+            return new Outcome(productId, Outcome.Result.FAILED, null);
+        }
+    }
+}
@@ -0,0 +1,392 @@
+package org.cubord.cubordbackend.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.cubord.cubordbackend.repository.ProductRepository;
+import org.cubord.cubordbackend.repository.ProductRepositoryCustom.GtinEntry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Optional in-memory index from the GTIN of every product to its ID, so UPC lookups can load
+ * products by primary key.
+ *
+ * <p>Entries are stored in an open-addressing table of parallel {@code long} arrays (GTIN and
+ * the two halves of the ID), about 24 bytes per slot with no per-entry objects. Lookups take an
+ * optimistic read stamp and only fall back to a read lock if a writer intervened.</p>
+ *
+ * <p>The index is filled from {@code products} at startup and rebuilt every
+ * {@code app.product-gtin-index.rebuild-interval}. Products created, renamed or deleted on this
+ * node are applied after their transaction commits; changes made by other nodes appear with the
+ * next rebuild. Callers therefore treat a hit as a hint to confirm and a miss as "ask the
+ * database". Disabled unless {@code app.product-gtin-index.enabled} is set.</p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductGtinIndex {
+
+    private static final String METRIC_PREFIX = "cubord.product.gtin-index";
+
+    private final ProductRepository productRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.product-gtin-index.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.product-gtin-index.expected-size:100000}")
+    private int expectedSize;
+
+    @Value("${app.product-gtin-index.page-size:10000}")
+    private int pageSize;
+
+    private final StampedLock lock = new StampedLock();
+    private final Object rebuildLock = new Object();
+
+    private GtinTable table;
+    private List<Runnable> changesDuringRebuild;
+    private volatile boolean ready;
+
+    /**
+     * Validates the configuration and registers the size and footprint gauges.
+     *
+     * @throws IllegalStateException if the expected size or page size is not positive
+     */
+    @PostConstruct
+    public void init() {
+        if (expectedSize <= 0 || pageSize <= 0) {
+            throw new IllegalStateException("Product GTIN index sizes must be positive");
+        }
+        table = new GtinTable(enabled ? expectedSize : 0);
+        if (enabled) {
+            Gauge.builder(METRIC_PREFIX + ".size", this, ProductGtinIndex::size).register(meterRegistry);
+            Gauge.builder(METRIC_PREFIX + ".memory", this, ProductGtinIndex::memoryBytes)
+                    .baseUnit("bytes")
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * @return true once the index is enabled and has been built from the database
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Returns the ID of the product with a GTIN.
+     *
+     * @param gtin GTIN-14 value
+     * @return Product ID, or null if the index is not ready or has no entry for the GTIN
+     */
+    public UUID find(long gtin) {
+        if (!ready) {
+            return null;
+        }
+        long stamp = lock.tryOptimisticRead();
+        UUID productId = table.get(gtin);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                productId = table.get(gtin);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return productId;
+    }
+
+    /**
+     * Maps a GTIN to a product. Inside a transaction the entry is added after commit.
+     *
+     * @param gtin      GTIN-14 value; null is ignored
+     * @param productId ID of the product
+     */
+    public void put(Long gtin, UUID productId) {
+        if (enabled && gtin != null && productId != null) {
+            afterCommit(() -> table.put(gtin, productId));
+        }
+    }
+
+    /**
+     * Removes the entry of a GTIN if it still maps to a product. Inside a transaction the entry
+     * is removed after commit.
+     *
+     * @param gtin      GTIN-14 value; null is ignored
+     * @param productId ID of the product the GTIN no longer belongs to
+     */
+    public void remove(Long gtin, UUID productId) {
+        if (enabled && gtin != null && productId != null) {
+            afterCommit(() -> table.remove(gtin, productId));
+        }
+    }
+
+    /**
+     * Rebuilds the index from {@code products}, reading GTINs in pages of
+     * {@code app.product-gtin-index.page-size}. Runs at startup and then every
+     * {@code app.product-gtin-index.rebuild-interval}; does nothing when the index is disabled.
+     * Changes applied while the table is read are replayed onto the new table before it
+     * replaces the current one.
+     */
+    @Scheduled(fixedDelayString = "${app.product-gtin-index.rebuild-interval:PT6H}")
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        synchronized (rebuildLock) {
+            long started = System.nanoTime();
+            List<Runnable> pending = new ArrayList<>();
+            long stamp = lock.writeLock();
+            try {
+                changesDuringRebuild = pending;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+
+            GtinTable rebuilt;
+            try {
+                rebuilt = new GtinTable(Math.max(expectedSize, size()));
+                long afterGtin = -1;
+                List<GtinEntry> page;
+                do {
+                    page = productRepository.findGtinEntriesAfter(afterGtin, pageSize);
+                    for (GtinEntry entry : page) {
+                        rebuilt.put(entry.gtin(), entry.productId());
+                        afterGtin = entry.gtin();
+                    }
+                } while (page.size() == pageSize);
+            } catch (RuntimeException e) {
+                stamp = lock.writeLock();
+                try {
+                    changesDuringRebuild = null;
+                } finally {
+                    lock.unlockWrite(stamp);
+                }
+                throw e;
+            }
+
+            stamp = lock.writeLock();
+            try {
+                table = rebuilt;
+                // Changes read the table field when run, so replaying applies them to the new table
+                pending.forEach(Runnable::run);
+                changesDuringRebuild = null;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+            ready = true;
+            log.info("Rebuilt product GTIN index with {} entries ({} bytes) in {} ms",
+                    size(), memoryBytes(), (System.nanoTime() - started) / 1_000_000);
+        }
+    }
+
+    /**
+     * @return Number of indexed products
+     */
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return table.size();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * @return Bytes held by the arrays of the index
+     */
+    public long memoryBytes() {
+        long stamp = lock.readLock();
+        try {
+            return table.memoryBytes();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // ==================== Helper Methods ====================
+
+    private void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(change);
+                }
+            });
+        } else {
+            apply(change);
+        }
+    }
+
+    private void apply(Runnable change) {
+        long stamp = lock.writeLock();
+        try {
+            change.run();
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(change);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Open-addressing hash table from non-negative {@code long} keys to UUIDs, with linear
+     * probing over three parallel arrays. Not thread-safe; reads may run concurrently with a
+     * writer as long as the caller validates them afterwards, since they never index outside
+     * the arrays they started with and always terminate.
+     */
+    static final class GtinTable {
+
+        private static final long EMPTY = -1L;
+        private static final long REMOVED = -2L;
+        private static final double MAX_LOAD = 0.5;
+        private static final int MIN_CAPACITY = 16;
+
+        private long[] keys;
+        private long[] mostSignificant;
+        private long[] leastSignificant;
+        private int size;
+        private int occupied;
+
+        GtinTable(int expectedSize) {
+            allocate(capacityFor(expectedSize));
+        }
+
+        UUID get(long key) {
+            long[] k = keys;
+            long[] most = mostSignificant;
+            long[] least = leastSignificant;
+            int capacity = k.length;
+            if (most.length != capacity || least.length != capacity) {
+                return null;
+            }
+            int mask = capacity - 1;
+            int slot = slot(key, mask);
+            for (int probes = 0; probes < capacity; probes++) {
+                long current = k[slot];
+                if (current == key) {
+                    return new UUID(most[slot], least[slot]);
+                }
+                if (current == EMPTY) {
+                    return null;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return null;
+        }
+
+        void put(long key, UUID value) {
+            if (key < 0) {
+                throw new IllegalArgumentException("GTIN must not be negative: " + key);
+            }
+            if (occupied + 1 > keys.length * MAX_LOAD) {
+                resize(capacityFor(size + 1));
+            }
+            int mask = keys.length - 1;
+            int slot = slot(key, mask);
+            int firstRemoved = -1;
+            while (keys[slot] != EMPTY) {
+                if (keys[slot] == key) {
+                    mostSignificant[slot] = value.getMostSignificantBits();
+                    leastSignificant[slot] = value.getLeastSignificantBits();
+                    return;
+                }
+                if (keys[slot] == REMOVED && firstRemoved < 0) {
+                    firstRemoved = slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+            if (firstRemoved >= 0) {
+                slot = firstRemoved;
+            } else {
+                occupied++;
+            }
+            mostSignificant[slot] = value.getMostSignificantBits();
+            leastSignificant[slot] = value.getLeastSignificantBits();
+            keys[slot] = key;
+            size++;
+        }
+
+        /**
+         * Removes a key if it maps to the given value.
+         */
+        boolean remove(long key, UUID value) {
+            if (key < 0) {
+                return false;
+            }
+            int mask = keys.length - 1;
+            int slot = slot(key, mask);
+            while (keys[slot] != EMPTY) {
+                if (keys[slot] == key) {
+                    if (mostSignificant[slot] != value.getMostSignificantBits()
+                            || leastSignificant[slot] != value.getLeastSignificantBits()) {
+                        return false;
+                    }
+                    keys[slot] = REMOVED;
+                    size--;
+                    return true;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return false;
+        }
+
+        int size() {
+            return size;
+        }
+
+        long memoryBytes() {
+            return 3L * Long.BYTES * keys.length;
+        }
+
+        private void resize(int capacity) {
+            long[] oldKeys = keys;
+            long[] oldMost = mostSignificant;
+            long[] oldLeast = leastSignificant;
+            allocate(capacity);
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] >= 0) {
+                    put(oldKeys[i], new UUID(oldMost[i], oldLeast[i]));
+                }
+            }
+        }
+
+        private void allocate(int capacity) {
+            long[] newKeys = new long[capacity];
+            Arrays.fill(newKeys, EMPTY);
+            mostSignificant = new long[capacity];
+            leastSignificant = new long[capacity];
+            keys = newKeys;
+            size = 0;
+            occupied = 0;
+        }
+
+        private static int capacityFor(int entries) {
+            long needed = (long) Math.ceil(Math.max(entries, 1) / MAX_LOAD) + 1;
+            long capacity = Math.max(MIN_CAPACITY, Long.highestOneBit(needed - 1) << 1);
+            if (capacity > 1 << 30) {
+                throw new IllegalStateException("Product GTIN index cannot hold " + entries + " entries");
+            }
+            return (int) capacity;
+        }
+
+        private static int slot(long key, int mask) {
+            long hash = key * 0x9E3779B97F4A7C15L;
+            return (int) (hash ^ (hash >>> 32)) & mask;
+        }
+    }
+}
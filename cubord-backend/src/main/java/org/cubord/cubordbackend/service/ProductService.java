@@ -4,20 +4,32 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.cubord.cubordbackend.domain.Product;
 import org.cubord.cubordbackend.domain.ProductDataSource;
+import org.cubord.cubordbackend.dto.product.BulkProductImportItem;
+import org.cubord.cubordbackend.dto.product.BulkProductImportResponse;
 import org.cubord.cubordbackend.dto.product.ProductRequest;
 import org.cubord.cubordbackend.dto.product.ProductResponse;
 import org.cubord.cubordbackend.dto.product.ProductUpdateRequest;
 import org.cubord.cubordbackend.exception.*;
 import org.cubord.cubordbackend.repository.ProductRepository;
 import org.cubord.cubordbackend.security.SecurityService;
+import org.cubord.cubordbackend.util.Gtin;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Pattern;
 
 /**
  * Service class for managing products.
@@ -56,8 +68,23 @@ public class ProductService {
     private final ProductRepository productRepository;
     private final UpcApiService upcApiService;
     private final SecurityService securityService;
+    private final ProductCache productCache;
+    private final UnknownUpcFilter unknownUpcFilter;
+    private final UpcLookupCoalescer upcLookupCoalescer;
+    private final ProductEnrichmentWorker productEnrichmentWorker;
+    private final ProductCatalogImporter productCatalogImporter;
+    private final ProductCatalogImportService productCatalogImportService;
+    private final ProductGtinIndex productGtinIndex;
+    private final ProductWriteService productWriteService;
+
+    @Value("${app.product-enrichment.max-attempts:5}")
+    private int maxRetryAttempts;
 
-    private static final int MAX_RETRY_ATTEMPTS = 5;
+    /**
+     * Name of products created from a UPC before, or without, external API data.
+     */
+    static final String PLACEHOLDER_NAME = "Unknown Product";
+    private static final Pattern IMPORT_UPC_PATTERN = Pattern.compile("^[0-9]{8,14}$");
 
     // ==================== Query Operations ====================
 
@@ -92,14 +119,56 @@ public class ProductService {
      * 
      * <p>Authorization: All authenticated users can view products.</p>
      *
+     * <p>Lookups are served from {@link ProductCache}; products created from the external API
+     * are cached as well. UPCs missing locally that the external database recently reported as
+     * unknown are rejected by {@link UnknownUpcFilter} before the external lookup. Concurrent
+     * requests for the same new UPC share a single external fetch and insert via
+     * {@link UpcLookupCoalescer}. UPCs resolve
+     * through their GTIN ({@link Gtin}), so UPC-A, EAN-13, EAN-8 and UPC-E forms of an item find
+     * the same product with one index probe. When {@link ProductGtinIndex} is enabled, GTINs it
+     * knows are loaded by primary key instead.</p>
+     *
+     * <p>The lookup runs without a surrounding transaction, in three phases: a local read, an
+     * external fetch on a miss with no database connection held, and a short write transaction
+     * that inserts the product unless another request created it meanwhile. A slow external API
+     * therefore never ties up the connection pool.</p>
+     *
+     * <p>Waits for the external API as long as it takes; see
+     * {@link #getProductByUpc(String, Duration)} for lookups with a latency budget.</p>
+     *
      * @param upc UPC of the product to retrieve
      * @return ProductResponse containing the product's details
      * @throws ValidationException if upc is null or empty
      * @throws NotFoundException if product not found
      */
-    @Transactional(readOnly = true)
     @PreAuthorize("isAuthenticated()")
     public ProductResponse getProductByUpc(String upc) {
+        return getProductByUpc(upc, null);
+    }
+
+    /**
+     * Retrieves a product by its UPC, waiting at most a latency budget for the external API.
+     *
+     * <p>Authorization: All authenticated users can view products.</p>
+     *
+     * <p>Works like {@link #getProductByUpc(String)}. If a new UPC's external lookup has not
+     * answered within the budget, a provisional {@link ProductDataSource#MANUAL} product that
+     * requires API retry is stored and returned, and the lookup keeps running in the background:
+     * {@link ProductEnrichmentWorker#completeInBackground} updates the product once the data
+     * arrives. A UPC the external database turns out not to know then stays a manual product.</p>
+     *
+     * @param upc           UPC of the product to retrieve
+     * @param latencyBudget Longest wait for the external API; null waits for the lookup to finish
+     * @return ProductResponse containing the product's details; provisional products have
+     *         {@code requiresApiRetry} set
+     * @throws ValidationException if upc is null or empty, or the budget is negative
+     * @throws NotFoundException if product not found
+     */
+    @PreAuthorize("isAuthenticated()")
+    public ProductResponse getProductByUpc(String upc, Duration latencyBudget) {
+        if (latencyBudget != null && latencyBudget.isNegative()) {
+            throw new ValidationException("Latency budget cannot be negative");
+        }
         if (upc == null || upc.trim().isEmpty()) {
             throw new ValidationException("UPC cannot be null or empty");
         }
@@ -107,29 +176,137 @@ public class ProductService {
         UUID currentUserId = securityService.getCurrentUserId();
         log.debug("User {} retrieving product by UPC: {}", currentUserId, upc);
 
-        Optional<Product> existingProduct = productRepository.findByUpc(upc);
-        if (existingProduct.isPresent()) {
-            return mapToResponse(existingProduct.get());
+        // Equivalent barcode forms share one key, so they share cache entries and lookups
+        String key = Gtin.canonical(upc);
+        ProductResponse cached = productCache.get(key, this::loadProductByUpc);
+        if (cached != null) {
+            return cached;
+        }
+
+        // Checked only on a local miss, so a product created for a UPC recorded as unknown is found
+        if (unknownUpcFilter.isKnownAbsent(key)) {
+            throw new NotFoundException("Product with UPC '" + upc + "' not found");
         }
 
         // Product not in local DB — try to auto-create from external API
         log.info("Product with UPC {} not found locally, attempting to fetch from external API", upc);
-        return createProductFromUpc(upc);
+        return upcLookupCoalescer.coalesce(key, () -> {
+            ProductResponse created = createProductFromUpc(upc, latencyBudget);
+            // Products awaiting API data may be completed before this put, even on this thread
+            if (!Boolean.TRUE.equals(created.getRequiresApiRetry())) {
+                productCache.put(key, created);
+            }
+            return created;
+        });
+    }
+
+    /**
+     * Retrieves the products of several UPCs, creating the missing ones from the external API.
+     *
+     * <p>Authorization: All authenticated users can view products.</p>
+     *
+     * <p>Resolves UPCs like {@link #getProductByUpc(String)}, set-wise: products stored locally
+     * are found with one {@code IN} query, external data for the missing ones is fetched
+     * concurrently via {@link UpcApiService#fetchProductDataBatchAsync}, and the new products are
+     * inserted together in one short write transaction. No transaction is open while the lookups
+     * run. Products whose lookup fails are stored as manual entries that require API retry.</p>
+     *
+     * @param upcs UPCs of the products to retrieve
+     * @return Map of canonical UPC ({@link Gtin#canonical}) to product, for every distinct UPC
+     * @throws ValidationException if upcs is null or empty, or contains a null or empty UPC
+     * @throws NotFoundException if any UPC is unknown locally and to the external API
+     */
+    @PreAuthorize("isAuthenticated()")
+    public Map<String, ProductResponse> getProductsByUpcs(Collection<String> upcs) {
+        if (upcs == null || upcs.isEmpty()) {
+            throw new ValidationException("UPCs cannot be null or empty");
+        }
+        Map<String, String> missing = new LinkedHashMap<>();
+        for (String upc : upcs) {
+            if (upc == null || upc.trim().isEmpty()) {
+                throw new ValidationException("UPC cannot be null or empty");
+            }
+            missing.putIfAbsent(Gtin.canonical(upc), upc);
+        }
+
+        UUID currentUserId = securityService.getCurrentUserId();
+        log.debug("User {} retrieving {} products by UPC", currentUserId, missing.size());
+
+        Map<String, ProductResponse> products = new HashMap<>();
+        for (Product product : productRepository.findByCodeIn(missing.keySet())) {
+            String key = Gtin.canonical(product.getUpc());
+            if (missing.remove(key) != null) {
+                products.put(key, mapToResponse(product));
+            }
+        }
+        if (missing.isEmpty()) {
+            return products;
+        }
+
+        // Checked only on a local miss, as in getProductByUpc
+        for (Map.Entry<String, String> entry : missing.entrySet()) {
+            if (unknownUpcFilter.isKnownAbsent(entry.getKey())) {
+                throw new NotFoundException("Product with UPC '" + entry.getValue() + "' not found");
+            }
+        }
+
+        log.info("{} products not found locally, attempting to fetch them from external API", missing.size());
+        for (Product saved : storeResolvedProducts(buildScannedProducts(missing))) {
+            String key = Gtin.canonical(saved.getUpc());
+            productGtinIndex.put(Gtin.normalize(saved.getUpc()), saved.getId());
+            ProductResponse response = mapToResponse(saved);
+            if (!Boolean.TRUE.equals(saved.getRequiresApiRetry())) {
+                productCache.put(key, response);
+            }
+            products.put(key, response);
+        }
+        return products;
+    }
+
+    /**
+     * Loads a product from the database for {@link ProductCache}.
+     *
+     * <p>A product ID from {@link ProductGtinIndex} is used only if the product still has the
+     * GTIN; otherwise, and on index misses, the product is looked up by code and indexed.</p>
+     *
+     * @param upc UPC of the product
+     * @return ProductResponse for the product, or null if none exists
+     */
+    private ProductResponse loadProductByUpc(String upc) {
+        Long gtin = Gtin.normalize(upc);
+        UUID indexedId = gtin != null ? productGtinIndex.find(gtin) : null;
+        if (indexedId != null) {
+            Optional<Product> indexed = productRepository.findById(indexedId)
+                    .filter(product -> gtin.equals(product.getGtin()));
+            if (indexed.isPresent()) {
+                return mapToResponse(indexed.get());
+            }
+        }
+
+        Optional<Product> product = productRepository.findByCode(upc);
+        product.ifPresent(found -> productGtinIndex.put(found.getGtin(), found.getId()));
+        return product.map(this::mapToResponse).orElse(null);
     }
 
     /**
      * Creates a product by fetching data from the external API using the UPC.
      * Falls back to a minimal manual entry if the API call fails.
      *
-     * @param upc UPC of the product to create
-     * @return ProductResponse containing the created product's details
+     * <p>Must be called outside a transaction: the fetch holds no connection, and the product is
+     * stored by {@link ProductWriteService} afterwards. If the fetch outlasts the latency budget,
+     * the product is stored as provisional and the fetch is handed to
+     * {@link ProductEnrichmentWorker#completeInBackground}.</p>
+     *
+     * @param upc           UPC of the product to create
+     * @param latencyBudget Longest wait for the external API; null waits for the lookup to finish
+     * @return ProductResponse containing the created product's details, or of the product
+     *         another request created for the same code meanwhile
      * @throws NotFoundException if the product cannot be found externally and cannot be created
      */
-    @Transactional
-    protected ProductResponse createProductFromUpc(String upc) {
+    protected ProductResponse createProductFromUpc(String upc, Duration latencyBudget) {
         Product product = Product.builder()
                 .upc(upc)
-                .name("Unknown Product")
+                .name(PLACEHOLDER_NAME)
                 .dataSource(ProductDataSource.MANUAL)
                 .requiresApiRetry(false)
                 .retryAttempts(0)
@@ -137,14 +314,34 @@ public class ProductService {
                 .updatedAt(LocalDateTime.now())
                 .build();
 
+        CompletableFuture<ProductResponse> pendingLookup = null;
         try {
-            ProductResponse apiData = upcApiService.fetchProductData(upc);
-            enrichProductWithApiData(product, apiData);
-            product.setDataSource(ProductDataSource.OPEN_FOOD_FACTS);
-            product.setRequiresApiRetry(false);
-            log.debug("Successfully fetched product data for UPC: {} from external API", upc);
+            ProductResponse apiData;
+            if (latencyBudget == null) {
+                apiData = upcApiService.fetchProductData(upc);
+            } else {
+                CompletableFuture<ProductResponse> lookup = upcApiService.fetchProductDataAsync(upc);
+                apiData = awaitWithinBudget(lookup, latencyBudget);
+                if (apiData == null) {
+                    pendingLookup = lookup;
+                }
+            }
+            if (pendingLookup == null) {
+                enrichProductWithApiData(product, apiData);
+                product.setDataSource(ProductDataSource.OPEN_FOOD_FACTS);
+                product.setRequiresApiRetry(false);
+                log.debug("Successfully fetched product data for UPC: {} from external API", upc);
+            } else {
+                log.info("No API data for UPC {} within {}, storing a provisional product", upc, latencyBudget);
+                product.setRequiresApiRetry(true);
+            }
         } catch (NotFoundException e) {
             log.warn("Product with UPC {} not found in external database", upc);
+            try {
+                unknownUpcFilter.recordAbsent(Gtin.canonical(upc));
+            } catch (RuntimeException recordFailure) {
+                log.warn("Failed to record UPC {} as unknown: {}", upc, recordFailure.getMessage());
+            }
             throw new NotFoundException("Product with UPC '" + upc + "' not found");
         } catch (Exception e) {
             log.warn("Failed to fetch API data for UPC: {}, creating manual entry for retry", upc, e);
@@ -153,7 +350,12 @@ public class ProductService {
             product.setRetryAttempts(0);
         }
 
-        Product savedProduct = productRepository.save(product);
+        Product savedProduct = storeResolvedProduct(product);
+        productGtinIndex.put(Gtin.normalize(savedProduct.getUpc()), savedProduct.getId());
+        // Skipped if another request stored the product first
+        if (pendingLookup != null && Boolean.TRUE.equals(savedProduct.getRequiresApiRetry())) {
+            productEnrichmentWorker.completeInBackground(savedProduct.getId(), pendingLookup);
+        }
         log.info("Auto-created product with ID: {} for UPC: {}", savedProduct.getId(), upc);
         return mapToResponse(savedProduct);
     }
@@ -210,7 +412,10 @@ public class ProductService {
      * 
      * <p>The method first checks if a product with the given UPC already exists.
      * If not, it attempts to fetch data from the Open Food Facts API to enrich
-     * the product. If the API call fails, a manual entry is created with retry enabled.</p>
+     * the product. If the API call fails, a manual entry is created with retry enabled.
+     * No transaction is open during the API call; the product is inserted in its own by
+     * {@link ProductWriteService#insertIfAbsent}, so a product created for the same UPC
+     * meanwhile is reported as a conflict rather than a failed save.</p>
      *
      * @param request DTO containing the product information
      * @return ProductResponse containing the created product's details
@@ -218,7 +423,6 @@ public class ProductService {
      * @throws ConflictException if a product with UPC already exists
      * @throws DataIntegrityException if product creation fails
      */
-    @Transactional
     @PreAuthorize("isAuthenticated()")
     public ProductResponse createProduct(ProductRequest request) {
         if (request == null) {
@@ -234,11 +438,12 @@ public class ProductService {
         }
 
         // Check if UPC already exists
-        if (productRepository.findByUpc(request.getUpc()).isPresent()) {
+        if (productRepository.findByCode(request.getUpc()).isPresent()) {
             throw new ConflictException("Product with UPC '" + request.getUpc() + "' already exists");
         }
 
         Product product = createProductFromRequest(request);
+        unknownUpcFilter.forget(Gtin.canonical(request.getUpc()));
 
         // Try to enrich with API data
         try {
@@ -254,14 +459,24 @@ public class ProductService {
             product.setRetryAttempts(0);
         }
 
+        // Another request may have created the product during the API call
+        Product savedProduct;
         try {
-            Product savedProduct = productRepository.save(product);
-            log.info("User {} successfully created product with ID: {}", currentUserId, savedProduct.getId());
-            return mapToResponse(savedProduct);
+            savedProduct = productWriteService.insertIfAbsent(product);
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Product for UPC {} was inserted concurrently: {}", request.getUpc(), e.getMessage());
+            throw new ConflictException("Product with UPC '" + request.getUpc() + "' already exists", e);
         } catch (Exception e) {
             log.error("Failed to save product with UPC: {}", request.getUpc(), e);
             throw new DataIntegrityException("Failed to save product: " + e.getMessage(), e);
         }
+        if (savedProduct != product) {
+            throw new ConflictException("Product with UPC '" + request.getUpc() + "' already exists");
+        }
+
+        productGtinIndex.put(Gtin.normalize(savedProduct.getUpc()), savedProduct.getId());
+        log.info("User {} successfully created product with ID: {}", currentUserId, savedProduct.getId());
+        return mapToResponse(savedProduct);
     }
 
     // ==================== Update Operations ====================
@@ -295,10 +510,17 @@ public class ProductService {
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new NotFoundException("Product not found"));
 
+        String previousUpc = product.getUpc();
+        String previousName = product.getName();
         updateProductFromRequest(product, request);
 
         try {
-            Product savedProduct = productRepository.save(product);
+            Product savedProduct = productWriteService.saveWithPantryItemNames(product, previousName);
+            // Cache and GTIN index changes are applied once the transaction commits
+            productCache.invalidate(Gtin.canonical(previousUpc));
+            productCache.invalidate(Gtin.canonical(savedProduct.getUpc()));
+            productGtinIndex.remove(Gtin.normalize(previousUpc), productId);
+            productGtinIndex.put(Gtin.normalize(savedProduct.getUpc()), productId);
             log.info("Admin user {} successfully updated product with ID: {}", currentUserId, productId);
             return mapToResponse(savedProduct);
         } catch (Exception e) {
@@ -339,10 +561,17 @@ public class ProductService {
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new NotFoundException("Product not found"));
 
+        String previousUpc = product.getUpc();
+        String previousName = product.getName();
         applyPatchToProduct(product, patchData);
 
         try {
-            Product savedProduct = productRepository.save(product);
+            Product savedProduct = productWriteService.saveWithPantryItemNames(product, previousName);
+            // Cache and GTIN index changes are applied once the transaction commits
+            productCache.invalidate(Gtin.canonical(previousUpc));
+            productCache.invalidate(Gtin.canonical(savedProduct.getUpc()));
+            productGtinIndex.remove(Gtin.normalize(previousUpc), productId);
+            productGtinIndex.put(Gtin.normalize(savedProduct.getUpc()), productId);
             log.info("Admin user {} successfully patched product with ID: {}", currentUserId, productId);
             return mapToResponse(savedProduct);
         } catch (Exception e) {
@@ -379,6 +608,9 @@ public class ProductService {
 
         try {
             productRepository.delete(product);
+            // Cache and GTIN index changes are applied once the transaction commits
+            productCache.invalidate(Gtin.canonical(product.getUpc()));
+            productGtinIndex.remove(Gtin.normalize(product.getUpc()), productId);
             log.info("Admin user {} successfully deleted product with ID: {}", currentUserId, productId);
         } catch (Exception e) {
             log.error("Failed to delete product with ID: {}", productId, e);
@@ -393,43 +625,21 @@ public class ProductService {
      * 
      * <p>Authorization: Only administrators can retry API enrichment.</p>
      * 
-     * <p>This method processes products marked for retry, attempting to fetch
-     * data from the external API. Products are marked as no longer requiring
-     * retry after MAX_RETRY_ATTEMPTS failures.</p>
+     * <p>Runs the {@link ProductEnrichmentWorker} now instead of waiting for its next scheduled
+     * run: due products are claimed, looked up and updated chunk by chunk in short transactions.
+     * Products are marked as no longer requiring retry after
+     * {@code app.product-enrichment.max-attempts} failures, as in scheduled runs.</p>
      *
      * @return Number of products successfully enriched
      */
-    @Transactional
     @PreAuthorize("@security.isAdmin()")
     public int retryApiEnrichment() {
         UUID currentUserId = securityService.getCurrentUserId();
         log.info("Admin user {} initiating API retry enrichment", currentUserId);
 
-        var productsToRetry = productRepository.findByRequiresApiRetryTrueAndRetryAttemptsLessThan(MAX_RETRY_ATTEMPTS);
-        int successCount = 0;
-
-        for (Product product : productsToRetry) {
-            try {
-                ProductResponse apiData = upcApiService.fetchProductData(product.getUpc());
-                enrichProductWithApiData(product, apiData);
-                product.setDataSource(ProductDataSource.OPEN_FOOD_FACTS);
-                product.setRequiresApiRetry(false);
-                productRepository.save(product);
-                successCount++;
-                log.debug("Successfully enriched product {} on retry", product.getId());
-            } catch (Exception e) {
-                product.setRetryAttempts(product.getRetryAttempts() + 1);
-                if (product.getRetryAttempts() >= MAX_RETRY_ATTEMPTS) {
-                    product.setRequiresApiRetry(false);
-                    log.warn("Product {} exceeded max retry attempts", product.getId());
-                }
-                productRepository.save(product);
-                log.debug("Failed to enrich product {} on retry: {}", product.getId(), e.getMessage());
-            }
-        }
+        int successCount = productEnrichmentWorker.enrichDue(maxRetryAttempts);
 
-        log.info("Admin user {} completed API retry enrichment: {} of {} products enriched", 
-                currentUserId, successCount, productsToRetry.size());
+        log.info("Admin user {} completed API retry enrichment: {} products enriched", currentUserId, successCount);
         return successCount;
     }
 
@@ -438,10 +648,12 @@ public class ProductService {
      *
      * <p>Authorization: Only administrators can process batch retries.</p>
      *
+     * <p>Runs the {@link ProductEnrichmentWorker} now with the given attempt limit. Products
+     * still inside their retry backoff or claimed by another node are left alone.</p>
+     *
      * @param maxRetryAttempts Maximum number of retry attempts
      * @return Number of products successfully enriched
      */
-    @Transactional
     @PreAuthorize("@security.isAdmin()")
     public int processBatchRetry(int maxRetryAttempts) {
         if (maxRetryAttempts <= 0) {
@@ -452,56 +664,50 @@ public class ProductService {
         log.info("Admin user {} processing batch retry with maxRetryAttempts: {}",
                 currentUserId, maxRetryAttempts);
 
-        List<Product> productsToRetry = productRepository.findByRequiresApiRetryTrueAndRetryAttemptsLessThan(
-                maxRetryAttempts);
+        int processedCount = productEnrichmentWorker.enrichDue(maxRetryAttempts);
 
-        int processedCount = 0;
-        for (Product product : productsToRetry) {
-            try {
-                ProductResponse apiData = upcApiService.fetchProductData(product.getUpc());
-                enrichProductWithApiData(product, apiData);
-                product.setRequiresApiRetry(false);
-                product.setDataSource(ProductDataSource.OPEN_FOOD_FACTS);
-                productRepository.save(product);
-                processedCount++;
-                log.info("Successfully enriched product {} (attempt {})",
-                        product.getId(), product.getRetryAttempts() + 1);
-            } catch (NotFoundException e) {
-                product.setRetryAttempts(product.getRetryAttempts() + 1);
-                product.setLastRetryAttempt(LocalDateTime.now());
-                if (product.getRetryAttempts() >= maxRetryAttempts) {
-                    product.setRequiresApiRetry(false);
-                    log.warn("Product {} exceeded max retry attempts ({})",
-                            product.getId(), maxRetryAttempts);
-                }
-                productRepository.save(product);
-            } catch (Exception e) {
-                log.error("Error processing retry for product {}: {}", product.getId(), e.getMessage());
-                product.setRetryAttempts(product.getRetryAttempts() + 1);
-                product.setLastRetryAttempt(LocalDateTime.now());
-                if (product.getRetryAttempts() >= maxRetryAttempts) {
-                    product.setRequiresApiRetry(false);
-                }
-                productRepository.save(product);
-            }
-        }
-
-        log.info("Admin user {} processed {} of {} products requiring retry",
-                currentUserId, processedCount, productsToRetry.size());
+        log.info("Admin user {} processed batch retry: {} products enriched", currentUserId, processedCount);
         return processedCount;
     }
 
+    /**
+     * Starts importing an Open Food Facts dump file into the product catalog in the background.
+     *
+     * <p>Authorization: Only administrators can import the product catalog.</p>
+     *
+     * @param fileName Name of the dump file inside {@code app.product-catalog-import.directory}
+     * @throws ValidationException if the file name is empty or no import directory is configured
+     * @throws NotFoundException   if the file does not exist in the import directory
+     * @throws ConflictException   if an import is already running
+     * @see ProductCatalogImporter
+     */
+    @PreAuthorize("@security.isAdmin()")
+    public void importCatalog(String fileName) {
+        UUID currentUserId = securityService.getCurrentUserId();
+        log.info("Admin user {} starting catalog import of {}", currentUserId, fileName);
+
+        productCatalogImporter.startImport(fileName);
+    }
+
     /**
      * Bulk imports multiple products.
      *
      * <p>Authorization: Only administrators can bulk import products.</p>
      *
+     * <p>Runs as a pipeline instead of creating products one by one: UPCs repeated within the
+     * payload are imported once, existing UPCs are found with a single {@code IN} query, external
+     * data for the remaining ones is fetched in batches via
+     * {@link UpcApiService#fetchProductDataBatchAsync} with bounded concurrency, and the new
+     * products are inserted with JDBC batches in one short transaction. No transaction is open
+     * while the lookups run. Products whose lookup fails are created as manual entries marked for
+     * API retry.</p>
+     *
      * @param requests List of product requests to import
-     * @return List of created ProductResponse objects
+     * @return Outcome of every request, in request order
+     * @throws ValidationException if requests is null or empty
      */
-    @Transactional
     @PreAuthorize("@security.isAdmin()")
-    public List<ProductResponse> bulkImportProducts(List<ProductRequest> requests) {
+    public BulkProductImportResponse bulkImportProducts(List<ProductRequest> requests) {
         if (requests == null || requests.isEmpty()) {
             throw new ValidationException("Product requests cannot be null or empty");
         }
@@ -509,20 +715,67 @@ public class ProductService {
         UUID currentUserId = securityService.getCurrentUserId();
         log.info("Admin user {} bulk importing {} products", currentUserId, requests.size());
 
-        List<ProductResponse> results = new ArrayList<>();
-        for (ProductRequest request : requests) {
-            try {
-                ProductResponse response = createProduct(request);
-                results.add(response);
-            } catch (Exception e) {
-                log.warn("Failed to import product with UPC {}: {}", request.getUpc(), e.getMessage());
-                // Continue with other products
+        BulkProductImportItem[] items = new BulkProductImportItem[requests.size()];
+
+        // Dedupe within the payload by GTIN; the first request of an item wins
+        Map<String, Integer> newUpcs = new LinkedHashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            ProductRequest request = requests.get(i);
+            String problem = validateImportRequest(request);
+            if (problem != null) {
+                items[i] = importItem(i, request != null ? request.getUpc() : null, BulkProductImportItem.Status.INVALID)
+                        .message(problem)
+                        .build();
+                continue;
+            }
+            Integer first = newUpcs.putIfAbsent(Gtin.canonical(request.getUpc()), i);
+            if (first != null) {
+                items[i] = importItem(i, request.getUpc(), BulkProductImportItem.Status.DUPLICATE)
+                        .message("Duplicate of request " + first)
+                        .build();
+            }
+        }
+
+        if (!newUpcs.isEmpty()) {
+            for (Product existing : productRepository.findByCodeIn(new ArrayList<>(newUpcs.keySet()))) {
+                Integer index = newUpcs.remove(Gtin.canonical(existing.getUpc()));
+                if (index != null) {
+                    items[index] = importItem(index, requests.get(index).getUpc(), BulkProductImportItem.Status.ALREADY_EXISTS)
+                            .productId(existing.getId())
+                            .dataSource(existing.getDataSource())
+                            .build();
+                }
             }
         }
 
-        log.info("Admin user {} successfully imported {} of {} products",
-                currentUserId, results.size(), requests.size());
-        return results;
+        Map<String, String> lookupFailures = new HashMap<>();
+        List<Product> products = buildImportedProducts(requests, newUpcs, lookupFailures);
+        String insertFailure = null;
+        try {
+            productCatalogImportService.insertProducts(products);
+        } catch (RuntimeException e) {
+            log.error("Failed to insert {} bulk imported products", products.size(), e);
+            insertFailure = "Failed to save product: " + e.getMessage();
+        }
+        for (Product product : products) {
+            String key = Gtin.canonical(product.getUpc());
+            int index = newUpcs.get(key);
+            items[index] = insertFailure != null
+                    ? importItem(index, product.getUpc(), BulkProductImportItem.Status.FAILED)
+                            .message(insertFailure)
+                            .build()
+                    : importItem(index, product.getUpc(), BulkProductImportItem.Status.CREATED)
+                            .productId(product.getId())
+                            .dataSource(product.getDataSource())
+                            .message(lookupFailures.get(key))
+                            .build();
+        }
+
+        BulkProductImportResponse response = summarizeImport(Arrays.asList(items));
+        log.info("Admin user {} bulk imported {} products: {} created, {} skipped, {} failed",
+                currentUserId, requests.size(), response.getCreatedCount(), response.getSkippedCount(),
+                response.getFailedCount());
+        return response;
     }
 
     /**
@@ -564,10 +817,13 @@ public class ProductService {
      *
      * <p>Authorization: Only administrators can retry API enrichment.</p>
      *
+     * <p>The product is read and saved in separate short transactions, so none is open during
+     * the API call. The cached product is invalidated once the save has committed.</p>
+     *
      * @param productId UUID of the product to retry
      * @return ProductResponse containing the updated product's details
+     * @throws ServiceUnavailableException if the lookup is rejected because the API is failing or saturated
      */
-    @Transactional
     @PreAuthorize("@security.isAdmin()")
     public ProductResponse retryApiEnrichment(UUID productId) {
         if (productId == null) {
@@ -582,28 +838,36 @@ public class ProductService {
 
         try {
             ProductResponse apiData = upcApiService.fetchProductData(product.getUpc());
+            String previousName = product.getName();
             enrichProductWithApiData(product, apiData);
             product.setRequiresApiRetry(false);
             product.setDataSource(ProductDataSource.OPEN_FOOD_FACTS);
-            product = productRepository.save(product);
+            // The product and its pantry item names are saved in one short transaction
+            product = productWriteService.saveWithPantryItemNames(product, previousName);
+            productCache.invalidate(Gtin.canonical(product.getUpc()));
             log.info("Successfully enriched product {} on manual retry", productId);
         } catch (NotFoundException e) {
             product.setRetryAttempts(product.getRetryAttempts() + 1);
             product.setLastRetryAttempt(LocalDateTime.now());
-            if (product.getRetryAttempts() >= MAX_RETRY_ATTEMPTS) {
+            if (product.getRetryAttempts() >= maxRetryAttempts) {
                 product.setRequiresApiRetry(false);
                 log.warn("Product {} exceeded max retry attempts on manual retry", productId);
             }
             product = productRepository.save(product);
+            productCache.invalidate(Gtin.canonical(product.getUpc()));
             throw new DataIntegrityException("API enrichment failed - no data available for UPC: " + product.getUpc());
+        } catch (ServiceUnavailableException e) {
+            // Rejected without reaching the API, so it does not count as an attempt
+            throw e;
         } catch (Exception e) {
             log.error("Error during manual API enrichment for product {}: {}", productId, e.getMessage());
             product.setRetryAttempts(product.getRetryAttempts() + 1);
             product.setLastRetryAttempt(LocalDateTime.now());
-            if (product.getRetryAttempts() >= MAX_RETRY_ATTEMPTS) {
+            if (product.getRetryAttempts() >= maxRetryAttempts) {
                 product.setRequiresApiRetry(false);
             }
             productRepository.save(product);
+            productCache.invalidate(Gtin.canonical(product.getUpc()));
             throw new DataIntegrityException("Failed to retry API enrichment: " + e.getMessage());
         }
 
@@ -612,6 +876,203 @@ public class ProductService {
 
     // ==================== Helper Methods ====================
 
+    /**
+     * Inserts a product resolved through the external API, or returns the product another
+     * request or node inserted for the same GTIN first.
+     */
+    private Product storeResolvedProduct(Product product) {
+        try {
+            return productWriteService.insertIfAbsent(product);
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Product for UPC {} was inserted concurrently: {}", product.getUpc(), e.getMessage());
+            return productRepository.findByCode(product.getUpc()).orElseThrow(() -> e);
+        }
+    }
+
+    /**
+     * Inserts products resolved through the external API together, or one by one if another
+     * request or node inserted one of their GTINs meanwhile.
+     */
+    private List<Product> storeResolvedProducts(List<Product> products) {
+        try {
+            return productWriteService.insertAllIfAbsent(products);
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Some of {} products were inserted concurrently: {}", products.size(), e.getMessage());
+            return products.stream().map(this::storeResolvedProduct).toList();
+        }
+    }
+
+    /**
+     * Builds the new products of scanned UPCs, enriched with external data fetched concurrently
+     * for all of them. UPCs the external database does not know are recorded as unknown.
+     *
+     * @param missing UPC as scanned for each canonical UPC missing locally
+     * @throws NotFoundException if the external database does not know one of the UPCs
+     */
+    private List<Product> buildScannedProducts(Map<String, String> missing) {
+        Map<String, CompletableFuture<ProductResponse>> lookups;
+        try {
+            lookups = upcApiService.fetchProductDataBatchAsync(List.copyOf(missing.values()));
+        } catch (RuntimeException e) {
+            log.warn("Failed to start batched API lookups for {} UPCs: {}", missing.size(), e.getMessage());
+            lookups = Map.of();
+        }
+
+        List<Product> products = new ArrayList<>(missing.size());
+        String unknownUpc = null;
+        for (Map.Entry<String, String> entry : missing.entrySet()) {
+            String upc = entry.getValue();
+            LocalDateTime now = LocalDateTime.now();
+            Product product = Product.builder()
+                    .id(UUID.randomUUID())
+                    .upc(upc)
+                    .name(PLACEHOLDER_NAME)
+                    .dataSource(ProductDataSource.OPEN_FOOD_FACTS)
+                    .requiresApiRetry(false)
+                    .retryAttempts(0)
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .build();
+            try {
+                enrichProductWithApiData(product, awaitApiData(lookups.get(upc), upc));
+            } catch (NotFoundException e) {
+                log.warn("Product with UPC {} not found in external database", upc);
+                try {
+                    unknownUpcFilter.recordAbsent(entry.getKey());
+                } catch (RuntimeException recordFailure) {
+                    log.warn("Failed to record UPC {} as unknown: {}", upc, recordFailure.getMessage());
+                }
+                if (unknownUpc == null) {
+                    unknownUpc = upc;
+                }
+            } catch (RuntimeException e) {
+                log.warn("Failed to fetch API data for UPC: {}, creating manual entry for retry", upc, e);
+                product.setDataSource(ProductDataSource.MANUAL);
+                product.setRequiresApiRetry(true);
+            }
+            products.add(product);
+        }
+        if (unknownUpc != null) {
+            throw new NotFoundException("Product with UPC '" + unknownUpc + "' not found");
+        }
+        return products;
+    }
+
+    private static String validateImportRequest(ProductRequest request) {
+        if (request == null) {
+            return "Product request cannot be null";
+        }
+        if (request.getUpc() == null || !IMPORT_UPC_PATTERN.matcher(request.getUpc()).matches()) {
+            return "UPC must be 8-14 digits";
+        }
+        if (request.getName() == null || request.getName().isBlank()) {
+            return "Product name cannot be blank";
+        }
+        return null;
+    }
+
+    private static BulkProductImportItem.BulkProductImportItemBuilder importItem(
+            int index, String upc, BulkProductImportItem.Status status) {
+        return BulkProductImportItem.builder().index(index).upc(upc).status(status);
+    }
+
+    /**
+     * Builds the new products of a bulk import, enriched with external data fetched concurrently
+     * for all of them.
+     *
+     * @param newUpcs        Index of the request to create for each new canonical UPC
+     * @param lookupFailures Receives the reason for every canonical UPC created without external data
+     */
+    private List<Product> buildImportedProducts(List<ProductRequest> requests, Map<String, Integer> newUpcs,
+                                                Map<String, String> lookupFailures) {
+        if (newUpcs.isEmpty()) {
+            return List.of();
+        }
+
+        Map<String, CompletableFuture<ProductResponse>> lookups;
+        try {
+            lookups = upcApiService.fetchProductDataBatchAsync(newUpcs.values().stream()
+                    .map(index -> requests.get(index).getUpc())
+                    .toList());
+        } catch (RuntimeException e) {
+            log.warn("Failed to start batched API lookups for bulk import: {}", e.getMessage());
+            lookups = Map.of();
+        }
+
+        List<Product> products = new ArrayList<>(newUpcs.size());
+        for (Map.Entry<String, Integer> entry : newUpcs.entrySet()) {
+            ProductRequest request = requests.get(entry.getValue());
+            String upc = request.getUpc();
+            Product product = createProductFromRequest(request);
+            product.setId(UUID.randomUUID());
+            try {
+                enrichProductWithApiData(product, awaitApiData(lookups.get(upc), upc));
+                product.setDataSource(ProductDataSource.OPEN_FOOD_FACTS);
+            } catch (RuntimeException e) {
+                log.debug("No API data for bulk imported UPC {}: {}", upc, e.getMessage());
+                product.setRequiresApiRetry(true);
+                lookupFailures.put(entry.getKey(),
+                        "Created without external data, queued for API retry: " + e.getMessage());
+            }
+            products.add(product);
+        }
+        return products;
+    }
+
+    /**
+     * Waits for a lookup for at most the budget.
+     *
+     * @return The product data, or null if the budget elapsed or the wait was interrupted
+     */
+    private static ProductResponse awaitWithinBudget(CompletableFuture<ProductResponse> lookup, Duration budget) {
+        try {
+            return lookup.get(budget.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new CompletionException(e.getCause());
+        }
+    }
+
+    private static ProductResponse awaitApiData(CompletableFuture<ProductResponse> lookup, String upc) {
+        if (lookup == null) {
+            throw new ExternalServiceException("Open Food Facts API", "No lookup started for UPC: " + upc);
+        }
+        try {
+            return lookup.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static BulkProductImportResponse summarizeImport(List<BulkProductImportItem> items) {
+        int created = 0;
+        int skipped = 0;
+        int failed = 0;
+        for (BulkProductImportItem item : items) {
+            switch (item.getStatus()) {
+                case CREATED -> created++;
+                case ALREADY_EXISTS, DUPLICATE -> skipped++;
+                case INVALID, FAILED -> failed++;
+            }
+        }
+        return BulkProductImportResponse.builder()
+                .createdCount(created)
+                .skippedCount(skipped)
+                .failedCount(failed)
+                .items(items)
+                .build();
+    }
+
     /**
      * Creates a Product entity from a ProductRequest DTO.
      *
@@ -640,7 +1101,7 @@ public class ProductService {
      * @param product Product entity to enrich
      * @param apiData ProductResponse from API
      */
-    private void enrichProductWithApiData(Product product, ProductResponse apiData) {
+    static void enrichProductWithApiData(Product product, ProductResponse apiData) {
         if (apiData.getName() != null && !apiData.getName().isBlank()) {
             product.setName(apiData.getName());
         }
@@ -0,0 +1,122 @@
+package org.cubord.cubordbackend.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.cubord.cubordbackend.domain.PantryItem;
+import org.cubord.cubordbackend.domain.Product;
+import org.cubord.cubordbackend.repository.PantryItemRepository;
+import org.cubord.cubordbackend.repository.ProductRepository;
+import org.cubord.cubordbackend.util.Gtin;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Short write transactions of products resolved through the external API.
+ *
+ * <p>{@link ProductService} fetches external product data with no transaction open, so a slow
+ * Open Food Facts response never holds a pooled connection, and then stores the result here in
+ * one short transaction. Inserts are idempotent: if a product with the same code appeared while
+ * the data was fetched, that product is returned instead. Changed products are saved together
+ * with the product name copied to their pantry items.</p>
+ *
+ * @see ProductService#getProductByUpc
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductWriteService {
+
+    private final ProductRepository productRepository;
+    private final PantryItemRepository pantryItemRepository;
+
+    /**
+     * Inserts a product unless one with the same code already exists.
+     *
+     * <p>Always runs in a transaction of its own, committed before this method returns, even when
+     * the caller has one open: a concurrent insert of the same GTIN on another connection then
+     * fails only this transaction with a unique-constraint violation, never the caller's, and
+     * callers read the product that won. The inserted product is also visible to every other
+     * caller the moment it is returned.</p>
+     *
+     * @param product New product without an ID
+     * @return The existing product with the same code, or the inserted product
+     * @throws org.springframework.dao.DataIntegrityViolationException if a concurrent transaction
+     *                                                                 inserted the same GTIN first
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public Product insertIfAbsent(Product product) {
+        Optional<Product> existing = productRepository.findByCode(product.getUpc());
+        if (existing.isPresent()) {
+            log.debug("Product for UPC {} was created concurrently, keeping product {}",
+                    product.getUpc(), existing.get().getId());
+            return existing.get();
+        }
+        return productRepository.saveAndFlush(product);
+    }
+
+    /**
+     * Inserts several products with JDBC batches, keeping the existing product for every code that
+     * already has one.
+     *
+     * <p>Runs in a transaction of its own like {@link #insertIfAbsent}: a concurrent insert of one
+     * of the GTINs fails only this transaction, and callers may then store the products one by
+     * one.</p>
+     *
+     * @param products New products with pre-assigned IDs, timestamps and distinct GTINs
+     * @return The existing or inserted product for each given product, in the given order
+     * @throws org.springframework.dao.DataIntegrityViolationException if a concurrent transaction
+     *                                                                 inserted one of the GTINs first
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public List<Product> insertAllIfAbsent(List<Product> products) {
+        Map<String, Product> existing = new HashMap<>();
+        for (Product product : productRepository.findByCodeIn(products.stream().map(Product::getUpc).toList())) {
+            existing.put(Gtin.canonical(product.getUpc()), product);
+        }
+
+        List<Product> stored = new ArrayList<>(products.size());
+        List<Product> inserts = new ArrayList<>(products.size());
+        for (Product product : products) {
+            Product found = existing.get(Gtin.canonical(product.getUpc()));
+            if (found != null) {
+                log.debug("Product for UPC {} was created concurrently, keeping product {}",
+                        product.getUpc(), found.getId());
+                stored.add(found);
+            } else {
+                inserts.add(product);
+                stored.add(product);
+            }
+        }
+        productRepository.batchInsert(inserts);
+        return stored;
+    }
+
+    /**
+     * Saves a changed product and copies a changed name to its pantry items, which are listed in
+     * name order.
+     *
+     * <p>Joins the caller's transaction, or opens a short one if none is open, so the product and
+     * its pantry items are always updated together.</p>
+     *
+     * @param product      Product to save
+     * @param previousName Name of the product before the change
+     * @return The saved product
+     */
+    @Transactional
+    public Product saveWithPantryItemNames(Product product, String previousName) {
+        Product saved = productRepository.save(product);
+        if (!Objects.equals(previousName, saved.getName())) {
+            int updated = pantryItemRepository.updateProductName(saved.getId(), PantryItem.sortName(saved.getName()));
+            log.debug("Copied new name of product {} to {} pantry items", saved.getId(), updated);
+        }
+        return saved;
+    }
+}
@@ -0,0 +1,223 @@
+package org.cubord.cubordbackend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.cubord.cubordbackend.domain.UnknownUpc;
+import org.cubord.cubordbackend.repository.UnknownUpcRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Remembers UPCs the external product database does not know, so repeated scans of them that
+ * miss the local catalog skip the external API.
+ *
+ * <p>Known-absent UPCs are stored in {@code unknown_upcs} with an expiry of
+ * {@code app.unknown-upc.ttl}. An in-memory Bloom filter over the active rows answers most
+ * lookups without touching the database: only UPCs the filter reports as possibly absent are
+ * confirmed with a primary-key lookup, so false positives never hide a product. The filter is
+ * rebuilt from the table every {@code app.unknown-upc.rebuild-interval}, which also drops
+ * expired and forgotten UPCs from it.</p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UnknownUpcFilter {
+
+    private static final String METRIC_NAME = "cubord.product.unknown-upc.lookups";
+
+    private final UnknownUpcRepository unknownUpcRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.unknown-upc.ttl:P7D}")
+    private Duration ttl;
+
+    @Value("${app.unknown-upc.expected-insertions:100000}")
+    private int expectedInsertions;
+
+    @Value("${app.unknown-upc.false-positive-probability:0.01}")
+    private double falsePositiveProbability;
+
+    private volatile BloomFilter filter;
+
+    private Counter passed;
+    private Counter rejected;
+    private Counter falsePositives;
+
+    @PostConstruct
+    public void init() {
+        if (ttl.isNegative() || ttl.isZero() || expectedInsertions <= 0
+                || falsePositiveProbability <= 0 || falsePositiveProbability >= 1) {
+            throw new IllegalStateException("Unknown UPC filter requires a positive TTL and size, " +
+                    "and a false positive probability between 0 and 1");
+        }
+        filter = BloomFilter.create(expectedInsertions, falsePositiveProbability);
+
+        passed = Counter.builder(METRIC_NAME).tag("result", "passed").register(meterRegistry);
+        rejected = Counter.builder(METRIC_NAME).tag("result", "known_absent").register(meterRegistry);
+        falsePositives = Counter.builder(METRIC_NAME).tag("result", "false_positive").register(meterRegistry);
+    }
+
+    /**
+     * Checks whether a UPC was recently reported as unknown by the external database.
+     *
+     * @param upc UPC to check
+     * @return true if lookups of the UPC should be answered as not found
+     */
+    public boolean isKnownAbsent(String upc) {
+        if (!filter.mightContain(upc)) {
+            passed.increment();
+            return false;
+        }
+        if (unknownUpcRepository.existsByUpcAndExpiresAtAfter(upc, LocalDateTime.now())) {
+            rejected.increment();
+            return true;
+        }
+        falsePositives.increment();
+        return false;
+    }
+
+    /**
+     * Records that the external database does not know a UPC.
+     *
+     * <p>Runs in its own transaction, so the entry is kept even though the caller's lookup
+     * fails with a not-found error.</p>
+     *
+     * @param upc UPC reported as unknown
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void recordAbsent(String upc) {
+        LocalDateTime now = LocalDateTime.now();
+        unknownUpcRepository.save(UnknownUpc.builder()
+                .upc(upc)
+                .recordedAt(now)
+                .expiresAt(now.plus(ttl))
+                .build());
+        filter.put(upc);
+        log.debug("Recorded UPC {} as unknown until {}", upc, now.plus(ttl));
+    }
+
+    /**
+     * Forgets a UPC, e.g. because a product was created for it. The filter keeps reporting the
+     * UPC until the next rebuild, but lookups are confirmed against the table.
+     *
+     * @param upc UPC that now has a product; null is ignored
+     */
+    @Transactional
+    public void forget(String upc) {
+        if (upc != null && unknownUpcRepository.deleteByUpc(upc) > 0) {
+            log.debug("Forgot unknown UPC {}", upc);
+        }
+    }
+
+    /**
+     * Forgets several UPCs with one statement, e.g. because an import created products for them.
+     *
+     * @param upcs UPCs that now have products
+     * @see #forget
+     */
+    @Transactional
+    public void forgetAll(Collection<String> upcs) {
+        if (upcs.isEmpty()) {
+            return;
+        }
+        int forgotten = unknownUpcRepository.deleteByUpcIn(upcs);
+        if (forgotten > 0) {
+            log.debug("Forgot {} unknown UPCs", forgotten);
+        }
+    }
+
+    /**
+     * Deletes expired entries and rebuilds the filter from the remaining ones. Runs at startup
+     * and then every {@code app.unknown-upc.rebuild-interval}.
+     */
+    @Scheduled(fixedDelayString = "${app.unknown-upc.rebuild-interval:PT1H}")
+    @Transactional
+    public void rebuild() {
+        LocalDateTime now = LocalDateTime.now();
+        int expired = unknownUpcRepository.deleteExpired(now);
+        List<String> active = unknownUpcRepository.findActiveUpcs(now);
+
+        BloomFilter rebuilt = BloomFilter.create(Math.max(expectedInsertions, active.size()), falsePositiveProbability);
+        active.forEach(rebuilt::put);
+        filter = rebuilt;
+
+        log.info("Rebuilt unknown UPC filter with {} entries, {} expired entries removed", active.size(), expired);
+    }
+
+    /**
+     * Thread-safe Bloom filter over strings, using double hashing of a 64-bit FNV-1a hash.
+     */
+    static final class BloomFilter {
+
+        private final AtomicLongArray bits;
+        private final long bitCount;
+        private final int hashCount;
+
+        private BloomFilter(long bitCount, int hashCount) {
+            this.bitCount = bitCount;
+            this.hashCount = hashCount;
+            this.bits = new AtomicLongArray((int) ((bitCount + 63) / 64));
+        }
+
+        static BloomFilter create(int expectedInsertions, double falsePositiveProbability) {
+            long bitCount = Math.max(64, (long) Math.ceil(
+                    -expectedInsertions * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2))));
+            int hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+            return new BloomFilter(bitCount, hashCount);
+        }
+
+        void put(String value) {
+            long hash = hash(value);
+            long step = mix(hash) | 1;
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(hash + i * step, bitCount);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long current;
+                do {
+                    current = bits.get(word);
+                } while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask));
+            }
+        }
+
+        boolean mightContain(String value) {
+            long hash = hash(value);
+            long step = mix(hash) | 1;
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(hash + i * step, bitCount);
+                if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static long hash(String value) {
+            long hash = 0xcbf29ce484222325L;
+            for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+                hash ^= b;
+                hash *= 0x100000001b3L;
+            }
+            return hash;
+        }
+
+        private static long mix(long value) {
+            value = (value ^ (value >>> 33)) * 0xff51afd7ed558ccdL;
+            value = (value ^ (value >>> 33)) * 0xc4ceb9fe1a85ec53L;
+            return value ^ (value >>> 33);
+        }
+    }
+}
@@ -1,24 +1,50 @@
 package org.cubord.cubordbackend.service;
 
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.cubord.cubordbackend.dto.product.ProductResponse;
 import org.cubord.cubordbackend.exception.ExternalServiceException;
 import org.cubord.cubordbackend.exception.NotFoundException;
+import org.cubord.cubordbackend.exception.ServiceUnavailableException;
 import org.cubord.cubordbackend.exception.UrlValidationException;
 import org.cubord.cubordbackend.exception.ValidationException;
 import org.cubord.cubordbackend.security.SecurityService;
 import org.cubord.cubordbackend.util.UrlValidator;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotationAwareOrderComparator;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestClientException;
-import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
-import java.util.UUID;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
 
 /**
  * Service class for fetching product data from external UPC/EAN databases.
@@ -35,11 +61,36 @@ import java.util.UUID;
  * <h2>Authorization Rules</h2>
  * <ul>
  *   <li><strong>Fetch Product Data:</strong> All authenticated users can fetch product data from external APIs</li>
+ *   <li><strong>Background Lookups:</strong> Unrestricted; only for scheduled jobs running without a user</li>
  * </ul>
  *
  * <h2>External API Integration</h2>
  * <p>Currently integrates with Open Food Facts API for product information retrieval.
- * The service handles API failures gracefully and provides detailed error information.</p>
+ * The service handles API failures gracefully and provides detailed error information.
+ * Requests ask only for the fields Cubord stores, and responses are parsed as they stream in
+ * by {@link OpenFoodFactsProductParser}.</p>
+ *
+ * <p>Single UPC lookups are resolved through {@link ProductDataProvider}s: the API at
+ * {@code app.openfoodfacts.api-url}, the mirrors listed in {@code app.openfoodfacts.mirror-urls}
+ * and any provider beans, in order. {@link HedgedProductLookup} asks the next provider when one
+ * is slower than usual or fails, and takes the first product found.</p>
+ *
+ * <p>Lookups run on virtual threads over the shared, pooled {@link HttpClient} (keep-alive,
+ * HTTP/2 where offered, gzip), each bounded by {@code app.openfoodfacts.timeout}.
+ * {@link #fetchProductDataAsync(String)} lets callers fan out lookups without holding request
+ * threads.</p>
+ *
+ * <p>Bulk callers should prefer {@link #fetchProductDataBatchAsync(Collection)}: it resolves up to
+ * {@code app.openfoodfacts.batch-size} UPCs per request through the search API's {@code code}
+ * list, with at most {@code app.openfoodfacts.max-concurrent-lookups} requests in flight, so
+ * throughput follows the batch size rather than the round-trip time. Batches always go to
+ * {@code app.openfoodfacts.api-url}.</p>
+ *
+ * <p>Every call to Open Food Facts, mirrors included, passes through
+ * {@link OpenFoodFactsResilience}: while an endpoint is failing or the lookups are saturated, they
+ * are rejected immediately with {@link ServiceUnavailableException} instead of waiting out a
+ * timeout, and each call's timeout follows the endpoint's recently observed latency. Mirrors have
+ * their own circuit, so they keep answering while the API's circuit is open.</p>
  *
  * <h2>SSRF Protection</h2>
  * <p>This service implements comprehensive Server-Side Request Forgery (SSRF) protection:</p>
@@ -59,8 +110,20 @@ import java.util.UUID;
 @Slf4j
 public class UpcApiService {
 
-    private final RestTemplate restTemplate;
+    private static final String SERVICE_NAME = "Open Food Facts API";
+
+    private final HttpClient httpClient;
     private final SecurityService securityService;
+    private final OpenFoodFactsResilience resilience;
+    private final HedgedProductLookup hedgedLookup;
+    private final ObjectProvider<ProductDataProvider> pluggedProviders;
+    private final OpenFoodFactsProductParser productParser = new OpenFoodFactsProductParser();
+
+    // Open Food Facts endpoints and provider beans, in lookup order
+    private List<ProductDataProvider> providers = List.of();
+
+    // Each lookup blocks a virtual thread rather than a request thread
+    private final ExecutorService lookupExecutor = Executors.newVirtualThreadPerTaskExecutor();
 
     @Value("${app.openfoodfacts.api-url:https://world.openfoodfacts.org/api/v2}")
     private String apiUrl;
@@ -68,12 +131,18 @@ public class UpcApiService {
     @Value("${app.openfoodfacts.timeout:5000}")
     private int timeout;
 
-    @Value("${app.openfoodfacts.use-staging:true}")
-    private boolean useStaging;
+    @Value("${app.openfoodfacts.mirror-urls:}")
+    private String[] mirrorUrls;
 
     @Value("${app.openfoodfacts.user-agent:Cubord/1.0 (cubord@example.com)}")
     private String userAgent;
 
+    @Value("${app.openfoodfacts.batch-size:24}")
+    private int batchSize;
+
+    @Value("${app.openfoodfacts.max-concurrent-lookups:8}")
+    private int maxConcurrentLookups;
+
     // ==================== Configuration Validation ====================
 
     /**
@@ -82,10 +151,12 @@ public class UpcApiService {
      * <p>This method validates:</p>
      * <ul>
      *   <li>API URL is configured</li>
-     *   <li>API URL is valid and safe (SSRF protection)</li>
+     *   <li>API and mirror URLs are valid and safe (SSRF protection)</li>
      *   <li>Timeout is positive</li>
      * </ul>
      *
+     * <p>Then assembles the product data providers.</p>
+     *
      * @throws IllegalStateException  if the configuration is invalid
      * @throws UrlValidationException if the API URL fails SSRF validation
      */
@@ -97,19 +168,46 @@ public class UpcApiService {
         if (timeout <= 0) {
             throw new IllegalStateException("API timeout must be positive");
         }
+        if (batchSize <= 0 || maxConcurrentLookups <= 0) {
+            throw new IllegalStateException("API batch size and concurrent lookups must be positive");
+        }
 
-        // Validate the base API URL for SSRF protection
-        try {
-            // Extract just the base URL (scheme + host + port) for validation
-            String baseUrl = extractBaseUrl(apiUrl);
-            UrlValidator.isValidExternalUrl(baseUrl);
-            log.info("UpcApiService initialized with validated API URL: {} (timeout: {}ms)",
-                    apiUrl, timeout);
-        } catch (UrlValidationException e) {
-            log.error("SECURITY: Configured API URL failed SSRF validation: {}", apiUrl, e);
-            throw new IllegalStateException(
-                    "Configured API URL failed security validation: " + e.getMessage(), e);
+        // Validate the base API URLs for SSRF protection
+        List<String> configuredUrls = new ArrayList<>(List.of(apiUrl));
+        configuredUrls.addAll(mirrorUrls());
+        for (String configuredUrl : configuredUrls) {
+            try {
+                // Extract just the base URL (scheme + host + port) for validation
+                String baseUrl = extractBaseUrl(configuredUrl);
+                UrlValidator.isValidExternalUrl(baseUrl);
+            } catch (UrlValidationException e) {
+                log.error("SECURITY: Configured API URL failed SSRF validation: {}", configuredUrl, e);
+                throw new IllegalStateException(
+                        "Configured API URL failed security validation: " + e.getMessage(), e);
+            }
+        }
+        log.info("UpcApiService initialized with validated API URLs: {} (timeout: {}ms)",
+                configuredUrls, timeout);
+
+        initProviders();
+    }
+
+    /**
+     * Orders the configured Open Food Facts endpoints and the provider beans for lookups.
+     */
+    private void initProviders() {
+        List<ProductDataProvider> ordered = new ArrayList<>();
+        ordered.add(new OpenFoodFactsEndpoint(apiUrl, ProductDataProvider.OPEN_FOOD_FACTS_ORDER, false));
+        List<String> mirrors = mirrorUrls();
+        for (int i = 0; i < mirrors.size(); i++) {
+            ordered.add(new OpenFoodFactsEndpoint(mirrors.get(i), ProductDataProvider.OPEN_FOOD_FACTS_MIRROR_ORDER + i,
+                    true));
         }
+        pluggedProviders.stream().forEach(ordered::add);
+        AnnotationAwareOrderComparator.sort(ordered);
+        providers = List.copyOf(ordered);
+        log.info("Resolving UPC lookups through product data providers: {}",
+                providers.stream().map(ProductDataProvider::getName).toList());
     }
 
     // ==================== Query Operations ====================
@@ -130,59 +228,365 @@ public class UpcApiService {
      * @return ProductResponse containing the product data from the external API
      * @throws ValidationException      if the UPC format is invalid
      * @throws NotFoundException        if the product is not found in the external database
-     * @throws ExternalServiceException if the external API call fails
-     * @throws UrlValidationException   if URL validation fails (SSRF protection)
+     * @throws ExternalServiceException if the external API call fails, times out, or fails URL validation
+     * @throws ServiceUnavailableException if the call is rejected because the API is failing or saturated
      */
     @PreAuthorize("isAuthenticated()")
     public ProductResponse fetchProductData(String upc) {
+        try {
+            return fetchProductDataAsync(upc).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new ExternalServiceException(SERVICE_NAME, "Failed to fetch product data: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Starts fetching product data from the external UPC database without blocking the caller.
+     *
+     * <p>Authorization: All authenticated users can fetch product data.</p>
+     *
+     * <p>Input validation happens before this method returns; the requests themselves run on
+     * virtual threads, one provider after another as described for {@link HedgedProductLookup}.
+     * The returned future fails with {@link NotFoundException} if no provider knows the product,
+     * with {@link ServiceUnavailableException} if the calls were rejected because the API is
+     * failing or saturated, and with {@link ExternalServiceException} if they failed, exceeded
+     * the configured timeout or failed URL validation (SSRF protection).</p>
+     *
+     * @param upc UPC/EAN code of the product to fetch
+     * @return Future completed with the product data from the external API
+     * @throws ValidationException if the UPC format is invalid
+     */
+    @PreAuthorize("isAuthenticated()")
+    public CompletableFuture<ProductResponse> fetchProductDataAsync(String upc) {
         // LAYER 1: Early input validation - returns sanitized UPC
         String sanitizedUpc = validateAndSanitizeUpc(upc);
+        return fetch(sanitizedUpc, "User " + securityService.getCurrentUserId());
+    }
 
-        UUID currentUserId = securityService.getCurrentUserId();
-        log.debug("User {} fetching product data for UPC: {}", currentUserId, sanitizedUpc);
+    /**
+     * Starts fetching product data on behalf of a background job.
+     *
+     * <p>Authorization: None; scheduled jobs run without a user. Not to be exposed through
+     * controllers. Validation, SSRF protection and resilience are the same as for
+     * {@link #fetchProductDataAsync(String)}.</p>
+     *
+     * @param upc UPC/EAN code of the product to fetch
+     * @return Future completed with the product data from the external API
+     * @throws ValidationException if the UPC format is invalid
+     */
+    public CompletableFuture<ProductResponse> fetchProductDataInBackground(String upc) {
+        return fetch(validateAndSanitizeUpc(upc), "Background job");
+    }
 
-        try {
+    /**
+     * Starts fetching product data for many UPCs, several per request.
+     *
+     * <p>Authorization: All authenticated users can fetch product data.</p>
+     *
+     * <p>UPCs are split into requests of {@code app.openfoodfacts.batch-size}, run on a virtual
+     * thread with at most {@code app.openfoodfacts.max-concurrent-lookups} in flight. Each UPC
+     * gets its own future, failing like {@link #fetchProductDataAsync(String)} would: with
+     * {@link ValidationException} for a malformed UPC, {@link NotFoundException} for a UPC the
+     * API does not list, and with the failure of its request, including
+     * {@link ServiceUnavailableException} for a rejected one, otherwise.</p>
+     *
+     * @param upcs UPC/EAN codes of the products to fetch
+     * @return Future per distinct UPC, keyed by the UPC as given, in the given order
+     * @throws ValidationException if no UPCs are given
+     */
+    @PreAuthorize("isAuthenticated()")
+    public Map<String, CompletableFuture<ProductResponse>> fetchProductDataBatchAsync(Collection<String> upcs) {
+        if (upcs == null || upcs.isEmpty()) {
+            throw new ValidationException("UPCs cannot be null or empty");
+        }
+        return fetchBatch(upcs, "User " + securityService.getCurrentUserId());
+    }
+
+    /**
+     * Starts fetching product data for many UPCs on behalf of a background job.
+     *
+     * <p>Authorization: None; scheduled jobs run without a user. Not to be exposed through
+     * controllers. Otherwise the same as {@link #fetchProductDataBatchAsync(Collection)}.</p>
+     *
+     * @param upcs UPC/EAN codes of the products to fetch
+     * @return Future per distinct UPC, keyed by the UPC as given, in the given order
+     * @throws ValidationException if no UPCs are given
+     */
+    public Map<String, CompletableFuture<ProductResponse>> fetchProductDataBatchInBackground(Collection<String> upcs) {
+        if (upcs == null || upcs.isEmpty()) {
+            throw new ValidationException("UPCs cannot be null or empty");
+        }
+        return fetchBatch(upcs, "Background job");
+    }
+
+    @PreDestroy
+    void shutdown() {
+        lookupExecutor.shutdownNow();
+    }
+
+    // ==================== Helper Methods ====================
+
+    private CompletableFuture<ProductResponse> fetch(String sanitizedUpc, String requester) {
+        log.debug("{} fetching product data for UPC: {}", requester, sanitizedUpc);
+        return hedgedLookup.fetch(providers, sanitizedUpc);
+    }
+
+    /**
+     * An Open Food Facts API endpoint, the configured API or a mirror, named after its host.
+     */
+    private final class OpenFoodFactsEndpoint implements ProductDataProvider, Ordered {
+
+        private final String endpointUrl;
+        private final String name;
+        private final int order;
+        // Mirrors use a circuit of their own, named after the host
+        private final String circuit;
+
+        private OpenFoodFactsEndpoint(String endpointUrl, int order, boolean mirror) {
+            this.endpointUrl = endpointUrl;
+            this.name = URI.create(endpointUrl).getHost();
+            this.order = order;
+            this.circuit = mirror ? name : null;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public int getOrder() {
+            return order;
+        }
+
+        @Override
+        public CompletableFuture<ProductResponse> fetch(String upc) {
             // LAYER 2: Build URL using ONLY the pre-validated base URL and sanitized UPC
-            // The sanitizedUpc is guaranteed to be 8-14 digits only (no special chars)
-            URI uri = buildSafeApiUri(sanitizedUpc);
+            // The sanitized UPC is guaranteed to be 8-14 digits only (no special chars)
+            URI uri = buildSafeApiUri(endpointUrl, upc);
+            return execute(uri, "UPC: " + upc, name, circuit, body -> productParser.parse(body, upc));
+        }
+    }
 
-            UrlValidator.isValidExternalUrl(uri.toString());
-            log.trace("Constructed safe API URL: {}", uri);
+    private Map<String, CompletableFuture<ProductResponse>> fetchBatch(Collection<String> upcs, String requester) {
+        Map<String, CompletableFuture<ProductResponse>> results = new LinkedHashMap<>();
+        Map<String, CompletableFuture<ProductResponse>> pending = new LinkedHashMap<>();
+        for (String upc : upcs) {
+            if (results.containsKey(upc)) {
+                continue;
+            }
+            try {
+                // LAYER 1: Early input validation, per UPC so one bad code does not fail the batch
+                String sanitizedUpc = validateAndSanitizeUpc(upc);
+                results.put(upc, pending.computeIfAbsent(sanitizedUpc, key -> new CompletableFuture<>()));
+            } catch (ValidationException e) {
+                results.put(upc, CompletableFuture.failedFuture(e));
+            }
+        }
+        if (pending.isEmpty()) {
+            return results;
+        }
+
+        List<String> sanitizedUpcs = new ArrayList<>(pending.keySet());
+        List<List<String>> batches = new ArrayList<>();
+        for (int from = 0; from < sanitizedUpcs.size(); from += batchSize) {
+            batches.add(sanitizedUpcs.subList(from, Math.min(from + batchSize, sanitizedUpcs.size())));
+        }
+        log.debug("{} fetching product data for {} UPCs in {} requests", requester, pending.size(), batches.size());
+
+        try {
+            lookupExecutor.execute(() -> runBatches(batches, pending, requester));
+        } catch (RejectedExecutionException e) {
+            ServiceUnavailableException rejection =
+                    new ServiceUnavailableException("Open Food Facts lookups are shutting down", e);
+            pending.values().forEach(future -> future.completeExceptionally(rejection));
+        }
+        return results;
+    }
 
-            // Safe to make an external request - URL is constructed from trusted base + validated numeric input
-            String response = restTemplate.getForObject(uri.toString(), String.class);
+    private record PendingBatch(List<String> upcs, CompletableFuture<Map<String, ProductResponse>> lookup) {
+    }
 
-            if (response == null || response.trim().isEmpty()) {
-                log.warn("Empty response from external API for UPC: {}", sanitizedUpc);
-                throw new ExternalServiceException("Open Food Facts API", "Empty response received");
+    /**
+     * Runs the batch requests, keeping at most {@code maxConcurrentLookups} in flight, and
+     * completes each UPC's future as its request settles.
+     */
+    private void runBatches(List<List<String>> batches, Map<String, CompletableFuture<ProductResponse>> pending,
+                            String requester) {
+        try {
+            Deque<PendingBatch> inFlight = new ArrayDeque<>();
+            for (List<String> batch : batches) {
+                if (inFlight.size() >= maxConcurrentLookups) {
+                    settle(inFlight.poll(), pending);
+                }
+                inFlight.add(new PendingBatch(batch, startBatch(batch, requester)));
+            }
+            while (!inFlight.isEmpty()) {
+                settle(inFlight.poll(), pending);
             }
+        } catch (RuntimeException e) {
+            // Never leave a caller waiting on a future nobody completes
+            pending.values().forEach(future -> future.completeExceptionally(e));
+        }
+    }
 
-            ProductResponse productResponse = parseApiResponse(response, sanitizedUpc);
+    private CompletableFuture<Map<String, ProductResponse>> startBatch(List<String> batch, String requester) {
+        try {
+            // LAYER 2: Build URL using ONLY the pre-validated base URL and sanitized UPCs
+            URI uri = buildSafeSearchUri(batch);
+            return execute(uri, "UPCs: " + String.join(",", batch), requester, null, productParser::parseSearch);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
 
-            log.info("User {} successfully fetched product data for UPC: {}", currentUserId, sanitizedUpc);
-            return productResponse;
+    private void settle(PendingBatch batch, Map<String, CompletableFuture<ProductResponse>> pending) {
+        Map<String, ProductResponse> products;
+        try {
+            products = batch.lookup().join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            batch.upcs().forEach(upc -> pending.get(upc).completeExceptionally(cause));
+            return;
+        }
+        for (String upc : batch.upcs()) {
+            try {
+                pending.get(upc).complete(productParser.productFor(products, upc));
+            } catch (RuntimeException e) {
+                pending.get(upc).completeExceptionally(e);
+            }
+        }
+    }
 
+    /**
+     * Validates the URL, acquires a call from {@link OpenFoodFactsResilience} and starts the request
+     * on a virtual thread, bounded by the call's timeout.
+     *
+     * @param subject What is fetched, for logs and messages
+     * @param circuit Circuit of a mirror, or null for the configured API's circuit
+     */
+    private <T> CompletableFuture<T> execute(URI uri, String subject, String requester, String circuit,
+                                             Function<InputStream, T> parser) {
+        try {
+            UrlValidator.isValidExternalUrl(uri.toString());
         } catch (UrlValidationException e) {
-            log.error("SECURITY: URL validation failed when fetching UPC: {}", sanitizedUpc, e);
-            throw new ExternalServiceException("Open Food Facts API",
-                    "Security validation failed: " + e.getMessage(), e);
-        } catch (RestClientException e) {
-            log.error("External API call failed for UPC: {}", sanitizedUpc, e);
-            throw new ExternalServiceException("Open Food Facts API",
-                    "Failed to fetch product data: " + e.getMessage(), e);
+            log.error("SECURITY: URL validation failed when fetching {}", subject, e);
+            throw new ExternalServiceException(SERVICE_NAME, "Security validation failed: " + e.getMessage(), e);
         }
+        log.trace("Constructed safe API URL: {}", uri);
+
+        OpenFoodFactsResilience.Call call = circuit == null ? resilience.acquire() : resilience.acquire(circuit);
+        long callTimeout = call.timeoutMillis();
+
+        // Safe to make an external request - URL is constructed from trusted base + validated numeric input
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .GET()
+                .timeout(Duration.ofMillis(callTimeout))
+                .header("Accept", "application/json")
+                .header("Accept-Encoding", "gzip")
+                .header("User-Agent", userAgent)
+                .build();
+
+        CompletableFuture<T> lookup;
+        try {
+            lookup = CompletableFuture.supplyAsync(() -> send(request, subject, call, parser), lookupExecutor);
+        } catch (RejectedExecutionException e) {
+            call.release();
+            throw new ServiceUnavailableException("Open Food Facts lookups are shutting down", e);
+        }
+        return lookup
+                .orTimeout(callTimeout, TimeUnit.MILLISECONDS)
+                .handle((result, failure) -> {
+                    if (failure == null) {
+                        log.info("{} successfully fetched product data for {}", requester, subject);
+                        return result;
+                    }
+                    Throwable cause = failure instanceof CompletionException ? failure.getCause() : failure;
+                    if (cause instanceof TimeoutException) {
+                        call.timedOut();
+                        log.warn("External API call timed out after {}ms for {}", callTimeout, subject);
+                        throw new ExternalServiceException(SERVICE_NAME, "Request timed out", cause);
+                    }
+                    if (cause instanceof RuntimeException runtimeException) {
+                        throw runtimeException;
+                    }
+                    throw new ExternalServiceException(SERVICE_NAME, "Failed to fetch product data", cause);
+                });
     }
 
-    // ==================== Helper Methods ====================
+    /**
+     * Sends the request on the current (virtual) thread and parses the response as it streams in.
+     * Any answer other than a server error or rate limit counts as a success for the circuit
+     * breaker, including "not found" and unparseable bodies.
+     */
+    private <T> T send(HttpRequest request, String subject, OpenFoodFactsResilience.Call call,
+                       Function<InputStream, T> parser) {
+        try {
+            HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            if (response.statusCode() >= 500 || response.statusCode() == 429) {
+                call.failed();
+            } else {
+                call.succeeded();
+            }
+            try (InputStream body = decodedBody(response)) {
+                if (response.statusCode() == 404) {
+                    // API v2 answers unknown products with 404 and a status 0 body
+                    log.debug("Product not found in external database for {}", subject);
+                    throw new NotFoundException("Product not found in external database for " + subject);
+                }
+                if (response.statusCode() / 100 != 2) {
+                    log.error("External API answered HTTP {} for {}", response.statusCode(), subject);
+                    throw new ExternalServiceException(SERVICE_NAME,
+                            "Failed to fetch product data: HTTP " + response.statusCode());
+                }
+                return parser.apply(body);
+            }
+        } catch (HttpTimeoutException e) {
+            call.timedOut();
+            log.warn("External API call timed out for {}", subject);
+            throw new ExternalServiceException(SERVICE_NAME, "Request timed out", e);
+        } catch (IOException e) {
+            call.failed();
+            log.error("External API call failed for {}", subject, e);
+            throw new ExternalServiceException(SERVICE_NAME, "Failed to fetch product data: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ExternalServiceException(SERVICE_NAME, "Interrupted while fetching product data", e);
+        } finally {
+            call.release();
+        }
+    }
+
+    private static InputStream decodedBody(HttpResponse<InputStream> response) throws IOException {
+        boolean gzip = response.headers().firstValue("Content-Encoding")
+                .map(encoding -> encoding.equalsIgnoreCase("gzip"))
+                .orElse(false);
+        return gzip ? new GZIPInputStream(response.body()) : response.body();
+    }
 
-    private URI buildSafeApiUri(String sanitizedUpc) {
+    private static URI buildSafeApiUri(String endpointUrl, String sanitizedUpc) {
         return UriComponentsBuilder
-                .fromUriString(apiUrl)               // trusted config value (validated at startup)
+                .fromUriString(endpointUrl)          // trusted config value (validated at startup)
                 .path("/product/{upc}.json")         // fixed template
+                .queryParam("fields", OpenFoodFactsProductParser.FIELDS)
                 .buildAndExpand(sanitizedUpc)        // safe substitution (and encoding if needed)
                 .toUri();
     }
 
+    private URI buildSafeSearchUri(List<String> sanitizedUpcs) {
+        return UriComponentsBuilder
+                .fromUriString(apiUrl)               // trusted config value (validated at startup)
+                .path("/search")                     // fixed path
+                .queryParam("code", String.join(",", sanitizedUpcs))
+                .queryParam("fields", OpenFoodFactsProductParser.SEARCH_FIELDS)
+                .queryParam("page_size", sanitizedUpcs.size())
+                .build()
+                .toUri();
+    }
+
     /**
      * Validates and sanitizes UPC input to prevent injection attacks.
      *
@@ -221,6 +625,13 @@ public class UpcApiService {
         return trimmed;
     }
 
+    private List<String> mirrorUrls() {
+        if (mirrorUrls == null) {
+            return List.of();
+        }
+        return Arrays.stream(mirrorUrls).map(String::trim).filter(url -> !url.isEmpty()).toList();
+    }
+
     /**
      * Extracts the base URL (scheme + host + port) from a full URL.
      * Used for initial configuration validation.
@@ -242,195 +653,4 @@ public class UpcApiService {
             return fullUrl;
         }
     }
-
-    /**
-     * Parses the JSON response from the external API.
-     *
-     * <p>This is a simplified implementation. In production, you would use
-     * a JSON parser (like Jackson) to properly deserialize the response.</p>
-     *
-     * @param response JSON response from the API
-     * @param upc      UPC being fetched
-     * @return ProductResponse object
-     * @throws NotFoundException        if product not found
-     * @throws ExternalServiceException if parsing fails
-     */
-    private ProductResponse parseApiResponse(String response, String upc) {
-        try {
-            log.debug("=== Starting JSON parsing for UPC: {} ===", upc);
-            log.debug("Full response: {}", response);
-
-            // Check if a product was found (Open Food Facts returns status field)
-            if (response.contains("\"status\":0") || response.contains("\"status\": 0")) {
-                log.debug("Product not found in external database for UPC: {}", upc);
-                throw new NotFoundException("Product not found in external database for UPC: " + upc);
-            }
-
-            // Extract the product object from the response
-            String productJson = extractProductObject(response);
-            log.debug("Extracted product JSON: {}", productJson);
-
-            if (productJson == null) {
-                log.warn("No product data found in API response for UPC: {}", upc);
-                throw new ExternalServiceException("Open Food Facts API", "No product data in response");
-            }
-
-            // Parse the product data and build ProductResponse
-            ProductResponse.ProductResponseBuilder builder = ProductResponse.builder();
-            builder.upc(upc);
-
-            // Extract product name
-            String productName = extractJsonField(productJson, "product_name");
-            log.debug("Extracted product_name: '{}'", productName);
-            if (productName != null && !productName.isEmpty()) {
-                builder.name(productName);
-                log.debug("Set name to: '{}'", productName);
-            } else {
-                log.debug("Product name is null or empty");
-            }
-
-            // Extract brand
-            String brand = extractJsonField(productJson, "brands");
-            log.debug("Extracted brands: '{}'", brand);
-            if (brand != null && !brand.isEmpty()) {
-                builder.brand(brand);
-                log.debug("Set brand to: '{}'", brand);
-            } else {
-                log.debug("Brand is null or empty");
-            }
-
-            // Extract category
-            String category = extractJsonField(productJson, "categories");
-            log.debug("Extracted categories: '{}'", category);
-            if (category != null && !category.isEmpty()) {
-                // Get the first category if comma-separated
-                int commaIndex = category.indexOf(',');
-                if (commaIndex > 0) {
-                    category = category.substring(0, commaIndex).trim();
-                }
-                builder.category(category);
-                log.debug("Set category to: '{}'", category);
-            } else {
-                log.debug("Category is null or empty");
-            }
-
-            // Extract image URLs
-            String imageUrl = extractJsonField(productJson, "image_url");
-            log.debug("Extracted image_url: '{}'", imageUrl);
-            if (imageUrl != null && !imageUrl.isEmpty()) {
-                builder.imageUrl(imageUrl);
-            }
-
-            String imageSmallUrl = extractJsonField(productJson, "image_small_url");
-            log.debug("Extracted image_small_url: '{}'", imageSmallUrl);
-            if (imageSmallUrl != null && !imageSmallUrl.isEmpty()) {
-                builder.imageSmallUrl(imageSmallUrl);
-            }
-
-            ProductResponse productResponse = builder.build();
-            log.debug("Built ProductResponse - name: '{}', brand: '{}', category: '{}'",
-                    productResponse.getName(), productResponse.getBrand(), productResponse.getCategory());
-
-            // Validate that we got at least some useful data
-            // Accept if we have either name OR brand
-            boolean hasName = productResponse.getName() != null && !productResponse.getName().isEmpty();
-            boolean hasBrand = productResponse.getBrand() != null && !productResponse.getBrand().isEmpty();
-
-            log.debug("Validation check - hasName: {}, hasBrand: {}", hasName, hasBrand);
-
-            if (!hasName && !hasBrand) {
-                log.warn("Insufficient product data returned from API for UPC: {} (name: '{}', brand: '{}')",
-                        upc, productResponse.getName(), productResponse.getBrand());
-                throw new ExternalServiceException("Open Food Facts API", "Insufficient product data returned");
-            }
-
-            log.debug("=== Successfully parsed product for UPC: {} ===", upc);
-            return productResponse;
-
-        } catch (NotFoundException e) {
-            throw e; // Re-throw NotFoundException as-is
-        } catch (ExternalServiceException e) {
-            throw e; // Re-throw ExternalServiceException as-is
-        } catch (Exception e) {
-            log.error("Failed to parse API response for UPC: {}", upc, e);
-            throw new ExternalServiceException("Open Food Facts API", "Failed to parse response", e);
-        }
-    }
-
-    /**
-     * Extracts the product object from the JSON response.
-     *
-     * <p>Open Food Facts returns data in format: {"product": {...}, "status": 1}
-     * This method extracts just the product portion.</p>
-     *
-     * @param json Full JSON response
-     * @return Product JSON object content, or null if not found
-     */
-    private String extractProductObject(String json) {
-        try {
-            int productStart = json.indexOf("\"product\":");
-            if (productStart == -1) {
-                return null;
-            }
-
-            // Find the opening brace of the product object
-            int braceStart = json.indexOf('{', productStart);
-            if (braceStart == -1) {
-                return null;
-            }
-
-            // Count braces to find the matching closing brace
-            int braceCount = 1;
-            int i = braceStart + 1;
-            while (i < json.length() && braceCount > 0) {
-                char c = json.charAt(i);
-                if (c == '{') {
-                    braceCount++;
-                } else if (c == '}') {
-                    braceCount--;
-                }
-                i++;
-            }
-
-            if (braceCount == 0) {
-                return json.substring(braceStart, i);
-            }
-
-            return null;
-        } catch (Exception e) {
-            log.trace("Failed to extract product object from JSON", e);
-            return null;
-        }
-    }
-
-    /**
-     * Extracts a field value from a JSON string.
-     *
-     * <p>This is a simplified string-based extraction. In production,
-     * use a proper JSON library like Jackson ObjectMapper.</p>
-     *
-     * @param json      JSON string
-     * @param fieldName Field name to extract
-     * @return Field value or null if not found
-     */
-    private String extractJsonField(String json, String fieldName) {
-        try {
-            String searchPattern = "\"" + fieldName + "\":\"";
-            int startIndex = json.indexOf(searchPattern);
-            if (startIndex == -1) {
-                return null;
-            }
-
-            startIndex += searchPattern.length();
-            int endIndex = json.indexOf("\"", startIndex);
-            if (endIndex == -1) {
-                return null;
-            }
-
-            return json.substring(startIndex, endIndex);
-        } catch (Exception e) {
-            log.trace("Failed to extract field '{}' from JSON", fieldName, e);
-            return null;
-        }
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,102 @@
+package org.cubord.cubordbackend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.cubord.cubordbackend.dto.product.ProductResponse;
+import org.cubord.cubordbackend.exception.ExternalServiceException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent lookups of the same UPC, so that a burst of scans of a new product
+ * triggers one external fetch and one insert.
+ *
+ * <p>The first caller for a UPC runs the lookup on its own thread; callers arriving while it is in
+ * flight wait for and share its result, including any exception. Only committed results are
+ * shared: {@link ProductWriteService} commits a new product in its own transaction before the
+ * lookup returns, so the lookup is released as soon as it finishes, even if the first caller's
+ * transaction is still open.</p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UpcLookupCoalescer {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.upc-lookup.wait-timeout:PT30S}")
+    private Duration waitTimeout;
+
+    private final ConcurrentMap<String, CompletableFuture<ProductResponse>> inFlight = new ConcurrentHashMap<>();
+
+    private Counter executed;
+    private Counter coalesced;
+
+    @PostConstruct
+    public void init() {
+        executed = Counter.builder("cubord.product.lookup.calls").tag("result", "executed").register(meterRegistry);
+        coalesced = Counter.builder("cubord.product.lookup.calls").tag("result", "coalesced").register(meterRegistry);
+        Gauge.builder("cubord.product.lookup.in-flight", inFlight, ConcurrentMap::size).register(meterRegistry);
+    }
+
+    /**
+     * Runs a lookup for a UPC unless one is already in flight, in which case its result is shared.
+     *
+     * @param upc    Sanitized UPC used as the coalescing key
+     * @param lookup Lookup to run if this caller is the first
+     * @return The result of this or the in-flight lookup
+     * @throws ExternalServiceException if the in-flight lookup does not finish within the wait timeout
+     */
+    public ProductResponse coalesce(String upc, Supplier<ProductResponse> lookup) {
+        CompletableFuture<ProductResponse> future = new CompletableFuture<>();
+        CompletableFuture<ProductResponse> existing = inFlight.putIfAbsent(upc, future);
+        if (existing != null) {
+            coalesced.increment();
+            log.debug("Joining in-flight lookup for UPC {}", upc);
+            return await(upc, existing);
+        }
+
+        executed.increment();
+        try {
+            ProductResponse result = lookup.get();
+            future.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(upc, future);
+        }
+    }
+
+    // ==================== Helper Methods ====================
+
+    private ProductResponse await(String upc, CompletableFuture<ProductResponse> future) {
+        try {
+            return future.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new ExternalServiceException("UPC lookup", "Lookup failed: " + e.getCause().getMessage(), e);
+        } catch (TimeoutException e) {
+            throw new ExternalServiceException("UPC lookup", "Timed out waiting for lookup of UPC: " + upc, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ExternalServiceException("UPC lookup", "Interrupted while waiting for lookup of UPC: " + upc, e);
+        }
+    }
+}
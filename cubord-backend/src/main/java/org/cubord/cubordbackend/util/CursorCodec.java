@@ -0,0 +1,86 @@
+package org.cubord.cubordbackend.util;
+
+import org.cubord.cubordbackend.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Utility class for keyset pagination cursors and page limits.
+ *
+ * <p>A cursor holds the sort key values of the last row on a page. The values are joined
+ * and Base64Url encoded so clients treat the cursor as an opaque token.</p>
+ */
+public final class CursorCodec {
+
+    private static final String SEPARATOR = "\u001F";
+    private static final Pattern SPLITTER = Pattern.compile(SEPARATOR);
+    private static final int MAX_CURSOR_LENGTH = 1024;
+
+    /**
+     * Largest page a keyset listing may return.
+     */
+    public static final int MAX_PAGE_SIZE = 100;
+
+    /**
+     * Lowest UUID, used as the id key of the first page.
+     */
+    public static final UUID MIN_ID = new UUID(0L, 0L);
+
+    private CursorCodec() {
+    }
+
+    /**
+     * Validates the page size of a keyset page request.
+     *
+     * @throws ValidationException if the limit is out of range
+     */
+    public static void validateLimit(int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new ValidationException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+
+    /**
+     * Encodes the given sort key values into an opaque cursor.
+     */
+    public static String encode(Object... keys) {
+        StringBuilder joined = new StringBuilder();
+        for (int i = 0; i < keys.length; i++) {
+            if (i > 0) {
+                joined.append(SEPARATOR);
+            }
+            joined.append(Objects.toString(keys[i], ""));
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(joined.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor back into its sort key values.
+     *
+     * @throws ValidationException if the cursor is malformed or has the wrong number of keys
+     */
+    public static List<String> decode(String cursor, int expectedKeys) {
+        if (cursor == null || cursor.isBlank() || cursor.length() > MAX_CURSOR_LENGTH) {
+            throw new ValidationException("Invalid pagination cursor");
+        }
+
+        String joined;
+        try {
+            joined = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Invalid pagination cursor", e);
+        }
+
+        List<String> keys = List.of(SPLITTER.split(joined, -1));
+        if (keys.size() != expectedKeys) {
+            throw new ValidationException("Invalid pagination cursor");
+        }
+        return keys;
+    }
+}
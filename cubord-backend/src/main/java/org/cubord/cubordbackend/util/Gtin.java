@@ -0,0 +1,116 @@
+package org.cubord.cubordbackend.util;
+
+import java.util.regex.Pattern;
+
+/**
+ * Utility class for normalizing product barcodes to GTIN-14.
+ *
+ * <p>UPC-A, EAN-13, EAN-8, UPC-E and GTIN-14 codes of the same item are different strings but
+ * one Global Trade Item Number. Zero-padding a code on the left to 14 digits keeps its check
+ * digit valid, so the padded value is a single numeric key for every form of the item. UPC-E
+ * codes are first expanded to UPC-A. Codes whose check digit does not validate are not GTINs
+ * and have no key.</p>
+ *
+ * <h2>Usage Example</h2>
+ * <pre>{@code
+ * Gtin.normalize("012345678905");   // 12345678905L, same as "0012345678905"
+ * Gtin.normalize("04252614");       // UPC-E of 042100005264 -> 42100005264L
+ * Gtin.canonical("012345678905");   // "00012345678905"
+ * }</pre>
+ */
+public final class Gtin {
+
+    /**
+     * Digits of a GTIN-14.
+     */
+    public static final int LENGTH = 14;
+
+    private static final Pattern CODE_PATTERN = Pattern.compile("^[0-9]{8,14}$");
+
+    private Gtin() {
+    }
+
+    /**
+     * Normalizes a barcode to its GTIN-14 value.
+     *
+     * <p>An 8-digit code is read as EAN-8 if its check digit validates, and otherwise as UPC-E
+     * if the check digit of its UPC-A expansion validates.</p>
+     *
+     * @param code Barcode of 8 to 14 digits; surrounding whitespace is ignored
+     * @return GTIN-14 value, or null if the code is not a valid GTIN
+     */
+    public static Long normalize(String code) {
+        if (code == null) {
+            return null;
+        }
+        String digits = code.trim();
+        if (!CODE_PATTERN.matcher(digits).matches()) {
+            return null;
+        }
+        if (hasValidCheckDigit(digits)) {
+            return Long.parseLong(digits);
+        }
+        String upcA = expandUpcE(digits);
+        return upcA != null && hasValidCheckDigit(upcA) ? Long.parseLong(upcA) : null;
+    }
+
+    /**
+     * Returns the lookup key of a barcode: the 14 digits of its GTIN, or the trimmed code itself
+     * if it is not a valid GTIN. Equivalent forms of a GTIN share one key.
+     *
+     * @param code Barcode; null is returned as null
+     */
+    public static String canonical(String code) {
+        if (code == null) {
+            return null;
+        }
+        Long gtin = normalize(code);
+        return gtin != null ? format(gtin) : code.trim();
+    }
+
+    /**
+     * Formats a GTIN-14 value as its 14 digits, including leading zeros.
+     */
+    public static String format(long gtin) {
+        String digits = Long.toString(gtin);
+        return "0".repeat(Math.max(0, LENGTH - digits.length())) + digits;
+    }
+
+    /**
+     * Checks the GS1 mod-10 check digit, the last digit of the code. Starting next to it, the
+     * other digits are weighted 3 and 1 alternately from the right.
+     *
+     * @param digits Code of at least two digits
+     */
+    public static boolean hasValidCheckDigit(String digits) {
+        int sum = 0;
+        int weight = 3;
+        for (int i = digits.length() - 2; i >= 0; i--) {
+            sum += (digits.charAt(i) - '0') * weight;
+            weight = 4 - weight;
+        }
+        return (10 - sum % 10) % 10 == digits.charAt(digits.length() - 1) - '0';
+    }
+
+    /**
+     * Expands a zero-suppressed UPC-E code to its UPC-A form. The last of the six middle digits
+     * says where the zeros of the manufacturer and item numbers were suppressed.
+     *
+     * @param upcE Number system digit (0 or 1), six digits and the check digit
+     * @return 12-digit UPC-A code with the same check digit, or null if the code is not UPC-E
+     */
+    public static String expandUpcE(String upcE) {
+        if (upcE == null || upcE.length() != 8 || !CODE_PATTERN.matcher(upcE).matches()
+                || (upcE.charAt(0) != '0' && upcE.charAt(0) != '1')) {
+            return null;
+        }
+        String d = upcE.substring(1, 7);
+        String body = switch (d.charAt(5)) {
+            case '0', '1', '2' -> d.substring(0, 2) + d.charAt(5) + "0000" + d.substring(2, 5);
+            case '3' -> d.substring(0, 3) + "00000" + d.substring(3, 5);
+            case '4' -> d.substring(0, 4) + "00000" + d.charAt(4);
+            default -> d.substring(0, 5) + "0000" + d.charAt(5);
+        };
+        return upcE.charAt(0) + body + upcE.charAt(7);
+    }
+}
@@ -0,0 +1,3 @@
+-- Supports product lookups by UPC (barcode scans and cache reloads)
+CREATE INDEX idx_products_upc
+    ON products (upc);
@@ -0,0 +1,12 @@
+-- UPCs the external product database does not know, remembered until expires_at so repeated
+-- scans are answered without calling the external API
+CREATE TABLE unknown_upcs
+(
+    upc         VARCHAR(255) NOT NULL,
+    recorded_at TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    expires_at  TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    CONSTRAINT pk_unknown_upcs PRIMARY KEY (upc)
+);
+
+CREATE INDEX idx_unknown_upcs_expires_at
+    ON unknown_upcs (expires_at);
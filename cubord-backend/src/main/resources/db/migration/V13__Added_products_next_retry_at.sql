@@ -0,0 +1,8 @@
+-- When a product awaiting API enrichment is next due: the end of its retry backoff, or of the
+-- enrichment worker's claim while a lookup is in flight. NULL means due now.
+ALTER TABLE products
+    ADD next_retry_at TIMESTAMP WITHOUT TIME ZONE;
+
+-- Serves the enrichment worker's claim query
+CREATE INDEX idx_products_retry_due
+    ON products (requires_api_retry, next_retry_at);
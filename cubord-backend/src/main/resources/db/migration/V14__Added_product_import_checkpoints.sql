@@ -0,0 +1,12 @@
+-- Progress of catalog dump imports, committed with each loaded chunk so an interrupted import
+-- resumes after the last committed line
+CREATE TABLE product_import_checkpoints
+(
+    source            VARCHAR(1024) NOT NULL,
+    file_size         BIGINT        NOT NULL,
+    lines_read        BIGINT        NOT NULL,
+    products_imported BIGINT        NOT NULL,
+    completed_at      TIMESTAMP WITHOUT TIME ZONE,
+    updated_at        TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    CONSTRAINT pk_product_import_checkpoints PRIMARY KEY (source)
+);
@@ -0,0 +1,5 @@
+-- GTIN-14 value of the product's UPC, so UPC-A, EAN-13, EAN-8 and UPC-E forms of one item
+-- resolve to the same product. NULL when the UPC is not a valid GTIN. Filled by V16 and made
+-- unique by V17.
+ALTER TABLE products
+    ADD gtin BIGINT;
@@ -0,0 +1,14 @@
+-- Products that V16 resolved to an already used GTIN are duplicates of an older product; they
+-- keep their UPC but give up the GTIN, so lookups resolve to the oldest product
+UPDATE products
+SET gtin = NULL
+WHERE id IN (SELECT id
+             FROM (SELECT id,
+                          ROW_NUMBER() OVER (PARTITION BY gtin ORDER BY created_at, id) AS position
+                   FROM products
+                   WHERE gtin IS NOT NULL) ranked
+             WHERE position > 1);
+
+-- Serves product lookups by barcode, in any of its GTIN forms, as one index probe
+CREATE UNIQUE INDEX uq_products_gtin
+    ON products (gtin);
@@ -0,0 +1,28 @@
+-- Copies of the location's household and the product's name (empty when missing), maintained by the
+-- application, so name-ordered keyset listings can seek within one index instead of sorting the join
+ALTER TABLE pantry_items
+    ADD COLUMN household_id UUID;
+
+ALTER TABLE pantry_items
+    ADD COLUMN product_name VARCHAR(255) NOT NULL DEFAULT '';
+
+UPDATE pantry_items p
+SET household_id = l.household_id
+FROM locations l
+WHERE l.id = p.location_id;
+
+UPDATE pantry_items p
+SET product_name = COALESCE(pr.name, '')
+FROM products pr
+WHERE pr.id = p.product_id;
+
+-- Every item's location belongs to a household, so the backfill leaves no item without one
+ALTER TABLE pantry_items
+    ALTER COLUMN household_id SET NOT NULL;
+
+-- Serve keyset pages ordered by (product name, expiration date with missing dates last, id)
+CREATE INDEX idx_pantry_items_household_name_expiration_id
+    ON pantry_items (household_id, product_name, COALESCE(expiration_date, DATE '9999-12-31'), id);
+
+CREATE INDEX idx_pantry_items_location_name_expiration_id
+    ON pantry_items (location_id, product_name, COALESCE(expiration_date, DATE '9999-12-31'), id);
@@ -0,0 +1,7 @@
+-- Supports keyset pages of expiring items, ordered by (expiration_date, id) within each location
+CREATE INDEX idx_pantry_items_location_expiration_id
+    ON pantry_items (location_id, expiration_date, id);
+
+-- Supports keyset pages of a household's invitations, ordered by (created_at, id)
+CREATE INDEX idx_household_invitations_household_created_id
+    ON household_invitations (household_id, created_at, id);
@@ -0,0 +1,32 @@
+-- Per-household pantry counters, maintained by the application whenever pantry items change
+CREATE TABLE household_inventory_stats
+(
+    household_id        UUID   NOT NULL,
+    total_items         BIGINT NOT NULL DEFAULT 0,
+    distinct_products   BIGINT NOT NULL DEFAULT 0,
+    zero_quantity_items BIGINT NOT NULL DEFAULT 0,
+    no_expiration_items BIGINT NOT NULL DEFAULT 0,
+    updated_at          TIMESTAMP WITHOUT TIME ZONE,
+    CONSTRAINT pk_household_inventory_stats PRIMARY KEY (household_id)
+);
+
+ALTER TABLE household_inventory_stats
+    ADD CONSTRAINT FK_HOUSEHOLD_INVENTORY_STATS_ON_HOUSEHOLD FOREIGN KEY (household_id) REFERENCES households (id) ON DELETE CASCADE;
+
+-- Number of pantry items per product in each household; backs the distinct product counter
+CREATE TABLE household_product_counts
+(
+    household_id UUID   NOT NULL,
+    product_id   UUID   NOT NULL,
+    item_count   BIGINT NOT NULL,
+    CONSTRAINT pk_household_product_counts PRIMARY KEY (household_id, product_id)
+);
+
+ALTER TABLE household_product_counts
+    ADD CONSTRAINT FK_HOUSEHOLD_PRODUCT_COUNTS_ON_HOUSEHOLD FOREIGN KEY (household_id) REFERENCES households (id) ON DELETE CASCADE;
+
+ALTER TABLE household_product_counts
+    ADD CONSTRAINT FK_HOUSEHOLD_PRODUCT_COUNTS_ON_PRODUCT FOREIGN KEY (product_id) REFERENCES products (id) ON DELETE CASCADE;
+
+-- Existing households are not backfilled here: statistics fall back to an aggregate query until
+-- a household's counters are built by its next pantry change or by the reconciliation job.
@@ -4,8 +4,17 @@ package org.cubord.cubordbackend.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.cubord.cubordbackend.config.TestSecurityConfig;
 import org.cubord.cubordbackend.dto.location.LocationResponse;
+import org.cubord.cubordbackend.dto.pagination.CursorPageResponse;
+import org.cubord.cubordbackend.dto.pantryItem.AdjustPantryItemQuantityRequest;
+import org.cubord.cubordbackend.dto.pantryItem.BatchDeletePantryItemsResponse;
+import org.cubord.cubordbackend.dto.pantryItem.ConsumeProductRequest;
+import org.cubord.cubordbackend.dto.pantryItem.ConsumeProductResponse;
 import org.cubord.cubordbackend.dto.pantryItem.CreatePantryItemRequest;
+import org.cubord.cubordbackend.dto.pantryItem.MovePantryItemsRequest;
+import org.cubord.cubordbackend.dto.pantryItem.MovePantryItemsResponse;
+import org.cubord.cubordbackend.dto.pantryItem.PantryItemQuantityResponse;
 import org.cubord.cubordbackend.dto.pantryItem.PantryItemResponse;
+import org.cubord.cubordbackend.dto.pantryItem.PantryStatisticsResponse;
 import org.cubord.cubordbackend.dto.pantryItem.UpdatePantryItemRequest;
 import org.cubord.cubordbackend.dto.product.ProductResponse;
 import org.cubord.cubordbackend.exception.*;
@@ -33,6 +42,7 @@ import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.stream.Stream;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
@@ -579,6 +589,159 @@ class PantryItemControllerTest {
         }
     }
 
+    @Nested
+    @DisplayName("POST /api/pantry-items/{id}/adjust")
+    class AdjustPantryItemQuantity {
+
+        @Test
+        @DisplayName("should return the adjusted quantity")
+        void shouldReturnAdjustedQuantity() throws Exception {
+            when(pantryItemService.adjustPantryItemQuantity(pantryItemId, -2))
+                    .thenReturn(PantryItemQuantityResponse.builder().id(pantryItemId).quantity(3).build());
+
+            mockMvc.perform(post("/api/pantry-items/" + pantryItemId + "/adjust")
+                            .with(SecurityMockMvcRequestPostProcessors.jwt().jwt(jwt))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(
+                                    AdjustPantryItemQuantityRequest.builder().delta(-2).build())))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.id").value(pantryItemId.toString()))
+                    .andExpect(jsonPath("$.quantity").value(3));
+
+            verify(pantryItemService).adjustPantryItemQuantity(pantryItemId, -2);
+        }
+
+        @Test
+        @DisplayName("should return 400 when the item holds too few units")
+        void shouldReturn400WhenStockInsufficient() throws Exception {
+            when(pantryItemService.adjustPantryItemQuantity(pantryItemId, -20))
+                    .thenThrow(new BusinessRuleViolationException("Cannot remove 20 units"));
+
+            mockMvc.perform(post("/api/pantry-items/" + pantryItemId + "/adjust")
+                            .with(SecurityMockMvcRequestPostProcessors.jwt().jwt(jwt))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(
+                                    AdjustPantryItemQuantityRequest.builder().delta(-20).build())))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.error_code").value("BUSINESS_RULE_VIOLATION"));
+        }
+
+        @Test
+        @DisplayName("should return 400 when delta is missing")
+        void shouldReturn400WhenDeltaMissing() throws Exception {
+            mockMvc.perform(post("/api/pantry-items/" + pantryItemId + "/adjust")
+                            .with(SecurityMockMvcRequestPostProcessors.jwt().jwt(jwt))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{}"))
+                    .andExpect(status().isBadRequest());
+
+            verifyNoInteractions(pantryItemService);
+        }
+
+        @Test
+        @DisplayName("should return 403 when user lacks access to the item")
+        void shouldReturn403WhenUserLacksAccess() throws Exception {
+            when(securityService.canAccessPantryItem(pantryItemId)).thenReturn(false);
+
+            mockMvc.perform(post("/api/pantry-items/" + pantryItemId + "/adjust")
+                            .with(SecurityMockMvcRequestPostProcessors.jwt().jwt(jwt))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(
+                                    AdjustPantryItemQuantityRequest.builder().delta(1).build())))
+                    .andExpect(status().isForbidden());
+
+            verifyNoInteractions(pantryItemService);
+        }
+    }
+
+    @Nested
+    @DisplayName("POST /api/pantry-items/move")
+    class MovePantryItems {
+
+        @Test
+        @DisplayName("should return the move outcome")
+        void shouldMovePantryItems() throws Exception {
+            UUID targetLocationId = UUID.randomUUID();
+            MovePantryItemsRequest request = MovePantryItemsRequest.builder()
+                    .targetLocationId(targetLocationId)
+                    .sourceLocationId(locationId)
+                    .build();
+            when(pantryItemService.movePantryItems(request))
+                    .thenReturn(MovePantryItemsResponse.builder()
+                            .targetLocationId(targetLocationId)
+                            .movedCount(3)
+                            .mergedCount(1)
+                            .items(List.of())
+                            .build());
+
+            mockMvc.perform(post("/api/pantry-items/move")
+                            .with(SecurityMockMvcRequestPostProcessors.jwt().jwt(jwt))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.movedCount").value(3))
+                    .andExpect(jsonPath("$.mergedCount").value(1));
+
+            verify(pantryItemService).movePantryItems(request);
+        }
+
+        @Test
+        @DisplayName("should return 400 when target location is missing")
+        void shouldReturn400WhenTargetMissing() throws Exception {
+            mockMvc.perform(post("/api/pantry-items/move")
+                            .with(SecurityMockMvcRequestPostProcessors.jwt().jwt(jwt))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(
+                                    MovePantryItemsRequest.builder().sourceLocationId(locationId).build())))
+                    .andExpect(status().isBadRequest());
+
+            verifyNoInteractions(pantryItemService);
+        }
+    }
+
+    @Nested
+    @DisplayName("POST /api/locations/{locationId}/products/{productId}/consume")
+    class ConsumeProduct {
+
+        @Test
+        @DisplayName("should return the consumed units and drained items")
+        void shouldConsumeProduct() throws Exception {
+            when(pantryItemService.consumeProduct(locationId, productId, 4))
+                    .thenReturn(ConsumeProductResponse.builder()
+                            .locationId(locationId)
+                            .productId(productId)
+                            .consumed(4)
+                            .remaining(6)
+                            .items(List.of(PantryItemQuantityResponse.builder().id(pantryItemId).quantity(1).build()))
+                            .build());
+
+            mockMvc.perform(post("/api/locations/" + locationId + "/products/" + productId + "/consume")
+                            .with(SecurityMockMvcRequestPostProcessors.jwt().jwt(jwt))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(
+                                    ConsumeProductRequest.builder().quantity(4).build())))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.consumed").value(4))
+                    .andExpect(jsonPath("$.remaining").value(6))
+                    .andExpect(jsonPath("$.items[0].id").value(pantryItemId.toString()));
+
+            verify(pantryItemService).consumeProduct(locationId, productId, 4);
+        }
+
+        @Test
+        @DisplayName("should return 400 when quantity is not positive")
+        void shouldReturn400WhenQuantityNotPositive() throws Exception {
+            mockMvc.perform(post("/api/locations/" + locationId + "/products/" + productId + "/consume")
+                            .with(SecurityMockMvcRequestPostProcessors.jwt().jwt(jwt))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(
+                                    ConsumeProductRequest.builder().quantity(0).build())))
+                    .andExpect(status().isBadRequest());
+
+            verifyNoInteractions(pantryItemService);
+        }
+    }
+
     @Nested
     @DisplayName("POST /api/pantry-items/batch")
     class CreateMultiplePantryItems {
@@ -659,7 +822,12 @@ class PantryItemControllerTest {
         void shouldDeleteMultiplePantryItems() throws Exception {
             List<UUID> itemIds = List.of(pantryItemId);
             when(pantryItemService.deleteMultiplePantryItems(eq(itemIds)))
-                    .thenReturn(1);
+                    .thenReturn(BatchDeletePantryItemsResponse.builder()
+                            .deletedCount(1)
+                            .deleted(List.of(pantryItemId))
+                            .forbidden(List.of())
+                            .notFound(List.of())
+                            .build());
 
             mockMvc.perform(delete("/api/pantry-items/batch")
                             .with(SecurityMockMvcRequestPostProcessors.jwt().jwt(jwt))
@@ -667,7 +835,8 @@ class PantryItemControllerTest {
                             .content(objectMapper.writeValueAsString(itemIds)))
                     .andExpect(status().isOk())
                     .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                    .andExpect(jsonPath("$.deletedCount").value(1));
+                    .andExpect(jsonPath("$.deletedCount").value(1))
+                    .andExpect(jsonPath("$.deleted[0]").value(pantryItemId.toString()));
 
             verify(pantryItemService).deleteMultiplePantryItems(eq(itemIds));
         }
@@ -686,20 +855,42 @@ class PantryItemControllerTest {
             verifyNoInteractions(pantryItemService);
         }
 
+        @Test
+        @DisplayName("should return 400 when the batch delete has too many items")
+        void shouldReturn400ForOversizedBatchDeleteRequest() throws Exception {
+            List<UUID> itemIds = Stream.generate(UUID::randomUUID)
+                    .limit(PantryItemController.MAX_BATCH_DELETE_SIZE + 1)
+                    .toList();
+
+            mockMvc.perform(delete("/api/pantry-items/batch")
+                            .with(SecurityMockMvcRequestPostProcessors.jwt().jwt(jwt))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(itemIds)))
+                    .andExpect(status().isBadRequest());
+
+            verifyNoInteractions(pantryItemService);
+        }
+
         @Test
         @DisplayName("should handle partial deletion when some items inaccessible")
         void shouldHandlePartialDeletion() throws Exception {
             UUID inaccessibleItemId = UUID.randomUUID();
             List<UUID> itemIds = List.of(pantryItemId, inaccessibleItemId);
             when(pantryItemService.deleteMultiplePantryItems(eq(itemIds)))
-                    .thenReturn(1); // Only 1 deleted
+                    .thenReturn(BatchDeletePantryItemsResponse.builder()
+                            .deletedCount(1)
+                            .deleted(List.of(pantryItemId))
+                            .forbidden(List.of(inaccessibleItemId))
+                            .notFound(List.of())
+                            .build());
 
             mockMvc.perform(delete("/api/pantry-items/batch")
                             .with(SecurityMockMvcRequestPostProcessors.jwt().jwt(jwt))
                             .contentType(MediaType.APPLICATION_JSON)
                             .content(objectMapper.writeValueAsString(itemIds)))
                     .andExpect(status().isOk())
-                    .andExpect(jsonPath("$.deletedCount").value(1));
+                    .andExpect(jsonPath("$.deletedCount").value(1))
+                    .andExpect(jsonPath("$.forbidden[0]").value(inaccessibleItemId.toString()));
 
             verify(pantryItemService).deleteMultiplePantryItems(eq(itemIds));
         }
@@ -832,6 +1023,33 @@ class PantryItemControllerTest {
             verify(securityService).canAccessHousehold(householdId);
             verifyNoInteractions(pantryItemService);
         }
+
+        @Test
+        @DisplayName("should return a keyset page when limit is provided")
+        void shouldReturnKeysetPageWhenLimitProvided() throws Exception {
+            CursorPageResponse<PantryItemResponse> page = CursorPageResponse.<PantryItemResponse>builder()
+                    .content(List.of(pantryItemResponse))
+                    .size(1)
+                    .hasNext(true)
+                    .nextCursor("abc")
+                    .build();
+
+            when(pantryItemService.getPantryItemsByHousehold(householdId, "prev", 1, false))
+                    .thenReturn(page);
+
+            mockMvc.perform(get("/api/households/{householdId}/pantry-items", householdId)
+                            .with(SecurityMockMvcRequestPostProcessors.jwt().jwt(jwt))
+                            .param("limit", "1")
+                            .param("cursor", "prev"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content[0].id").value(pantryItemId.toString()))
+                    .andExpect(jsonPath("$.hasNext").value(true))
+                    .andExpect(jsonPath("$.nextCursor").value("abc"))
+                    .andExpect(jsonPath("$.totalPages").doesNotExist());
+
+            verify(pantryItemService).getPantryItemsByHousehold(householdId, "prev", 1, false);
+            verify(pantryItemService, never()).getPantryItemsByHousehold(any(), any(Pageable.class));
+        }
     }
 
     @Nested
@@ -1040,6 +1258,28 @@ class PantryItemControllerTest {
 
             verify(pantryItemService).searchPantryItems(eq(householdId), eq(""));
         }
+
+        @Test
+        @DisplayName("should return a page of ranked results when page is given")
+        void shouldReturnRankedPageWhenPageGiven() throws Exception {
+            Page<PantryItemResponse> page = new PageImpl<>(List.of(pantryItemResponse), PageRequest.of(1, 10), 11);
+            when(pantryItemService.searchPantryItems(eq(householdId), eq("mlk"), any(Pageable.class)))
+                    .thenReturn(page);
+
+            mockMvc.perform(get("/api/households/{householdId}/pantry-items/search", householdId)
+                            .with(SecurityMockMvcRequestPostProcessors.jwt().jwt(jwt))
+                            .param("query", "mlk")
+                            .param("page", "1")
+                            .param("size", "10"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("Cache-Control", "max-age=60"))
+                    .andExpect(jsonPath("$.content.length()").value(1))
+                    .andExpect(jsonPath("$.content[0].id").value(pantryItemId.toString()))
+                    .andExpect(jsonPath("$.totalElements").value(11));
+
+            verify(pantryItemService).searchPantryItems(eq(householdId), eq("mlk"), eq(PageRequest.of(1, 10)));
+            verify(pantryItemService, never()).searchPantryItems(any(), anyString());
+        }
     }
 
     @Nested
@@ -1049,14 +1289,17 @@ class PantryItemControllerTest {
         @Test
         @DisplayName("should return pantry statistics")
         void shouldReturnPantryStatistics() throws Exception {
-            Map<String, Object> statistics = Map.of(
-                    "totalItems", 10,
-                    "totalProducts", 5,
-                    "expiringItems", 2,
-                    "lowStockItems", 1
-            );
+            PantryStatisticsResponse statistics = PantryStatisticsResponse.builder()
+                    .totalItems(10)
+                    .distinctProducts(5)
+                    .expiringCount(2)
+                    .lowStockCount(1)
+                    .noExpirationDateCount(3)
+                    .lowStockThreshold(5)
+                    .expiringWithinDays(7)
+                    .build();
 
-            when(pantryItemService.getPantryStatistics(eq(householdId)))
+            when(pantryItemService.getPantryStatistics(eq(householdId), eq(5), eq(7)))
                     .thenReturn(statistics);
 
             mockMvc.perform(get("/api/households/{householdId}/pantry-items/statistics", householdId)
@@ -1065,12 +1308,33 @@ class PantryItemControllerTest {
                     .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                     .andExpect(header().string("Cache-Control", "max-age=30"))
                     .andExpect(jsonPath("$.totalItems").value(10))
-                    .andExpect(jsonPath("$.totalProducts").value(5))
-                    .andExpect(jsonPath("$.expiringItems").value(2))
-                    .andExpect(jsonPath("$.lowStockItems").value(1));
+                    .andExpect(jsonPath("$.distinctProducts").value(5))
+                    .andExpect(jsonPath("$.expiringCount").value(2))
+                    .andExpect(jsonPath("$.lowStockCount").value(1))
+                    .andExpect(jsonPath("$.noExpirationDateCount").value(3));
 
             verify(securityService).canAccessHousehold(householdId);
-            verify(pantryItemService).getPantryStatistics(eq(householdId));
+            verify(pantryItemService).getPantryStatistics(eq(householdId), eq(5), eq(7));
+        }
+
+        @Test
+        @DisplayName("should pass custom thresholds to the service")
+        void shouldPassCustomThresholds() throws Exception {
+            when(pantryItemService.getPantryStatistics(eq(householdId), eq(2), eq(14)))
+                    .thenReturn(PantryStatisticsResponse.builder()
+                            .lowStockThreshold(2)
+                            .expiringWithinDays(14)
+                            .build());
+
+            mockMvc.perform(get("/api/households/{householdId}/pantry-items/statistics", householdId)
+                            .with(SecurityMockMvcRequestPostProcessors.jwt().jwt(jwt))
+                            .param("lowStockThreshold", "2")
+                            .param("expiringWithinDays", "14"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.lowStockThreshold").value(2))
+                    .andExpect(jsonPath("$.expiringWithinDays").value(14));
+
+            verify(pantryItemService).getPantryStatistics(eq(householdId), eq(2), eq(14));
         }
 
         @Test
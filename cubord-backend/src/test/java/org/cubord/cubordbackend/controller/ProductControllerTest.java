@@ -4,6 +4,8 @@ package org.cubord.cubordbackend.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.cubord.cubordbackend.config.TestSecurityConfig;
 import org.cubord.cubordbackend.domain.ProductDataSource;
+import org.cubord.cubordbackend.dto.product.BulkProductImportItem;
+import org.cubord.cubordbackend.dto.product.BulkProductImportResponse;
 import org.cubord.cubordbackend.dto.product.ProductRequest;
 import org.cubord.cubordbackend.dto.product.ProductResponse;
 import org.cubord.cubordbackend.dto.product.ProductUpdateRequest;
@@ -28,6 +30,7 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.*;
@@ -203,6 +206,38 @@ class ProductControllerTest {
         }
     }
 
+    @Nested
+    @DisplayName("POST /api/products/catalog-import")
+    class ImportCatalog {
+
+        @Test
+        @DisplayName("should start the catalog import for admin user")
+        void shouldStartCatalogImportForAdminUser() throws Exception {
+            when(securityService.isAdmin()).thenReturn(true);
+
+            mockMvc.perform(post("/api/products/catalog-import")
+                            .with(SecurityMockMvcRequestPostProcessors.jwt().jwt(jwt))
+                            .param("file", "products.jsonl.gz"))
+                    .andExpect(status().isAccepted())
+                    .andExpect(jsonPath("$.file").value("products.jsonl.gz"));
+
+            verify(productService).importCatalog("products.jsonl.gz");
+        }
+
+        @Test
+        @DisplayName("should return 403 for non-admin user")
+        void shouldReturn403ForNonAdminUser() throws Exception {
+            when(securityService.isAdmin()).thenReturn(false);
+
+            mockMvc.perform(post("/api/products/catalog-import")
+                            .with(SecurityMockMvcRequestPostProcessors.jwt().jwt(jwt))
+                            .param("file", "products.jsonl.gz"))
+                    .andExpect(status().isForbidden());
+
+            verify(productService, never()).importCatalog(anyString());
+        }
+    }
+
     @Nested
     @DisplayName("POST /api/products/bulk-import")
     class BulkImportProducts {
@@ -212,7 +247,14 @@ class ProductControllerTest {
         void shouldBulkImportProductsForAdminUser() throws Exception {
             when(securityService.isAdmin()).thenReturn(true);
             when(productService.bulkImportProducts(anyList()))
-                    .thenReturn(List.of(sampleProductResponse));
+                    .thenReturn(BulkProductImportResponse.builder()
+                            .createdCount(1)
+                            .items(List.of(BulkProductImportItem.builder()
+                                    .upc(sampleProductRequest.getUpc())
+                                    .status(BulkProductImportItem.Status.CREATED)
+                                    .productId(productId)
+                                    .build()))
+                            .build());
 
             List<ProductRequest> requests = List.of(sampleProductRequest);
 
@@ -220,9 +262,11 @@ class ProductControllerTest {
                             .with(SecurityMockMvcRequestPostProcessors.jwt().jwt(jwt))
                             .contentType(MediaType.APPLICATION_JSON)
                             .content(objectMapper.writeValueAsString(requests)))
-                    .andExpect(status().isCreated())
+                    .andExpect(status().isOk())
                     .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                    .andExpect(jsonPath("$[0].id").value(productId.toString()));
+                    .andExpect(jsonPath("$.createdCount").value(1))
+                    .andExpect(jsonPath("$.items[0].status").value("CREATED"))
+                    .andExpect(jsonPath("$.items[0].productId").value(productId.toString()));
 
             verify(securityService).isAdmin();
             verify(productService).bulkImportProducts(anyList());
@@ -341,7 +385,7 @@ class ProductControllerTest {
         @Test
         @DisplayName("should return product details by UPC")
         void shouldReturnProductDetailsByUpc() throws Exception {
-            when(productService.getProductByUpc(sampleUpc))
+            when(productService.getProductByUpc(sampleUpc, Duration.ofMillis(300)))
                     .thenReturn(sampleProductResponse);
 
             mockMvc.perform(get("/api/products/upc/" + sampleUpc)
@@ -357,7 +401,7 @@ class ProductControllerTest {
         @Test
         @DisplayName("should return 404 when product with UPC not found")
         void shouldReturn404WhenProductWithUpcNotFound() throws Exception {
-            when(productService.getProductByUpc(sampleUpc))
+            when(productService.getProductByUpc(sampleUpc, Duration.ofMillis(300)))
                     .thenThrow(new NotFoundException("Product not found"));
 
             mockMvc.perform(get("/api/products/upc/" + sampleUpc)
@@ -368,6 +412,34 @@ class ProductControllerTest {
             verify(productService).getProductByUpc(sampleUpc);
         }
 
+        @Test
+        @DisplayName("should pass the requested latency budget and not cache a provisional product")
+        void shouldNotCacheProvisionalProduct() throws Exception {
+            sampleProductResponse.setRequiresApiRetry(true);
+            when(productService.getProductByUpc(sampleUpc, Duration.ZERO))
+                    .thenReturn(sampleProductResponse);
+
+            mockMvc.perform(get("/api/products/upc/" + sampleUpc)
+                            .param("latencyBudgetMs", "0")
+                            .with(SecurityMockMvcRequestPostProcessors.jwt().jwt(jwt)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.requiresApiRetry").value(true))
+                    .andExpect(header().string("Cache-Control", "no-cache"));
+
+            verify(productService).getProductByUpc(sampleUpc, Duration.ZERO);
+        }
+
+        @Test
+        @DisplayName("should return 400 when the latency budget is negative")
+        void shouldReturn400WhenLatencyBudgetIsNegative() throws Exception {
+            mockMvc.perform(get("/api/products/upc/" + sampleUpc)
+                            .param("latencyBudgetMs", "-1")
+                            .with(SecurityMockMvcRequestPostProcessors.jwt().jwt(jwt)))
+                    .andExpect(status().isBadRequest());
+
+            verifyNoInteractions(productService);
+        }
+
         @Test
         @DisplayName("should return 400 when UPC is invalid")
         void shouldReturn400WhenUpcIsInvalid() throws Exception {
@@ -164,6 +164,7 @@ class ProductDomainTest {
         // Given
         UUID id = UUID.randomUUID();
         String upc = "123456789012";
+        Long gtin = 123456789012L;
         String name = "All Args Product";
         String brand = "All Args Brand";
         String category = "All Args Category";
@@ -173,19 +174,21 @@ class ProductDomainTest {
         Boolean requiresApiRetry = true;
         Integer retryAttempts = 1;
         LocalDateTime lastRetryAttempt = LocalDateTime.now();
+        LocalDateTime nextRetryAt = lastRetryAttempt.plusMinutes(5);
         ProductDataSource dataSource = ProductDataSource.HYBRID;
         LocalDateTime createdAt = LocalDateTime.now();
         LocalDateTime updatedAt = LocalDateTime.now();
 
         // When
-        Product product = new Product(id, upc, name, brand, category, defaultExpirationDays,
+        Product product = new Product(id, upc, gtin, name, brand, category, defaultExpirationDays,
                                     imageUrl, imageSmallUrl,
-                                    requiresApiRetry, retryAttempts, lastRetryAttempt, dataSource, 
+                                    requiresApiRetry, retryAttempts, lastRetryAttempt, nextRetryAt, dataSource, 
                                     createdAt, updatedAt);
 
         // Then
         assertThat(product.getId()).isEqualTo(id);
         assertThat(product.getUpc()).isEqualTo(upc);
+        assertThat(product.getGtin()).isEqualTo(gtin);
         assertThat(product.getName()).isEqualTo(name);
         assertThat(product.getBrand()).isEqualTo(brand);
         assertThat(product.getCategory()).isEqualTo(category);
@@ -195,6 +198,7 @@ class ProductDomainTest {
         assertThat(product.getRequiresApiRetry()).isEqualTo(requiresApiRetry);
         assertThat(product.getRetryAttempts()).isEqualTo(retryAttempts);
         assertThat(product.getLastRetryAttempt()).isEqualTo(lastRetryAttempt);
+        assertThat(product.getNextRetryAt()).isEqualTo(nextRetryAt);
         assertThat(product.getDataSource()).isEqualTo(dataSource);
         assertThat(product.getCreatedAt()).isEqualTo(createdAt);
         assertThat(product.getUpdatedAt()).isEqualTo(updatedAt);
@@ -244,6 +248,26 @@ class ProductDomainTest {
         }
     }
 
+    @Test
+    @DisplayName("Test lifecycle callbacks derive the GTIN from the UPC")
+    void testLifecycleCallbacksDeriveGtin() {
+        // Given
+        Product product = Product.builder().upc("04252614").build();
+
+        // When
+        product.onCreate();
+
+        // Then
+        assertThat(product.getGtin()).isEqualTo(42100005264L);
+
+        // When
+        product.setUpc("012345678906");
+        product.onUpdate();
+
+        // Then
+        assertThat(product.getGtin()).isNull();
+    }
+
     @Test
     @DisplayName("Test equals and hashCode")
     void testEqualsAndHashCode() {
@@ -0,0 +1,197 @@
+package org.cubord.cubordbackend.repository;
+
+import org.cubord.cubordbackend.domain.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Fires concurrent consolidating inserts, single and batched, at the same pantry items and checks that no
+ * increment is lost.
+ *
+ * <p>Runs against the embedded test database, where consolidation locks the existing row. The
+ * PostgreSQL {@code ON CONFLICT} path, including racing first inserts, is covered by
+ * {@link PantryItemConsolidationPostgresTest}.</p>
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Pantry item consolidation under concurrency")
+class PantryItemConsolidationConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int INSERTS_PER_THREAD = 25;
+
+    @Autowired
+    private PantryItemRepository pantryItemRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private Household household;
+    private Location location;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        household = Household.builder().id(UUID.randomUUID()).build();
+        location = Location.builder().id(UUID.randomUUID()).household(household).build();
+        product = Product.builder().id(UUID.randomUUID()).build();
+
+        jdbcTemplate.update("INSERT INTO households (id, name) VALUES (?, 'Concurrency')", household.getId());
+        jdbcTemplate.update("INSERT INTO locations (id, name, household_id) VALUES (?, 'Pantry', ?)",
+                location.getId(), household.getId());
+        jdbcTemplate.update("INSERT INTO products (id, upc, name, data_source, requires_api_retry, retry_attempts) " +
+                "VALUES (?, '123456789012', 'Milk', 'MANUAL', false, 0)", product.getId());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM pantry_items WHERE location_id = ?", location.getId());
+        jdbcTemplate.update("DELETE FROM locations WHERE id = ?", location.getId());
+        jdbcTemplate.update("DELETE FROM households WHERE id = ?", household.getId());
+        jdbcTemplate.update("DELETE FROM products WHERE id = ?", product.getId());
+    }
+
+    @Test
+    @DisplayName("should apply every increment to the existing item exactly once")
+    void whenConsolidatingConcurrently_noIncrementIsLost() throws Exception {
+        // Given
+        LocalDate expirationDate = LocalDate.now().plusDays(7);
+        transactionTemplate.executeWithoutResult(status ->
+                pantryItemRepository.insertOrConsolidate(candidate(expirationDate, 1)));
+
+        // When
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        try {
+            for (int thread = 0; thread < THREADS; thread++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    int inserted = 0;
+                    for (int i = 0; i < INSERTS_PER_THREAD; i++) {
+                        PantryItemRepositoryCustom.ConsolidationResult result = transactionTemplate.execute(status ->
+                                pantryItemRepository.insertOrConsolidate(candidate(expirationDate, 2)));
+                        if (result.inserted()) {
+                            inserted++;
+                        }
+                    }
+                    return inserted;
+                }));
+            }
+            start.countDown();
+            for (Future<Integer> result : results) {
+                assertThat(result.get(60, TimeUnit.SECONDS)).isZero();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Then
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT quantity FROM pantry_items WHERE location_id = ?", Integer.class, location.getId()))
+                .containsExactly(1 + THREADS * INSERTS_PER_THREAD * 2);
+    }
+
+    @Test
+    @DisplayName("should apply every batched increment exactly once when batches list items in opposite orders")
+    void whenBatchesConsolidateConcurrently_noIncrementIsLost() throws Exception {
+        // Given
+        LocalDate expirationDate = LocalDate.now().plusDays(7);
+        transactionTemplate.executeWithoutResult(status -> pantryItemRepository.batchInsertOrConsolidate(
+                List.of(candidate(expirationDate, 1), candidate(null, 1))));
+
+        // When
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        try {
+            for (int thread = 0; thread < THREADS; thread++) {
+                boolean reversed = thread % 2 == 1;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    int inserted = 0;
+                    for (int i = 0; i < INSERTS_PER_THREAD; i++) {
+                        List<PantryItem> batch = reversed
+                                ? List.of(candidate(null, 2), candidate(expirationDate, 2))
+                                : List.of(candidate(expirationDate, 2), candidate(null, 2));
+                        List<PantryItemRepositoryCustom.ConsolidationResult> outcome = transactionTemplate.execute(
+                                status -> pantryItemRepository.batchInsertOrConsolidate(batch));
+                        inserted += (int) outcome.stream()
+                                .filter(PantryItemRepositoryCustom.ConsolidationResult::inserted)
+                                .count();
+                    }
+                    return inserted;
+                }));
+            }
+            start.countDown();
+            for (Future<Integer> result : results) {
+                assertThat(result.get(60, TimeUnit.SECONDS)).isZero();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Then
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT quantity FROM pantry_items WHERE location_id = ?", Integer.class, location.getId()))
+                .containsExactly(1 + THREADS * INSERTS_PER_THREAD * 2, 1 + THREADS * INSERTS_PER_THREAD * 2);
+    }
+
+    @Test
+    @DisplayName("should keep items with and without an expiration date apart")
+    void whenExpirationDatesDiffer_createsSeparateItems() {
+        // When
+        PantryItemRepositoryCustom.ConsolidationResult undated = transactionTemplate.execute(status ->
+                pantryItemRepository.insertOrConsolidate(candidate(null, 1)));
+        PantryItemRepositoryCustom.ConsolidationResult undatedAgain = transactionTemplate.execute(status ->
+                pantryItemRepository.insertOrConsolidate(candidate(null, 4)));
+        PantryItemRepositoryCustom.ConsolidationResult dated = transactionTemplate.execute(status ->
+                pantryItemRepository.insertOrConsolidate(candidate(LocalDate.now(), 2)));
+
+        // Then
+        assertThat(undated.inserted()).isTrue();
+        assertThat(undatedAgain.inserted()).isFalse();
+        assertThat(undatedAgain.id()).isEqualTo(undated.id());
+        assertThat(undatedAgain.quantity()).isEqualTo(5);
+        assertThat(dated.inserted()).isTrue();
+        assertThat(dated.id()).isNotEqualTo(undated.id());
+    }
+
+    private PantryItem candidate(LocalDate expirationDate, int quantity) {
+        LocalDateTime now = LocalDateTime.now();
+        return PantryItem.builder()
+                .id(UUID.randomUUID())
+                .product(product)
+                .location(location)
+                .quantity(quantity)
+                .expirationDate(expirationDate)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+    }
+}
@@ -0,0 +1,271 @@
+package org.cubord.cubordbackend.repository;
+
+import org.cubord.cubordbackend.domain.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Races concurrent consolidating inserts of the same, initially absent pantry item on PostgreSQL,
+ * where they are resolved by {@code ON CONFLICT} against the unique consolidation index, and checks
+ * the migration that merges existing duplicates before creating that index.
+ *
+ * <p>Requires Docker and is skipped when it is unavailable.</p>
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Pantry item consolidation on PostgreSQL")
+class PantryItemConsolidationPostgresTest {
+
+    private static final int THREADS = 16;
+    private static final int INSERTS_PER_THREAD = 50;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private PantryItemRepository pantryItemRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private Location location;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        // The schema outlives a test, so the index is dropped first and every test starts with it freshly migrated
+        jdbcTemplate.execute("DROP INDEX IF EXISTS uq_pantry_items_location_product_expiration");
+        migrate();
+
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        Household household = Household.builder().id(UUID.randomUUID()).build();
+        location = Location.builder().id(UUID.randomUUID()).household(household).build();
+        product = Product.builder().id(UUID.randomUUID()).build();
+
+        jdbcTemplate.update("INSERT INTO households (id, name) VALUES (?, 'Concurrency')", household.getId());
+        jdbcTemplate.update("INSERT INTO locations (id, name, household_id) VALUES (?, 'Pantry', ?)",
+                location.getId(), household.getId());
+        jdbcTemplate.update("INSERT INTO products (id, upc, name, data_source, requires_api_retry, retry_attempts) " +
+                "VALUES (?, ?, 'Milk', 'MANUAL', false, 0)", product.getId(), product.getId().toString());
+    }
+
+    @Test
+    @DisplayName("should create a single item holding the full quantity when first inserts race")
+    void whenFirstInsertsRace_createsSingleItemWithoutLosingQuantity() throws Exception {
+        for (LocalDate expirationDate : new LocalDate[]{LocalDate.now().plusDays(3), null}) {
+            // When
+            int inserted = race(expirationDate);
+
+            // Then
+            assertThat(inserted).isEqualTo(1);
+            assertThat(jdbcTemplate.queryForList(
+                    "SELECT quantity FROM pantry_items WHERE location_id = ? " +
+                            "AND COALESCE(expiration_date, DATE '9999-12-31') = COALESCE(CAST(? AS DATE), DATE '9999-12-31')",
+                    Integer.class, location.getId(), expirationDate))
+                    .containsExactly(THREADS * INSERTS_PER_THREAD);
+        }
+    }
+
+    @Test
+    @DisplayName("should consolidate racing batches that list the same new items in opposite orders")
+    void whenBatchesRace_createsEachItemOnceWithoutLosingQuantity() throws Exception {
+        // Given
+        LocalDate expirationDate = LocalDate.now().plusDays(5);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+
+        // When
+        try {
+            for (int thread = 0; thread < THREADS; thread++) {
+                boolean reversed = thread % 2 == 1;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    int inserted = 0;
+                    for (int i = 0; i < INSERTS_PER_THREAD; i++) {
+                        List<PantryItem> batch = reversed
+                                ? List.of(candidate(null), candidate(expirationDate))
+                                : List.of(candidate(expirationDate), candidate(null));
+                        List<PantryItemRepositoryCustom.ConsolidationResult> outcome = transactionTemplate.execute(
+                                status -> pantryItemRepository.batchInsertOrConsolidate(batch));
+                        inserted += (int) outcome.stream()
+                                .filter(PantryItemRepositoryCustom.ConsolidationResult::inserted)
+                                .count();
+                    }
+                    return inserted;
+                }));
+            }
+            start.countDown();
+            int inserted = 0;
+            for (Future<Integer> result : results) {
+                inserted += result.get(120, TimeUnit.SECONDS);
+            }
+
+            // Then
+            assertThat(inserted).isEqualTo(2);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT quantity FROM pantry_items WHERE location_id = ?", Integer.class, location.getId()))
+                .containsExactly(THREADS * INSERTS_PER_THREAD, THREADS * INSERTS_PER_THREAD);
+    }
+
+    @Test
+    @DisplayName("should merge existing duplicates into the oldest item, keeping their distinct notes")
+    void whenMigratingDuplicates_mergesQuantitiesAndNotes() {
+        // Given
+        LocalDate expirationDate = LocalDate.now().plusDays(4);
+        LocalDateTime createdAt = LocalDateTime.now().minusDays(3);
+        jdbcTemplate.execute("DROP INDEX uq_pantry_items_location_product_expiration");
+        UUID keeperId = insertItem(expirationDate, 2, null, createdAt);
+        insertItem(expirationDate, 3, "Opened", createdAt.plusDays(1));
+        insertItem(expirationDate, 4, "  ", createdAt.plusDays(2));
+        insertItem(expirationDate, 5, "Opened", createdAt.plusDays(2));
+        insertItem(expirationDate, 1, "Top shelf", createdAt.plusDays(3));
+        UUID otherDateId = insertItem(null, 7, "Spare", createdAt);
+
+        // When
+        migrate();
+
+        // Then
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT id FROM pantry_items WHERE location_id = ?", UUID.class, location.getId()))
+                .containsExactlyInAnyOrder(keeperId, otherDateId);
+        assertThat(jdbcTemplate.queryForMap("SELECT quantity, notes FROM pantry_items WHERE id = ?", keeperId))
+                .containsEntry("quantity", 15)
+                .containsEntry("notes", "Opened; Top shelf");
+        assertThat(jdbcTemplate.queryForObject("SELECT notes FROM pantry_items WHERE id = ?", String.class, otherDateId))
+                .isEqualTo("Spare");
+    }
+
+    @Test
+    @DisplayName("should insert items into a location while a move holds its lock")
+    void whenLocationLocked_insertsAreNotBlocked() throws Exception {
+        // Given
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> move = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                pantryItemRepository.lockLocations(List.of(location.getId()));
+                locked.countDown();
+                try {
+                    release.await(30, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            assertThat(locked.await(10, TimeUnit.SECONDS)).isTrue();
+
+            // When
+            PantryItemRepositoryCustom.ConsolidationResult result = transactionTemplate.execute(status -> {
+                jdbcTemplate.execute("SET LOCAL lock_timeout = '2s'");
+                return pantryItemRepository.insertOrConsolidate(candidate(LocalDate.now().plusDays(9)));
+            });
+            release.countDown();
+
+            // Then
+            assertThat(result.inserted()).isTrue();
+            move.get(10, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private void migrate() {
+        new ResourceDatabasePopulator(new ClassPathResource(
+                "db/vendor/postgresql/V10__Added_pantry_item_consolidation_unique_index.sql")).execute(dataSource);
+    }
+
+    private UUID insertItem(LocalDate expirationDate, int quantity, String notes, LocalDateTime createdAt) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO pantry_items (id, location_id, product_id, quantity, expiration_date, notes, " +
+                        "created_at, updated_at, household_id, product_name) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 'Milk')",
+                id, location.getId(), product.getId(), quantity, expirationDate, notes, createdAt, createdAt,
+                location.getHousehold().getId());
+        return id;
+    }
+
+    private int race(LocalDate expirationDate) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        try {
+            for (int thread = 0; thread < THREADS; thread++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    int inserted = 0;
+                    for (int i = 0; i < INSERTS_PER_THREAD; i++) {
+                        PantryItemRepositoryCustom.ConsolidationResult result = transactionTemplate.execute(status ->
+                                pantryItemRepository.insertOrConsolidate(candidate(expirationDate)));
+                        if (result.inserted()) {
+                            inserted++;
+                        }
+                    }
+                    return inserted;
+                }));
+            }
+            start.countDown();
+            int inserted = 0;
+            for (Future<Integer> result : results) {
+                inserted += result.get(120, TimeUnit.SECONDS);
+            }
+            return inserted;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private PantryItem candidate(LocalDate expirationDate) {
+        LocalDateTime now = LocalDateTime.now();
+        return PantryItem.builder()
+                .id(UUID.randomUUID())
+                .product(product)
+                .location(location)
+                .quantity(1)
+                .expirationDate(expirationDate)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+    }
+}
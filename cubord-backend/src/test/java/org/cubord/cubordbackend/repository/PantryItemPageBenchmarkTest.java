@@ -0,0 +1,186 @@
+package org.cubord.cubordbackend.repository;
+
+import org.cubord.cubordbackend.domain.Household;
+import org.cubord.cubordbackend.domain.Location;
+import org.cubord.cubordbackend.domain.PantryItem;
+import org.cubord.cubordbackend.util.CursorCodec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Date;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the first and a deep keyset page of a seeded PostgreSQL household of 100,000 pantry
+ * items, ordered by product name, expiration date, and ID.
+ *
+ * <p>Requires Docker and is skipped unless {@code CUBORD_BENCHMARK=true} is set, e.g.
+ * {@code CUBORD_BENCHMARK=true ./gradlew test --tests '*PantryItemPageBenchmarkTest'}.
+ * Median timings and the query plan of the deep page are logged; the assertions check that the
+ * deep page continues at the right item and is read from the household sort index without a sort.</p>
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers
+@EnabledIfEnvironmentVariable(named = "CUBORD_BENCHMARK", matches = "true")
+@DisplayName("Pantry keyset page benchmark")
+class PantryItemPageBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(PantryItemPageBenchmarkTest.class);
+
+    private static final int ITEM_COUNT = 100_000;
+    private static final int PRODUCT_COUNT = 5_000;
+    private static final int LOCATION_COUNT = 4;
+    private static final int DEEP_OFFSET = 90_000;
+    private static final int PAGE_SIZE = 20;
+    private static final int WARMUP_RUNS = 3;
+    private static final int MEASURED_RUNS = 15;
+    private static final LocalDate MIN_DATE = LocalDate.of(1, 1, 1);
+
+    // Same indexes as V18__Added_pantry_item_listing_sort_keys.sql, whose columns ddl-auto already created
+    private static final String[] SORT_INDEXES = {
+            "CREATE INDEX idx_pantry_items_household_name_expiration_id ON pantry_items " +
+            "(household_id, product_name, COALESCE(expiration_date, DATE '9999-12-31'), id)",
+            "CREATE INDEX idx_pantry_items_location_name_expiration_id ON pantry_items " +
+            "(location_id, product_name, COALESCE(expiration_date, DATE '9999-12-31'), id)"};
+
+    private static final String SORT_KEY =
+            "product_name, COALESCE(expiration_date, DATE '9999-12-31'), id";
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private PantryItemRepository pantryItemRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID householdId;
+
+    @BeforeEach
+    void seed() {
+        for (String index : SORT_INDEXES) {
+            jdbcTemplate.execute(index);
+        }
+
+        Household household = entityManager.persistAndFlush(Household.builder().name("Benchmark").build());
+        householdId = household.getId();
+        List<UUID> locationIds = IntStream.range(0, LOCATION_COUNT)
+                .mapToObj(i -> entityManager.persistAndFlush(Location.builder()
+                        .name("Shelf " + i)
+                        .household(household)
+                        .build()).getId())
+                .toList();
+
+        Random random = new Random(42);
+        List<UUID> productIds = IntStream.range(0, PRODUCT_COUNT).mapToObj(i -> UUID.randomUUID()).toList();
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO products (id, upc, name, data_source, requires_api_retry, retry_attempts) " +
+                "VALUES (?, ?, ?, 'MANUAL', false, 0)",
+                productIds, 1_000, (ps, id) -> {
+                    ps.setObject(1, id);
+                    ps.setString(2, String.format("%012d", random.nextLong(1_000_000_000_000L)));
+                    ps.setString(3, "Product " + String.format("%04d", random.nextInt(PRODUCT_COUNT)));
+                });
+
+        LocalDate today = LocalDate.now();
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO pantry_items (id, product_id, location_id, expiration_date, quantity, " +
+                "household_id, product_name) SELECT ?, ?, ?, ?, ?, ?, name FROM products WHERE id = ?",
+                IntStream.range(0, ITEM_COUNT).boxed().toList(), 1_000, (ps, i) -> {
+                    UUID productId = productIds.get(random.nextInt(PRODUCT_COUNT));
+                    ps.setObject(1, UUID.randomUUID());
+                    ps.setObject(2, productId);
+                    ps.setObject(3, locationIds.get(random.nextInt(LOCATION_COUNT)));
+                    ps.setObject(4, i % 5 == 0 ? null : today.plusDays(random.nextInt(365)), Types.DATE);
+                    ps.setInt(5, random.nextInt(10));
+                    ps.setObject(6, householdId);
+                    ps.setObject(7, productId);
+                });
+
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    @DisplayName("a deep page should be an index seek costing about as much as the first page")
+    void compareFirstAndDeepPage() {
+        Map<String, Object> cursor = jdbcTemplate.queryForMap(
+                "SELECT product_name, COALESCE(expiration_date, DATE '9999-12-31') AS expiration, id " +
+                "FROM pantry_items WHERE household_id = ? ORDER BY " + SORT_KEY + " OFFSET ? LIMIT 1",
+                householdId, DEEP_OFFSET - 1);
+        String afterName = (String) cursor.get("product_name");
+        LocalDate afterExpiration = ((Date) cursor.get("expiration")).toLocalDate();
+        UUID afterId = (UUID) cursor.get("id");
+
+        double firstMillis = medianMillis(() -> pantryItemRepository.findPageByHouseholdId(
+                householdId, "", MIN_DATE, CursorCodec.MIN_ID, Limit.of(PAGE_SIZE + 1)));
+        double deepMillis = medianMillis(() -> pantryItemRepository.findPageByHouseholdId(
+                householdId, afterName, afterExpiration, afterId, Limit.of(PAGE_SIZE + 1)));
+        logger.info(String.format("first page %8.2f ms | page at item %d %8.2f ms", firstMillis, DEEP_OFFSET, deepMillis));
+
+        List<String> plan = new NamedParameterJdbcTemplate(jdbcTemplate).queryForList(
+                "EXPLAIN (ANALYZE, COSTS OFF) SELECT id FROM pantry_items WHERE household_id = :householdId " +
+                "AND (" + SORT_KEY + ") > (:afterName, :afterExpiration, :afterId) " +
+                "ORDER BY " + SORT_KEY + " LIMIT " + (PAGE_SIZE + 1),
+                Map.of("householdId", householdId, "afterName", afterName,
+                        "afterExpiration", afterExpiration, "afterId", afterId),
+                String.class);
+        plan.forEach(line -> logger.info("    {}", line));
+
+        List<UUID> expected = jdbcTemplate.queryForList(
+                "SELECT id FROM pantry_items WHERE household_id = ? ORDER BY " + SORT_KEY + " OFFSET ? LIMIT ?",
+                UUID.class, householdId, DEEP_OFFSET, PAGE_SIZE);
+        List<PantryItem> deep = pantryItemRepository.findPageByHouseholdId(
+                householdId, afterName, afterExpiration, afterId, Limit.of(PAGE_SIZE));
+
+        assertThat(deep).extracting(PantryItem::getId).containsExactlyElementsOf(expected);
+        assertThat(plan).anyMatch(line -> line.contains("idx_pantry_items_household_name_expiration_id"));
+        assertThat(plan).noneMatch(line -> line.trim().startsWith("Sort"));
+    }
+
+    private double medianMillis(Supplier<?> query) {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            query.get();
+            entityManager.clear();
+        }
+        long[] samples = new long[MEASURED_RUNS];
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            long start = System.nanoTime();
+            query.get();
+            samples[i] = System.nanoTime() - start;
+            entityManager.clear();
+        }
+        Arrays.sort(samples);
+        return samples[MEASURED_RUNS / 2] / 1_000_000.0;
+    }
+}
@@ -1,6 +1,9 @@
 package org.cubord.cubordbackend.repository;
 
 import org.cubord.cubordbackend.domain.*;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.cubord.cubordbackend.util.CursorCodec;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -8,6 +11,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -16,13 +20,16 @@ import org.springframework.test.context.ActiveProfiles;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 @ActiveProfiles("test")
 class PantryItemRepositoryTest {
 
@@ -416,6 +423,19 @@ class PantryItemRepositoryTest {
 
     // Complex Query Tests
 
+    @Test
+    @DisplayName("Test paged searchItemsInHousehold matches name, brand, and notes")
+    void testSearchItemsInHouseholdPaged() {
+        // When
+        Page<PantryItem> page = pantryItemRepository.searchItemsInHousehold(
+                testHousehold1.getId(), "MILK", PageRequest.of(0, 1));
+
+        // Then
+        assertThat(page.getContent()).hasSize(1);
+        assertThat(page.getTotalElements())
+                .isEqualTo(pantryItemRepository.searchItemsInHousehold(testHousehold1.getId(), "MILK").size());
+    }
+
     @Test
     @DisplayName("Test findByProductNameContainingIgnoreCase for product search")
     void testFindByProductNameContainingIgnoreCase() {
@@ -797,6 +817,44 @@ class EnhancedQueryTests {
         assertThat(expiringCount).isEqualTo(2); // Milk and Bread expire within a week
     }
 
+    @Test
+    @DisplayName("Test aggregateStatisticsByHouseholdId computes all counters in one row")
+    void testAggregateStatisticsByHouseholdId() {
+        // Given
+        PantryItem noExpiration = PantryItem.builder()
+                .product(testProduct1)
+                .location(testLocation1)
+                .quantity(10)
+                .expirationDate(null)
+                .build();
+        entityManager.persistAndFlush(noExpiration);
+        entityManager.clear();
+
+        // When
+        PantryItemRepository.PantryStatistics statistics = pantryItemRepository
+                .aggregateStatisticsByHouseholdId(testHousehold1.getId(), 5, LocalDate.now().plusDays(7));
+
+        // Then
+        assertThat(statistics.getTotalItems()).isEqualTo(4);
+        assertThat(statistics.getDistinctProducts()).isEqualTo(3);
+        assertThat(statistics.getLowStockCount()).isEqualTo(3);
+        assertThat(statistics.getExpiringCount()).isEqualTo(2);
+        assertThat(statistics.getNoExpirationDateCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Test aggregateStatisticsByHouseholdId returns zeros for an empty household")
+    void testAggregateStatisticsByHouseholdIdEmpty() {
+        // When
+        PantryItemRepository.PantryStatistics statistics = pantryItemRepository
+                .aggregateStatisticsByHouseholdId(UUID.randomUUID(), 5, LocalDate.now().plusDays(7));
+
+        // Then
+        assertThat(statistics.getTotalItems()).isZero();
+        assertThat(statistics.getLowStockCount()).isZero();
+        assertThat(statistics.getNoExpirationDateCount()).isZero();
+    }
+
     @Test
     @DisplayName("Test sumQuantityByLocationAndProduct")
     void testSumQuantityByLocationAndProduct() {
@@ -879,5 +937,409 @@ class EnhancedQueryTests {
             assertThat(itemsInHousehold2).isEmpty();
         }
     }
-}
 
+    @Nested
+    @DisplayName("Batch Write Tests")
+    class BatchWriteTests {
+
+        @Test
+        @DisplayName("Test batchInsert persists all items")
+        void testBatchInsert() {
+            // Given
+            LocalDateTime now = LocalDateTime.now();
+            List<PantryItem> items = List.of(
+                    PantryItem.builder()
+                            .id(UUID.randomUUID())
+                            .product(testProduct2)
+                            .location(testLocation2)
+                            .quantity(4)
+                            .expirationDate(LocalDate.now().plusDays(2))
+                            .createdAt(now)
+                            .updatedAt(now)
+                            .build(),
+                    PantryItem.builder()
+                            .id(UUID.randomUUID())
+                            .product(testProduct3)
+                            .location(testLocation2)
+                            .quantity(6)
+                            .expirationDate(null)
+                            .notes("No expiry")
+                            .createdAt(now)
+                            .updatedAt(now)
+                            .build());
+
+            // When
+            pantryItemRepository.batchInsert(items);
+            entityManager.clear();
+
+            // Then
+            assertThat(pantryItemRepository.countByLocationId(testLocation2.getId())).isEqualTo(3);
+            PantryItem inserted = pantryItemRepository.findById(items.get(1).getId()).orElseThrow();
+            assertThat(inserted.getQuantity()).isEqualTo(6);
+            assertThat(inserted.getExpirationDate()).isNull();
+            assertThat(inserted.getNotes()).isEqualTo("No expiry");
+            assertThat(inserted.getProduct().getId()).isEqualTo(testProduct3.getId());
+            assertThat(inserted.getHouseholdId()).isEqualTo(testLocation2.getHousehold().getId());
+            assertThat(inserted.getProductName()).isEqualTo(testProduct3.getName());
+        }
+
+        @Test
+        @DisplayName("Test batchIncrementQuantities adds deltas to existing items")
+        void testBatchIncrementQuantities() {
+            // When
+            pantryItemRepository.batchIncrementQuantities(Map.of(
+                    testPantryItem1.getId(), 3,
+                    testPantryItem3.getId(), 10));
+            entityManager.clear();
+
+            // Then
+            assertThat(pantryItemRepository.findById(testPantryItem1.getId()).orElseThrow().getQuantity()).isEqualTo(5);
+            assertThat(pantryItemRepository.findById(testPantryItem3.getId()).orElseThrow().getQuantity()).isEqualTo(15);
+            assertThat(pantryItemRepository.findById(testPantryItem2.getId()).orElseThrow().getQuantity()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Test batchUpdateNotes replaces the notes of the given items")
+        void testBatchUpdateNotes() {
+            // When
+            pantryItemRepository.batchUpdateNotes(Map.of(testPantryItem1.getId(), "Whole milk; Opened"));
+            entityManager.clear();
+
+            // Then
+            assertThat(pantryItemRepository.findById(testPantryItem1.getId()).orElseThrow().getNotes())
+                    .isEqualTo("Whole milk; Opened");
+            assertThat(pantryItemRepository.findById(testPantryItem2.getId()).orElseThrow().getNotes())
+                    .isEqualTo(testPantryItem2.getNotes());
+        }
+
+        @Test
+        @DisplayName("Test findAccessByIdInAndUserId resolves membership per item")
+        void testFindAccessByIdInAndUserId() {
+            // Given
+            User member = User.builder()
+                    .id(UUID.randomUUID())
+                    .username("member")
+                    .email("member@example.com")
+                    .displayName("Member")
+                    .role(UserRole.USER)
+                    .build();
+            entityManager.persist(member);
+            entityManager.persist(HouseholdMember.builder()
+                    .user(member)
+                    .household(testHousehold1)
+                    .role(HouseholdRole.MEMBER)
+                    .build());
+            entityManager.flush();
+            UUID missingId = UUID.randomUUID();
+
+            // When
+            List<PantryItemRepository.PantryItemAccess> access = pantryItemRepository.findAccessByIdInAndUserId(
+                    List.of(testPantryItem1.getId(), testPantryItem4.getId(), missingId), member.getId());
+
+            // Then
+            assertThat(access).hasSize(2);
+            assertThat(access)
+                    .filteredOn(PantryItemRepository.PantryItemAccess::isAccessible)
+                    .extracting(PantryItemRepository.PantryItemAccess::getId)
+                    .containsExactly(testPantryItem1.getId());
+            assertThat(access)
+                    .extracting(PantryItemRepository.PantryItemAccess::getLocationId)
+                    .containsExactlyInAnyOrder(testLocation2.getId(), testLocation3.getId());
+        }
+
+        @Test
+        @DisplayName("Test deleteAllByIdIn removes only the given items")
+        void testDeleteAllByIdIn() {
+            // When
+            int deleted = pantryItemRepository.deleteAllByIdIn(
+                    List.of(testPantryItem1.getId(), testPantryItem2.getId()));
+
+            // Then
+            assertThat(deleted).isEqualTo(2);
+            assertThat(pantryItemRepository.findAll())
+                    .extracting(PantryItem::getId)
+                    .containsExactlyInAnyOrder(testPantryItem3.getId(), testPantryItem4.getId());
+        }
+
+        @Test
+        @DisplayName("Test adjustQuantity applies the delta unless the quantity would go negative")
+        void testAdjustQuantity() {
+            // When
+            int decremented = pantryItemRepository.adjustQuantity(testPantryItem3.getId(), -4, LocalDateTime.now());
+            int rejected = pantryItemRepository.adjustQuantity(testPantryItem3.getId(), -2, LocalDateTime.now());
+
+            // Then
+            assertThat(decremented).isEqualTo(1);
+            assertThat(rejected).isZero();
+            assertThat(pantryItemRepository.findStockById(testPantryItem3.getId()))
+                    .hasValueSatisfying(stock -> {
+                        assertThat(stock.getQuantity()).isEqualTo(1);
+                        assertThat(stock.getHouseholdId()).isEqualTo(testHousehold1.getId());
+                        assertThat(stock.getProductId()).isEqualTo(testProduct3.getId());
+                    });
+        }
+
+        @Test
+        @DisplayName("Test findStockForUpdate orders variants by expiration with undated items last")
+        void testFindStockForUpdate() {
+            // Given
+            PantryItem undated = entityManager.persistAndFlush(PantryItem.builder()
+                    .product(testProduct2)
+                    .location(testLocation1)
+                    .quantity(3)
+                    .build());
+            PantryItem soonest = entityManager.persistAndFlush(PantryItem.builder()
+                    .product(testProduct2)
+                    .location(testLocation1)
+                    .expirationDate(LocalDate.now().plusDays(1))
+                    .quantity(4)
+                    .build());
+
+            // When
+            List<PantryItemRepositoryCustom.StockEntry> stock =
+                    pantryItemRepository.findStockForUpdate(testLocation1.getId(), testProduct2.getId());
+
+            // Then
+            assertThat(stock)
+                    .extracting(PantryItemRepositoryCustom.StockEntry::id)
+                    .containsExactly(soonest.getId(), testPantryItem2.getId(), undated.getId());
+            assertThat(stock.get(2).expirationDate()).isNull();
+            assertThat(stock.get(0).quantity()).isEqualTo(4);
+        }
+
+        @Test
+        @DisplayName("Test consolidation conflict lookup finds other items with the same key")
+        void testFindConsolidationConflict() {
+            // Given
+            PantryItem undated = entityManager.persistAndFlush(PantryItem.builder()
+                    .product(testProduct1)
+                    .location(testLocation2)
+                    .quantity(1)
+                    .build());
+            LocalDate expirationDate = testPantryItem1.getExpirationDate();
+
+            // When/Then
+            assertThat(pantryItemRepository.findConsolidationConflict(
+                    UUID.randomUUID(), testLocation2.getId(), testProduct1.getId(), expirationDate))
+                    .contains(testPantryItem1.getId());
+            assertThat(pantryItemRepository.findConsolidationConflict(
+                    testPantryItem1.getId(), testLocation2.getId(), testProduct1.getId(), expirationDate))
+                    .isEmpty();
+            assertThat(pantryItemRepository.findConsolidationConflict(
+                    testPantryItem1.getId(), testLocation2.getId(), testProduct1.getId(), null))
+                    .contains(undated.getId());
+            assertThat(pantryItemRepository.findConsolidationConflict(
+                    testPantryItem1.getId(), testLocation1.getId(), testProduct1.getId(), expirationDate))
+                    .isEmpty();
+        }
+
+        @Test
+        @DisplayName("Test placement lookups and relocate move items between locations")
+        void testFindPlacementsAndRelocate() {
+            // Given
+            List<PantryItemRepositoryCustom.ItemPlacement> byId = pantryItemRepository.findPlacementsForUpdate(
+                    List.of(testPantryItem2.getId(), UUID.randomUUID()));
+            List<PantryItemRepositoryCustom.ItemPlacement> atLocation = pantryItemRepository
+                    .findPlacementsAtLocationForUpdate(testLocation1.getId(), List.of(testProduct3.getId()));
+
+            // When
+            int relocated = pantryItemRepository.relocate(
+                    List.of(testPantryItem2.getId(), testPantryItem3.getId()), testLocation2.getId(), LocalDateTime.now());
+
+            // Then
+            assertThat(byId).singleElement().satisfies(placement -> {
+                assertThat(placement.locationId()).isEqualTo(testLocation1.getId());
+                assertThat(placement.productId()).isEqualTo(testProduct2.getId());
+                assertThat(placement.quantity()).isEqualTo(1);
+                assertThat(placement.notes()).isEqualTo(testPantryItem2.getNotes());
+            });
+            assertThat(atLocation).extracting(PantryItemRepositoryCustom.ItemPlacement::id)
+                    .containsExactly(testPantryItem3.getId());
+            assertThat(relocated).isEqualTo(2);
+            assertThat(pantryItemRepository.findPlacementsAtLocationForUpdate(testLocation1.getId(), null)).isEmpty();
+            assertThat(pantryItemRepository.findPlacementsAtLocationForUpdate(testLocation2.getId(), null))
+                    .hasSize(3);
+        }
+    }
+
+    @Nested
+    @DisplayName("Listing Query Count Tests")
+    class ListingQueryCountTests {
+
+        @Test
+        @DisplayName("Test listing queries load product and location in a single statement")
+        void testListingQueriesUseConstantStatementCount() {
+            // Given
+            addMilkItems(testLocation1, 20);
+
+            // When/Then
+            assertThat(statementsToLoad(() -> pantryItemRepository.findByLocationId(testLocation1.getId())))
+                    .isEqualTo(1);
+            assertThat(statementsToLoad(() -> pantryItemRepository.findLowStockItemsInHousehold(testHousehold1.getId(), 100)))
+                    .isEqualTo(1);
+            assertThat(statementsToLoad(() -> pantryItemRepository.findExpiringItemsInHouseholdBetweenDates(
+                    testHousehold1.getId(), LocalDate.now(), LocalDate.now().plusDays(365))))
+                    .isEqualTo(1);
+            assertThat(statementsToLoad(() -> pantryItemRepository.searchItemsInHousehold(testHousehold1.getId(), "milk")))
+                    .isEqualTo(1);
+            assertThat(statementsToLoad(() -> pantryItemRepository
+                    .findByLocation_HouseholdId(testHousehold1.getId(), PageRequest.of(0, 10)).getContent()))
+                    .isLessThanOrEqualTo(2); // content query plus count query
+        }
+
+        @Test
+        @DisplayName("Test statement count does not grow with result size")
+        void testStatementCountIndependentOfSize() {
+            // Given
+            addMilkItems(testLocation1, 2);
+            long small = statementsToLoad(() -> pantryItemRepository.findByLocationId(testLocation1.getId()));
+
+            addMilkItems(testLocation1, 40);
+            long large = statementsToLoad(() -> pantryItemRepository.findByLocationId(testLocation1.getId()));
+
+            // Then
+            assertThat(large).isEqualTo(small);
+        }
+
+        private void addMilkItems(Location location, int count) {
+            for (int i = 0; i < count; i++) {
+                entityManager.persist(PantryItem.builder()
+                        .product(i % 2 == 0 ? testProduct1 : testProduct2)
+                        .location(location)
+                        .quantity(1)
+                        .expirationDate(LocalDate.now().plusDays(10 + i))
+                        .notes("milk batch " + i)
+                        .build());
+            }
+            entityManager.flush();
+            entityManager.clear();
+        }
+
+        /**
+         * Runs the query, touches every association used by the response mapping,
+         * and returns the number of SQL statements that were prepared.
+         */
+        private long statementsToLoad(Supplier<List<PantryItem>> query) {
+            entityManager.clear();
+            Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                    .unwrap(SessionFactory.class).getStatistics();
+            statistics.clear();
+
+            for (PantryItem item : query.get()) {
+                item.getProduct().getName();
+                item.getLocation().getName();
+                item.getLocation().getHousehold().getId();
+            }
+            return statistics.getPrepareStatementCount();
+        }
+    }
+
+    @Nested
+    @DisplayName("Keyset Pagination Tests")
+    class KeysetPaginationTests {
+
+        private static final LocalDate MIN_DATE = LocalDate.of(1, 1, 1);
+        private static final LocalDate NO_EXPIRATION = LocalDate.of(9999, 12, 31);
+
+        @Test
+        @DisplayName("Test findPageByHouseholdId walks every item once in name, expiration, id order")
+        void testFindPageByHouseholdIdWalksAllItems() {
+            // Given - same product with and without expiration dates to exercise ties and nulls
+            for (int i = 0; i < 3; i++) {
+                entityManager.persist(PantryItem.builder()
+                        .product(testProduct1)
+                        .location(testLocation1)
+                        .quantity(1)
+                        .expirationDate(i == 0 ? null : LocalDate.now().plusDays(i))
+                        .build());
+            }
+            entityManager.flush();
+            entityManager.clear();
+
+            // When
+            List<PantryItem> walked = new ArrayList<>();
+            String afterName = "";
+            LocalDate afterExpiration = MIN_DATE;
+            UUID afterId = CursorCodec.MIN_ID;
+            List<PantryItem> page;
+            do {
+                page = pantryItemRepository.findPageByHouseholdId(
+                        testHousehold1.getId(), afterName, afterExpiration, afterId, Limit.of(2));
+                walked.addAll(page);
+                if (!page.isEmpty()) {
+                    PantryItem last = page.getLast();
+                    afterName = last.getProduct().getName();
+                    afterExpiration = last.getExpirationDate() != null ? last.getExpirationDate() : NO_EXPIRATION;
+                    afterId = last.getId();
+                }
+            } while (page.size() == 2);
+
+            // Then
+            assertThat(walked).hasSize(6);
+            assertThat(walked).extracting(PantryItem::getId).doesNotHaveDuplicates();
+            assertThat(walked).extracting(item -> item.getProduct().getName())
+                    .containsExactly("Bread", "Canned Beans", "Milk", "Milk", "Milk", "Milk");
+            assertThat(walked.getLast().getExpirationDate()).isNull();
+        }
+
+        @Test
+        @DisplayName("Test updateProductName moves the items of a renamed product in name order")
+        void testUpdateProductNameReordersPage() {
+            // When
+            int updated = pantryItemRepository.updateProductName(testProduct2.getId(), "Zucchini Bread");
+            entityManager.clear();
+            List<PantryItem> page = pantryItemRepository.findPageByHouseholdId(
+                    testHousehold1.getId(), "", MIN_DATE, CursorCodec.MIN_ID, Limit.of(10));
+
+            // Then
+            assertThat(updated).isEqualTo(1);
+            assertThat(page).extracting(PantryItem::getProductName)
+                    .containsExactly("Canned Beans", "Milk", "Zucchini Bread");
+        }
+
+        @Test
+        @DisplayName("Test findExpiringPageInHousehold continues after the cursor")
+        void testFindExpiringPageInHousehold() {
+            // Given
+            LocalDate start = LocalDate.now();
+            LocalDate end = LocalDate.now().plusDays(30);
+
+            // When
+            List<PantryItem> first = pantryItemRepository.findExpiringPageInHousehold(
+                    testHousehold1.getId(), start, end, MIN_DATE, CursorCodec.MIN_ID, Limit.of(1));
+            List<PantryItem> second = pantryItemRepository.findExpiringPageInHousehold(
+                    testHousehold1.getId(), start, end,
+                    first.getFirst().getExpirationDate(), first.getFirst().getId(), Limit.of(1));
+
+            // Then
+            assertThat(first).extracting(PantryItem::getId).containsExactly(testPantryItem2.getId());
+            assertThat(second).extracting(PantryItem::getId).containsExactly(testPantryItem1.getId());
+            assertThat(pantryItemRepository.countExpiringItemsInHouseholdBetweenDates(testHousehold1.getId(), start, end))
+                    .isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("Test findLowStockPageInHousehold orders by quantity")
+        void testFindLowStockPageInHousehold() {
+            // When
+            List<PantryItem> page = pantryItemRepository.findLowStockPageInHousehold(
+                    testHousehold1.getId(), 5, Integer.MIN_VALUE, "", CursorCodec.MIN_ID, Limit.of(10));
+
+            // Then
+            assertThat(page).extracting(PantryItem::getQuantity).containsExactly(1, 2, 5);
+            assertThat(pantryItemRepository.countLowStockItemsInHousehold(testHousehold1.getId(), 5)).isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("Test searchPageInHousehold applies search term and limit")
+        void testSearchPageInHousehold() {
+            // When
+            List<PantryItem> page = pantryItemRepository.searchPageInHousehold(
+                    testHousehold1.getId(), "bread", "", MIN_DATE, CursorCodec.MIN_ID, Limit.of(10));
+
+            // Then
+            assertThat(page).extracting(PantryItem::getId).containsExactly(testPantryItem2.getId());
+            assertThat(pantryItemRepository.countSearchItemsInHousehold(testHousehold1.getId(), "bread")).isEqualTo(1);
+        }
+    }
+}
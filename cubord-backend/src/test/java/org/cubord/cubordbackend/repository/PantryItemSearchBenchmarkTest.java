@@ -0,0 +1,192 @@
+package org.cubord.cubordbackend.repository;
+
+import org.cubord.cubordbackend.domain.Household;
+import org.cubord.cubordbackend.domain.Location;
+import org.cubord.cubordbackend.domain.PantryItem;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the substring (LIKE) pantry search with the pg_trgm ranked search on a seeded
+ * PostgreSQL household of 100,000 items.
+ *
+ * <p>Requires Docker and is skipped unless {@code CUBORD_BENCHMARK=true} is set, e.g.
+ * {@code CUBORD_BENCHMARK=true ./gradlew test --tests '*PantryItemSearchBenchmarkTest'}.
+ * Median timings and the query plan of the trigram search are logged per search term; only
+ * result correctness is asserted.</p>
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers
+@EnabledIfEnvironmentVariable(named = "CUBORD_BENCHMARK", matches = "true")
+@DisplayName("Pantry search benchmark")
+class PantryItemSearchBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(PantryItemSearchBenchmarkTest.class);
+
+    private static final int ITEM_COUNT = 100_000;
+    private static final int PRODUCT_COUNT = 5_000;
+    private static final int WARMUP_RUNS = 3;
+    private static final int MEASURED_RUNS = 15;
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 20);
+
+    private static final String[] ADJECTIVES = {
+            "Organic", "Whole", "Skimmed", "Smoked", "Roasted", "Spicy", "Sweet", "Salted", "Frozen", "Fresh"};
+    private static final String[] NOUNS = {
+            "Milk", "Cheddar", "Yogurt", "Butter", "Almonds", "Coffee", "Salmon", "Tomatoes", "Spinach", "Oatmeal",
+            "Chickpeas", "Tortillas", "Mozzarella", "Blueberries", "Granola", "Lentils", "Basmati Rice", "Pasta"};
+    private static final String[] BRANDS = {
+            "FreshDairy", "BakeryBest", "HealthyEats", "GreenValley", "OceanCatch", "SunnyFarms", "NorthMill"};
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private PantryItemRepository pantryItemRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private UUID householdId;
+
+    @BeforeEach
+    void seed() {
+        new ResourceDatabasePopulator(new ClassPathResource(
+                "db/vendor/postgresql/V9__Added_pantry_search_trigram_indexes.sql")).execute(dataSource);
+
+        Household household = entityManager.persistAndFlush(Household.builder().name("Benchmark").build());
+        Location location = entityManager.persistAndFlush(Location.builder()
+                .name("Warehouse")
+                .household(household)
+                .build());
+        householdId = household.getId();
+
+        Random random = new Random(42);
+        List<UUID> productIds = IntStream.range(0, PRODUCT_COUNT).mapToObj(i -> UUID.randomUUID()).toList();
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO products (id, upc, name, brand, category, data_source, requires_api_retry, retry_attempts) " +
+                "VALUES (?, ?, ?, ?, 'Groceries', 'MANUAL', false, 0)",
+                productIds, 1_000, (ps, id) -> {
+                    ps.setObject(1, id);
+                    ps.setString(2, String.format("%012d", random.nextLong(1_000_000_000_000L)));
+                    ps.setString(3, ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " "
+                            + NOUNS[random.nextInt(NOUNS.length)] + " " + (random.nextInt(900) + 100) + "g");
+                    ps.setString(4, BRANDS[random.nextInt(BRANDS.length)]);
+                });
+
+        LocalDate today = LocalDate.now();
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO pantry_items (id, product_id, location_id, expiration_date, quantity, notes, " +
+                "household_id, product_name) " +
+                "SELECT ?, ?, ?, ?, ?, ?, ?, name FROM products WHERE id = ?",
+                IntStream.range(0, ITEM_COUNT).boxed().toList(), 1_000, (ps, i) -> {
+                    UUID productId = productIds.get(random.nextInt(PRODUCT_COUNT));
+                    ps.setObject(1, UUID.randomUUID());
+                    ps.setObject(2, productId);
+                    ps.setObject(3, location.getId());
+                    ps.setObject(4, today.plusDays(random.nextInt(365)), Types.DATE);
+                    ps.setInt(5, random.nextInt(10));
+                    ps.setString(6, i % 10 == 0 ? "Bought on sale, shelf " + (i % 40) : null);
+                    ps.setObject(7, householdId);
+                    ps.setObject(8, productId);
+                });
+
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    @DisplayName("trigram search should tolerate typos and report timings against LIKE")
+    void compareLikeAndTrigramSearch() {
+        for (String term : List.of("milk", "cheddar", "chedar", "blueberies", "greenvaley", "shelf 12")) {
+            Page<PantryItem> like = pantryItemRepository.searchItemsInHousehold(householdId, term, FIRST_PAGE);
+            List<PantryItem> ranked = trigramSearch(term);
+
+            double likeMillis = medianMillis(
+                    () -> pantryItemRepository.searchItemsInHousehold(householdId, term, FIRST_PAGE));
+            double trigramMillis = medianMillis(() -> trigramSearch(term));
+
+            logger.info(String.format("%-12s LIKE %8.2f ms (%6d matches) | trigram %8.2f ms (%6d matches)",
+                    term, likeMillis, like.getTotalElements(), trigramMillis,
+                    pantryItemRepository.searchRankedIdsInHousehold(householdId, term, FIRST_PAGE).getTotalElements()));
+
+            explainTrigramSearch(term).forEach(line -> logger.info("    {}", line));
+
+            // Every substring match is also a trigram match
+            assertThat(ranked).hasSizeGreaterThanOrEqualTo(like.getContent().size());
+        }
+
+        assertThat(pantryItemRepository.searchItemsInHousehold(householdId, "chedar", FIRST_PAGE)).isEmpty();
+        assertThat(trigramSearch("chedar"))
+                .first()
+                .satisfies(item -> assertThat(item.getProduct().getName()).contains("Cheddar"));
+    }
+
+    private List<PantryItem> trigramSearch(String term) {
+        List<UUID> ids = pantryItemRepository.searchRankedIdsInHousehold(householdId, term, FIRST_PAGE).getContent();
+        Map<UUID, PantryItem> items = new HashMap<>();
+        pantryItemRepository.findWithDetailsByIdIn(ids).forEach(item -> items.put(item.getId(), item));
+        return ids.stream().map(items::get).toList();
+    }
+
+    private List<String> explainTrigramSearch(String term) {
+        return new NamedParameterJdbcTemplate(jdbcTemplate).queryForList(
+                "EXPLAIN (ANALYZE, COSTS OFF) SELECT p.id " + PantryItemRepository.TRIGRAM_SEARCH_FROM +
+                        "ORDER BY " + PantryItemRepository.TRIGRAM_RANK + " DESC, p.id ASC LIMIT 20",
+                Map.of("householdId", householdId, "searchTerm", term), String.class);
+    }
+
+    private double medianMillis(Supplier<?> search) {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            search.get();
+            entityManager.clear();
+        }
+        long[] samples = new long[MEASURED_RUNS];
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            long start = System.nanoTime();
+            search.get();
+            samples[i] = System.nanoTime() - start;
+            entityManager.clear();
+        }
+        Arrays.sort(samples);
+        return samples[MEASURED_RUNS / 2] / 1_000_000.0;
+    }
+}
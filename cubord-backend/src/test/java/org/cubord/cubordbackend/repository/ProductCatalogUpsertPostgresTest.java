@@ -0,0 +1,74 @@
+package org.cubord.cubordbackend.repository;
+
+import org.cubord.cubordbackend.repository.ProductRepositoryCustom.CatalogEntry;
+import org.cubord.cubordbackend.repository.ProductRepositoryCustom.CatalogUpsertResult;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Loads catalog entries on PostgreSQL, where they are streamed with {@code COPY} into a staging
+ * table and merged into {@code products}.
+ *
+ * <p>Requires Docker and is skipped when it is unavailable.</p>
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Product catalog upsert on PostgreSQL")
+class ProductCatalogUpsertPostgresTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("should copy, merge and forget unknown UPCs in one pass")
+    void shouldCopyAndMergeCatalogEntries() {
+        // Given
+        jdbcTemplate.update("INSERT INTO products (id, upc, gtin, name, data_source, requires_api_retry, retry_attempts) " +
+                "VALUES (?, '3017624010701', 3017624010701, 'Unknown Product', 'MANUAL', true, 2)", UUID.randomUUID());
+        jdbcTemplate.update("INSERT INTO unknown_upcs (upc, recorded_at, expires_at) VALUES ('05000112548167', ?, ?)",
+                LocalDateTime.now(), LocalDateTime.now().plusDays(7));
+
+        // When
+        CatalogUpsertResult result = productRepository.upsertCatalogEntries(List.of(
+                new CatalogEntry("3017624010701", "Nutella", "Ferrero", null, null, null),
+                new CatalogEntry("5000112548167", "Cola \"Zero\", 0.33l", null, "Beverages", null, null)));
+
+        // Then
+        assertThat(result).isEqualTo(new CatalogUpsertResult(1, 1));
+        List<Map<String, Object>> products = jdbcTemplate.queryForList(
+                "SELECT upc, name, data_source, requires_api_retry FROM products ORDER BY upc");
+        assertThat(products).extracting(row -> row.get("name"))
+                .containsExactly("Nutella", "Cola \"Zero\", 0.33l");
+        assertThat(products).extracting(row -> row.get("data_source"))
+                .containsOnly("OPEN_FOOD_FACTS");
+        assertThat(products).extracting(row -> row.get("requires_api_retry"))
+                .containsOnly(false);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM unknown_upcs", Integer.class)).isZero();
+    }
+}
@@ -2,11 +2,15 @@ package org.cubord.cubordbackend.repository;
 
 import org.cubord.cubordbackend.domain.Product;
 import org.cubord.cubordbackend.domain.ProductDataSource;
+import org.cubord.cubordbackend.domain.UnknownUpc;
+import org.cubord.cubordbackend.repository.ProductRepositoryCustom.CatalogEntry;
+import org.cubord.cubordbackend.repository.ProductRepositoryCustom.CatalogUpsertResult;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.time.LocalDateTime;
@@ -477,4 +481,188 @@ class ProductRepositoryTest {
         assertThat(productRepository.countByDataSource(ProductDataSource.OPEN_FOOD_FACTS)).isEqualTo(2);
         assertThat(productRepository.countByCategory("Food")).isEqualTo(2);
     }
+
+    @Test
+    @DisplayName("Should find products due for enrichment, oldest due first, up to the limit")
+    void shouldFindProductsDueForEnrichment() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        Product neverTried = retryProduct("100000000001", 0, null);
+        Product backoffOver = retryProduct("100000000002", 1, now.minusMinutes(5));
+        Product backoffOverLongAgo = retryProduct("100000000003", 2, now.minusHours(1));
+        retryProduct("100000000004", 1, now.plusMinutes(5));
+        retryProduct("100000000005", 5, null);
+        Product enriched = retryProduct("100000000006", 0, null);
+        enriched.setRequiresApiRetry(false);
+        entityManager.persistAndFlush(enriched);
+
+        // When
+        List<Product> due = productRepository.findDueForEnrichmentForUpdate(5, now, Limit.of(10));
+        List<Product> limited = productRepository.findDueForEnrichmentForUpdate(5, now, Limit.of(2));
+
+        // Then
+        assertThat(due).extracting(Product::getUpc)
+                .containsExactly(neverTried.getUpc(), backoffOverLongAgo.getUpc(), backoffOver.getUpc());
+        assertThat(limited).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("Should upsert catalog entries by GTIN and forget them as unknown")
+    void shouldUpsertCatalogEntries() {
+        // Given
+        Product existing = retryProduct("100000000007", 2, null);
+        entityManager.persistAndFlush(UnknownUpc.builder()
+                .upc("00100000000014")
+                .recordedAt(LocalDateTime.now())
+                .expiresAt(LocalDateTime.now().plusDays(7))
+                .build());
+        entityManager.clear();
+
+        // When
+        CatalogUpsertResult result = productRepository.upsertCatalogEntries(List.of(
+                new CatalogEntry("100000000007", null, "Ferrero", "Spreads", null, null),
+                new CatalogEntry("100000000014", "Cola", null, "Beverages", "https://images.example/cola.jpg", null)));
+
+        // Then
+        assertThat(result).isEqualTo(new CatalogUpsertResult(1, 1));
+        Product updated = productRepository.findById(existing.getId()).orElseThrow();
+        assertThat(updated.getName()).isEqualTo("Unknown Product");
+        assertThat(updated.getBrand()).isEqualTo("Ferrero");
+        assertThat(updated.getCategory()).isEqualTo("Spreads");
+        assertThat(updated.getDataSource()).isEqualTo(ProductDataSource.OPEN_FOOD_FACTS);
+        assertThat(updated.getRequiresApiRetry()).isFalse();
+
+        Product inserted = productRepository.findByUpc("100000000014").orElseThrow();
+        assertThat(inserted.getName()).isEqualTo("Cola");
+        assertThat(inserted.getCategory()).isEqualTo("Beverages");
+        assertThat(inserted.getImageUrl()).isEqualTo("https://images.example/cola.jpg");
+        assertThat(inserted.getDataSource()).isEqualTo(ProductDataSource.OPEN_FOOD_FACTS);
+        assertThat(inserted.getRetryAttempts()).isZero();
+        assertThat(inserted.getCreatedAt()).isNotNull();
+        assertThat(entityManager.find(UnknownUpc.class, "00100000000014")).isNull();
+    }
+
+    @Test
+    @DisplayName("Should only fill missing fields of manual and hybrid products from catalog entries")
+    void shouldOnlyFillMissingFieldsOfUserProducts() {
+        // Given
+        Product manual = entityManager.persistAndFlush(Product.builder()
+                .upc("100000000045")
+                .name("Grandma's Jam")
+                .brand("Homemade")
+                .dataSource(ProductDataSource.MANUAL)
+                .requiresApiRetry(false)
+                .build());
+        Product hybrid = entityManager.persistAndFlush(Product.builder()
+                .upc("100000000052")
+                .name("Oat Milk (barista)")
+                .imageUrl("https://images.example/own.jpg")
+                .dataSource(ProductDataSource.HYBRID)
+                .requiresApiRetry(false)
+                .build());
+        entityManager.clear();
+
+        // When
+        CatalogUpsertResult result = productRepository.upsertCatalogEntries(List.of(
+                new CatalogEntry("100000000045", "Strawberry Jam", "Catalog Brand", "Spreads", null, null),
+                new CatalogEntry("100000000052", "Oat Milk", "Oatly", null, "https://images.example/oat.jpg", null)));
+
+        // Then
+        assertThat(result).isEqualTo(new CatalogUpsertResult(0, 2));
+        Product updatedManual = productRepository.findById(manual.getId()).orElseThrow();
+        assertThat(updatedManual.getName()).isEqualTo("Grandma's Jam");
+        assertThat(updatedManual.getBrand()).isEqualTo("Homemade");
+        assertThat(updatedManual.getCategory()).isEqualTo("Spreads");
+        assertThat(updatedManual.getDataSource()).isEqualTo(ProductDataSource.MANUAL);
+        Product updatedHybrid = productRepository.findById(hybrid.getId()).orElseThrow();
+        assertThat(updatedHybrid.getName()).isEqualTo("Oat Milk (barista)");
+        assertThat(updatedHybrid.getBrand()).isEqualTo("Oatly");
+        assertThat(updatedHybrid.getImageUrl()).isEqualTo("https://images.example/own.jpg");
+        assertThat(updatedHybrid.getDataSource()).isEqualTo(ProductDataSource.HYBRID);
+    }
+
+    @Test
+    @DisplayName("Should batch insert products with their IDs and forget them as unknown")
+    void shouldBatchInsertProducts() {
+        // Given
+        entityManager.persistAndFlush(UnknownUpc.builder()
+                .upc("00100000000021")
+                .recordedAt(LocalDateTime.now())
+                .expiresAt(LocalDateTime.now().plusDays(7))
+                .build());
+        LocalDateTime now = LocalDateTime.now();
+        Product manual = Product.builder()
+                .id(UUID.randomUUID())
+                .upc("100000000021")
+                .name("Mystery")
+                .defaultExpirationDays(7)
+                .dataSource(ProductDataSource.MANUAL)
+                .requiresApiRetry(true)
+                .retryAttempts(0)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+        Product enriched = manual.toBuilder()
+                .id(UUID.randomUUID())
+                .upc("100000000038")
+                .name("Nutella")
+                .brand("Ferrero")
+                .defaultExpirationDays(null)
+                .dataSource(ProductDataSource.OPEN_FOOD_FACTS)
+                .requiresApiRetry(false)
+                .build();
+
+        // When
+        productRepository.batchInsert(List.of(manual, enriched));
+        entityManager.clear();
+
+        // Then
+        Product insertedManual = productRepository.findById(manual.getId()).orElseThrow();
+        assertThat(insertedManual.getUpc()).isEqualTo("100000000021");
+        assertThat(insertedManual.getGtin()).isEqualTo(100000000021L);
+        assertThat(insertedManual.getDefaultExpirationDays()).isEqualTo(7);
+        assertThat(insertedManual.getRequiresApiRetry()).isTrue();
+        Product insertedEnriched = productRepository.findById(enriched.getId()).orElseThrow();
+        assertThat(insertedEnriched.getBrand()).isEqualTo("Ferrero");
+        assertThat(insertedEnriched.getDataSource()).isEqualTo(ProductDataSource.OPEN_FOOD_FACTS);
+        assertThat(entityManager.find(UnknownUpc.class, "00100000000021")).isNull();
+    }
+
+    @Test
+    @DisplayName("Should find products by any barcode form of their GTIN")
+    void shouldFindProductsByAnyBarcodeForm() {
+        // Given
+        Product upcA = entityManager.persistAndFlush(Product.builder()
+                .upc("012345678905")
+                .name("UPC-A Product")
+                .dataSource(ProductDataSource.MANUAL)
+                .build());
+        Product legacy = entityManager.persistAndFlush(Product.builder()
+                .upc("012345678906")
+                .name("Legacy Product")
+                .dataSource(ProductDataSource.MANUAL)
+                .build());
+        entityManager.clear();
+
+        // When / Then
+        assertThat(upcA.getGtin()).isEqualTo(12345678905L);
+        assertThat(legacy.getGtin()).isNull();
+        assertThat(productRepository.findByCode("0012345678905")).map(Product::getId).contains(upcA.getId());
+        assertThat(productRepository.findByCode("00012345678905")).map(Product::getId).contains(upcA.getId());
+        assertThat(productRepository.findByCode("012345678906")).map(Product::getId).contains(legacy.getId());
+        assertThat(productRepository.findByCodeIn(List.of("0012345678905", "012345678906", "4006381333931")))
+                .extracting(Product::getId)
+                .containsExactlyInAnyOrder(upcA.getId(), legacy.getId());
+    }
+
+    private Product retryProduct(String upc, int retryAttempts, LocalDateTime nextRetryAt) {
+        return entityManager.persistAndFlush(Product.builder()
+                .upc(upc)
+                .name("Unknown Product")
+                .dataSource(ProductDataSource.MANUAL)
+                .requiresApiRetry(true)
+                .retryAttempts(retryAttempts)
+                .nextRetryAt(nextRetryAt)
+                .build());
+    }
 }
\ No newline at end of file
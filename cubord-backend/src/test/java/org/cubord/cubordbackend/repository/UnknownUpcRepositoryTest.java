@@ -0,0 +1,73 @@
+package org.cubord.cubordbackend.repository;
+
+import org.cubord.cubordbackend.domain.UnknownUpc;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class UnknownUpcRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private UnknownUpcRepository unknownUpcRepository;
+
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        now = LocalDateTime.now();
+        entityManager.persist(unknownUpc("000000000001", now.plusDays(1)));
+        entityManager.persist(unknownUpc("000000000002", now.minusDays(1)));
+        entityManager.flush();
+    }
+
+    private UnknownUpc unknownUpc(String upc, LocalDateTime expiresAt) {
+        return UnknownUpc.builder()
+                .upc(upc)
+                .recordedAt(expiresAt.minusDays(7))
+                .expiresAt(expiresAt)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should only report unexpired UPCs as active")
+    void shouldOnlyReportUnexpiredUpcsAsActive() {
+        // When/Then
+        assertThat(unknownUpcRepository.existsByUpcAndExpiresAtAfter("000000000001", now)).isTrue();
+        assertThat(unknownUpcRepository.existsByUpcAndExpiresAtAfter("000000000002", now)).isFalse();
+        assertThat(unknownUpcRepository.findActiveUpcs(now)).containsExactly("000000000001");
+    }
+
+    @Test
+    @DisplayName("Should delete expired UPCs")
+    void shouldDeleteExpiredUpcs() {
+        // When
+        int deleted = unknownUpcRepository.deleteExpired(now);
+
+        // Then
+        assertThat(deleted).isEqualTo(1);
+        assertThat(unknownUpcRepository.findAll())
+                .extracting(UnknownUpc::getUpc)
+                .containsExactly("000000000001");
+    }
+
+    @Test
+    @DisplayName("Should delete a single UPC and report whether it existed")
+    void shouldDeleteSingleUpc() {
+        // When/Then
+        assertThat(unknownUpcRepository.deleteByUpc("000000000001")).isEqualTo(1);
+        assertThat(unknownUpcRepository.deleteByUpc("000000000001")).isZero();
+    }
+}
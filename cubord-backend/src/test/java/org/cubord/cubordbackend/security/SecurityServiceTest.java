@@ -7,6 +7,9 @@ import org.cubord.cubordbackend.domain.HouseholdRole;
 import org.cubord.cubordbackend.domain.User;
 import org.cubord.cubordbackend.exception.AuthenticationRequiredException;
 import org.cubord.cubordbackend.repository.HouseholdMemberRepository;
+import org.cubord.cubordbackend.repository.LocationRepository;
+import org.cubord.cubordbackend.repository.PantryItemRepository;
+import org.cubord.cubordbackend.repository.PantryItemRepositoryCustom;
 import org.cubord.cubordbackend.repository.UserRepository;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -17,8 +20,10 @@ import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.*;
@@ -38,6 +43,12 @@ class SecurityServiceTest {
     @Mock
     private SecurityContextProvider securityContextProvider;
 
+    @Mock
+    private LocationRepository locationRepository;
+
+    @Mock
+    private PantryItemRepository pantryItemRepository;
+
     @InjectMocks
     private SecurityService securityService;
 
@@ -736,4 +747,130 @@ class SecurityServiceTest {
             assertThat(result).isEmpty();
         }
     }
+
+    @Nested
+    @DisplayName("canAccessLocationsForPantryItems")
+    class CanAccessLocationsForPantryItemsTests {
+
+        @Test
+        @DisplayName("returns true when user can access every distinct location")
+        void whenAllAccessible_returnsTrue() {
+            // Given
+            UUID locationId1 = UUID.randomUUID();
+            UUID locationId2 = UUID.randomUUID();
+            mockAuthenticatedUser(testUserId);
+            when(locationRepository.countByIdInAndHouseholdMembers_UserId(Set.of(locationId1, locationId2), testUserId))
+                    .thenReturn(2L);
+
+            // When
+            boolean result = securityService.canAccessLocationsForPantryItems(
+                    List.of(locationId1, locationId2, locationId1));
+
+            // Then
+            assertThat(result).isTrue();
+            verify(locationRepository, times(1)).countByIdInAndHouseholdMembers_UserId(any(), any());
+        }
+
+        @Test
+        @DisplayName("returns false when any location is not accessible")
+        void whenSomeInaccessible_returnsFalse() {
+            // Given
+            UUID locationId1 = UUID.randomUUID();
+            UUID locationId2 = UUID.randomUUID();
+            mockAuthenticatedUser(testUserId);
+            when(locationRepository.countByIdInAndHouseholdMembers_UserId(Set.of(locationId1, locationId2), testUserId))
+                    .thenReturn(1L);
+
+            // When
+            boolean result = securityService.canAccessLocationsForPantryItems(List.of(locationId1, locationId2));
+
+            // Then
+            assertThat(result).isFalse();
+        }
+
+        @Test
+        @DisplayName("returns false when list is empty or contains null")
+        void whenEmptyOrNullEntries_returnsFalse() {
+            // When/Then
+            assertThat(securityService.canAccessLocationsForPantryItems(null)).isFalse();
+            assertThat(securityService.canAccessLocationsForPantryItems(List.of())).isFalse();
+            assertThat(securityService.canAccessLocationsForPantryItems(Arrays.asList(UUID.randomUUID(), null))).isFalse();
+            verifyNoInteractions(locationRepository);
+        }
+
+        @Test
+        @DisplayName("returns false when not authenticated")
+        void whenNotAuthenticated_returnsFalse() {
+            // Given
+            mockUnauthenticated();
+
+            // When
+            boolean result = securityService.canAccessLocationsForPantryItems(List.of(UUID.randomUUID()));
+
+            // Then
+            assertThat(result).isFalse();
+            verifyNoInteractions(locationRepository);
+        }
+    }
+
+    @Nested
+    @DisplayName("canMovePantryItems")
+    class CanMovePantryItemsTests {
+
+        @Test
+        @DisplayName("checks the target, the source, and the current location of every listed item at once")
+        void whenAllAccessible_returnsTrue() {
+            // Given
+            UUID targetLocationId = UUID.randomUUID();
+            UUID sourceLocationId = UUID.randomUUID();
+            UUID itemLocationId = UUID.randomUUID();
+            UUID itemId = UUID.randomUUID();
+            mockAuthenticatedUser(testUserId);
+            when(pantryItemRepository.findPlacements(List.of(itemId))).thenReturn(List.of(
+                    new PantryItemRepositoryCustom.ItemPlacement(itemId, itemLocationId, UUID.randomUUID(), 1, null, null)));
+            when(locationRepository.countByIdInAndHouseholdMembers_UserId(
+                    Set.of(targetLocationId, sourceLocationId, itemLocationId), testUserId)).thenReturn(3L);
+
+            // When
+            boolean result = securityService.canMovePantryItems(targetLocationId, List.of(itemId), sourceLocationId);
+
+            // Then
+            assertThat(result).isTrue();
+            verify(locationRepository, times(1)).countByIdInAndHouseholdMembers_UserId(any(), any());
+        }
+
+        @Test
+        @DisplayName("returns false when a listed item is in an inaccessible location, whatever other items are missing")
+        void whenItemInaccessible_returnsFalse() {
+            // Given
+            UUID targetLocationId = UUID.randomUUID();
+            UUID foreignLocationId = UUID.randomUUID();
+            UUID foreignItemId = UUID.randomUUID();
+            UUID missingId = UUID.randomUUID();
+            mockAuthenticatedUser(testUserId);
+            when(pantryItemRepository.findPlacements(List.of(foreignItemId, missingId))).thenReturn(List.of(
+                    new PantryItemRepositoryCustom.ItemPlacement(
+                            foreignItemId, foreignLocationId, UUID.randomUUID(), 1, null, null)));
+            when(locationRepository.countByIdInAndHouseholdMembers_UserId(
+                    Set.of(targetLocationId, foreignLocationId), testUserId)).thenReturn(1L);
+
+            // When
+            boolean result = securityService.canMovePantryItems(
+                    targetLocationId, List.of(foreignItemId, missingId), null);
+
+            // Then
+            assertThat(result).isFalse();
+        }
+
+        @Test
+        @DisplayName("returns false when target location is null")
+        void whenTargetNull_returnsFalse() {
+            // When
+            boolean result = securityService.canMovePantryItems(null, List.of(UUID.randomUUID()), null);
+
+            // Then
+            assertThat(result).isFalse();
+            verifyNoInteractions(pantryItemRepository, locationRepository);
+        }
+    }
 }
@@ -0,0 +1,194 @@
+package org.cubord.cubordbackend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.cubord.cubordbackend.dto.product.ProductResponse;
+import org.cubord.cubordbackend.exception.ExternalServiceException;
+import org.cubord.cubordbackend.exception.NotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@DisplayName("HedgedProductLookup Tests")
+class HedgedProductLookupTest {
+
+    private static final String UPC = "3017624010701";
+
+    private SimpleMeterRegistry meterRegistry;
+    private HedgedProductLookup hedgedLookup;
+    private ProductDataProvider primary;
+    private ProductDataProvider mirror;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        hedgedLookup = new HedgedProductLookup(meterRegistry);
+        ReflectionTestUtils.setField(hedgedLookup, "hedgingEnabled", true);
+        ReflectionTestUtils.setField(hedgedLookup, "hedgePercentile", 0.95);
+        ReflectionTestUtils.setField(hedgedLookup, "initialHedgeDelay", Duration.ofMillis(50));
+        ReflectionTestUtils.setField(hedgedLookup, "minHedgeDelay", Duration.ZERO);
+        ReflectionTestUtils.setField(hedgedLookup, "latencyWindowSize", 20);
+        ReflectionTestUtils.setField(hedgedLookup, "minimumSamples", 5);
+        hedgedLookup.validateConfiguration();
+
+        primary = provider("primary");
+        mirror = provider("mirror");
+    }
+
+    private static ProductDataProvider provider(String name) {
+        ProductDataProvider provider = mock(ProductDataProvider.class);
+        when(provider.getName()).thenReturn(name);
+        return provider;
+    }
+
+    private static ProductResponse product(String name) {
+        return ProductResponse.builder().upc(UPC).name(name).build();
+    }
+
+    private double requests(String provider, String reason) {
+        return meterRegistry.get("cubord.product.provider.requests")
+                .tag("provider", provider).tag("reason", reason).counter().count();
+    }
+
+    private double winRate(String provider) {
+        return meterRegistry.get("cubord.product.provider.win-rate").tag("provider", provider).gauge().value();
+    }
+
+    @Nested
+    @DisplayName("hedging")
+    class HedgingTests {
+
+        @Test
+        @DisplayName("should not ask the next provider when the first answers in time")
+        void shouldUseFirstProviderWhenFast() {
+            // Given
+            when(primary.fetch(UPC)).thenReturn(CompletableFuture.completedFuture(product("Nutella")));
+
+            // When
+            ProductResponse response = hedgedLookup.fetch(List.of(primary, mirror), UPC).join();
+
+            // Then
+            assertThat(response.getName()).isEqualTo("Nutella");
+            verify(mirror, never()).fetch(anyString());
+            assertThat(winRate("primary")).isEqualTo(1.0);
+        }
+
+        @Test
+        @DisplayName("should ask the next provider once the first outlasts its hedge delay and take the first answer")
+        void shouldHedgeSlowProvider() throws Exception {
+            // Given
+            CompletableFuture<ProductResponse> slow = new CompletableFuture<>();
+            when(primary.fetch(UPC)).thenReturn(slow);
+            when(mirror.fetch(UPC)).thenReturn(CompletableFuture.completedFuture(product("Mirrored Nutella")));
+
+            // When
+            CompletableFuture<ProductResponse> result = hedgedLookup.fetch(List.of(primary, mirror), UPC);
+
+            // Then
+            assertThat(result.get(5, TimeUnit.SECONDS).getName()).isEqualTo("Mirrored Nutella");
+            assertThat(requests("mirror", "hedge")).isEqualTo(1);
+            assertThat(winRate("mirror")).isEqualTo(1.0);
+
+            // When the losing request answers late
+            slow.complete(product("Nutella"));
+
+            // Then it is timed but does not win
+            assertThat(result.join().getName()).isEqualTo("Mirrored Nutella");
+            assertThat(winRate("primary")).isZero();
+            assertThat(meterRegistry.get("cubord.product.provider.latency")
+                    .tag("provider", "primary").tag("outcome", "found").timer().count()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("should only fail over when hedging is disabled")
+        void shouldNotHedgeWhenDisabled() {
+            // Given
+            ReflectionTestUtils.setField(hedgedLookup, "hedgingEnabled", false);
+            CompletableFuture<ProductResponse> slow = new CompletableFuture<>();
+            when(primary.fetch(UPC)).thenReturn(slow);
+
+            // When
+            CompletableFuture<ProductResponse> result = hedgedLookup.fetch(List.of(primary, mirror), UPC);
+
+            // Then
+            verify(mirror, after(200).never()).fetch(anyString());
+            slow.complete(product("Nutella"));
+            assertThat(result.join().getName()).isEqualTo("Nutella");
+        }
+
+        @Test
+        @DisplayName("should hedge at the percentile of recent answer times once enough are recorded")
+        void shouldFollowAnswerTimePercentile() {
+            // Given
+            when(primary.fetch(UPC)).thenAnswer(inv -> CompletableFuture.completedFuture(product("Nutella")));
+
+            // When
+            for (int i = 0; i < 5; i++) {
+                hedgedLookup.fetch(List.of(primary, mirror), UPC).join();
+            }
+
+            // Then
+            assertThat(hedgedLookup.hedgeDelay(primary)).isLessThan(Duration.ofMillis(50));
+            assertThat(hedgedLookup.hedgeDelay(mirror)).isEqualTo(Duration.ofMillis(50));
+        }
+    }
+
+    @Nested
+    @DisplayName("failover")
+    class FailoverTests {
+
+        @Test
+        @DisplayName("should ask the next provider at once when one fails")
+        void shouldFailOverImmediately() {
+            // Given
+            ReflectionTestUtils.setField(hedgedLookup, "initialHedgeDelay", Duration.ofMinutes(1));
+            when(primary.fetch(UPC)).thenThrow(new ExternalServiceException("Open Food Facts API", "HTTP 503"));
+            when(mirror.fetch(UPC)).thenReturn(CompletableFuture.completedFuture(product("Mirrored Nutella")));
+
+            // When
+            ProductResponse response = hedgedLookup.fetch(List.of(primary, mirror), UPC).join();
+
+            // Then
+            assertThat(response.getName()).isEqualTo("Mirrored Nutella");
+            assertThat(requests("mirror", "failover")).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("should report not found only when every provider does not know the UPC")
+        void shouldReportNotFoundWhenNoProviderKnowsUpc() {
+            // Given
+            when(primary.fetch(UPC)).thenReturn(CompletableFuture.failedFuture(new NotFoundException("unknown")));
+            when(mirror.fetch(UPC)).thenReturn(CompletableFuture.failedFuture(new NotFoundException("unknown")));
+
+            // When / Then
+            assertThatThrownBy(() -> hedgedLookup.fetch(List.of(primary, mirror), UPC).get())
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(NotFoundException.class);
+        }
+
+        @Test
+        @DisplayName("should prefer another failure over not found so the UPC is not recorded as unknown")
+        void shouldPreferFailureOverNotFound() {
+            // Given
+            when(primary.fetch(UPC)).thenReturn(CompletableFuture.failedFuture(
+                    new ExternalServiceException("Open Food Facts API", "Request timed out")));
+            when(mirror.fetch(UPC)).thenReturn(CompletableFuture.failedFuture(new NotFoundException("unknown")));
+
+            // When / Then
+            assertThatThrownBy(() -> hedgedLookup.fetch(List.of(primary, mirror), UPC).get())
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(ExternalServiceException.class);
+        }
+    }
+}
@@ -6,12 +6,14 @@ import org.cubord.cubordbackend.dto.householdInvitation.HouseholdInvitationReque
 import org.cubord.cubordbackend.dto.householdInvitation.HouseholdInvitationResponse;
 import org.cubord.cubordbackend.dto.householdInvitation.HouseholdInvitationUpdateRequest;
 import org.cubord.cubordbackend.dto.householdInvitation.ResendInvitationRequest;
+import org.cubord.cubordbackend.dto.pagination.CursorPageResponse;
 import org.cubord.cubordbackend.exception.*;
 import org.cubord.cubordbackend.repository.HouseholdInvitationRepository;
 import org.cubord.cubordbackend.repository.HouseholdMemberRepository;
 import org.cubord.cubordbackend.repository.HouseholdRepository;
 import org.cubord.cubordbackend.repository.UserRepository;
 import org.cubord.cubordbackend.security.SecurityService;
+import org.cubord.cubordbackend.util.CursorCodec;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -20,6 +22,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -503,6 +506,52 @@ class HouseholdInvitationServiceTest {
 
             verify(householdInvitationRepository, never()).findByHouseholdId(any());
         }
+
+        @Test
+        @DisplayName("should return a keyset page with a cursor pointing after the last invitation")
+        void shouldReturnKeysetPage() {
+            // Given
+            HouseholdInvitation older = HouseholdInvitation.builder()
+                    .id(UUID.randomUUID())
+                    .household(testHousehold)
+                    .invitedEmail("older@example.com")
+                    .invitedBy(currentUser)
+                    .proposedRole(HouseholdRole.MEMBER)
+                    .status(InvitationStatus.PENDING)
+                    .createdAt(testInvitation.getCreatedAt().minusDays(1))
+                    .build();
+            stubCurrentUserId(currentUserId);
+            when(householdInvitationRepository.findPageByHouseholdId(eq(householdId), any(LocalDateTime.class),
+                    eq(CursorCodec.MIN_ID), eq(Limit.of(2))))
+                    .thenReturn(List.of(older, testInvitation));
+
+            // When
+            CursorPageResponse<HouseholdInvitationResponse> page = householdInvitationService
+                    .getHouseholdInvitations(householdId, null, 1, false);
+
+            // Then
+            assertThat(page.getContent()).extracting(HouseholdInvitationResponse::getId)
+                    .containsExactly(older.getId());
+            assertThat(page.isHasNext()).isTrue();
+            assertThat(CursorCodec.decode(page.getNextCursor(), 2))
+                    .containsExactly(older.getCreatedAt().toString(), older.getId().toString());
+            verify(householdInvitationRepository, never()).countByHouseholdId(any());
+        }
+
+        @Test
+        @DisplayName("should throw ValidationException for a malformed cursor")
+        void shouldRejectMalformedCursor() {
+            // Given
+            stubCurrentUserId(currentUserId);
+
+            // When/Then
+            assertThatThrownBy(() -> householdInvitationService
+                    .getHouseholdInvitations(householdId, CursorCodec.encode("yesterday", "x"), 10, false))
+                    .isInstanceOf(ValidationException.class)
+                    .hasMessageContaining("Invalid pagination cursor");
+
+            verify(householdInvitationRepository, never()).findPageByHouseholdId(any(), any(), any(), any());
+        }
     }
 
     @Nested
@@ -45,6 +45,9 @@ class HouseholdServiceTest {
     @Mock
     private SecurityService securityService;
 
+    @Mock
+    private InventoryStatsService inventoryStatsService;
+
     @InjectMocks
     private HouseholdService householdService;
 
@@ -169,6 +172,7 @@ class HouseholdServiceTest {
                     member.getRole() == HouseholdRole.OWNER &&
                             member.getUser().getId().equals(testUserId)
             ));
+            verify(inventoryStatsService).initialize(householdId);
         }
 
         @Test
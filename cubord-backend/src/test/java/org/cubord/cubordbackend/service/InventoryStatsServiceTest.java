@@ -0,0 +1,247 @@
+package org.cubord.cubordbackend.service;
+
+import org.cubord.cubordbackend.domain.*;
+import org.cubord.cubordbackend.repository.HouseholdInventoryStatsRepository;
+import org.cubord.cubordbackend.repository.HouseholdProductCountRepository;
+import org.cubord.cubordbackend.service.InventoryStatsService.ItemFootprint;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies that incrementally maintained household counters match a recomputation from the
+ * pantry items, and that reconciliation corrects drift.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(InventoryStatsService.class)
+@DisplayName("InventoryStatsService Tests")
+class InventoryStatsServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private InventoryStatsService inventoryStatsService;
+
+    @Autowired
+    private HouseholdInventoryStatsRepository statsRepository;
+
+    @Autowired
+    private HouseholdProductCountRepository productCountRepository;
+
+    private Household household;
+    private Location location;
+    private Product milk;
+    private Product bread;
+
+    @BeforeEach
+    void setUp() {
+        household = entityManager.persistAndFlush(Household.builder().name("Stats Household").build());
+        location = entityManager.persistAndFlush(Location.builder()
+                .name("Pantry")
+                .household(household)
+                .build());
+        milk = entityManager.persistAndFlush(product("111111111111", "Milk"));
+        bread = entityManager.persistAndFlush(product("222222222222", "Bread"));
+    }
+
+    @Nested
+    @DisplayName("recordChange")
+    class RecordChangeTests {
+
+        @Test
+        @DisplayName("should keep counters in step with created, updated, and deleted items")
+        void whenItemsChange_countersMatchItems() {
+            // Given
+            inventoryStatsService.initialize(household.getId());
+
+            // When
+            addItem(milk, 2, null);
+            PantryItem second = addItem(milk, 0, LocalDate.now().plusDays(3));
+            PantryItem third = addItem(bread, 1, LocalDate.now().plusDays(5));
+
+            ItemFootprint before = ItemFootprint.of(second);
+            second.setQuantity(4);
+            inventoryStatsService.recordChange(before, ItemFootprint.of(second));
+
+            inventoryStatsService.recordChange(ItemFootprint.of(third), null);
+            entityManager.remove(third);
+            entityManager.flush();
+
+            // Then
+            HouseholdInventoryStats stats = statsRepository.findById(household.getId()).orElseThrow();
+            assertThat(stats.getTotalItems()).isEqualTo(2);
+            assertThat(stats.getDistinctProducts()).isEqualTo(1);
+            assertThat(stats.getZeroQuantityItems()).isZero();
+            assertThat(stats.getNoExpirationItems()).isEqualTo(1);
+            assertThat(productCountRepository.findByHouseholdId(household.getId()))
+                    .singleElement()
+                    .satisfies(count -> {
+                        assertThat(count.getProductId()).isEqualTo(milk.getId());
+                        assertThat(count.getItemCount()).isEqualTo(2);
+                    });
+        }
+
+        @Test
+        @DisplayName("should skip households whose footprints cancel out")
+        void whenChangeDoesNotAffectCounters_leavesCountersUntouched() {
+            // Given
+            inventoryStatsService.initialize(household.getId());
+            PantryItem item = addItem(milk, 2, null);
+            ItemFootprint footprint = ItemFootprint.of(item);
+
+            // When
+            inventoryStatsService.recordChange(footprint, footprint);
+
+            // Then
+            HouseholdInventoryStats stats = statsRepository.findById(household.getId()).orElseThrow();
+            assertThat(stats.getTotalItems()).isEqualTo(1);
+            assertThat(stats.getDistinctProducts()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("should build counters from the items when the household has none")
+        void whenCountersMissing_rebuildsFromItems() {
+            // Given
+            entityManager.persistAndFlush(item(milk, 0, null));
+
+            // When
+            PantryItem added = entityManager.persistAndFlush(item(bread, 3, LocalDate.now()));
+            inventoryStatsService.recordChange(null, ItemFootprint.of(added));
+
+            // Then
+            HouseholdInventoryStats stats = statsRepository.findById(household.getId()).orElseThrow();
+            assertThat(stats.getTotalItems()).isEqualTo(2);
+            assertThat(stats.getDistinctProducts()).isEqualTo(2);
+            assertThat(stats.getZeroQuantityItems()).isEqualTo(1);
+            assertThat(stats.getNoExpirationItems()).isEqualTo(1);
+        }
+    }
+
+    @Nested
+    @DisplayName("first use")
+    class FirstUseTests {
+
+        @Test
+        @DisplayName("should insert missing counters only once")
+        void whenInsertedTwice_onlyFirstInsertCreatesCounters() {
+            // When
+            boolean first = statsRepository.insertIfAbsent(household.getId());
+            boolean second = statsRepository.insertIfAbsent(household.getId());
+
+            // Then
+            assertThat(first).isTrue();
+            assertThat(second).isFalse();
+            assertThat(statsRepository.findById(household.getId())).isPresent();
+        }
+
+        @Test
+        @DisplayName("should apply the delta when another change created the counters first")
+        void whenCountersCreatedConcurrently_appliesDeltaInsteadOfRebuilding() {
+            // Given counters built by a concurrent first change that did not see this item yet
+            statsRepository.insertIfAbsent(household.getId());
+            PantryItem added = entityManager.persistAndFlush(item(milk, 1, null));
+
+            // When
+            inventoryStatsService.recordChange(null, ItemFootprint.of(added));
+            entityManager.flush();
+            entityManager.clear();
+
+            // Then
+            HouseholdInventoryStats stats = statsRepository.findById(household.getId()).orElseThrow();
+            assertThat(stats.getTotalItems()).isEqualTo(1);
+            assertThat(stats.getDistinctProducts()).isEqualTo(1);
+            assertThat(stats.getNoExpirationItems()).isEqualTo(1);
+        }
+    }
+
+    @Nested
+    @DisplayName("reconcile")
+    class ReconcileTests {
+
+        @Test
+        @DisplayName("should correct drifted counters and product counts")
+        void whenCountersDrifted_recomputesFromItems() {
+            // Given
+            entityManager.persistAndFlush(item(milk, 1, null));
+            entityManager.persistAndFlush(item(milk, 2, LocalDate.now()));
+            statsRepository.save(HouseholdInventoryStats.builder()
+                    .householdId(household.getId())
+                    .totalItems(9)
+                    .distinctProducts(3)
+                    .build());
+            productCountRepository.save(HouseholdProductCount.builder()
+                    .householdId(household.getId())
+                    .productId(bread.getId())
+                    .itemCount(4)
+                    .build());
+            entityManager.flush();
+
+            // When
+            boolean drifted = inventoryStatsService.reconcile(household.getId());
+            entityManager.flush();
+
+            // Then
+            assertThat(drifted).isTrue();
+            HouseholdInventoryStats stats = statsRepository.findById(household.getId()).orElseThrow();
+            assertThat(stats.getTotalItems()).isEqualTo(2);
+            assertThat(stats.getDistinctProducts()).isEqualTo(1);
+            assertThat(stats.getNoExpirationItems()).isEqualTo(1);
+            List<HouseholdProductCount> counts = productCountRepository.findByHouseholdId(household.getId());
+            assertThat(counts).extracting(HouseholdProductCount::getProductId).containsExactly(milk.getId());
+            assertThat(counts).extracting(HouseholdProductCount::getItemCount).containsExactly(2L);
+        }
+
+        @Test
+        @DisplayName("should report no drift when counters are accurate")
+        void whenCountersAccurate_reportsNoDrift() {
+            // Given
+            inventoryStatsService.initialize(household.getId());
+            addItem(milk, 1, null);
+            addItem(bread, 0, LocalDate.now());
+
+            // When
+            boolean drifted = inventoryStatsService.reconcile(household.getId());
+
+            // Then
+            assertThat(drifted).isFalse();
+        }
+    }
+
+    private PantryItem addItem(Product product, int quantity, LocalDate expirationDate) {
+        PantryItem saved = entityManager.persistAndFlush(item(product, quantity, expirationDate));
+        inventoryStatsService.recordChange(null, ItemFootprint.of(saved));
+        return saved;
+    }
+
+    private PantryItem item(Product product, int quantity, LocalDate expirationDate) {
+        return PantryItem.builder()
+                .product(product)
+                .location(location)
+                .quantity(quantity)
+                .expirationDate(expirationDate)
+                .build();
+    }
+
+    private static Product product(String upc, String name) {
+        return Product.builder()
+                .upc(upc)
+                .name(name)
+                .dataSource(ProductDataSource.MANUAL)
+                .requiresApiRetry(false)
+                .retryAttempts(0)
+                .build();
+    }
+}
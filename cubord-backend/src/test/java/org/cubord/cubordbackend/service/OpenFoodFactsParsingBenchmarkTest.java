@@ -0,0 +1,195 @@
+package org.cubord.cubordbackend.service;
+
+import org.cubord.cubordbackend.dto.product.ProductResponse;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the previous buffer-and-scan parsing of Open Food Facts responses with the streaming
+ * {@link OpenFoodFactsProductParser}, on a full product document and on a {@code fields}-limited
+ * one.
+ *
+ * <p>The full document mirrors the shape and size of a typical product page (nutriments,
+ * ingredients, images, per-language fields, roughly 100 KB). Skipped unless
+ * {@code CUBORD_BENCHMARK=true} is set, e.g.
+ * {@code CUBORD_BENCHMARK=true ./gradlew test --tests '*OpenFoodFactsParsingBenchmarkTest'}.
+ * CPU time and allocated bytes per parse are logged; only the allocation reduction is asserted.</p>
+ */
+@EnabledIfEnvironmentVariable(named = "CUBORD_BENCHMARK", matches = "true")
+@DisplayName("Open Food Facts parsing benchmark")
+class OpenFoodFactsParsingBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(OpenFoodFactsParsingBenchmarkTest.class);
+
+    private static final String UPC = "3017624010701";
+    private static final int WARMUP_RUNS = 2_000;
+    private static final int MEASURED_RUNS = 2_000;
+
+    private static byte[] fullDocument;
+    private static byte[] fieldsDocument;
+
+    private final OpenFoodFactsProductParser parser = new OpenFoodFactsProductParser();
+
+    @BeforeAll
+    static void buildPayloads() {
+        fullDocument = fullProductDocument().getBytes(StandardCharsets.UTF_8);
+        fieldsDocument = ("{\"code\":\"" + UPC + "\",\"product\":{\"brands\":\"Ferrero\"," +
+                "\"categories\":\"Spreads, Sweet spreads, Hazelnut spreads\"," +
+                "\"image_small_url\":\"https://images.openfoodfacts.org/images/products/301/762/401/0701/front_en.200.jpg\"," +
+                "\"image_url\":\"https://images.openfoodfacts.org/images/products/301/762/401/0701/front_en.400.jpg\"," +
+                "\"product_name\":\"Nutella\"},\"status\":1,\"status_verbose\":\"product found\"}")
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("streaming, field-selective parsing should allocate less than buffering and scanning")
+    void compareParsers() {
+        Result legacy = measure("legacy, full document", fullDocument, this::legacyParse);
+        Result streamingFull = measure("streaming, full document", fullDocument,
+                body -> parser.parse(body, UPC));
+        Result streamingFields = measure("streaming, fields= document", fieldsDocument,
+                body -> parser.parse(body, UPC));
+
+        assertThat(legacyParse(new ByteArrayInputStream(fullDocument)).getName())
+                .isEqualTo(parser.parse(new ByteArrayInputStream(fullDocument), UPC).getName());
+        assertThat(streamingFull.allocatedBytes()).isLessThan(legacy.allocatedBytes());
+        assertThat(streamingFields.allocatedBytes()).isLessThan(streamingFull.allocatedBytes());
+    }
+
+    private Result measure(String label, byte[] payload, Function<InputStream, ProductResponse> parse) {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            parse.apply(new ByteArrayInputStream(payload));
+        }
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        long cpuBefore = threads.getThreadCpuTime(threadId);
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            parse.apply(new ByteArrayInputStream(payload));
+        }
+        Result result = new Result(
+                (threads.getThreadCpuTime(threadId) - cpuBefore) / MEASURED_RUNS,
+                (threads.getThreadAllocatedBytes(threadId) - allocatedBefore) / MEASURED_RUNS);
+
+        logger.info(String.format("%-28s %8d bytes payload | %10.1f us CPU | %12d bytes allocated per parse",
+                label, payload.length, result.cpuNanos() / 1_000.0, result.allocatedBytes()));
+        return result;
+    }
+
+    private record Result(long cpuNanos, long allocatedBytes) {
+    }
+
+    // ==================== Previous implementation (baseline) ====================
+
+    /**
+     * Reads the body into a String, as the String message converter did, then extracts fields with
+     * the previous {@code indexOf}-based scanning.
+     */
+    private ProductResponse legacyParse(InputStream body) {
+        String response;
+        try {
+            response = new String(body.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (response.contains("\"status\":0") || response.contains("\"status\": 0")) {
+            throw new IllegalStateException("not found");
+        }
+        String productJson = legacyExtractProductObject(response);
+        ProductResponse.ProductResponseBuilder builder = ProductResponse.builder().upc(UPC);
+        builder.name(legacyExtractJsonField(productJson, "product_name"));
+        builder.brand(legacyExtractJsonField(productJson, "brands"));
+        String category = legacyExtractJsonField(productJson, "categories");
+        if (category != null && category.indexOf(',') > 0) {
+            category = category.substring(0, category.indexOf(',')).trim();
+        }
+        builder.category(category);
+        builder.imageUrl(legacyExtractJsonField(productJson, "image_url"));
+        builder.imageSmallUrl(legacyExtractJsonField(productJson, "image_small_url"));
+        return builder.build();
+    }
+
+    private static String legacyExtractProductObject(String json) {
+        int braceStart = json.indexOf('{', json.indexOf("\"product\":"));
+        int braceCount = 1;
+        int i = braceStart + 1;
+        while (i < json.length() && braceCount > 0) {
+            char c = json.charAt(i);
+            if (c == '{') {
+                braceCount++;
+            } else if (c == '}') {
+                braceCount--;
+            }
+            i++;
+        }
+        return json.substring(braceStart, i);
+    }
+
+    private static String legacyExtractJsonField(String json, String fieldName) {
+        String searchPattern = "\"" + fieldName + "\":\"";
+        int startIndex = json.indexOf(searchPattern);
+        if (startIndex == -1) {
+            return null;
+        }
+        startIndex += searchPattern.length();
+        return json.substring(startIndex, json.indexOf("\"", startIndex));
+    }
+
+    // ==================== Payload ====================
+
+    private static String fullProductDocument() {
+        Random random = new Random(42);
+        StringBuilder json = new StringBuilder(128_000);
+        json.append("{\"code\":\"").append(UPC).append("\",\"product\":{");
+
+        json.append("\"nutriments\":{");
+        for (int i = 0; i < 400; i++) {
+            json.append(i == 0 ? "" : ",")
+                    .append("\"nutrient-").append(i).append("_100g\":").append(random.nextDouble() * 100)
+                    .append(",\"nutrient-").append(i).append("_unit\":\"g\"");
+        }
+        json.append("},\"ingredients\":[");
+        for (int i = 0; i < 250; i++) {
+            json.append(i == 0 ? "" : ",")
+                    .append("{\"id\":\"en:ingredient-").append(i).append("\",\"text\":\"Ingredient ").append(i)
+                    .append("\",\"percent_estimate\":").append(random.nextDouble() * 10)
+                    .append(",\"vegan\":\"maybe\",\"vegetarian\":\"yes\",\"rank\":").append(i + 1).append("}");
+        }
+        json.append("],\"images\":{");
+        for (int i = 0; i < 120; i++) {
+            json.append(i == 0 ? "" : ",")
+                    .append("\"").append(i).append("\":{\"sizes\":{\"100\":{\"h\":100,\"w\":75},")
+                    .append("\"400\":{\"h\":400,\"w\":300},\"full\":{\"h\":2000,\"w\":1500}},")
+                    .append("\"uploaded_t\":").append(1_500_000_000 + random.nextInt(100_000_000))
+                    .append(",\"uploader\":\"contributor-").append(random.nextInt(10_000)).append("\"}");
+        }
+        json.append("}");
+        for (String language : new String[]{"en", "fr", "de", "es", "it", "nl", "pt", "pl"}) {
+            json.append(",\"ingredients_text_").append(language).append("\":\"")
+                    .append("Sugar, palm oil, hazelnuts 13%, skimmed milk powder 8.7%, fat-reduced cocoa 7.4%, ".repeat(40))
+                    .append("\"");
+        }
+        json.append(",\"product_name\":\"Nutella\",\"brands\":\"Ferrero\"")
+                .append(",\"categories\":\"Spreads, Sweet spreads, Hazelnut spreads\"")
+                .append(",\"image_url\":\"https://images.openfoodfacts.org/images/products/301/762/401/0701/front_en.400.jpg\"")
+                .append(",\"image_small_url\":\"https://images.openfoodfacts.org/images/products/301/762/401/0701/front_en.200.jpg\"")
+                .append("},\"status\":1,\"status_verbose\":\"product found\"}");
+        return json.toString();
+    }
+}
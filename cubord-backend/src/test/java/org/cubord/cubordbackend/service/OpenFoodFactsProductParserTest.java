@@ -0,0 +1,96 @@
+package org.cubord.cubordbackend.service;
+
+import org.cubord.cubordbackend.dto.product.ProductResponse;
+import org.cubord.cubordbackend.exception.ExternalServiceException;
+import org.cubord.cubordbackend.exception.NotFoundException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("OpenFoodFactsProductParser Tests")
+class OpenFoodFactsProductParserTest {
+
+    private static final String UPC = "3017624010701";
+
+    private final OpenFoodFactsProductParser parser = new OpenFoodFactsProductParser();
+
+    private static InputStream body(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("should read stored fields and skip everything else")
+    void shouldReadStoredFieldsAndSkipEverythingElse() {
+        // Given
+        String json = "{\"code\":\"3017624010701\",\"product\":{" +
+                "\"nutriments\":{\"energy\":2252,\"product_name\":\"nested, not the name\"}," +
+                "\"images\":[{\"url\":\"x\"},{\"url\":\"y\"}]," +
+                "\"product_name\":\"Nutella\",\"brands\":\"Ferrero\"," +
+                "\"categories\":\"Spreads, Sweet spreads\"," +
+                "\"image_url\":\"https://images.openfoodfacts.org/1.jpg\"," +
+                "\"image_small_url\":\"https://images.openfoodfacts.org/1.200.jpg\"}," +
+                "\"status\":1}";
+
+        // When
+        ProductResponse response = parser.parse(body(json), UPC);
+
+        // Then
+        assertThat(response.getUpc()).isEqualTo(UPC);
+        assertThat(response.getName()).isEqualTo("Nutella");
+        assertThat(response.getBrand()).isEqualTo("Ferrero");
+        assertThat(response.getCategory()).isEqualTo("Spreads");
+        assertThat(response.getImageUrl()).isEqualTo("https://images.openfoodfacts.org/1.jpg");
+        assertThat(response.getImageSmallUrl()).isEqualTo("https://images.openfoodfacts.org/1.200.jpg");
+    }
+
+    @Test
+    @DisplayName("should unescape quotes and unicode in values")
+    void shouldUnescapeValues() {
+        // Given
+        String json = "{\"status\":1,\"product\":{\"product_name\":\"Ben \\\"n\\\" Jerry\\u2019s\"}}";
+
+        // When
+        ProductResponse response = parser.parse(body(json), UPC);
+
+        // Then
+        assertThat(response.getName()).isEqualTo("Ben \"n\" Jerry’s");
+    }
+
+    @Test
+    @DisplayName("should throw NotFoundException for status 0")
+    void shouldThrowNotFoundForStatusZero() {
+        assertThatThrownBy(() -> parser.parse(body("{\"status\": 0,\"status_verbose\":\"product not found\"}"), UPC))
+                .isInstanceOf(NotFoundException.class)
+                .hasMessageContaining("not found in external database");
+    }
+
+    @Test
+    @DisplayName("should throw ExternalServiceException for an empty body")
+    void shouldThrowForEmptyBody() {
+        assertThatThrownBy(() -> parser.parse(body(""), UPC))
+                .isInstanceOf(ExternalServiceException.class)
+                .hasMessageContaining("Empty response");
+    }
+
+    @Test
+    @DisplayName("should throw ExternalServiceException for malformed JSON")
+    void shouldThrowForMalformedJson() {
+        assertThatThrownBy(() -> parser.parse(body("{\"status\":1,\"product\":{\"product_name\":"), UPC))
+                .isInstanceOf(ExternalServiceException.class)
+                .hasMessageContaining("Failed to parse response");
+    }
+
+    @Test
+    @DisplayName("should throw ExternalServiceException when neither name nor brand is present")
+    void shouldThrowWhenNameAndBrandAreMissing() {
+        assertThatThrownBy(() -> parser.parse(body("{\"status\":1,\"product\":{\"product_name\":\"\",\"brands\":null}}"), UPC))
+                .isInstanceOf(ExternalServiceException.class)
+                .hasMessageContaining("Insufficient product data");
+    }
+}
@@ -0,0 +1,275 @@
+package org.cubord.cubordbackend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.cubord.cubordbackend.exception.ServiceUnavailableException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("OpenFoodFactsResilience Tests")
+class OpenFoodFactsResilienceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private OpenFoodFactsResilience resilience;
+    private AtomicLong clock;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        clock = new AtomicLong();
+        resilience = new OpenFoodFactsResilience(meterRegistry);
+        ReflectionTestUtils.setField(resilience, "maxTimeoutMillis", 5000L);
+        ReflectionTestUtils.setField(resilience, "failureRateThreshold", 50);
+        ReflectionTestUtils.setField(resilience, "slidingWindowSize", 10);
+        ReflectionTestUtils.setField(resilience, "minimumCalls", 4);
+        ReflectionTestUtils.setField(resilience, "openDuration", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(resilience, "halfOpenCalls", 2);
+        ReflectionTestUtils.setField(resilience, "maxConcurrentCalls", 3);
+        ReflectionTestUtils.setField(resilience, "timeoutPercentile", 0.99);
+        ReflectionTestUtils.setField(resilience, "timeoutMultiplier", 2.0);
+        ReflectionTestUtils.setField(resilience, "minTimeout", Duration.ofMillis(500));
+        ReflectionTestUtils.setField(resilience, "latencyWindowSize", 10);
+        ReflectionTestUtils.setField(resilience, "ticker", (LongSupplier) clock::get);
+        resilience.init();
+    }
+
+    private void advance(Duration duration) {
+        clock.addAndGet(duration.toNanos());
+    }
+
+    private void succeed(Duration latency) {
+        OpenFoodFactsResilience.Call call = resilience.acquire();
+        advance(latency);
+        call.succeeded();
+        call.release();
+    }
+
+    private void fail() {
+        OpenFoodFactsResilience.Call call = resilience.acquire();
+        call.failed();
+        call.release();
+    }
+
+    private double rejections(String reason) {
+        return meterRegistry.get("cubord.openfoodfacts.rejections").tag("reason", reason).counter().count();
+    }
+
+    @Nested
+    @DisplayName("circuit breaker")
+    class CircuitBreakerTests {
+
+        @Test
+        @DisplayName("should stay closed until the minimum number of calls is recorded")
+        void shouldStayClosedBelowMinimumCalls() {
+            // When
+            fail();
+            fail();
+            fail();
+
+            // Then
+            assertThat(resilience.getState()).isEqualTo(OpenFoodFactsResilience.State.CLOSED);
+            assertThat(resilience.getFailureRate()).isEqualTo(-1);
+        }
+
+        @Test
+        @DisplayName("should open at the failure-rate threshold and reject calls fast")
+        void shouldOpenAtThresholdAndReject() {
+            // Given
+            succeed(Duration.ofMillis(100));
+            succeed(Duration.ofMillis(100));
+            fail();
+
+            // When
+            fail();
+
+            // Then
+            assertThat(resilience.getState()).isEqualTo(OpenFoodFactsResilience.State.OPEN);
+            assertThatThrownBy(() -> resilience.acquire())
+                    .isInstanceOf(ServiceUnavailableException.class)
+                    .hasMessageContaining("suspended");
+            assertThat(rejections("circuit_open")).isEqualTo(1);
+            assertThat(resilience.health().getStatus()).isEqualTo(new Status("CIRCUIT_OPEN"));
+        }
+
+        @Test
+        @DisplayName("should close again after enough successful trial calls")
+        void shouldCloseAfterSuccessfulTrials() {
+            // Given
+            for (int i = 0; i < 4; i++) {
+                fail();
+            }
+            advance(Duration.ofSeconds(30));
+
+            // When
+            assertThat(resilience.getState()).isEqualTo(OpenFoodFactsResilience.State.HALF_OPEN);
+            OpenFoodFactsResilience.Call first = resilience.acquire();
+            OpenFoodFactsResilience.Call second = resilience.acquire();
+
+            // Then
+            assertThatThrownBy(() -> resilience.acquire()).isInstanceOf(ServiceUnavailableException.class);
+            first.succeeded();
+            second.succeeded();
+            assertThat(resilience.getState()).isEqualTo(OpenFoodFactsResilience.State.CLOSED);
+            assertThat(resilience.health().getStatus()).isEqualTo(Status.UP);
+        }
+
+        @Test
+        @DisplayName("should reopen when a trial call fails")
+        void shouldReopenWhenTrialFails() {
+            // Given
+            for (int i = 0; i < 4; i++) {
+                fail();
+            }
+            advance(Duration.ofSeconds(30));
+
+            // When
+            fail();
+
+            // Then
+            assertThat(resilience.getState()).isEqualTo(OpenFoodFactsResilience.State.OPEN);
+        }
+
+        @Test
+        @DisplayName("should give trial calls the full timeout")
+        void shouldGiveTrialCallsFullTimeout() {
+            // Given
+            for (int i = 0; i < 4; i++) {
+                succeed(Duration.ofMillis(100));
+            }
+            for (int i = 0; i < 4; i++) {
+                fail();
+            }
+            advance(Duration.ofSeconds(30));
+
+            // When
+            OpenFoodFactsResilience.Call trial = resilience.acquire();
+
+            // Then
+            assertThat(trial.timeoutMillis()).isEqualTo(5000);
+        }
+    }
+
+    @Nested
+    @DisplayName("endpoints")
+    class EndpointTests {
+
+        @Test
+        @DisplayName("should keep a mirror's circuit closed while the API's circuit is open")
+        void shouldIsolateMirrorCircuit() {
+            // Given
+            for (int i = 0; i < 4; i++) {
+                fail();
+            }
+
+            // When
+            OpenFoodFactsResilience.Call mirrorCall = resilience.acquire("mirror");
+
+            // Then
+            assertThat(resilience.getState()).isEqualTo(OpenFoodFactsResilience.State.OPEN);
+            assertThat(resilience.getState("mirror")).isEqualTo(OpenFoodFactsResilience.State.CLOSED);
+            assertThat(mirrorCall.timeoutMillis()).isEqualTo(5000);
+            assertThatThrownBy(() -> resilience.acquire()).isInstanceOf(ServiceUnavailableException.class);
+        }
+
+        @Test
+        @DisplayName("should share the bulkhead between the API and its mirrors")
+        void shouldShareBulkhead() {
+            // Given
+            resilience.acquire();
+            resilience.acquire("mirror");
+            resilience.acquire("mirror");
+
+            // When / Then
+            assertThatThrownBy(() -> resilience.acquire("other-mirror"))
+                    .isInstanceOf(ServiceUnavailableException.class)
+                    .hasMessageContaining("concurrent");
+        }
+    }
+
+    @Nested
+    @DisplayName("bulkhead")
+    class BulkheadTests {
+
+        @Test
+        @DisplayName("should reject calls beyond the concurrency limit until one is released")
+        void shouldRejectBeyondLimit() {
+            // Given
+            OpenFoodFactsResilience.Call first = resilience.acquire();
+            resilience.acquire();
+            resilience.acquire();
+
+            // When & Then
+            assertThatThrownBy(() -> resilience.acquire())
+                    .isInstanceOf(ServiceUnavailableException.class)
+                    .hasMessageContaining("concurrent");
+            assertThat(rejections("bulkhead_full")).isEqualTo(1);
+
+            first.release();
+            first.release();
+            resilience.acquire();
+            assertThatThrownBy(() -> resilience.acquire()).isInstanceOf(ServiceUnavailableException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("adaptive timeout")
+    class AdaptiveTimeoutTests {
+
+        @Test
+        @DisplayName("should use the configured timeout until enough latencies are observed")
+        void shouldStartAtConfiguredTimeout() {
+            // When
+            succeed(Duration.ofMillis(200));
+
+            // Then
+            assertThat(resilience.getTimeoutMillis()).isEqualTo(5000);
+        }
+
+        @Test
+        @DisplayName("should follow a multiple of the latency percentile within bounds")
+        void shouldFollowLatencyPercentile() {
+            // When
+            for (int i = 0; i < 4; i++) {
+                succeed(Duration.ofMillis(400));
+            }
+
+            // Then
+            assertThat(resilience.getTimeoutMillis()).isEqualTo(800);
+            assertThat(resilience.acquire().timeoutMillis()).isEqualTo(800);
+
+            // When latencies drop below the floor
+            for (int i = 0; i < 10; i++) {
+                succeed(Duration.ofMillis(10));
+            }
+
+            // Then
+            assertThat(resilience.getTimeoutMillis()).isEqualTo(500);
+        }
+
+        @Test
+        @DisplayName("should grow after timeouts so a slower API is not cut off for good")
+        void shouldGrowAfterTimeouts() {
+            // Given
+            for (int i = 0; i < 4; i++) {
+                succeed(Duration.ofMillis(400));
+            }
+
+            // When
+            OpenFoodFactsResilience.Call slow = resilience.acquire();
+            slow.timedOut();
+
+            // Then
+            assertThat(resilience.getTimeoutMillis()).isEqualTo(1600);
+        }
+    }
+}
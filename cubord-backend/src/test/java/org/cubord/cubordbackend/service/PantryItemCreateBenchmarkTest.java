@@ -0,0 +1,185 @@
+package org.cubord.cubordbackend.service;
+
+import org.cubord.cubordbackend.dto.pantryItem.CreatePantryItemRequest;
+import org.cubord.cubordbackend.security.SecurityService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+/**
+ * Compares creating {@value #ITEM_COUNT} pantry items one request at a time with
+ * {@link PantryItemService#createPantryItem} against a single
+ * {@link PantryItemService#createMultiplePantryItems} batch on PostgreSQL.
+ *
+ * <p>Requires Docker and is skipped unless {@code CUBORD_BENCHMARK=true} is set, e.g.
+ * {@code CUBORD_BENCHMARK=true ./gradlew test --tests '*PantryItemCreateBenchmarkTest'}.
+ * Every run fills a fresh location, so each item is inserted rather than consolidated. Median
+ * timings per item are logged; the assertions check that both paths create every item.</p>
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@EnabledIfEnvironmentVariable(named = "CUBORD_BENCHMARK", matches = "true")
+@Import({PantryItemService.class, ProductService.class, ProductWriteService.class, InventoryStatsService.class})
+@DisplayName("Pantry item create benchmark")
+class PantryItemCreateBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(PantryItemCreateBenchmarkTest.class);
+
+    private static final int ITEM_COUNT = 200;
+    private static final int WARMUP_RUNS = 3;
+    private static final int MEASURED_RUNS = 15;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private PantryItemService pantryItemService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @MockitoBean
+    private SecurityService securityService;
+
+    @MockitoBean
+    private UpcApiService upcApiService;
+
+    @MockitoBean
+    private ProductCache productCache;
+
+    @MockitoBean
+    private UnknownUpcFilter unknownUpcFilter;
+
+    @MockitoBean
+    private UpcLookupCoalescer upcLookupCoalescer;
+
+    @MockitoBean
+    private ProductEnrichmentWorker productEnrichmentWorker;
+
+    @MockitoBean
+    private ProductCatalogImporter productCatalogImporter;
+
+    @MockitoBean
+    private ProductCatalogImportService productCatalogImportService;
+
+    @MockitoBean
+    private ProductGtinIndex productGtinIndex;
+
+    private UUID householdId;
+    private List<UUID> productIds;
+    private UUID lastLocationId;
+
+    @BeforeEach
+    void seed() {
+        // The consolidating inserts conflict on this index, which ddl-auto does not create
+        jdbcTemplate.execute("DROP INDEX IF EXISTS uq_pantry_items_location_product_expiration");
+        new ResourceDatabasePopulator(new ClassPathResource(
+                "db/vendor/postgresql/V10__Added_pantry_item_consolidation_unique_index.sql")).execute(dataSource);
+
+        householdId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO households (id, name) VALUES (?, 'Benchmark')", householdId);
+        productIds = IntStream.range(0, ITEM_COUNT).mapToObj(i -> UUID.randomUUID()).toList();
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO products (id, upc, name, data_source, requires_api_retry, retry_attempts) " +
+                "VALUES (?, ?, ?, 'MANUAL', false, 0)",
+                productIds, 1_000, (ps, id) -> {
+                    ps.setObject(1, id);
+                    ps.setString(2, id.toString());
+                    ps.setString(3, "Product " + id);
+                });
+        when(securityService.getCurrentUserId()).thenReturn(UUID.randomUUID());
+    }
+
+    @Test
+    @DisplayName("a batch should create pantry items faster per item than one request each")
+    void compareLoopedAndBatchCreates() {
+        double loopedMillis = medianMillis(requests -> requests.forEach(pantryItemService::createPantryItem));
+        UUID loopedLocation = lastLocationId;
+        double batchMillis = medianMillis(pantryItemService::createMultiplePantryItems);
+        UUID batchLocation = lastLocationId;
+
+        logger.info("{} items one by one {} ms ({} µs per item) | in one batch {} ms ({} µs per item)",
+                ITEM_COUNT, format(loopedMillis), format(loopedMillis * 1_000 / ITEM_COUNT),
+                format(batchMillis), format(batchMillis * 1_000 / ITEM_COUNT));
+
+        assertThat(itemCount(loopedLocation)).isEqualTo(ITEM_COUNT);
+        assertThat(itemCount(batchLocation)).isEqualTo(ITEM_COUNT);
+    }
+
+    private double medianMillis(Consumer<List<CreatePantryItemRequest>> create) {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            create.accept(requestsForNewLocation());
+        }
+        long[] samples = new long[MEASURED_RUNS];
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            List<CreatePantryItemRequest> requests = requestsForNewLocation();
+            long start = System.nanoTime();
+            create.accept(requests);
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples[MEASURED_RUNS / 2] / 1_000_000.0;
+    }
+
+    private List<CreatePantryItemRequest> requestsForNewLocation() {
+        lastLocationId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO locations (id, name, household_id) VALUES (?, 'Shelf', ?)",
+                lastLocationId, householdId);
+        LocalDate expirationDate = LocalDate.now().plusDays(30);
+        return productIds.stream()
+                .map(productId -> CreatePantryItemRequest.builder()
+                        .productId(productId)
+                        .locationId(lastLocationId)
+                        .quantity(1)
+                        .expirationDate(expirationDate)
+                        .build())
+                .toList();
+    }
+
+    private int itemCount(UUID locationId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pantry_items WHERE location_id = ?", Integer.class, locationId);
+    }
+
+    private static String format(double value) {
+        return String.format("%.2f", value);
+    }
+}
@@ -1,22 +1,35 @@
 package org.cubord.cubordbackend.service;
 
 import org.cubord.cubordbackend.domain.*;
+import org.cubord.cubordbackend.dto.pagination.CursorPageResponse;
 import org.cubord.cubordbackend.dto.pantryItem.*;
+import org.cubord.cubordbackend.dto.product.ProductResponse;
 import org.cubord.cubordbackend.exception.*;
 import org.cubord.cubordbackend.repository.*;
 import org.cubord.cubordbackend.security.SecurityService;
+import org.cubord.cubordbackend.util.CursorCodec;
+import org.cubord.cubordbackend.util.Gtin;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -56,6 +69,15 @@ class PantryItemServiceTest {
     @Mock
     private SecurityService securityService;
 
+    @Mock
+    private InventoryStatsService inventoryStatsService;
+
+    @Mock
+    private ProductService productService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
     @InjectMocks
     private PantryItemService pantryItemService;
 
@@ -148,6 +170,9 @@ class PantryItemServiceTest {
                 .expirationDate(LocalDate.now().plusDays(60))
                 .notes("Updated notes")
                 .build();
+
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
     }
 
     // ==================== Helper Methods ====================
@@ -169,17 +194,18 @@ class PantryItemServiceTest {
             // Given
             when(locationRepository.findById(eq(locationId))).thenReturn(Optional.of(testLocation));
             when(productRepository.findById(eq(productId))).thenReturn(Optional.of(testProduct));
-            // Use correct method name with correct parameter order
-            when(pantryItemRepository.findByLocationIdAndProductIdAndExpirationDate(
-                    eq(locationId), eq(productId), any(LocalDate.class))).thenReturn(Optional.empty());
-            when(pantryItemRepository.save(any(PantryItem.class))).thenReturn(testPantryItem);
+            when(pantryItemRepository.insertOrConsolidate(any(PantryItem.class)))
+                    .thenAnswer(invocation -> {
+                        PantryItem item = invocation.getArgument(0);
+                        return new PantryItemRepositoryCustom.ConsolidationResult(item.getId(), item.getQuantity(), true);
+                    });
 
             // When
             PantryItemResponse response = pantryItemService.createPantryItem(createRequest);
 
             // Then
             assertThat(response).isNotNull();
-            assertThat(response.getId()).isEqualTo(pantryItemId);
+            assertThat(response.getId()).isNotNull();
             // Access nested product and location objects
             assertThat(response.getProduct().getId()).isEqualTo(productId);
             assertThat(response.getLocation().getId()).isEqualTo(locationId);
@@ -188,29 +214,21 @@ class PantryItemServiceTest {
             verify(securityService).getCurrentUserId();
             verify(locationRepository).findById(eq(locationId));
             verify(productRepository).findById(eq(productId));
-            verify(pantryItemRepository).save(any(PantryItem.class));
+            verify(pantryItemRepository).insertOrConsolidate(argThat(item ->
+                    item.getId() != null && item.getCreatedAt() != null && item.getQuantity() == 5));
+            verify(pantryItemRepository, never()).save(any(PantryItem.class));
+            verify(inventoryStatsService).recordChange(
+                    isNull(), eq(InventoryStatsService.ItemFootprint.of(testPantryItem)));
         }
 
         @Test
         @DisplayName("should consolidate quantity when item with same expiration exists")
         void whenDuplicateItem_consolidatesQuantity() {
             // Given
-            PantryItem existingItem = PantryItem.builder()
-                    .id(pantryItemId)
-                    .product(testProduct)
-                    .location(testLocation)
-                    .quantity(5)
-                    .expirationDate(createRequest.getExpirationDate())
-                    .createdAt(fixedTime)
-                    .updatedAt(fixedTime)
-                    .build();
-
             when(locationRepository.findById(eq(locationId))).thenReturn(Optional.of(testLocation));
             when(productRepository.findById(eq(productId))).thenReturn(Optional.of(testProduct));
-            // Use correct method name with correct parameter order
-            when(pantryItemRepository.findByLocationIdAndProductIdAndExpirationDate(
-                    eq(locationId), eq(productId), eq(createRequest.getExpirationDate())))
-                    .thenReturn(Optional.of(existingItem));
+            when(pantryItemRepository.insertOrConsolidate(any(PantryItem.class)))
+                    .thenReturn(new PantryItemRepositoryCustom.ConsolidationResult(pantryItemId, 10, false));
 
             PantryItem consolidatedItem = PantryItem.builder()
                     .id(pantryItemId)
@@ -221,16 +239,21 @@ class PantryItemServiceTest {
                     .createdAt(fixedTime)
                     .updatedAt(fixedTime)
                     .build();
-            when(pantryItemRepository.save(any(PantryItem.class))).thenReturn(consolidatedItem);
+            when(pantryItemRepository.findById(eq(pantryItemId))).thenReturn(Optional.of(consolidatedItem));
 
             // When
             PantryItemResponse response = pantryItemService.createPantryItem(createRequest);
 
             // Then
             assertThat(response).isNotNull();
+            assertThat(response.getId()).isEqualTo(pantryItemId);
             assertThat(response.getQuantity()).isEqualTo(10);
 
-            verify(pantryItemRepository).save(argThat(item -> item.getQuantity() == 10));
+            verify(pantryItemRepository).insertOrConsolidate(argThat(item -> item.getQuantity() == 5));
+            verify(pantryItemRepository, never()).save(any(PantryItem.class));
+            verify(inventoryStatsService).recordChange(
+                    eq(new InventoryStatsService.ItemFootprint(householdId, productId, false, false)),
+                    eq(new InventoryStatsService.ItemFootprint(householdId, productId, false, false)));
         }
 
         @Test
@@ -326,9 +349,7 @@ class PantryItemServiceTest {
             // Given
             when(locationRepository.findById(eq(locationId))).thenReturn(Optional.of(testLocation));
             when(productRepository.findById(eq(productId))).thenReturn(Optional.of(testProduct));
-            when(pantryItemRepository.findByLocationIdAndProductIdAndExpirationDate(
-                    any(), any(), any())).thenReturn(Optional.empty());
-            when(pantryItemRepository.save(any(PantryItem.class)))
+            when(pantryItemRepository.insertOrConsolidate(any(PantryItem.class)))
                     .thenThrow(new RuntimeException("Database error"));
 
             // When/Then
@@ -336,6 +357,49 @@ class PantryItemServiceTest {
                     .isInstanceOf(DataIntegrityException.class)
                     .hasMessageContaining("Failed to create pantry item");
         }
+
+        @Test
+        @DisplayName("should look up a scanned UPC before opening the transaction")
+        void whenScanned_looksUpUpcBeforeTransaction() {
+            // Given
+            createRequest.setProductId(null);
+            createRequest.setUpc("0123456789012");
+            when(productService.getProductByUpc("0123456789012"))
+                    .thenReturn(ProductResponse.builder().id(productId).upc("123456789012").build());
+            when(locationRepository.findById(eq(locationId))).thenReturn(Optional.of(testLocation));
+            when(productRepository.findById(eq(productId))).thenReturn(Optional.of(testProduct));
+            when(pantryItemRepository.insertOrConsolidate(any(PantryItem.class)))
+                    .thenAnswer(invocation -> {
+                        PantryItem item = invocation.getArgument(0);
+                        return new PantryItemRepositoryCustom.ConsolidationResult(item.getId(), item.getQuantity(), true);
+                    });
+
+            // When
+            PantryItemResponse response = pantryItemService.createPantryItem(createRequest);
+
+            // Then
+            assertThat(response.getProduct().getId()).isEqualTo(productId);
+            InOrder inOrder = inOrder(productService, transactionTemplate, pantryItemRepository);
+            inOrder.verify(productService).getProductByUpc("0123456789012");
+            inOrder.verify(transactionTemplate).execute(any());
+            inOrder.verify(pantryItemRepository).insertOrConsolidate(argThat(item -> item.getProduct() == testProduct));
+        }
+
+        @Test
+        @DisplayName("should not open a transaction when the scanned UPC is unknown")
+        void whenScannedUpcUnknown_opensNoTransaction() {
+            // Given
+            createRequest.setProductId(null);
+            createRequest.setUpc("123456789012");
+            when(productService.getProductByUpc("123456789012"))
+                    .thenThrow(new NotFoundException("Product", "123456789012"));
+
+            // When/Then
+            assertThatThrownBy(() -> pantryItemService.createPantryItem(createRequest))
+                    .isInstanceOf(NotFoundException.class);
+
+            verifyNoInteractions(transactionTemplate, locationRepository, pantryItemRepository);
+        }
     }
 
     // ==================== Get Pantry Item Tests ====================
@@ -464,6 +528,78 @@ class PantryItemServiceTest {
 
             verifyNoInteractions(securityService, pantryItemRepository);
         }
+
+        @Test
+        @DisplayName("should return a keyset page with a cursor when more items exist")
+        void whenMoreItemsThanLimit_returnsNextCursor() {
+            // Given
+            PantryItem second = PantryItem.builder()
+                    .id(UUID.randomUUID())
+                    .product(testProduct)
+                    .location(testLocation)
+                    .quantity(1)
+                    .build();
+            when(pantryItemRepository.findPageByHouseholdId(eq(householdId), eq(""), any(LocalDate.class),
+                    eq(new UUID(0L, 0L)), eq(Limit.of(2))))
+                    .thenReturn(List.of(testPantryItem, second));
+
+            // When
+            CursorPageResponse<PantryItemResponse> page =
+                    pantryItemService.getPantryItemsByHousehold(householdId, null, 1, false);
+
+            // Then
+            assertThat(page.getContent()).extracting(PantryItemResponse::getId).containsExactly(pantryItemId);
+            assertThat(page.isHasNext()).isTrue();
+            assertThat(page.getNextCursor()).isNotBlank();
+            assertThat(page.getTotalElements()).isNull();
+            verify(pantryItemRepository, never()).countByLocation_HouseholdId(any());
+        }
+
+        @Test
+        @DisplayName("should seek after the decoded cursor and include the total when requested")
+        void whenCursorProvided_seeksAfterCursor() {
+            // Given
+            String cursor = CursorCodec.encode("Test Product", testPantryItem.getExpirationDate(), pantryItemId);
+            when(pantryItemRepository.findPageByHouseholdId(householdId, "Test Product",
+                    testPantryItem.getExpirationDate(), pantryItemId, Limit.of(21)))
+                    .thenReturn(Collections.emptyList());
+            when(pantryItemRepository.countByLocation_HouseholdId(householdId)).thenReturn(1L);
+
+            // When
+            CursorPageResponse<PantryItemResponse> page =
+                    pantryItemService.getPantryItemsByHousehold(householdId, cursor, 20, true);
+
+            // Then
+            assertThat(page.getContent()).isEmpty();
+            assertThat(page.isHasNext()).isFalse();
+            assertThat(page.getNextCursor()).isNull();
+            assertThat(page.getTotalElements()).isEqualTo(1L);
+        }
+
+        @Test
+        @DisplayName("should throw ValidationException for a malformed cursor")
+        void whenCursorMalformed_throwsValidationException() {
+            // Given
+            String cursor = CursorCodec.encode("name", "not-a-date", "not-a-uuid");
+
+            // When/Then
+            assertThatThrownBy(() -> pantryItemService.getPantryItemsByHousehold(householdId, cursor, 20, false))
+                    .isInstanceOf(ValidationException.class)
+                    .hasMessageContaining("Invalid pagination cursor");
+
+            verify(pantryItemRepository, never()).findPageByHouseholdId(any(), any(), any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("should throw ValidationException when the limit is out of range")
+        void whenLimitOutOfRange_throwsValidationException() {
+            // When/Then
+            assertThatThrownBy(() -> pantryItemService.getPantryItemsByHousehold(householdId, null, 0, false))
+                    .isInstanceOf(ValidationException.class)
+                    .hasMessageContaining("Limit must be between");
+
+            verifyNoInteractions(pantryItemRepository);
+        }
     }
 
     // ==================== Get Low Stock Items Tests ====================
@@ -606,6 +742,25 @@ class PantryItemServiceTest {
             verify(pantryItemRepository).save(any(PantryItem.class));
         }
 
+        @Test
+        @DisplayName("should throw ConflictException when another item has the new expiration date")
+        void whenExpirationCollides_throwsConflictException() {
+            // Given
+            UUID otherItemId = UUID.randomUUID();
+            when(pantryItemRepository.findById(eq(pantryItemId))).thenReturn(Optional.of(testPantryItem));
+            when(pantryItemRepository.findConsolidationConflict(
+                    pantryItemId, locationId, productId, updateRequest.getExpirationDate()))
+                    .thenReturn(Optional.of(otherItemId));
+
+            // When/Then
+            assertThatThrownBy(() -> pantryItemService.updatePantryItem(pantryItemId, updateRequest))
+                    .isInstanceOf(ConflictException.class)
+                    .hasMessageContaining(otherItemId.toString());
+
+            verify(pantryItemRepository, never()).save(any(PantryItem.class));
+            verifyNoInteractions(inventoryStatsService);
+        }
+
         @Test
         @DisplayName("should throw ValidationException when ID is null")
         void whenIdIsNull_throwsValidationException() {
@@ -743,6 +898,35 @@ class PantryItemServiceTest {
             // Then
             assertThat(response).isNotNull();
             verify(pantryItemRepository).save(argThat(item -> "New notes".equals(item.getNotes())));
+            verify(pantryItemRepository, never()).findConsolidationConflict(any(), any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("should throw ConflictException when another item holds the product in the new location")
+        void whenLocationCollides_throwsConflictException() {
+            // Given
+            UUID targetLocationId = UUID.randomUUID();
+            Location targetLocation = Location.builder()
+                    .id(targetLocationId)
+                    .name("Fridge")
+                    .household(testHousehold)
+                    .build();
+            Map<String, Object> patchData = new HashMap<>();
+            patchData.put("locationId", targetLocationId.toString());
+
+            when(pantryItemRepository.findById(eq(pantryItemId))).thenReturn(Optional.of(testPantryItem));
+            when(securityService.canAccessLocationForPantryItem(targetLocationId)).thenReturn(true);
+            when(locationRepository.findById(targetLocationId)).thenReturn(Optional.of(targetLocation));
+            when(pantryItemRepository.findConsolidationConflict(
+                    pantryItemId, targetLocationId, productId, testPantryItem.getExpirationDate()))
+                    .thenReturn(Optional.of(UUID.randomUUID()));
+
+            // When/Then
+            assertThatThrownBy(() -> pantryItemService.patchPantryItem(pantryItemId, patchData))
+                    .isInstanceOf(ConflictException.class);
+
+            verify(pantryItemRepository, never()).save(any(PantryItem.class));
+            verifyNoInteractions(inventoryStatsService);
         }
 
         @Test
@@ -794,6 +978,383 @@ class PantryItemServiceTest {
         }
     }
 
+    // ==================== Stock Adjustment Tests ====================
+
+    @Nested
+    @DisplayName("adjustPantryItemQuantity")
+    class AdjustPantryItemQuantityTests {
+
+        @Test
+        @DisplayName("should apply the delta with a single update and report the new quantity")
+        void whenStockSufficient_adjustsQuantity() {
+            // Given
+            when(pantryItemRepository.adjustQuantity(eq(pantryItemId), eq(-5), any(LocalDateTime.class)))
+                    .thenReturn(1);
+            when(pantryItemRepository.findStockById(pantryItemId)).thenReturn(Optional.of(stock(0)));
+
+            // When
+            PantryItemQuantityResponse response = pantryItemService.adjustPantryItemQuantity(pantryItemId, -5);
+
+            // Then
+            assertThat(response.getId()).isEqualTo(pantryItemId);
+            assertThat(response.getQuantity()).isZero();
+            verify(pantryItemRepository, never()).findById(any());
+            verify(pantryItemRepository, never()).save(any(PantryItem.class));
+            verify(inventoryStatsService).recordChange(
+                    eq(new InventoryStatsService.ItemFootprint(householdId, productId, false, false)),
+                    eq(new InventoryStatsService.ItemFootprint(householdId, productId, true, false)));
+        }
+
+        @Test
+        @DisplayName("should reject removing more units than the item holds")
+        void whenStockInsufficient_throwsBusinessRuleViolationException() {
+            // Given
+            when(pantryItemRepository.adjustQuantity(eq(pantryItemId), eq(-6), any(LocalDateTime.class)))
+                    .thenReturn(0);
+            when(pantryItemRepository.findStockById(pantryItemId)).thenReturn(Optional.of(stock(5)));
+
+            // When/Then
+            assertThatThrownBy(() -> pantryItemService.adjustPantryItemQuantity(pantryItemId, -6))
+                    .isInstanceOf(BusinessRuleViolationException.class)
+                    .hasMessageContaining("Cannot remove 6 units");
+
+            verifyNoInteractions(inventoryStatsService);
+        }
+
+        @Test
+        @DisplayName("should throw NotFoundException when item does not exist")
+        void whenItemMissing_throwsNotFoundException() {
+            // Given
+            when(pantryItemRepository.adjustQuantity(eq(pantryItemId), eq(1), any(LocalDateTime.class)))
+                    .thenReturn(0);
+            when(pantryItemRepository.findStockById(pantryItemId)).thenReturn(Optional.empty());
+
+            // When/Then
+            assertThatThrownBy(() -> pantryItemService.adjustPantryItemQuantity(pantryItemId, 1))
+                    .isInstanceOf(NotFoundException.class);
+        }
+
+        @Test
+        @DisplayName("should throw ValidationException when delta is zero")
+        void whenDeltaIsZero_throwsValidationException() {
+            // When/Then
+            assertThatThrownBy(() -> pantryItemService.adjustPantryItemQuantity(pantryItemId, 0))
+                    .isInstanceOf(ValidationException.class)
+                    .hasMessageContaining("non-zero");
+
+            verifyNoInteractions(pantryItemRepository);
+        }
+
+        private PantryItemRepository.PantryItemStock stock(int quantity) {
+            return new PantryItemRepository.PantryItemStock() {
+                @Override
+                public UUID getId() {
+                    return pantryItemId;
+                }
+
+                @Override
+                public UUID getHouseholdId() {
+                    return householdId;
+                }
+
+                @Override
+                public UUID getProductId() {
+                    return productId;
+                }
+
+                @Override
+                public Integer getQuantity() {
+                    return quantity;
+                }
+
+                @Override
+                public LocalDate getExpirationDate() {
+                    return createRequest.getExpirationDate();
+                }
+            };
+        }
+    }
+
+    @Nested
+    @DisplayName("consumeProduct")
+    class ConsumeProductTests {
+
+        @Test
+        @DisplayName("should drain variants in expiration order")
+        void whenStockSufficient_drainsEarliestExpiringFirst() {
+            // Given
+            UUID soonest = UUID.randomUUID();
+            UUID later = UUID.randomUUID();
+            UUID undated = UUID.randomUUID();
+            LocalDate today = LocalDate.now();
+            when(locationRepository.findHouseholdIdById(locationId)).thenReturn(Optional.of(householdId));
+            when(pantryItemRepository.findStockForUpdate(locationId, productId)).thenReturn(List.of(
+                    new PantryItemRepositoryCustom.StockEntry(soonest, 2, today.plusDays(1)),
+                    new PantryItemRepositoryCustom.StockEntry(later, 3, today.plusDays(5)),
+                    new PantryItemRepositoryCustom.StockEntry(undated, 4, null)));
+
+            // When
+            ConsumeProductResponse response = pantryItemService.consumeProduct(locationId, productId, 4);
+
+            // Then
+            assertThat(response.getConsumed()).isEqualTo(4);
+            assertThat(response.getRemaining()).isEqualTo(5);
+            assertThat(response.getItems())
+                    .extracting(PantryItemQuantityResponse::getId, PantryItemQuantityResponse::getQuantity)
+                    .containsExactly(tuple(soonest, 0), tuple(later, 1));
+            verify(pantryItemRepository).batchIncrementQuantities(Map.of(soonest, -2, later, -2));
+            verify(pantryItemRepository, never()).findByLocationIdAndProductIdOrderByExpirationDateNullsLast(any(), any());
+            verify(inventoryStatsService).recordChanges(
+                    eq(List.of(
+                            new InventoryStatsService.ItemFootprint(householdId, productId, false, false),
+                            new InventoryStatsService.ItemFootprint(householdId, productId, false, false))),
+                    eq(List.of(
+                            new InventoryStatsService.ItemFootprint(householdId, productId, true, false),
+                            new InventoryStatsService.ItemFootprint(householdId, productId, false, false))));
+        }
+
+        @Test
+        @DisplayName("should reject consuming more units than the location holds")
+        void whenStockInsufficient_throwsBusinessRuleViolationException() {
+            // Given
+            when(locationRepository.findHouseholdIdById(locationId)).thenReturn(Optional.of(householdId));
+            when(pantryItemRepository.findStockForUpdate(locationId, productId)).thenReturn(List.of(
+                    new PantryItemRepositoryCustom.StockEntry(pantryItemId, 2, null)));
+
+            // When/Then
+            assertThatThrownBy(() -> pantryItemService.consumeProduct(locationId, productId, 3))
+                    .isInstanceOf(BusinessRuleViolationException.class)
+                    .hasMessageContaining("only 2 available");
+
+            verify(pantryItemRepository, never()).batchIncrementQuantities(any());
+            verifyNoInteractions(inventoryStatsService);
+        }
+
+        @Test
+        @DisplayName("should throw NotFoundException when location does not exist")
+        void whenLocationMissing_throwsNotFoundException() {
+            // Given
+            when(locationRepository.findHouseholdIdById(locationId)).thenReturn(Optional.empty());
+
+            // When/Then
+            assertThatThrownBy(() -> pantryItemService.consumeProduct(locationId, productId, 1))
+                    .isInstanceOf(NotFoundException.class)
+                    .hasMessageContaining("Location not found");
+
+            verifyNoInteractions(pantryItemRepository);
+        }
+    }
+
+    // ==================== Move Pantry Items Tests ====================
+
+    @Nested
+    @DisplayName("movePantryItems")
+    class MovePantryItemsTests {
+
+        private UUID targetLocationId;
+
+        @BeforeEach
+        void setUp() {
+            targetLocationId = UUID.randomUUID();
+        }
+
+        @Test
+        @DisplayName("should merge matching items into the target and relocate the rest")
+        void whenMovingLocation_mergesMatchingAndRelocatesOthers() {
+            // Given
+            UUID breadId = UUID.randomUUID();
+            LocalDate soon = LocalDate.now().plusDays(2);
+            PantryItemRepositoryCustom.ItemPlacement milk =
+                    new PantryItemRepositoryCustom.ItemPlacement(UUID.randomUUID(), locationId, productId, 2, soon, null);
+            PantryItemRepositoryCustom.ItemPlacement laterMilk = new PantryItemRepositoryCustom.ItemPlacement(
+                    UUID.randomUUID(), locationId, productId, 4, soon.plusDays(7), null);
+            PantryItemRepositoryCustom.ItemPlacement bread = new PantryItemRepositoryCustom.ItemPlacement(
+                    UUID.randomUUID(), locationId, breadId, 1, null, null);
+            PantryItemRepositoryCustom.ItemPlacement targetMilk = new PantryItemRepositoryCustom.ItemPlacement(
+                    UUID.randomUUID(), targetLocationId, productId, 5, soon, null);
+
+            when(pantryItemRepository.findPlacementsAtLocationForUpdate(locationId, null))
+                    .thenReturn(List.of(milk, laterMilk, bread));
+            when(pantryItemRepository.findPlacementsAtLocationForUpdate(targetLocationId, Set.of(productId, breadId)))
+                    .thenReturn(List.of(targetMilk));
+            when(locationRepository.findHouseholdIdsByIdIn(anyCollection()))
+                    .thenReturn(List.of(locationHousehold(locationId), locationHousehold(targetLocationId)));
+
+            // When
+            MovePantryItemsResponse response = pantryItemService.movePantryItems(MovePantryItemsRequest.builder()
+                    .targetLocationId(targetLocationId)
+                    .sourceLocationId(locationId)
+                    .build());
+
+            // Then
+            assertThat(response.getMovedCount()).isEqualTo(3);
+            assertThat(response.getMergedCount()).isEqualTo(1);
+            assertThat(response.getItems())
+                    .extracting(PantryItemQuantityResponse::getId, PantryItemQuantityResponse::getQuantity)
+                    .containsExactly(tuple(targetMilk.id(), 7), tuple(laterMilk.id(), 4), tuple(bread.id(), 1));
+
+            verify(pantryItemRepository).batchIncrementQuantities(Map.of(targetMilk.id(), 2));
+            verify(pantryItemRepository).batchUpdateNotes(Map.of());
+            verify(pantryItemRepository).deleteAllByIdIn(List.of(milk.id()));
+            verify(pantryItemRepository).relocate(
+                    eq(List.of(laterMilk.id(), bread.id())), eq(targetLocationId), any(LocalDateTime.class));
+            verify(pantryItemRepository, never()).findById(any());
+            verify(inventoryStatsService).recordChanges(
+                    argThat(removed -> removed.size() == 4), argThat(added -> added.size() == 3));
+        }
+
+        @Test
+        @DisplayName("should append the distinct notes of merged items to the receiving item")
+        void whenMerging_combinesNotes() {
+            // Given
+            LocalDate soon = LocalDate.now().plusDays(2);
+            PantryItemRepositoryCustom.ItemPlacement milk = new PantryItemRepositoryCustom.ItemPlacement(
+                    UUID.randomUUID(), locationId, productId, 2, soon, " Opened ");
+            PantryItemRepositoryCustom.ItemPlacement targetMilk = new PantryItemRepositoryCustom.ItemPlacement(
+                    UUID.randomUUID(), targetLocationId, productId, 5, soon, "Top shelf");
+            PantryItemRepositoryCustom.ItemPlacement sameNotes = new PantryItemRepositoryCustom.ItemPlacement(
+                    UUID.randomUUID(), locationId, productId, 1, soon, "Top shelf");
+
+            when(pantryItemRepository.findPlacementsAtLocationForUpdate(locationId, null))
+                    .thenReturn(List.of(milk, sameNotes));
+            when(pantryItemRepository.findPlacementsAtLocationForUpdate(targetLocationId, Set.of(productId)))
+                    .thenReturn(List.of(targetMilk));
+            when(locationRepository.findHouseholdIdsByIdIn(anyCollection()))
+                    .thenReturn(List.of(locationHousehold(locationId), locationHousehold(targetLocationId)));
+
+            // When
+            pantryItemService.movePantryItems(MovePantryItemsRequest.builder()
+                    .targetLocationId(targetLocationId)
+                    .sourceLocationId(locationId)
+                    .build());
+
+            // Then
+            verify(pantryItemRepository).batchUpdateNotes(Map.of(targetMilk.id(), "Top shelf; Opened"));
+            verify(pantryItemRepository).deleteAllByIdIn(List.of(milk.id(), sameNotes.id()));
+        }
+
+        @Test
+        @DisplayName("should refuse to merge items whose combined notes do not fit")
+        void whenCombinedNotesTooLong_throwsConflictException() {
+            // Given
+            PantryItemRepositoryCustom.ItemPlacement milk = new PantryItemRepositoryCustom.ItemPlacement(
+                    UUID.randomUUID(), locationId, productId, 2, null, "a".repeat(300));
+            PantryItemRepositoryCustom.ItemPlacement targetMilk = new PantryItemRepositoryCustom.ItemPlacement(
+                    UUID.randomUUID(), targetLocationId, productId, 5, null, "b".repeat(300));
+
+            when(pantryItemRepository.findPlacementsAtLocationForUpdate(locationId, null)).thenReturn(List.of(milk));
+            when(pantryItemRepository.findPlacementsAtLocationForUpdate(targetLocationId, Set.of(productId)))
+                    .thenReturn(List.of(targetMilk));
+            when(locationRepository.findHouseholdIdsByIdIn(anyCollection()))
+                    .thenReturn(List.of(locationHousehold(locationId), locationHousehold(targetLocationId)));
+
+            // When/Then
+            assertThatThrownBy(() -> pantryItemService.movePantryItems(MovePantryItemsRequest.builder()
+                    .targetLocationId(targetLocationId)
+                    .sourceLocationId(locationId)
+                    .build()))
+                    .isInstanceOf(ConflictException.class)
+                    .hasMessageContaining(targetMilk.id().toString());
+
+            verify(pantryItemRepository, never()).batchIncrementQuantities(any());
+            verify(pantryItemRepository, never()).deleteAllByIdIn(any());
+            verifyNoInteractions(inventoryStatsService);
+        }
+
+        @Test
+        @DisplayName("should lock the involved locations before locking any item")
+        void whenMoving_locksLocationsBeforeItems() {
+            // Given
+            when(pantryItemRepository.findPlacementsAtLocationForUpdate(locationId, null)).thenReturn(List.of());
+
+            // When
+            pantryItemService.movePantryItems(MovePantryItemsRequest.builder()
+                    .targetLocationId(targetLocationId)
+                    .sourceLocationId(locationId)
+                    .build());
+
+            // Then
+            InOrder inOrder = inOrder(pantryItemRepository);
+            inOrder.verify(pantryItemRepository).lockLocations(Set.of(targetLocationId, locationId));
+            inOrder.verify(pantryItemRepository).findPlacementsAtLocationForUpdate(locationId, null);
+        }
+
+        @Test
+        @DisplayName("should confirm access where listed items are once they are locked")
+        void whenItemMovedToInaccessibleLocation_throwsInsufficientPermissionException() {
+            // Given
+            UUID otherLocationId = UUID.randomUUID();
+            UUID itemId = UUID.randomUUID();
+            when(pantryItemRepository.findPlacements(Set.of(itemId))).thenReturn(List.of(
+                    new PantryItemRepositoryCustom.ItemPlacement(itemId, locationId, productId, 1, null, null)));
+            when(pantryItemRepository.findPlacementsForUpdate(Set.of(itemId))).thenReturn(List.of(
+                    new PantryItemRepositoryCustom.ItemPlacement(itemId, otherLocationId, productId, 1, null, null)));
+            when(securityService.canAccessLocationsForPantryItems(
+                    Set.of(targetLocationId, locationId, otherLocationId))).thenReturn(false);
+
+            // When/Then
+            assertThatThrownBy(() -> pantryItemService.movePantryItems(MovePantryItemsRequest.builder()
+                    .targetLocationId(targetLocationId)
+                    .itemIds(List.of(itemId))
+                    .build()))
+                    .isInstanceOf(InsufficientPermissionException.class);
+
+            InOrder inOrder = inOrder(pantryItemRepository, securityService);
+            inOrder.verify(pantryItemRepository).lockLocations(Set.of(targetLocationId, locationId));
+            inOrder.verify(pantryItemRepository).findPlacementsForUpdate(Set.of(itemId));
+            inOrder.verify(securityService).canAccessLocationsForPantryItems(
+                    Set.of(targetLocationId, locationId, otherLocationId));
+            verify(pantryItemRepository, never()).relocate(any(), any(), any());
+            verifyNoInteractions(inventoryStatsService);
+        }
+
+        @Test
+        @DisplayName("should throw NotFoundException when a listed item does not exist")
+        void whenItemMissing_throwsNotFoundException() {
+            // Given
+            UUID missingId = UUID.randomUUID();
+            when(pantryItemRepository.findPlacements(Set.of(missingId))).thenReturn(List.of());
+            when(pantryItemRepository.findPlacementsForUpdate(Set.of(missingId))).thenReturn(new ArrayList<>());
+
+            // When/Then
+            assertThatThrownBy(() -> pantryItemService.movePantryItems(MovePantryItemsRequest.builder()
+                    .targetLocationId(targetLocationId)
+                    .itemIds(List.of(missingId))
+                    .build()))
+                    .isInstanceOf(NotFoundException.class)
+                    .hasMessageContaining(missingId.toString());
+        }
+
+        @Test
+        @DisplayName("should require exactly one of item IDs and source location")
+        void whenBothSelectorsGiven_throwsValidationException() {
+            // When/Then
+            assertThatThrownBy(() -> pantryItemService.movePantryItems(MovePantryItemsRequest.builder()
+                    .targetLocationId(targetLocationId)
+                    .sourceLocationId(locationId)
+                    .itemIds(List.of(pantryItemId))
+                    .build()))
+                    .isInstanceOf(ValidationException.class)
+                    .hasMessageContaining("Exactly one");
+
+            verifyNoInteractions(pantryItemRepository, securityService);
+        }
+
+        private LocationRepository.LocationHousehold locationHousehold(UUID id) {
+            return new LocationRepository.LocationHousehold() {
+                @Override
+                public UUID getLocationId() {
+                    return id;
+                }
+
+                @Override
+                public UUID getHouseholdId() {
+                    return householdId;
+                }
+            };
+        }
+    }
+
     // ==================== Delete Pantry Item Tests ====================
 
     @Nested
@@ -814,6 +1375,8 @@ class PantryItemServiceTest {
             verify(securityService).getCurrentUserId();
             verify(pantryItemRepository).findById(eq(pantryItemId));
             verify(pantryItemRepository).delete(eq(testPantryItem));
+            verify(inventoryStatsService).recordChange(
+                    eq(InventoryStatsService.ItemFootprint.of(testPantryItem)), isNull());
         }
 
         @Test
@@ -840,6 +1403,207 @@ class PantryItemServiceTest {
 
             verify(pantryItemRepository).findById(eq(pantryItemId));
             verify(pantryItemRepository, never()).delete(any());
+            verifyNoInteractions(inventoryStatsService);
+        }
+    }
+
+    // ==================== Search Tests ====================
+
+    @Nested
+    @DisplayName("searchPantryItems")
+    class SearchPantryItemsTests {
+
+        @Test
+        @DisplayName("should use substring search when trigram search is disabled")
+        void whenTrigramDisabled_usesSubstringSearch() {
+            // Given
+            Pageable pageable = PageRequest.of(0, 10);
+            when(pantryItemRepository.searchItemsInHousehold(householdId, "milk", pageable))
+                    .thenReturn(new PageImpl<>(List.of(testPantryItem), pageable, 1));
+
+            // When
+            Page<PantryItemResponse> page = pantryItemService.searchPantryItems(householdId, "milk", pageable);
+
+            // Then
+            assertThat(page.getContent()).extracting(PantryItemResponse::getId).containsExactly(pantryItemId);
+            verify(pantryItemRepository, never()).searchRankedIdsInHousehold(any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("should return ranked results in similarity order when trigram search is enabled")
+        void whenTrigramEnabled_keepsRankingOrder() {
+            // Given
+            ReflectionTestUtils.setField(pantryItemService, "trigramSearchEnabled", true);
+            PantryItem secondItem = PantryItem.builder()
+                    .id(UUID.randomUUID())
+                    .product(testProduct)
+                    .location(testLocation)
+                    .quantity(1)
+                    .build();
+            Pageable pageable = PageRequest.of(0, 2);
+            when(pantryItemRepository.searchRankedIdsInHousehold(householdId, "mlk", pageable))
+                    .thenReturn(new PageImpl<>(List.of(secondItem.getId(), pantryItemId), pageable, 5));
+            when(pantryItemRepository.findWithDetailsByIdIn(List.of(secondItem.getId(), pantryItemId)))
+                    .thenReturn(List.of(testPantryItem, secondItem));
+
+            // When
+            Page<PantryItemResponse> page = pantryItemService.searchPantryItems(householdId, " mlk ", pageable);
+
+            // Then
+            assertThat(page.getContent()).extracting(PantryItemResponse::getId)
+                    .containsExactly(secondItem.getId(), pantryItemId);
+            assertThat(page.getTotalElements()).isEqualTo(5);
+            verify(pantryItemRepository, never()).searchItemsInHousehold(any(), any(), any(Pageable.class));
+        }
+
+        @Test
+        @DisplayName("should page trigram matches by keyset when trigram search is enabled")
+        void whenTrigramEnabled_pagesTrigramMatchesByKeyset() {
+            // Given
+            ReflectionTestUtils.setField(pantryItemService, "trigramSearchEnabled", true);
+            PantryItem secondItem = PantryItem.builder()
+                    .id(UUID.randomUUID())
+                    .product(testProduct)
+                    .location(testLocation)
+                    .quantity(1)
+                    .build();
+            when(pantryItemRepository.searchTrigramPageIdsInHousehold(
+                    eq(householdId), eq("mlk"), eq(""), any(), any(), eq(2)))
+                    .thenReturn(List.of(pantryItemId, secondItem.getId()));
+            when(pantryItemRepository.findWithDetailsByIdIn(List.of(pantryItemId, secondItem.getId())))
+                    .thenReturn(List.of(secondItem, testPantryItem));
+            when(pantryItemRepository.countTrigramSearchItemsInHousehold(householdId, "mlk")).thenReturn(3L);
+
+            // When
+            CursorPageResponse<PantryItemResponse> page =
+                    pantryItemService.searchPantryItems(householdId, " mlk ", null, 1, true);
+
+            // Then
+            assertThat(page.getContent()).extracting(PantryItemResponse::getId).containsExactly(pantryItemId);
+            assertThat(page.isHasNext()).isTrue();
+            assertThat(page.getTotalElements()).isEqualTo(3);
+            verify(pantryItemRepository, never()).searchPageInHousehold(any(), any(), any(), any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("should skip loading items when nothing matches")
+        void whenNoMatches_returnsEmptyPage() {
+            // Given
+            ReflectionTestUtils.setField(pantryItemService, "trigramSearchEnabled", true);
+            when(pantryItemRepository.searchRankedIdsInHousehold(eq(householdId), eq("zzz"), any()))
+                    .thenReturn(Page.empty());
+
+            // When
+            List<PantryItemResponse> results = pantryItemService.searchPantryItems(householdId, "zzz");
+
+            // Then
+            assertThat(results).isEmpty();
+            verify(pantryItemRepository, never()).findWithDetailsByIdIn(any());
+        }
+
+        @Test
+        @DisplayName("should throw ValidationException when search term is blank")
+        void whenSearchTermBlank_throwsValidationException() {
+            // When/Then
+            assertThatThrownBy(() -> pantryItemService.searchPantryItems(householdId, " ", PageRequest.of(0, 10)))
+                    .isInstanceOf(ValidationException.class)
+                    .hasMessageContaining("Search term cannot be null or empty");
+
+            verifyNoInteractions(pantryItemRepository);
+        }
+    }
+
+    // ==================== Statistics Tests ====================
+
+    @Nested
+    @DisplayName("getPantryStatistics")
+    class GetPantryStatisticsTests {
+
+        @Test
+        @DisplayName("should read household counters and only query threshold-dependent counts")
+        void whenCountersExist_readsCountersAndThresholdCounts() {
+            // Given
+            HouseholdInventoryStats counters = HouseholdInventoryStats.builder()
+                    .householdId(householdId)
+                    .totalItems(12)
+                    .distinctProducts(7)
+                    .zeroQuantityItems(1)
+                    .noExpirationItems(4)
+                    .build();
+            PantryItemRepository.PantryThresholdCounts thresholdCounts =
+                    mock(PantryItemRepository.PantryThresholdCounts.class);
+            when(thresholdCounts.getLowStockCount()).thenReturn(3L);
+            when(thresholdCounts.getExpiringCount()).thenReturn(2L);
+            when(inventoryStatsService.getStats(householdId)).thenReturn(Optional.of(counters));
+            when(pantryItemRepository.countThresholdItemsByHouseholdId(
+                    householdId, 2, LocalDate.now().plusDays(14)))
+                    .thenReturn(thresholdCounts);
+
+            // When
+            PantryStatisticsResponse response = pantryItemService.getPantryStatistics(householdId, 2, 14);
+
+            // Then
+            assertThat(response.getTotalItems()).isEqualTo(12);
+            assertThat(response.getDistinctProducts()).isEqualTo(7);
+            assertThat(response.getZeroQuantityCount()).isEqualTo(1);
+            assertThat(response.getNoExpirationDateCount()).isEqualTo(4);
+            assertThat(response.getLowStockCount()).isEqualTo(3);
+            assertThat(response.getExpiringCount()).isEqualTo(2);
+            verify(pantryItemRepository, never()).aggregateStatisticsByHouseholdId(any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("should fall back to a single aggregate query when counters are missing")
+        void whenValidHouseholdId_returnsStatisticsFromSingleQuery() {
+            // Given
+            PantryItemRepository.PantryStatistics aggregate = mock(PantryItemRepository.PantryStatistics.class);
+            when(aggregate.getTotalItems()).thenReturn(12L);
+            when(aggregate.getDistinctProducts()).thenReturn(7L);
+            when(aggregate.getLowStockCount()).thenReturn(3L);
+            when(aggregate.getExpiringCount()).thenReturn(2L);
+            when(aggregate.getNoExpirationDateCount()).thenReturn(4L);
+            when(aggregate.getZeroQuantityCount()).thenReturn(1L);
+            when(inventoryStatsService.getStats(householdId)).thenReturn(Optional.empty());
+            when(pantryItemRepository.aggregateStatisticsByHouseholdId(
+                    householdId, 2, LocalDate.now().plusDays(14)))
+                    .thenReturn(aggregate);
+
+            // When
+            PantryStatisticsResponse response = pantryItemService.getPantryStatistics(householdId, 2, 14);
+
+            // Then
+            assertThat(response.getTotalItems()).isEqualTo(12);
+            assertThat(response.getDistinctProducts()).isEqualTo(7);
+            assertThat(response.getLowStockCount()).isEqualTo(3);
+            assertThat(response.getExpiringCount()).isEqualTo(2);
+            assertThat(response.getNoExpirationDateCount()).isEqualTo(4);
+            assertThat(response.getZeroQuantityCount()).isEqualTo(1);
+            assertThat(response.getLowStockThreshold()).isEqualTo(2);
+            assertThat(response.getExpiringWithinDays()).isEqualTo(14);
+            verify(pantryItemRepository).aggregateStatisticsByHouseholdId(any(), any(), any());
+            verifyNoMoreInteractions(pantryItemRepository);
+        }
+
+        @Test
+        @DisplayName("should throw ValidationException when a threshold is negative")
+        void whenThresholdNegative_throwsValidationException() {
+            // When/Then
+            assertThatThrownBy(() -> pantryItemService.getPantryStatistics(householdId, -1, 7))
+                    .isInstanceOf(ValidationException.class)
+                    .hasMessageContaining("Low stock threshold cannot be negative");
+
+            verifyNoInteractions(pantryItemRepository);
+        }
+
+        @Test
+        @DisplayName("should throw ValidationException when household ID is null")
+        void whenHouseholdIdIsNull_throwsValidationException() {
+            // When/Then
+            assertThatThrownBy(() -> pantryItemService.getPantryStatistics(null))
+                    .isInstanceOf(ValidationException.class)
+                    .hasMessageContaining("Household ID cannot be null");
+
+            verifyNoInteractions(securityService, pantryItemRepository);
         }
     }
 
@@ -850,23 +1614,159 @@ class PantryItemServiceTest {
     class CreateMultiplePantryItemsTests {
 
         @Test
-        @DisplayName("should create multiple pantry items successfully")
-        void whenValidRequests_createsMultiplePantryItems() {
+        @DisplayName("should merge duplicate requests into a single inserted item")
+        void whenDuplicateRequests_mergesIntoSingleInsert() {
             // Given
             List<CreatePantryItemRequest> requests = Arrays.asList(createRequest, createRequest);
-            
-            when(locationRepository.findById(eq(locationId))).thenReturn(Optional.of(testLocation));
-            when(productRepository.findById(eq(productId))).thenReturn(Optional.of(testProduct));
-            when(pantryItemRepository.findByLocationIdAndProductIdAndExpirationDate(any(), any(), any()))
-                    .thenReturn(Optional.empty());
-            when(pantryItemRepository.save(any(PantryItem.class))).thenReturn(testPantryItem);
+
+            when(securityService.getCurrentUserId()).thenReturn(userId);
+            when(locationRepository.findAllById(anyCollection())).thenReturn(List.of(testLocation));
+            when(productRepository.findAllById(anyCollection())).thenReturn(List.of(testProduct));
+            when(pantryItemRepository.batchInsertOrConsolidate(anyList())).thenAnswer(insertedAll());
 
             // When
             List<PantryItemResponse> responses = pantryItemService.createMultiplePantryItems(requests);
 
             // Then
-            assertThat(responses).hasSize(2);
-            verify(pantryItemRepository, times(2)).save(any(PantryItem.class));
+            assertThat(responses).hasSize(1);
+            assertThat(responses.getFirst().getQuantity()).isEqualTo(10);
+            verify(pantryItemRepository).batchInsertOrConsolidate(argThat(items -> items.size() == 1
+                    && items.getFirst().getQuantity() == 10
+                    && items.getFirst().getId() != null));
+            verify(pantryItemRepository, never()).findAllById(anyCollection());
+            verify(pantryItemRepository, never()).save(any(PantryItem.class));
+        }
+
+        @Test
+        @DisplayName("should resolve scanned UPCs before opening the transaction")
+        void whenScanned_resolvesUpcsBeforeTransaction() {
+            // Given
+            Product newProduct = Product.builder().id(UUID.randomUUID()).upc("4006381333931").name("New").build();
+            CreatePantryItemRequest known = CreatePantryItemRequest.builder()
+                    .upc("0123456789012").locationId(locationId).quantity(1).build();
+            CreatePantryItemRequest unknown = CreatePantryItemRequest.builder()
+                    .upc("4006381333931").locationId(locationId).quantity(2).build();
+
+            when(securityService.getCurrentUserId()).thenReturn(userId);
+            when(productService.getProductsByUpcs(anyCollection())).thenReturn(Map.of(
+                    Gtin.canonical("0123456789012"), ProductResponse.builder().id(productId).upc("0123456789012").build(),
+                    Gtin.canonical("4006381333931"), ProductResponse.builder().id(newProduct.getId()).upc("4006381333931").build()));
+            when(locationRepository.findAllById(anyCollection())).thenReturn(List.of(testLocation));
+            when(productRepository.findAllById(Set.of(productId, newProduct.getId())))
+                    .thenReturn(List.of(testProduct, newProduct));
+            when(pantryItemRepository.batchInsertOrConsolidate(anyList())).thenAnswer(insertedAll());
+
+            // When
+            List<PantryItemResponse> responses = pantryItemService.createMultiplePantryItems(List.of(known, unknown));
+
+            // Then
+            assertThat(responses).extracting(response -> response.getProduct().getId())
+                    .containsExactlyInAnyOrder(productId, newProduct.getId());
+            InOrder inOrder = inOrder(productService, transactionTemplate, pantryItemRepository);
+            inOrder.verify(productService).getProductsByUpcs(argThat(upcs ->
+                    upcs.size() == 2 && upcs.containsAll(List.of("0123456789012", "4006381333931"))));
+            inOrder.verify(transactionTemplate).execute(any());
+            inOrder.verify(pantryItemRepository).batchInsertOrConsolidate(anyList());
+            verifyNoMoreInteractions(productService);
+        }
+
+        @Test
+        @DisplayName("should consolidate into existing item with matching expiration date")
+        void whenMatchingItemExists_incrementsExistingQuantity() {
+            // Given
+            CreatePantryItemRequest request = CreatePantryItemRequest.builder()
+                    .productId(productId)
+                    .locationId(locationId)
+                    .quantity(3)
+                    .expirationDate(testPantryItem.getExpirationDate())
+                    .build();
+
+            when(securityService.getCurrentUserId()).thenReturn(userId);
+            when(locationRepository.findAllById(anyCollection())).thenReturn(List.of(testLocation));
+            when(productRepository.findAllById(anyCollection())).thenReturn(List.of(testProduct));
+            when(pantryItemRepository.batchInsertOrConsolidate(anyList())).thenReturn(List.of(
+                    new PantryItemRepositoryCustom.ConsolidationResult(pantryItemId, 8, false)));
+            when(pantryItemRepository.findAllById(Set.of(pantryItemId))).thenReturn(List.of(testPantryItem));
+
+            // When
+            List<PantryItemResponse> responses = pantryItemService.createMultiplePantryItems(List.of(request));
+
+            // Then
+            assertThat(responses).hasSize(1);
+            assertThat(responses.getFirst().getId()).isEqualTo(pantryItemId);
+            assertThat(responses.getFirst().getQuantity()).isEqualTo(8);
+            verify(pantryItemRepository, never()).batchInsert(any());
+            verify(pantryItemRepository, never()).batchIncrementQuantities(any());
+            verify(inventoryStatsService).recordChanges(
+                    argThat(removed -> removed.size() == 1), argThat(added -> added.size() == 1));
+        }
+
+        @Test
+        @DisplayName("should issue a constant number of repository calls regardless of batch size")
+        void whenLargeBatch_usesConstantNumberOfRepositoryCalls() {
+            // Given
+            List<CreatePantryItemRequest> requests = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                requests.add(CreatePantryItemRequest.builder()
+                        .productId(productId)
+                        .locationId(locationId)
+                        .quantity(1)
+                        .expirationDate(LocalDate.now().plusDays(i))
+                        .build());
+            }
+
+            when(securityService.getCurrentUserId()).thenReturn(userId);
+            when(locationRepository.findAllById(anyCollection())).thenReturn(List.of(testLocation));
+            when(productRepository.findAllById(anyCollection())).thenReturn(List.of(testProduct));
+            when(pantryItemRepository.batchInsertOrConsolidate(anyList())).thenAnswer(insertedAll());
+
+            // When
+            List<PantryItemResponse> responses = pantryItemService.createMultiplePantryItems(requests);
+
+            // Then
+            assertThat(responses).hasSize(50);
+            verify(locationRepository, times(1)).findAllById(anyCollection());
+            verify(productRepository, times(1)).findAllById(anyCollection());
+            verify(pantryItemRepository, times(1)).batchInsertOrConsolidate(argThat(items -> items.size() == 50));
+            verify(locationRepository, never()).findById(any());
+            verify(productRepository, never()).findById(any());
+            verify(pantryItemRepository, never()).findByLocationIdAndProductIdAndExpirationDate(any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("should throw NotFoundException when a location does not exist")
+        void whenLocationMissing_throwsNotFoundException() {
+            // Given
+            when(securityService.getCurrentUserId()).thenReturn(userId);
+            when(locationRepository.findAllById(anyCollection())).thenReturn(Collections.emptyList());
+
+            // When/Then
+            assertThatThrownBy(() -> pantryItemService.createMultiplePantryItems(List.of(createRequest)))
+                    .isInstanceOf(NotFoundException.class)
+                    .hasMessageContaining("Location not found");
+
+            verify(pantryItemRepository, never()).batchInsertOrConsolidate(any());
+        }
+
+        @Test
+        @DisplayName("should deny rather than fail authorization when the list contains a null request")
+        void whenRequestsContainNull_authorizationDeniesAccess() throws Exception {
+            // Given
+            String expression = PantryItemService.class
+                    .getMethod("createMultiplePantryItems", List.class)
+                    .getAnnotation(PreAuthorize.class)
+                    .value();
+            StandardEvaluationContext context = new StandardEvaluationContext();
+            context.setBeanResolver((evaluationContext, beanName) -> securityService);
+            context.setVariable("requests", Arrays.asList(createRequest, null));
+            when(securityService.canAccessLocationsForPantryItems(anyCollection())).thenReturn(false);
+
+            // When
+            Boolean allowed = new SpelExpressionParser().parseExpression(expression).getValue(context, Boolean.class);
+
+            // Then
+            assertThat(allowed).isFalse();
+            verify(securityService).canAccessLocationsForPantryItems(Arrays.asList(locationId, null));
         }
 
         @Test
@@ -890,6 +1790,16 @@ class PantryItemServiceTest {
 
             verifyNoInteractions(securityService, pantryItemRepository);
         }
+
+        private Answer<List<PantryItemRepositoryCustom.ConsolidationResult>> insertedAll() {
+            return invocation -> {
+                List<PantryItem> items = invocation.getArgument(0);
+                return items.stream()
+                        .map(item -> new PantryItemRepositoryCustom.ConsolidationResult(
+                                item.getId(), item.getQuantity(), true))
+                        .toList();
+            };
+        }
     }
 
     @Nested
@@ -897,46 +1807,154 @@ class PantryItemServiceTest {
     class DeleteMultiplePantryItemsTests {
 
         @Test
-        @DisplayName("should delete multiple pantry items successfully")
-        void whenValidIds_deletesMultiplePantryItems() {
+        @DisplayName("should delete accessible items with a single statement")
+        void whenValidIds_deletesWithSingleStatement() {
             // Given
             UUID id1 = UUID.randomUUID();
             UUID id2 = UUID.randomUUID();
-            List<UUID> itemIds = Arrays.asList(id1, id2);
+            List<UUID> itemIds = Arrays.asList(id1, id2, id1);
 
-            when(securityService.canAccessPantryItem(eq(id1))).thenReturn(true);
-            when(securityService.canAccessPantryItem(eq(id2))).thenReturn(true);
-            when(pantryItemRepository.findById(eq(id1))).thenReturn(Optional.of(testPantryItem));
-            when(pantryItemRepository.findById(eq(id2))).thenReturn(Optional.of(testPantryItem));
-            doNothing().when(pantryItemRepository).delete(any(PantryItem.class));
+            when(securityService.getCurrentUserId()).thenReturn(userId);
+            when(pantryItemRepository.findAccessByIdInAndUserId(anyCollection(), eq(userId)))
+                    .thenReturn(List.of(access(id1, true), access(id2, true)));
+            when(pantryItemRepository.findPlacementsForUpdate(List.of(id1, id2)))
+                    .thenReturn(List.of(placement(id1, 1), placement(id2, 1)));
+            when(pantryItemRepository.deleteAllByIdIn(List.of(id1, id2))).thenReturn(2);
 
             // When
-            int deletedCount = pantryItemService.deleteMultiplePantryItems(itemIds);
+            BatchDeletePantryItemsResponse response = pantryItemService.deleteMultiplePantryItems(itemIds);
 
             // Then
-            assertThat(deletedCount).isEqualTo(2);
-            verify(pantryItemRepository, times(2)).delete(any(PantryItem.class));
+            assertThat(response.getDeletedCount()).isEqualTo(2);
+            assertThat(response.getDeleted()).containsExactly(id1, id2);
+            assertThat(response.getForbidden()).isEmpty();
+            assertThat(response.getNotFound()).isEmpty();
+            verify(pantryItemRepository, times(1)).findAccessByIdInAndUserId(anyCollection(), eq(userId));
+            verify(pantryItemRepository, times(1)).deleteAllByIdIn(anyCollection());
+            verify(pantryItemRepository, never()).delete(any(PantryItem.class));
+            verify(securityService, never()).canAccessPantryItem(any());
+            verify(inventoryStatsService).recordChanges(argThat(removed -> removed.size() == 2), eq(List.of()));
         }
 
         @Test
-        @DisplayName("should skip items without access")
-        void whenNoAccessToSomeItems_skipsThoseItems() {
+        @DisplayName("should report forbidden and missing items separately")
+        void whenMixedAccess_reportsPerIdOutcome() {
             // Given
-            UUID id1 = UUID.randomUUID();
-            UUID id2 = UUID.randomUUID();
-            List<UUID> itemIds = Arrays.asList(id1, id2);
+            UUID accessibleId = UUID.randomUUID();
+            UUID forbiddenId = UUID.randomUUID();
+            UUID missingId = UUID.randomUUID();
+            List<UUID> itemIds = List.of(accessibleId, forbiddenId, missingId);
+
+            when(securityService.getCurrentUserId()).thenReturn(userId);
+            when(pantryItemRepository.findAccessByIdInAndUserId(anyCollection(), eq(userId)))
+                    .thenReturn(List.of(access(accessibleId, true), access(forbiddenId, false)));
+            when(pantryItemRepository.findPlacementsForUpdate(List.of(accessibleId)))
+                    .thenReturn(List.of(placement(accessibleId, 1)));
+            when(pantryItemRepository.deleteAllByIdIn(List.of(accessibleId))).thenReturn(1);
 
-            when(securityService.canAccessPantryItem(eq(id1))).thenReturn(true);
-            when(securityService.canAccessPantryItem(eq(id2))).thenReturn(false);
-            when(pantryItemRepository.findById(eq(id1))).thenReturn(Optional.of(testPantryItem));
-            doNothing().when(pantryItemRepository).delete(any(PantryItem.class));
+            // When
+            BatchDeletePantryItemsResponse response = pantryItemService.deleteMultiplePantryItems(itemIds);
+
+            // Then
+            assertThat(response.getDeletedCount()).isEqualTo(1);
+            assertThat(response.getDeleted()).containsExactly(accessibleId);
+            assertThat(response.getForbidden()).containsExactly(forbiddenId);
+            assertThat(response.getNotFound()).containsExactly(missingId);
+        }
+
+        @Test
+        @DisplayName("should not issue a delete when no item is accessible")
+        void whenNoAccessibleItems_skipsDelete() {
+            // Given
+            UUID forbiddenId = UUID.randomUUID();
+
+            when(securityService.getCurrentUserId()).thenReturn(userId);
+            when(pantryItemRepository.findAccessByIdInAndUserId(anyCollection(), eq(userId)))
+                    .thenReturn(List.of(access(forbiddenId, false)));
+
+            // When
+            BatchDeletePantryItemsResponse response = pantryItemService.deleteMultiplePantryItems(List.of(forbiddenId));
+
+            // Then
+            assertThat(response.getDeletedCount()).isZero();
+            assertThat(response.getForbidden()).containsExactly(forbiddenId);
+            verify(pantryItemRepository, never()).findPlacementsForUpdate(any());
+            verify(pantryItemRepository, never()).deleteAllByIdIn(any());
+        }
+
+        @Test
+        @DisplayName("should update counters from the locked rows")
+        void whenItemChangedBeforeLock_recordsLockedState() {
+            // Given
+            UUID itemId = UUID.randomUUID();
+
+            when(securityService.getCurrentUserId()).thenReturn(userId);
+            when(pantryItemRepository.findAccessByIdInAndUserId(anyCollection(), eq(userId)))
+                    .thenReturn(List.of(access(itemId, true)));
+            // Emptied by another transaction between the access check and the lock
+            when(pantryItemRepository.findPlacementsForUpdate(List.of(itemId)))
+                    .thenReturn(List.of(placement(itemId, 0)));
+            when(pantryItemRepository.deleteAllByIdIn(List.of(itemId))).thenReturn(1);
 
             // When
-            int deletedCount = pantryItemService.deleteMultiplePantryItems(itemIds);
+            pantryItemService.deleteMultiplePantryItems(List.of(itemId));
 
             // Then
-            assertThat(deletedCount).isEqualTo(1);
-            verify(pantryItemRepository, times(1)).delete(any(PantryItem.class));
+            InOrder inOrder = inOrder(pantryItemRepository);
+            inOrder.verify(pantryItemRepository).findPlacementsForUpdate(List.of(itemId));
+            inOrder.verify(pantryItemRepository).deleteAllByIdIn(List.of(itemId));
+            verify(inventoryStatsService).recordChanges(
+                    eq(List.of(new InventoryStatsService.ItemFootprint(householdId, productId, true, true))),
+                    eq(List.of()));
+        }
+
+        @Test
+        @DisplayName("should report items deleted concurrently as not found")
+        void whenItemDeletedBeforeLock_reportsNotFound() {
+            // Given
+            UUID keptId = UUID.randomUUID();
+            UUID goneId = UUID.randomUUID();
+
+            when(securityService.getCurrentUserId()).thenReturn(userId);
+            when(pantryItemRepository.findAccessByIdInAndUserId(anyCollection(), eq(userId)))
+                    .thenReturn(List.of(access(keptId, true), access(goneId, true)));
+            when(pantryItemRepository.findPlacementsForUpdate(List.of(keptId, goneId)))
+                    .thenReturn(List.of(placement(keptId, 2)));
+            when(pantryItemRepository.deleteAllByIdIn(List.of(keptId))).thenReturn(1);
+
+            // When
+            BatchDeletePantryItemsResponse response =
+                    pantryItemService.deleteMultiplePantryItems(List.of(keptId, goneId));
+
+            // Then
+            assertThat(response.getDeletedCount()).isEqualTo(1);
+            assertThat(response.getDeleted()).containsExactly(keptId);
+            assertThat(response.getNotFound()).containsExactly(goneId);
+            verify(inventoryStatsService).recordChanges(argThat(removed -> removed.size() == 1), eq(List.of()));
+        }
+
+        @Test
+        @DisplayName("should check access again for items moved before the lock")
+        void whenItemMovedBeforeLock_checksAccessAgain() {
+            // Given
+            UUID itemId = UUID.randomUUID();
+            UUID otherLocationId = UUID.randomUUID();
+
+            when(securityService.getCurrentUserId()).thenReturn(userId);
+            when(pantryItemRepository.findAccessByIdInAndUserId(anyCollection(), eq(userId)))
+                    .thenReturn(List.of(access(itemId, true, otherLocationId)))
+                    .thenReturn(List.of(access(itemId, false)));
+            when(pantryItemRepository.findPlacementsForUpdate(List.of(itemId)))
+                    .thenReturn(List.of(placement(itemId, 1)));
+
+            // When
+            BatchDeletePantryItemsResponse response = pantryItemService.deleteMultiplePantryItems(List.of(itemId));
+
+            // Then
+            assertThat(response.getForbidden()).containsExactly(itemId);
+            verify(pantryItemRepository, times(2)).findAccessByIdInAndUserId(anyCollection(), eq(userId));
+            verify(pantryItemRepository, never()).deleteAllByIdIn(any());
+            verifyNoInteractions(inventoryStatsService);
         }
 
         @Test
@@ -960,5 +1978,37 @@ class PantryItemServiceTest {
 
             verifyNoInteractions(securityService, pantryItemRepository);
         }
+
+        private PantryItemRepository.PantryItemAccess access(UUID id, boolean accessible) {
+            return access(id, accessible, locationId);
+        }
+
+        private PantryItemRepository.PantryItemAccess access(UUID id, boolean accessible, UUID itemLocationId) {
+            return new PantryItemRepository.PantryItemAccess() {
+                @Override
+                public UUID getId() {
+                    return id;
+                }
+
+                @Override
+                public boolean isAccessible() {
+                    return accessible;
+                }
+
+                @Override
+                public UUID getLocationId() {
+                    return itemLocationId;
+                }
+
+                @Override
+                public UUID getHouseholdId() {
+                    return householdId;
+                }
+            };
+        }
+
+        private PantryItemRepositoryCustom.ItemPlacement placement(UUID id, int quantity) {
+            return new PantryItemRepositoryCustom.ItemPlacement(id, locationId, productId, quantity, null, null);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,280 @@
+package org.cubord.cubordbackend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.cubord.cubordbackend.dto.product.ProductResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ProductCache Tests")
+class ProductCacheTest {
+
+    private static final String UPC = "123456789012";
+
+    private SimpleMeterRegistry meterRegistry;
+    private ProductCache productCache;
+    private AtomicLong clock;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        clock = new AtomicLong();
+        productCache = new ProductCache(meterRegistry);
+        ReflectionTestUtils.setField(productCache, "maximumSize", 2);
+        ReflectionTestUtils.setField(productCache, "expireAfterWrite", Duration.ofHours(24));
+        ReflectionTestUtils.setField(productCache, "refreshAfterWrite", Duration.ofHours(1));
+        ReflectionTestUtils.setField(productCache, "refreshThreads", 1);
+        ReflectionTestUtils.setField(productCache, "ticker", (LongSupplier) clock::get);
+        productCache.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        productCache.shutdown();
+    }
+
+    private static ProductResponse product(String upc, String name) {
+        return ProductResponse.builder().id(UUID.randomUUID()).upc(upc).name(name).build();
+    }
+
+    private void advance(Duration duration) {
+        clock.addAndGet(duration.toNanos());
+    }
+
+    private double count(String name, String tag, String value) {
+        return meterRegistry.get(name).tag(tag, value).counter().count();
+    }
+
+    @Nested
+    @DisplayName("get")
+    class GetTests {
+
+        @Test
+        @DisplayName("should load on a miss and serve later lookups from memory")
+        void shouldLoadOnMissAndServeHits() {
+            // Given
+            AtomicInteger loads = new AtomicInteger();
+            Function<String, ProductResponse> loader = upc -> {
+                loads.incrementAndGet();
+                return product(upc, "Milk");
+            };
+
+            // When
+            ProductResponse first = productCache.get(UPC, loader);
+            ProductResponse second = productCache.get(UPC, loader);
+
+            // Then
+            assertThat(second).isSameAs(first);
+            assertThat(loads).hasValue(1);
+            assertThat(count("cubord.product.cache.gets", "result", "miss")).isEqualTo(1);
+            assertThat(count("cubord.product.cache.gets", "result", "hit")).isEqualTo(1);
+            assertThat(meterRegistry.get("cubord.product.cache.size").gauge().value()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("should not cache lookups that found no product")
+        void shouldNotCacheMissingProducts() {
+            // When
+            ProductResponse response = productCache.get(UPC, upc -> null);
+
+            // Then
+            assertThat(response).isNull();
+            assertThat(productCache.size()).isZero();
+        }
+
+        @Test
+        @DisplayName("should serve a stale entry while refreshing it in the background")
+        void shouldServeStaleEntryWhileRefreshing() throws InterruptedException {
+            // Given
+            ProductResponse original = product(UPC, "Milk");
+            ProductResponse refreshed = product(UPC, "Whole Milk");
+            productCache.put(UPC, original);
+            advance(Duration.ofHours(2));
+            CountDownLatch refreshedLatch = new CountDownLatch(1);
+
+            // When
+            ProductResponse stale = productCache.get(UPC, upc -> {
+                refreshedLatch.countDown();
+                return refreshed;
+            });
+
+            // Then
+            assertThat(stale).isSameAs(original);
+            assertThat(refreshedLatch.await(5, TimeUnit.SECONDS)).isTrue();
+            awaitRefreshCount(1);
+            assertThat(productCache.get(UPC, upc -> null)).isSameAs(refreshed);
+        }
+
+        @Test
+        @DisplayName("should keep the stale entry when a background refresh fails")
+        void shouldKeepStaleEntryWhenRefreshFails() throws InterruptedException {
+            // Given
+            ProductResponse original = product(UPC, "Milk");
+            productCache.put(UPC, original);
+            advance(Duration.ofHours(2));
+
+            // When
+            productCache.get(UPC, upc -> {
+                throw new IllegalStateException("database unavailable");
+            });
+            awaitRefreshCount(1);
+
+            // Then
+            assertThat(count("cubord.product.cache.refreshes", "outcome", "failure")).isEqualTo(1);
+            assertThat(productCache.size()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("should reload entries older than the expiry instead of serving them")
+        void shouldReloadExpiredEntries() {
+            // Given
+            productCache.put(UPC, product(UPC, "Milk"));
+            advance(Duration.ofHours(25));
+            ProductResponse reloaded = product(UPC, "Whole Milk");
+
+            // When
+            ProductResponse response = productCache.get(UPC, upc -> reloaded);
+
+            // Then
+            assertThat(response).isSameAs(reloaded);
+            assertThat(count("cubord.product.cache.evictions", "cause", "expired")).isEqualTo(1);
+            assertThat(count("cubord.product.cache.gets", "result", "miss")).isEqualTo(1);
+        }
+
+        private void awaitRefreshCount(int expected) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (count("cubord.product.cache.refreshes", "outcome", "success")
+                    + count("cubord.product.cache.refreshes", "outcome", "failure") < expected) {
+                assertThat(System.nanoTime()).isLessThan(deadline);
+                Thread.sleep(10);
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("eviction")
+    class EvictionTests {
+
+        @Test
+        @DisplayName("should evict the least recently used entry when full")
+        void shouldEvictLeastRecentlyUsedEntry() {
+            // Given
+            productCache.put("1", product("1", "Milk"));
+            productCache.put("2", product("2", "Bread"));
+            productCache.get("1", upc -> null);
+
+            // When
+            productCache.put("3", product("3", "Eggs"));
+
+            // Then
+            assertThat(productCache.size()).isEqualTo(2);
+            assertThat(productCache.get("1", upc -> null)).isNotNull();
+            assertThat(productCache.get("2", upc -> null)).isNull();
+            assertThat(count("cubord.product.cache.evictions", "cause", "size")).isEqualTo(1);
+        }
+    }
+
+    @Nested
+    @DisplayName("invalidate")
+    class InvalidateTests {
+
+        @Test
+        @DisplayName("should remove the entry for the UPC")
+        void shouldRemoveEntry() {
+            // Given
+            productCache.put(UPC, product(UPC, "Milk"));
+
+            // When
+            productCache.invalidate(UPC);
+
+            // Then
+            assertThat(productCache.size()).isZero();
+        }
+
+        @Test
+        @DisplayName("should remove the entry only after the transaction commits")
+        void shouldRemoveEntryAfterCommit() {
+            // Given
+            productCache.put(UPC, product(UPC, "Milk"));
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                // When
+                productCache.invalidate(UPC);
+
+                // Then
+                assertThat(productCache.size()).isEqualTo(1);
+
+                // When
+                TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+                // Then
+                assertThat(productCache.size()).isZero();
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+        }
+
+        @Test
+        @DisplayName("should keep the entry when the transaction rolls back")
+        void shouldKeepEntryOnRollback() {
+            // Given
+            productCache.put(UPC, product(UPC, "Milk"));
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                // When
+                productCache.invalidate(UPC);
+                TransactionSynchronizationManager.getSynchronizations()
+                        .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+                // Then
+                assertThat(productCache.size()).isEqualTo(1);
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+        }
+
+        @Test
+        @DisplayName("should discard a load that started before the invalidation")
+        void shouldDiscardLoadStartedBeforeInvalidation() {
+            // When
+            ProductResponse response = productCache.get(UPC, upc -> {
+                productCache.invalidate(UPC);
+                return product(upc, "Milk");
+            });
+
+            // Then
+            assertThat(response).isNotNull();
+            assertThat(productCache.size()).isZero();
+        }
+
+        @Test
+        @DisplayName("should clear every entry")
+        void shouldClearEveryEntry() {
+            // Given
+            productCache.put("1", product("1", "Milk"));
+            productCache.put("2", product("2", "Bread"));
+
+            // When
+            productCache.invalidateAll();
+
+            // Then
+            assertThat(productCache.size()).isZero();
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package org.cubord.cubordbackend.service;
+
+import org.cubord.cubordbackend.domain.ProductImportCheckpoint;
+import org.cubord.cubordbackend.exception.ConflictException;
+import org.cubord.cubordbackend.exception.NotFoundException;
+import org.cubord.cubordbackend.exception.UnsupportedFormatException;
+import org.cubord.cubordbackend.repository.ProductRepositoryCustom.CatalogEntry;
+import org.cubord.cubordbackend.service.ProductCatalogImporter.ImportResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ProductCatalogImporter Tests")
+class ProductCatalogImporterTest {
+
+    @Mock
+    private ProductCatalogImportService importService;
+
+    @Mock
+    private UnknownUpcFilter unknownUpcFilter;
+
+    @Mock
+    private ProductCache productCache;
+
+    @Mock
+    private ProductGtinIndex productGtinIndex;
+
+    @InjectMocks
+    private ProductCatalogImporter importer;
+
+    @TempDir
+    Path root;
+
+    private Path directory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createDirectory(root.resolve("imports"));
+        ReflectionTestUtils.setField(importer, "directory", directory.toString());
+        ReflectionTestUtils.setField(importer, "chunkSize", 2);
+    }
+
+    private static String jsonLine(String code, String name) {
+        return "{\"code\":\"" + code + "\",\"product_name\":\"" + name + "\",\"brands\":\"Brand\","
+                + "\"categories\":\"Snacks, Sweet snacks\",\"nutriments\":{\"energy\":100}}";
+    }
+
+    private void stubCheckpoint(long linesRead) {
+        ProductImportCheckpoint checkpoint = ProductImportCheckpoint.builder().linesRead(linesRead).build();
+        when(importService.startOrResume(anyString(), anyLong())).thenReturn(checkpoint);
+        lenient().when(importService.applyChunk(anyString(), anyList(), anyLong())).thenReturn(checkpoint);
+        when(importService.complete(anyString(), anyList(), anyLong())).thenReturn(checkpoint);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<CatalogEntry> loadedEntries() {
+        ArgumentCaptor<List<CatalogEntry>> chunks = ArgumentCaptor.forClass(List.class);
+        verify(importService, atLeast(0)).applyChunk(anyString(), chunks.capture(), anyLong());
+        ArgumentCaptor<List<CatalogEntry>> last = ArgumentCaptor.forClass(List.class);
+        verify(importService).complete(anyString(), last.capture(), anyLong());
+        return Stream.concat(chunks.getAllValues().stream(), last.getAllValues().stream())
+                .flatMap(List::stream)
+                .toList();
+    }
+
+    @Nested
+    @DisplayName("importDump")
+    class ImportDumpTests {
+
+        @Test
+        @DisplayName("should load JSONL products in chunks and skip unusable lines")
+        void shouldLoadJsonlInChunks() throws IOException {
+            // Given
+            Path dump = Files.writeString(directory.resolve("products.jsonl"), String.join("\n",
+                    jsonLine("3017624010701", "Nutella"),
+                    "not json",
+                    jsonLine("12ab", "Invalid code"),
+                    "{\"code\":\"5000112548167\",\"nutriments\":{}}",
+                    jsonLine("5000112548167", "Cola"),
+                    jsonLine("4006381333931", "Pencils")));
+            stubCheckpoint(0);
+
+            // When
+            ImportResult result = importer.importDump(dump);
+
+            // Then
+            verify(importService).applyChunk(eq(dump.toString()), anyList(), eq(5L));
+            verify(importService).complete(eq(dump.toString()), anyList(), eq(6L));
+            assertThat(loadedEntries()).containsExactly(
+                    new CatalogEntry("3017624010701", "Nutella", "Brand", "Snacks", null, null),
+                    new CatalogEntry("5000112548167", "Cola", "Brand", "Snacks", null, null),
+                    new CatalogEntry("4006381333931", "Pencils", "Brand", "Snacks", null, null));
+            assertThat(result.linesRead()).isEqualTo(6);
+            assertThat(result.linesSkipped()).isEqualTo(3);
+            assertThat(result.resumed()).isFalse();
+            verify(unknownUpcFilter).rebuild();
+            verify(productCache).invalidateAll();
+        }
+
+        @Test
+        @DisplayName("should read gzipped tab-separated exports by their header")
+        void shouldReadGzippedCsv() throws IOException {
+            // Given
+            Path dump = directory.resolve("products.csv.gz");
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(dump))) {
+                out.write(("code\turl\tproduct_name\tbrands\tcategories\timage_url\n"
+                        + "3017624010701\thttps://off/1\tNutella\tFerrero\tSpreads\thttps://images/1.jpg\n")
+                        .getBytes(StandardCharsets.UTF_8));
+            }
+            stubCheckpoint(0);
+
+            // When
+            importer.importDump(dump);
+
+            // Then
+            assertThat(loadedEntries()).containsExactly(new CatalogEntry(
+                    "3017624010701", "Nutella", "Ferrero", "Spreads", "https://images/1.jpg", null));
+        }
+
+        @Test
+        @DisplayName("should resume after the lines of the last committed chunk")
+        void shouldResumeAfterCheckpoint() throws IOException {
+            // Given
+            Path dump = Files.writeString(directory.resolve("products.jsonl"), String.join("\n",
+                    jsonLine("3017624010701", "Nutella"),
+                    jsonLine("5000112548167", "Cola"),
+                    jsonLine("4006381333931", "Pencils")));
+            stubCheckpoint(2);
+
+            // When
+            ImportResult result = importer.importDump(dump);
+
+            // Then
+            assertThat(loadedEntries()).extracting(CatalogEntry::upc).containsExactly("4006381333931");
+            assertThat(result.resumed()).isTrue();
+        }
+
+        @Test
+        @DisplayName("should reject unsupported file formats")
+        void shouldRejectUnsupportedFormat() throws IOException {
+            Path dump = Files.writeString(directory.resolve("products.xml"), "<products/>");
+
+            assertThatThrownBy(() -> importer.importDump(dump)).isInstanceOf(UnsupportedFormatException.class);
+            verifyNoInteractions(importService);
+        }
+    }
+
+    @Nested
+    @DisplayName("startImport")
+    class StartImportTests {
+
+        @Test
+        @DisplayName("should not read files outside the import directory")
+        void shouldRejectPathsOutsideDirectory() throws IOException {
+            Files.writeString(root.resolve("outside.jsonl"), jsonLine("3017624010701", "Nutella"));
+
+            assertThatThrownBy(() -> importer.startImport("../outside.jsonl")).isInstanceOf(NotFoundException.class);
+            verifyNoInteractions(importService);
+        }
+
+        @Test
+        @DisplayName("should refuse to start while another import is running")
+        void shouldRejectConcurrentImports() throws IOException {
+            // Given
+            Files.writeString(directory.resolve("products.jsonl"), jsonLine("3017624010701", "Nutella"));
+            when(importService.startOrResume(anyString(), anyLong())).thenAnswer(inv -> {
+                // Still running when the second import is requested
+                assertThatThrownBy(() -> importer.startImport("products.jsonl"))
+                        .isInstanceOf(ConflictException.class);
+                return ProductImportCheckpoint.builder().build();
+            });
+            when(importService.complete(anyString(), anyList(), anyLong()))
+                    .thenReturn(ProductImportCheckpoint.builder().build());
+
+            // When
+            importer.importDump(directory.resolve("products.jsonl"));
+
+            // Then
+            verify(importService, times(1)).startOrResume(anyString(), anyLong());
+        }
+    }
+}
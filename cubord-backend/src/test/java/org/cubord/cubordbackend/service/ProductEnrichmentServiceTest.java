@@ -0,0 +1,254 @@
+package org.cubord.cubordbackend.service;
+
+import org.cubord.cubordbackend.domain.Product;
+import org.cubord.cubordbackend.domain.ProductDataSource;
+import org.cubord.cubordbackend.dto.product.ProductResponse;
+import org.cubord.cubordbackend.repository.PantryItemRepository;
+import org.cubord.cubordbackend.repository.ProductRepository;
+import org.cubord.cubordbackend.service.ProductEnrichmentService.Claim;
+import org.cubord.cubordbackend.service.ProductEnrichmentService.Outcome;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ProductEnrichmentService Tests")
+class ProductEnrichmentServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductCache productCache;
+
+    @Mock
+    private PantryItemRepository pantryItemRepository;
+
+    @InjectMocks
+    private ProductEnrichmentService enrichmentService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(enrichmentService, "claimTimeout", Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(enrichmentService, "backoffBase", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(enrichmentService, "backoffMax", Duration.ofHours(6));
+    }
+
+    private static Product awaitingRetry(int attempts) {
+        return Product.builder()
+                .id(UUID.randomUUID())
+                .upc("999999999999")
+                .name("Unknown Product")
+                .dataSource(ProductDataSource.MANUAL)
+                .requiresApiRetry(true)
+                .retryAttempts(attempts)
+                .build();
+    }
+
+    @Nested
+    @DisplayName("claimDue")
+    class ClaimDueTests {
+
+        @Test
+        @DisplayName("should lease claimed products until the claim timeout")
+        void shouldLeaseClaimedProducts() {
+            // Given
+            Product product = awaitingRetry(0);
+            when(productRepository.findDueForEnrichmentForUpdate(eq(5), any(LocalDateTime.class), eq(Limit.of(50))))
+                    .thenReturn(List.of(product));
+            LocalDateTime before = LocalDateTime.now();
+
+            // When
+            List<Claim> claims = enrichmentService.claimDue(5, 50);
+
+            // Then
+            assertThat(claims).containsExactly(new Claim(product.getId(), product.getUpc()));
+            assertThat(product.getNextRetryAt()).isAfterOrEqualTo(before.plusMinutes(10));
+        }
+    }
+
+    @Nested
+    @DisplayName("applyOutcomes")
+    class ApplyOutcomesTests {
+
+        @Test
+        @DisplayName("should enrich products the API returned data for")
+        void shouldEnrichProducts() {
+            // Given
+            Product product = awaitingRetry(2);
+            when(productRepository.findAllById(anyList())).thenReturn(List.of(product));
+            ProductResponse apiData = ProductResponse.builder().name("Nutella").brand("Ferrero").build();
+
+            // When
+            int enriched = enrichmentService.applyOutcomes(
+                    List.of(new Outcome(product.getId(), Outcome.Result.ENRICHED, apiData)), 5);
+
+            // Then
+            assertThat(enriched).isEqualTo(1);
+            assertThat(product.getName()).isEqualTo("Nutella");
+            assertThat(product.getDataSource()).isEqualTo(ProductDataSource.OPEN_FOOD_FACTS);
+            assertThat(product.getRequiresApiRetry()).isFalse();
+            assertThat(product.getNextRetryAt()).isNull();
+            verify(productCache).invalidate(product.getUpc());
+        }
+
+        @Test
+        @DisplayName("should count a failed attempt and back off exponentially from it")
+        void shouldBackOffAfterFailure() {
+            // Given
+            Product product = awaitingRetry(2);
+            when(productRepository.findAllById(anyList())).thenReturn(List.of(product));
+
+            // When
+            enrichmentService.applyOutcomes(List.of(new Outcome(product.getId(), Outcome.Result.FAILED, null)), 5);
+
+            // Then
+            assertThat(product.getRetryAttempts()).isEqualTo(3);
+            assertThat(product.getRequiresApiRetry()).isTrue();
+            assertThat(product.getNextRetryAt()).isEqualTo(product.getLastRetryAttempt().plusMinutes(20));
+        }
+
+        @Test
+        @DisplayName("should stop retrying after the last allowed attempt")
+        void shouldStopRetryingAfterMaxAttempts() {
+            // Given
+            Product product = awaitingRetry(4);
+            when(productRepository.findAllById(anyList())).thenReturn(List.of(product));
+
+            // When
+            enrichmentService.applyOutcomes(List.of(new Outcome(product.getId(), Outcome.Result.NOT_FOUND, null)), 5);
+
+            // Then
+            assertThat(product.getRetryAttempts()).isEqualTo(5);
+            assertThat(product.getRequiresApiRetry()).isFalse();
+            assertThat(product.getNextRetryAt()).isNull();
+        }
+
+        @Test
+        @DisplayName("should release rejected claims without counting an attempt")
+        void shouldReleaseRejectedClaims() {
+            // Given
+            Product product = awaitingRetry(1);
+            product.setNextRetryAt(LocalDateTime.now().plusMinutes(10));
+            when(productRepository.findAllById(anyList())).thenReturn(List.of(product));
+
+            // When
+            enrichmentService.applyOutcomes(List.of(new Outcome(product.getId(), Outcome.Result.REJECTED, null)), 5);
+
+            // Then
+            assertThat(product.getRetryAttempts()).isEqualTo(1);
+            assertThat(product.getLastRetryAttempt()).isNull();
+            assertThat(product.getNextRetryAt()).isNull();
+        }
+
+        @Test
+        @DisplayName("should leave products alone that no longer await enrichment")
+        void shouldSkipProductsNoLongerAwaitingEnrichment() {
+            // Given
+            Product product = awaitingRetry(1);
+            product.setRequiresApiRetry(false);
+            when(productRepository.findAllById(anyList())).thenReturn(List.of(product));
+            UUID deletedId = UUID.randomUUID();
+
+            // When
+            int enriched = enrichmentService.applyOutcomes(List.of(
+                    new Outcome(product.getId(), Outcome.Result.FAILED, null),
+                    new Outcome(deletedId, Outcome.Result.FAILED, null)), 5);
+
+            // Then
+            assertThat(enriched).isZero();
+            assertThat(product.getRetryAttempts()).isEqualTo(1);
+            verifyNoInteractions(productCache);
+        }
+    }
+
+    @Nested
+    @DisplayName("completeProvisional")
+    class CompleteProvisionalTests {
+
+        @Test
+        @DisplayName("should fill an untouched provisional product from the API data")
+        void shouldEnrichUntouchedProduct() {
+            // Given
+            Product product = awaitingRetry(0);
+            when(productRepository.findById(product.getId())).thenReturn(Optional.of(product));
+            ProductResponse apiData = ProductResponse.builder().name("Nutella").brand("Ferrero").build();
+
+            // When
+            boolean completed = enrichmentService.completeProvisional(
+                    new Outcome(product.getId(), Outcome.Result.ENRICHED, apiData), 5);
+
+            // Then
+            assertThat(completed).isTrue();
+            assertThat(product.getName()).isEqualTo("Nutella");
+            assertThat(product.getDataSource()).isEqualTo(ProductDataSource.OPEN_FOOD_FACTS);
+            assertThat(product.getRequiresApiRetry()).isFalse();
+            verify(productCache).invalidate(product.getUpc());
+        }
+
+        @Test
+        @DisplayName("should keep user edits and only fill the fields the user left empty")
+        void shouldMergeIntoEditedProduct() {
+            // Given
+            Product product = awaitingRetry(0);
+            product.setName("Grandma's hazelnut spread");
+            when(productRepository.findById(product.getId())).thenReturn(Optional.of(product));
+            ProductResponse apiData = ProductResponse.builder().name("Nutella").brand("Ferrero").build();
+
+            // When
+            enrichmentService.completeProvisional(new Outcome(product.getId(), Outcome.Result.ENRICHED, apiData), 5);
+
+            // Then
+            assertThat(product.getName()).isEqualTo("Grandma's hazelnut spread");
+            assertThat(product.getBrand()).isEqualTo("Ferrero");
+            assertThat(product.getDataSource()).isEqualTo(ProductDataSource.HYBRID);
+            assertThat(product.getRequiresApiRetry()).isFalse();
+        }
+
+        @Test
+        @DisplayName("should leave a product alone that was completed meanwhile")
+        void shouldSkipCompletedProduct() {
+            // Given
+            Product product = awaitingRetry(0);
+            product.setRequiresApiRetry(false);
+            when(productRepository.findById(product.getId())).thenReturn(Optional.of(product));
+
+            // When
+            boolean completed = enrichmentService.completeProvisional(new Outcome(product.getId(),
+                    Outcome.Result.ENRICHED, ProductResponse.builder().name("Nutella").build()), 5);
+
+            // Then
+            assertThat(completed).isFalse();
+            assertThat(product.getName()).isEqualTo("Unknown Product");
+            verifyNoInteractions(productCache);
+        }
+    }
+
+    @Test
+    @DisplayName("should double the backoff per attempt up to the maximum")
+    void shouldDoubleBackoffUpToMaximum() {
+        assertThat(enrichmentService.backoff(1)).isEqualTo(Duration.ofMinutes(5));
+        assertThat(enrichmentService.backoff(2)).isEqualTo(Duration.ofMinutes(10));
+        assertThat(enrichmentService.backoff(4)).isEqualTo(Duration.ofMinutes(40));
+        assertThat(enrichmentService.backoff(20)).isEqualTo(Duration.ofHours(6));
+    }
+}
@@ -0,0 +1,199 @@
+package org.cubord.cubordbackend.service;
+
+import org.cubord.cubordbackend.dto.product.ProductResponse;
+import org.cubord.cubordbackend.exception.ExternalServiceException;
+import org.cubord.cubordbackend.exception.NotFoundException;
+import org.cubord.cubordbackend.exception.ServiceUnavailableException;
+import org.cubord.cubordbackend.service.ProductEnrichmentService.Claim;
+import org.cubord.cubordbackend.service.ProductEnrichmentService.Outcome;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ProductEnrichmentWorker Tests")
+class ProductEnrichmentWorkerTest {
+
+    @Mock
+    private ProductEnrichmentService enrichmentService;
+
+    @Mock
+    private UpcApiService upcApiService;
+
+    @InjectMocks
+    private ProductEnrichmentWorker worker;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(worker, "chunkSize", 3);
+        ReflectionTestUtils.setField(worker, "maxChunksPerRun", 10);
+    }
+
+    private static List<Claim> claims(int count, int offset) {
+        return IntStream.range(offset, offset + count)
+                .mapToObj(i -> new Claim(UUID.randomUUID(), "10000000000" + i))
+                .toList();
+    }
+
+    private static ProductResponse apiData(String upc) {
+        return ProductResponse.builder().upc(upc).name("Product " + upc).build();
+    }
+
+    /**
+     * Answers a batch lookup with product data for every UPC except those given a failure.
+     */
+    private static Map<String, CompletableFuture<ProductResponse>> lookups(
+            List<String> upcs, Map<String, RuntimeException> failures) {
+        Map<String, CompletableFuture<ProductResponse>> lookups = new LinkedHashMap<>();
+        for (String upc : upcs) {
+            lookups.put(upc, failures.containsKey(upc)
+                    ? CompletableFuture.failedFuture(failures.get(upc))
+                    : CompletableFuture.completedFuture(apiData(upc)));
+        }
+        return lookups;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Outcome> appliedOutcomes() {
+        ArgumentCaptor<List<Outcome>> captor = ArgumentCaptor.forClass(List.class);
+        verify(enrichmentService, atLeastOnce()).applyOutcomes(captor.capture(), anyInt());
+        return captor.getAllValues().stream().flatMap(List::stream).toList();
+    }
+
+    @Test
+    @DisplayName("should process chunks until fewer than a full chunk is due")
+    void shouldProcessChunksUntilDrained() {
+        // Given
+        when(enrichmentService.claimDue(5, 3)).thenReturn(claims(3, 0)).thenReturn(claims(1, 3));
+        when(upcApiService.fetchProductDataBatchInBackground(anyList()))
+                .thenAnswer(inv -> lookups(inv.getArgument(0), Map.of()));
+        when(enrichmentService.applyOutcomes(anyList(), eq(5)))
+                .thenAnswer(inv -> ((List<?>) inv.getArgument(0)).size());
+
+        // When
+        int enriched = worker.enrichDue(5);
+
+        // Then
+        assertThat(enriched).isEqualTo(4);
+        verify(enrichmentService, times(2)).claimDue(5, 3);
+        verify(enrichmentService, times(2)).applyOutcomes(anyList(), eq(5));
+        assertThat(appliedOutcomes()).extracting(Outcome::result).containsOnly(Outcome.Result.ENRICHED);
+    }
+
+    @Test
+    @DisplayName("should look up a whole chunk with one batch call")
+    void shouldLookUpChunkInOneBatch() {
+        // Given
+        List<Claim> claims = claims(3, 0);
+        when(enrichmentService.claimDue(5, 3)).thenReturn(claims).thenReturn(List.of());
+        when(upcApiService.fetchProductDataBatchInBackground(anyList()))
+                .thenAnswer(inv -> lookups(inv.getArgument(0), Map.of()));
+
+        // When
+        worker.enrichDue(5);
+
+        // Then
+        verify(upcApiService).fetchProductDataBatchInBackground(claims.stream().map(Claim::upc).toList());
+        verify(upcApiService, never()).fetchProductDataInBackground(anyString());
+        assertThat(appliedOutcomes()).hasSize(3);
+    }
+
+    @Test
+    @DisplayName("should classify failed lookups and stop the run when lookups are rejected")
+    void shouldClassifyFailuresAndStopOnRejection() {
+        // Given
+        List<Claim> claims = claims(3, 0);
+        when(enrichmentService.claimDue(5, 3)).thenReturn(claims);
+        when(upcApiService.fetchProductDataBatchInBackground(anyList())).thenAnswer(inv -> lookups(
+                inv.getArgument(0), Map.of(
+                        claims.get(0).upc(), new NotFoundException("unknown"),
+                        claims.get(1).upc(), new ExternalServiceException("Open Food Facts API", "HTTP 502"),
+                        claims.get(2).upc(), new ServiceUnavailableException("circuit open", null))));
+
+        // When
+        int enriched = worker.enrichDue(5);
+
+        // Then
+        assertThat(enriched).isZero();
+        verify(enrichmentService, times(1)).claimDue(5, 3);
+        Map<UUID, Outcome.Result> results = appliedOutcomes().stream()
+                .collect(Collectors.toMap(Outcome::productId, Outcome::result));
+        assertThat(results).containsEntry(claims.get(0).productId(), Outcome.Result.NOT_FOUND)
+                .containsEntry(claims.get(1).productId(), Outcome.Result.FAILED)
+                .containsEntry(claims.get(2).productId(), Outcome.Result.REJECTED);
+    }
+
+    @Test
+    @DisplayName("should treat a batch that cannot be started as rejected")
+    void shouldRejectWhenBatchCannotStart() {
+        // Given
+        List<Claim> claims = claims(2, 0);
+        when(enrichmentService.claimDue(5, 3)).thenReturn(claims);
+        when(upcApiService.fetchProductDataBatchInBackground(anyList()))
+                .thenThrow(new ServiceUnavailableException("shutting down", null));
+
+        // When
+        worker.enrichDue(5);
+
+        // Then
+        assertThat(appliedOutcomes()).extracting(Outcome::result)
+                .containsExactly(Outcome.Result.REJECTED, Outcome.Result.REJECTED);
+    }
+
+    @Test
+    @DisplayName("should complete a provisional product once its lookup finishes")
+    void shouldCompleteProvisionalProductInBackground() {
+        // Given
+        UUID productId = UUID.randomUUID();
+        CompletableFuture<ProductResponse> lookup = new CompletableFuture<>();
+        ArgumentCaptor<Outcome> outcome = ArgumentCaptor.forClass(Outcome.class);
+
+        // When
+        worker.completeInBackground(productId, lookup);
+
+        // Then
+        verifyNoInteractions(enrichmentService);
+
+        // When
+        lookup.complete(apiData("100000000007"));
+
+        // Then
+        verify(enrichmentService).completeProvisional(outcome.capture(), anyInt());
+        assertThat(outcome.getValue().productId()).isEqualTo(productId);
+        assertThat(outcome.getValue().result()).isEqualTo(Outcome.Result.ENRICHED);
+    }
+
+    @Test
+    @DisplayName("should do nothing when the scheduled run is disabled")
+    void shouldSkipScheduledRunWhenDisabled() {
+        // Given
+        ReflectionTestUtils.setField(worker, "enabled", false);
+
+        // When
+        worker.enrichDueProducts();
+
+        // Then
+        verifyNoInteractions(enrichmentService, upcApiService);
+    }
+}
@@ -0,0 +1,116 @@
+package org.cubord.cubordbackend.service;
+
+import org.cubord.cubordbackend.util.Gtin;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the primitive {@link ProductGtinIndex.GtinTable} with a {@code HashMap<String, UUID>}
+ * keyed by the 14-digit GTIN, for a catalog of {@value #ENTRIES} products.
+ *
+ * <p>Skipped unless {@code CUBORD_BENCHMARK=true} is set, e.g.
+ * {@code CUBORD_BENCHMARK=true ./gradlew test --tests '*ProductGtinIndexBenchmarkTest'}.
+ * Retained heap (measured after garbage collection) and mean lookup time over shuffled hits
+ * are logged; only the footprint reduction is asserted.</p>
+ */
+@EnabledIfEnvironmentVariable(named = "CUBORD_BENCHMARK", matches = "true")
+@DisplayName("Product GTIN index benchmark")
+class ProductGtinIndexBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductGtinIndexBenchmarkTest.class);
+
+    private static final int ENTRIES = 1_000_000;
+    private static final int LOOKUPS = 1_000_000;
+    private static final int WARMUP_ROUNDS = 3;
+
+    @Test
+    @DisplayName("primitive GTIN table should retain less heap than a String-keyed HashMap")
+    void compareWithHashMap() {
+        Random random = new Random(42);
+        long[] gtins = new long[ENTRIES];
+        UUID[] ids = new UUID[ENTRIES];
+        for (int i = 0; i < ENTRIES; i++) {
+            gtins[i] = 3_000_000_000_000L + random.nextInt(Integer.MAX_VALUE) * 10L + i % 10;
+            ids[i] = UUID.randomUUID();
+        }
+        long[] probes = new long[LOOKUPS];
+        String[] stringProbes = new String[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            probes[i] = gtins[random.nextInt(ENTRIES)];
+            stringProbes[i] = Gtin.format(probes[i]);
+        }
+
+        Measured<ProductGtinIndex.GtinTable> table = retain(() -> {
+            ProductGtinIndex.GtinTable built = new ProductGtinIndex.GtinTable(ENTRIES);
+            for (int i = 0; i < ENTRIES; i++) {
+                built.put(gtins[i], ids[i]);
+            }
+            return built;
+        });
+        Measured<Map<String, UUID>> hashMap = retain(() -> {
+            Map<String, UUID> built = new HashMap<>();
+            for (int i = 0; i < ENTRIES; i++) {
+                built.put(Gtin.format(gtins[i]), ids[i]);
+            }
+            return built;
+        });
+
+        double tableNanos = lookupNanos(i -> table.value().get(probes[(int) i]));
+        double hashMapNanos = lookupNanos(i -> hashMap.value().get(stringProbes[(int) i]));
+
+        // The HashMap references the UUIDs allocated above, so its retained size leaves them out
+        logger.info(String.format("%-24s %,14d bytes retained | %8.1f ns per lookup",
+                "GtinTable", table.retainedBytes(), tableNanos));
+        logger.info(String.format("%-24s %,14d bytes retained | %8.1f ns per lookup",
+                "HashMap<String, UUID>", hashMap.retainedBytes(), hashMapNanos));
+
+        assertThat(table.value().size()).isEqualTo(hashMap.value().size());
+        assertThat(table.retainedBytes()).isLessThan(hashMap.retainedBytes());
+    }
+
+    private static <T> Measured<T> retain(Supplier<T> build) {
+        long before = usedHeapAfterGc();
+        T value = build.get();
+        long retained = usedHeapAfterGc() - before;
+        return new Measured<>(value, retained);
+    }
+
+    private static double lookupNanos(LongFunction<UUID> lookup) {
+        long found = 0;
+        long elapsed = 0;
+        for (int round = 0; round <= WARMUP_ROUNDS; round++) {
+            long started = System.nanoTime();
+            for (int i = 0; i < LOOKUPS; i++) {
+                if (lookup.apply(i) != null) {
+                    found++;
+                }
+            }
+            elapsed = System.nanoTime() - started;
+        }
+        assertThat(found).isEqualTo((long) LOOKUPS * (WARMUP_ROUNDS + 1));
+        return (double) elapsed / LOOKUPS;
+    }
+
+    private static long usedHeapAfterGc() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private record Measured<T>(T value, long retainedBytes) {
+    }
+}
@@ -0,0 +1,252 @@
+package org.cubord.cubordbackend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.cubord.cubordbackend.repository.ProductRepository;
+import org.cubord.cubordbackend.repository.ProductRepositoryCustom.GtinEntry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ProductGtinIndex Tests")
+class ProductGtinIndexTest {
+
+    private static final long GTIN = 3017624010701L;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ProductGtinIndex productGtinIndex;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        productGtinIndex = new ProductGtinIndex(productRepository, meterRegistry);
+        ReflectionTestUtils.setField(productGtinIndex, "enabled", true);
+        ReflectionTestUtils.setField(productGtinIndex, "expectedSize", 16);
+        ReflectionTestUtils.setField(productGtinIndex, "pageSize", 2);
+        productGtinIndex.init();
+    }
+
+    @Nested
+    @DisplayName("rebuild")
+    class RebuildTests {
+
+        @Test
+        @DisplayName("should page through products by GTIN and become ready")
+        void shouldPageThroughProducts() {
+            // Given
+            UUID first = UUID.randomUUID();
+            UUID second = UUID.randomUUID();
+            UUID third = UUID.randomUUID();
+            when(productRepository.findGtinEntriesAfter(-1L, 2))
+                    .thenReturn(List.of(new GtinEntry(10L, first), new GtinEntry(20L, second)));
+            when(productRepository.findGtinEntriesAfter(20L, 2)).thenReturn(List.of(new GtinEntry(30L, third)));
+
+            // When
+            productGtinIndex.rebuild();
+
+            // Then
+            assertThat(productGtinIndex.isReady()).isTrue();
+            assertThat(productGtinIndex.find(10L)).isEqualTo(first);
+            assertThat(productGtinIndex.find(30L)).isEqualTo(third);
+            assertThat(productGtinIndex.find(40L)).isNull();
+            assertThat(meterRegistry.get("cubord.product.gtin-index.size").gauge().value()).isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("should answer no lookups before the first rebuild")
+        void shouldAnswerNothingBeforeRebuild() {
+            // Given
+            productGtinIndex.put(GTIN, UUID.randomUUID());
+
+            // When / Then
+            assertThat(productGtinIndex.isReady()).isFalse();
+            assertThat(productGtinIndex.find(GTIN)).isNull();
+        }
+
+        @Test
+        @DisplayName("should keep changes made while the table is read")
+        void shouldReplayChangesMadeDuringRebuild() {
+            // Given
+            UUID created = UUID.randomUUID();
+            when(productRepository.findGtinEntriesAfter(-1L, 2)).thenAnswer(inv -> {
+                productGtinIndex.put(GTIN, created);
+                return List.of();
+            });
+
+            // When
+            productGtinIndex.rebuild();
+
+            // Then
+            assertThat(productGtinIndex.find(GTIN)).isEqualTo(created);
+        }
+
+        @Test
+        @DisplayName("should not query the database when disabled")
+        void shouldSkipRebuildWhenDisabled() {
+            // Given
+            ReflectionTestUtils.setField(productGtinIndex, "enabled", false);
+
+            // When
+            productGtinIndex.rebuild();
+
+            // Then
+            assertThat(productGtinIndex.isReady()).isFalse();
+            verifyNoInteractions(productRepository);
+        }
+    }
+
+    @Nested
+    @DisplayName("put and remove")
+    class PutAndRemoveTests {
+
+        @BeforeEach
+        void buildEmptyIndex() {
+            when(productRepository.findGtinEntriesAfter(-1L, 2)).thenReturn(List.of());
+            productGtinIndex.rebuild();
+        }
+
+        @Test
+        @DisplayName("should remove a GTIN only while it maps to the given product")
+        void shouldRemoveOnlyMatchingProduct() {
+            // Given
+            UUID previous = UUID.randomUUID();
+            UUID current = UUID.randomUUID();
+            productGtinIndex.put(GTIN, current);
+
+            // When
+            productGtinIndex.remove(GTIN, previous);
+
+            // Then
+            assertThat(productGtinIndex.find(GTIN)).isEqualTo(current);
+
+            // When
+            productGtinIndex.remove(GTIN, current);
+
+            // Then
+            assertThat(productGtinIndex.find(GTIN)).isNull();
+            assertThat(productGtinIndex.size()).isZero();
+        }
+
+        @Test
+        @DisplayName("should apply changes made inside a transaction only after it commits")
+        void shouldApplyChangesAfterCommit() {
+            // Given
+            UUID productId = UUID.randomUUID();
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                // When
+                productGtinIndex.put(GTIN, productId);
+
+                // Then
+                assertThat(productGtinIndex.find(GTIN)).isNull();
+
+                // When
+                TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+                // Then
+                assertThat(productGtinIndex.find(GTIN)).isEqualTo(productId);
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+        }
+
+        @Test
+        @DisplayName("should leave the index unchanged when the transaction rolls back")
+        void shouldIgnoreChangesOnRollback() {
+            // Given
+            UUID productId = UUID.randomUUID();
+            long renamedGtin = GTIN + 1;
+            productGtinIndex.put(GTIN, productId);
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                // When
+                productGtinIndex.remove(GTIN, productId);
+                productGtinIndex.put(renamedGtin, productId);
+                TransactionSynchronizationManager.getSynchronizations()
+                        .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+                // Then
+                assertThat(productGtinIndex.find(GTIN)).isEqualTo(productId);
+                assertThat(productGtinIndex.find(renamedGtin)).isNull();
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+        }
+
+        @Test
+        @DisplayName("should ignore null GTINs")
+        void shouldIgnoreNullGtins() {
+            // When
+            productGtinIndex.put(null, UUID.randomUUID());
+            productGtinIndex.remove(null, UUID.randomUUID());
+
+            // Then
+            assertThat(productGtinIndex.size()).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("GtinTable")
+    class GtinTableTests {
+
+        @Test
+        @DisplayName("should match a HashMap through growth, overwrites and removals")
+        void shouldMatchHashMap() {
+            // Given
+            ProductGtinIndex.GtinTable table = new ProductGtinIndex.GtinTable(1);
+            Map<Long, UUID> expected = new HashMap<>();
+            Random random = new Random(42);
+
+            // When
+            for (int i = 0; i < 20_000; i++) {
+                long key = random.nextInt(5_000);
+                if (random.nextInt(4) == 0) {
+                    UUID value = expected.get(key);
+                    if (value != null) {
+                        assertThat(table.remove(key, value)).isTrue();
+                        expected.remove(key);
+                    }
+                } else {
+                    UUID value = UUID.randomUUID();
+                    table.put(key, value);
+                    expected.put(key, value);
+                }
+            }
+
+            // Then
+            assertThat(table.size()).isEqualTo(expected.size());
+            for (long key = 0; key < 5_000; key++) {
+                assertThat(table.get(key)).isEqualTo(expected.get(key));
+            }
+        }
+
+        @Test
+        @DisplayName("should report the bytes of its arrays")
+        void shouldReportMemoryBytes() {
+            // Given
+            ProductGtinIndex.GtinTable table = new ProductGtinIndex.GtinTable(1_000);
+
+            // When / Then
+            assertThat(table.memoryBytes()).isEqualTo(3L * Long.BYTES * 2_048);
+        }
+    }
+}
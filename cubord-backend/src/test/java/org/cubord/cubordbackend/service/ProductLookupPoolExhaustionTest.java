@@ -0,0 +1,253 @@
+package org.cubord.cubordbackend.service;
+
+import org.cubord.cubordbackend.domain.Product;
+import org.cubord.cubordbackend.domain.ProductDataSource;
+import org.cubord.cubordbackend.dto.pantryItem.CreatePantryItemRequest;
+import org.cubord.cubordbackend.dto.pantryItem.PantryItemResponse;
+import org.cubord.cubordbackend.dto.product.ProductResponse;
+import org.cubord.cubordbackend.repository.ProductRepository;
+import org.cubord.cubordbackend.security.SecurityService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs UPC lookups against a slow external API with a connection pool smaller than the number
+ * of lookups, and checks that unrelated queries are still served.
+ *
+ * <p>The pool holds {@value #POOL_SIZE} connections and callers give up after
+ * {@value #CONNECTION_TIMEOUT_MILLIS} ms. If a lookup held its connection during the external
+ * fetch, the lookups would exhaust the pool and the unrelated query would time out. Lookups are
+ * made directly and through pantry scans, which must not open their transaction until the
+ * scanned product is resolved.</p>
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.hikari.maximum-pool-size=" + ProductLookupPoolExhaustionTest.POOL_SIZE,
+        "spring.datasource.hikari.connection-timeout=" + ProductLookupPoolExhaustionTest.CONNECTION_TIMEOUT_MILLIS
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ProductService.class, ProductWriteService.class, PantryItemService.class})
+@DisplayName("Product lookups under a slow external API")
+class ProductLookupPoolExhaustionTest {
+
+    static final int POOL_SIZE = 2;
+    static final int CONNECTION_TIMEOUT_MILLIS = 500;
+
+    private static final List<String> UPCS = List.of("100000000007", "100000000014", "100000000021", "100000000038");
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PantryItemService pantryItemService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private UpcApiService upcApiService;
+
+    @MockitoBean
+    private SecurityService securityService;
+
+    @MockitoBean
+    private ProductCache productCache;
+
+    @MockitoBean
+    private UnknownUpcFilter unknownUpcFilter;
+
+    @MockitoBean
+    private UpcLookupCoalescer upcLookupCoalescer;
+
+    @MockitoBean
+    private ProductEnrichmentWorker productEnrichmentWorker;
+
+    @MockitoBean
+    private ProductCatalogImporter productCatalogImporter;
+
+    @MockitoBean
+    private ProductCatalogImportService productCatalogImportService;
+
+    @MockitoBean
+    private ProductGtinIndex productGtinIndex;
+
+    @MockitoBean
+    private InventoryStatsService inventoryStatsService;
+
+    private Product existing;
+    private UUID householdId;
+    private UUID locationId;
+
+    @BeforeEach
+    void setUp() {
+        existing = productRepository.saveAndFlush(Product.builder()
+                .upc("123456789012")
+                .name("Milk")
+                .dataSource(ProductDataSource.MANUAL)
+                .requiresApiRetry(false)
+                .retryAttempts(0)
+                .build());
+        householdId = UUID.randomUUID();
+        locationId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO households (id, name) VALUES (?, 'Pool')", householdId);
+        jdbcTemplate.update("INSERT INTO locations (id, name, household_id) VALUES (?, 'Pantry', ?)",
+                locationId, householdId);
+        when(productCache.get(anyString(), any())).thenAnswer(inv -> {
+            Function<String, ProductResponse> loader = inv.getArgument(1);
+            return loader.apply(inv.getArgument(0));
+        });
+        when(upcLookupCoalescer.coalesce(anyString(), any())).thenAnswer(inv -> {
+            Supplier<ProductResponse> lookup = inv.getArgument(1);
+            return lookup.get();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM pantry_items WHERE location_id = ?", locationId);
+        jdbcTemplate.update("DELETE FROM locations WHERE id = ?", locationId);
+        jdbcTemplate.update("DELETE FROM households WHERE id = ?", householdId);
+        productRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("should serve unrelated queries while every lookup waits on the external API")
+    void shouldServeUnrelatedQueriesWhileLookupsWait() throws Exception {
+        // Given
+        CountDownLatch fetching = new CountDownLatch(UPCS.size());
+        CountDownLatch release = new CountDownLatch(1);
+        when(upcApiService.fetchProductData(anyString())).thenAnswer(inv -> {
+            fetching.countDown();
+            release.await(30, TimeUnit.SECONDS);
+            return ProductResponse.builder().upc(inv.getArgument(0)).name("Slow product").build();
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(UPCS.size());
+        List<Future<ProductResponse>> lookups = new ArrayList<>();
+        try {
+            for (String upc : UPCS) {
+                lookups.add(executor.submit(() -> productService.getProductByUpc(upc)));
+            }
+            assertThat(fetching.await(10, TimeUnit.SECONDS))
+                    .as("all lookups reach the external API despite the small pool")
+                    .isTrue();
+
+            // When
+            long started = System.nanoTime();
+            ProductResponse unrelated = productService.getProductById(existing.getId());
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+            release.countDown();
+
+            // Then
+            assertThat(unrelated.getName()).isEqualTo("Milk");
+            assertThat(elapsedMillis).isLessThan(CONNECTION_TIMEOUT_MILLIS);
+            for (Future<ProductResponse> lookup : lookups) {
+                assertThat(lookup.get(30, TimeUnit.SECONDS).getName()).isEqualTo("Slow product");
+            }
+            assertThat(productRepository.count()).isEqualTo(UPCS.size() + 1);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("should serve unrelated queries while every pantry scan waits on the external API")
+    void shouldServeUnrelatedQueriesWhileScansWait() throws Exception {
+        // Given
+        CountDownLatch fetching = new CountDownLatch(UPCS.size());
+        CountDownLatch release = new CountDownLatch(1);
+        when(upcApiService.fetchProductData(anyString())).thenAnswer(inv -> {
+            fetching.countDown();
+            release.await(30, TimeUnit.SECONDS);
+            return ProductResponse.builder().upc(inv.getArgument(0)).name("Slow product").build();
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(UPCS.size());
+        List<Future<PantryItemResponse>> scans = new ArrayList<>();
+        try {
+            for (String upc : UPCS) {
+                CreatePantryItemRequest request = CreatePantryItemRequest.builder()
+                        .upc(upc)
+                        .locationId(locationId)
+                        .quantity(1)
+                        .build();
+                scans.add(executor.submit(() -> pantryItemService.createPantryItem(request)));
+            }
+            assertThat(fetching.await(10, TimeUnit.SECONDS))
+                    .as("all scans reach the external API despite the small pool")
+                    .isTrue();
+
+            // When
+            long started = System.nanoTime();
+            ProductResponse unrelated = productService.getProductById(existing.getId());
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+            release.countDown();
+
+            // Then
+            assertThat(unrelated.getName()).isEqualTo("Milk");
+            assertThat(elapsedMillis).isLessThan(CONNECTION_TIMEOUT_MILLIS);
+            for (Future<PantryItemResponse> scan : scans) {
+                assertThat(scan.get(30, TimeUnit.SECONDS).getProduct().getName()).isEqualTo("Slow product");
+            }
+            assertThat(jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM pantry_items WHERE location_id = ?", Integer.class, locationId))
+                    .isEqualTo(UPCS.size());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("should keep one product when a lookup stores a GTIN created meanwhile")
+    void shouldKeepOneProductWhenGtinCreatedMeanwhile() {
+        // Given
+        String upc = UPCS.getFirst();
+        when(upcApiService.fetchProductData(anyString())).thenAnswer(inv -> {
+            // Another request creates the product, in another form of the code, during the fetch
+            productRepository.saveAndFlush(Product.builder()
+                    .upc("00" + upc)
+                    .name("Created meanwhile")
+                    .dataSource(ProductDataSource.MANUAL)
+                    .requiresApiRetry(false)
+                    .retryAttempts(0)
+                    .build());
+            return ProductResponse.builder().upc(upc).name("Slow product").build();
+        });
+
+        // When
+        ProductResponse response = productService.getProductByUpc(upc);
+
+        // Then
+        assertThat(response.getName()).isEqualTo("Created meanwhile");
+        assertThat(productRepository.count()).isEqualTo(2);
+    }
+}
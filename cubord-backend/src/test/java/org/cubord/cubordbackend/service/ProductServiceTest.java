@@ -1,5 +1,7 @@
 package org.cubord.cubordbackend.service;
 
+import org.cubord.cubordbackend.dto.product.BulkProductImportItem;
+import org.cubord.cubordbackend.dto.product.BulkProductImportResponse;
 import org.cubord.cubordbackend.dto.product.ProductRequest;
 import org.cubord.cubordbackend.dto.product.ProductResponse;
 import org.cubord.cubordbackend.dto.product.ProductUpdateRequest;
@@ -10,24 +12,34 @@ import org.cubord.cubordbackend.domain.UserRole;
 import org.cubord.cubordbackend.exception.*;
 import org.cubord.cubordbackend.repository.ProductRepository;
 import org.cubord.cubordbackend.security.SecurityService;
+import org.cubord.cubordbackend.util.Gtin;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -56,6 +68,30 @@ class ProductServiceTest {
     @Mock
     private SecurityService securityService;
 
+    @Mock
+    private ProductCache productCache;
+
+    @Mock
+    private UnknownUpcFilter unknownUpcFilter;
+
+    @Mock
+    private UpcLookupCoalescer upcLookupCoalescer;
+
+    @Mock
+    private ProductEnrichmentWorker productEnrichmentWorker;
+
+    @Mock
+    private ProductCatalogImporter productCatalogImporter;
+
+    @Mock
+    private ProductCatalogImportService productCatalogImportService;
+
+    @Mock
+    private ProductGtinIndex productGtinIndex;
+
+    @Mock
+    private ProductWriteService productWriteService;
+
     @InjectMocks
     private ProductService productService;
 
@@ -123,6 +159,18 @@ class ProductServiceTest {
                 .category("Updated Category")
                 .defaultExpirationDays(45)
                 .build();
+
+        ReflectionTestUtils.setField(productService, "maxRetryAttempts", 5);
+
+        // Pass lookups straight through to the loader unless a test stubs a cache hit
+        lenient().when(productCache.get(anyString(), any())).thenAnswer(inv -> {
+            Function<String, ProductResponse> loader = inv.getArgument(1);
+            return loader.apply(inv.getArgument(0));
+        });
+        lenient().when(upcLookupCoalescer.coalesce(anyString(), any())).thenAnswer(inv -> {
+            Supplier<ProductResponse> lookup = inv.getArgument(1);
+            return lookup.get();
+        });
     }
 
     // ==================== Test Utilities ====================
@@ -208,7 +256,8 @@ class ProductServiceTest {
             // Given
             String upc = "123456789012";
             mockAuthenticatedUser(testUserId);
-            when(productRepository.findByUpc(eq(upc))).thenReturn(Optional.of(testProduct));
+            // Cached and looked up under the GTIN-14 shared by all forms of the barcode
+            when(productRepository.findByCode(eq("00123456789012"))).thenReturn(Optional.of(testProduct));
 
             // When
             ProductResponse response = productService.getProductByUpc(upc);
@@ -218,7 +267,84 @@ class ProductServiceTest {
             assertThat(response.getUpc()).isEqualTo(upc);
 
             verify(securityService).getCurrentUserId();
-            verify(productRepository).findByUpc(eq(upc));
+            verify(productRepository).findByCode(eq("00123456789012"));
+            verify(productCache).get(eq("00123456789012"), any());
+        }
+
+        @Test
+        @DisplayName("should load a product found in the GTIN index by ID")
+        void shouldLoadIndexedProductById() {
+            // Given
+            String upc = "123456789012";
+            testProduct.setGtin(123456789012L);
+            mockAuthenticatedUser(testUserId);
+            when(productGtinIndex.find(123456789012L)).thenReturn(productId);
+            when(productRepository.findById(productId)).thenReturn(Optional.of(testProduct));
+
+            // When
+            ProductResponse response = productService.getProductByUpc(upc);
+
+            // Then
+            assertThat(response.getId()).isEqualTo(productId);
+            verify(productRepository, never()).findByCode(any());
+        }
+
+        @Test
+        @DisplayName("should fall back to the code lookup when the indexed product has another GTIN")
+        void shouldFallBackWhenIndexedProductChanged() {
+            // Given
+            String upc = "123456789012";
+            Product renamed = Product.builder().id(productId).upc("3017624010701").gtin(3017624010701L).build();
+            mockAuthenticatedUser(testUserId);
+            when(productGtinIndex.find(123456789012L)).thenReturn(productId);
+            when(productRepository.findById(productId)).thenReturn(Optional.of(renamed));
+            when(productRepository.findByCode(eq("00123456789012"))).thenReturn(Optional.of(testProduct));
+
+            // When
+            ProductResponse response = productService.getProductByUpc(upc);
+
+            // Then
+            assertThat(response.getUpc()).isEqualTo(upc);
+            verify(productGtinIndex).put(testProduct.getGtin(), testProduct.getId());
+        }
+
+        @Test
+        @DisplayName("should return the product a concurrent request inserted for the same GTIN")
+        void shouldReturnConcurrentlyInsertedProduct() {
+            // Given
+            String upc = "123456789012";
+            mockAuthenticatedUser(testUserId);
+            when(productRepository.findByCode(eq("00123456789012"))).thenReturn(Optional.empty());
+            when(upcApiService.fetchProductData(eq(upc)))
+                    .thenReturn(ProductResponse.builder().upc(upc).name("Fetched").build());
+            when(productWriteService.insertIfAbsent(any(Product.class)))
+                    .thenThrow(new DataIntegrityViolationException("uq_products_gtin"));
+            when(productRepository.findByCode(eq(upc))).thenReturn(Optional.of(testProduct));
+
+            // When
+            ProductResponse response = productService.getProductByUpc(upc);
+
+            // Then
+            assertThat(response.getId()).isEqualTo(productId);
+            verify(productRepository, never()).save(any(Product.class));
+        }
+
+        @Test
+        @DisplayName("should serve a cached product without querying the repository")
+        void shouldServeCachedProductWithoutQueryingRepository() {
+            // Given
+            String upc = "123456789012";
+            ProductResponse cached = ProductResponse.builder().id(productId).upc(upc).name("Cached").build();
+            mockAuthenticatedUser(testUserId);
+            when(productCache.get(eq("00123456789012"), any())).thenReturn(cached);
+
+            // When
+            ProductResponse response = productService.getProductByUpc(upc);
+
+            // Then
+            assertThat(response).isSameAs(cached);
+            verify(productRepository, never()).findByCode(any());
+            verify(upcApiService, never()).fetchProductData(any());
         }
 
         @Test
@@ -230,7 +356,7 @@ class ProductServiceTest {
                     .hasMessageContaining("UPC cannot be null or empty");
 
             verify(securityService, never()).getCurrentUserId();
-            verify(productRepository, never()).findByUpc(any());
+            verify(productRepository, never()).findByCode(any());
         }
 
         @Test
@@ -242,7 +368,7 @@ class ProductServiceTest {
                     .hasMessageContaining("UPC cannot be null or empty");
 
             verify(securityService, never()).getCurrentUserId();
-            verify(productRepository, never()).findByUpc(any());
+            verify(productRepository, never()).findByCode(any());
         }
 
         @Test
@@ -251,7 +377,7 @@ class ProductServiceTest {
             // Given
             String upc = "999999999999";
             mockAuthenticatedUser(testUserId);
-            when(productRepository.findByUpc(eq(upc))).thenReturn(Optional.empty());
+            when(productRepository.findByCode(eq(upc))).thenReturn(Optional.empty());
 
             // When/Then
             assertThatThrownBy(() -> productService.getProductByUpc(upc))
@@ -259,7 +385,231 @@ class ProductServiceTest {
                     .hasMessageContaining("Product not found");
 
             verify(securityService).getCurrentUserId();
-            verify(productRepository).findByUpc(eq(upc));
+            verify(productRepository).findByCode(eq(upc));
+        }
+
+        @Test
+        @DisplayName("should reject a known-absent UPC missing locally without API calls")
+        void shouldRejectKnownAbsentUpcWithoutApiCalls() {
+            // Given
+            String upc = "000000000000";
+            mockAuthenticatedUser(testUserId);
+            when(productRepository.findByCode(eq("00000000000000"))).thenReturn(Optional.empty());
+            when(unknownUpcFilter.isKnownAbsent(eq("00000000000000"))).thenReturn(true);
+
+            // When/Then
+            assertThatThrownBy(() -> productService.getProductByUpc(upc))
+                    .isInstanceOf(NotFoundException.class)
+                    .hasMessageContaining("not found");
+
+            InOrder inOrder = inOrder(productRepository, unknownUpcFilter);
+            inOrder.verify(productRepository).findByCode(eq("00000000000000"));
+            inOrder.verify(unknownUpcFilter).isKnownAbsent(eq("00000000000000"));
+            verify(upcLookupCoalescer, never()).coalesce(any(), any());
+            verify(upcApiService, never()).fetchProductData(any());
+        }
+
+        @Test
+        @DisplayName("should find a stored product without consulting the unknown UPCs")
+        void shouldFindStoredProductWithoutConsultingUnknownUpcs() {
+            // Given
+            String upc = "123456789012";
+            mockAuthenticatedUser(testUserId);
+            when(productRepository.findByCode(eq("00123456789012"))).thenReturn(Optional.of(testProduct));
+
+            // When
+            ProductResponse response = productService.getProductByUpc(upc);
+
+            // Then
+            assertThat(response.getId()).isEqualTo(productId);
+            verifyNoInteractions(unknownUpcFilter);
+        }
+
+        @Test
+        @DisplayName("should record a UPC the external database does not know")
+        void shouldRecordUpcUnknownToExternalDatabase() {
+            // Given
+            String upc = "999999999999";
+            mockAuthenticatedUser(testUserId);
+            when(productRepository.findByCode(eq(upc))).thenReturn(Optional.empty());
+            when(upcApiService.fetchProductData(eq(upc)))
+                    .thenThrow(new NotFoundException("Product not found in external database for UPC: " + upc));
+
+            // When/Then
+            assertThatThrownBy(() -> productService.getProductByUpc(upc))
+                    .isInstanceOf(NotFoundException.class);
+
+            verify(unknownUpcFilter).recordAbsent(eq(upc));
+            verify(productWriteService, never()).insertIfAbsent(any(Product.class));
+        }
+
+        @Test
+        @DisplayName("should return a provisional product when the API outlasts the latency budget")
+        void shouldReturnProvisionalProductWhenBudgetElapses() {
+            // Given
+            String upc = "123456789012";
+            CompletableFuture<ProductResponse> lookup = new CompletableFuture<>();
+            mockAuthenticatedUser(testUserId);
+            when(productRepository.findByCode(eq("00123456789012"))).thenReturn(Optional.empty());
+            when(upcApiService.fetchProductDataAsync(eq(upc))).thenReturn(lookup);
+            when(productWriteService.insertIfAbsent(any(Product.class))).thenAnswer(inv -> {
+                Product product = inv.getArgument(0);
+                product.setId(productId);
+                return product;
+            });
+
+            // The lookup completes right after the product is stored, before the response is cached
+            doAnswer(inv -> lookup.complete(ProductResponse.builder().upc(upc).name("Fetched").build()))
+                    .when(productEnrichmentWorker).completeInBackground(productId, lookup);
+
+            // When
+            ProductResponse response = productService.getProductByUpc(upc, Duration.ofMillis(10));
+
+            // Then
+            verify(productCache, never()).put(anyString(), any());
+            assertThat(response.getDataSource()).isEqualTo(ProductDataSource.MANUAL);
+            assertThat(response.getRequiresApiRetry()).isTrue();
+            assertThat(response.getName()).isEqualTo(ProductService.PLACEHOLDER_NAME);
+            verify(productEnrichmentWorker).completeInBackground(productId, lookup);
+            verify(upcApiService, never()).fetchProductData(any());
+        }
+
+        @Test
+        @DisplayName("should use API data that arrives within the latency budget")
+        void shouldUseApiDataWithinBudget() {
+            // Given
+            String upc = "123456789012";
+            mockAuthenticatedUser(testUserId);
+            when(productRepository.findByCode(eq("00123456789012"))).thenReturn(Optional.empty());
+            when(upcApiService.fetchProductDataAsync(eq(upc))).thenReturn(CompletableFuture.completedFuture(
+                    ProductResponse.builder().upc(upc).name("Fetched").build()));
+            when(productWriteService.insertIfAbsent(any(Product.class))).thenAnswer(inv -> inv.getArgument(0));
+
+            // When
+            ProductResponse response = productService.getProductByUpc(upc, Duration.ofMillis(300));
+
+            // Then
+            assertThat(response.getName()).isEqualTo("Fetched");
+            assertThat(response.getDataSource()).isEqualTo(ProductDataSource.OPEN_FOOD_FACTS);
+            assertThat(response.getRequiresApiRetry()).isFalse();
+            verify(productEnrichmentWorker, never()).completeInBackground(any(), any());
+        }
+
+        @Test
+        @DisplayName("should throw ValidationException when the latency budget is negative")
+        void shouldThrowValidationExceptionWhenBudgetIsNegative() {
+            // When/Then
+            assertThatThrownBy(() -> productService.getProductByUpc("123456789012", Duration.ofMillis(-1)))
+                    .isInstanceOf(ValidationException.class)
+                    .hasMessageContaining("Latency budget");
+
+            verify(productRepository, never()).findByCode(any());
+        }
+    }
+
+    @Nested
+    @DisplayName("getProductsByUpcs")
+    class GetProductsByUpcsTests {
+
+        @Test
+        @DisplayName("should find stored products with one query and fetch the missing ones in one batch")
+        void shouldResolveUpcsTogether() {
+            // Given
+            String fetched = "3017624010701";
+            String failing = "4000000000001";
+            mockAuthenticatedUser(testUserId);
+            when(productRepository.findByCodeIn(anyCollection())).thenReturn(List.of(testProduct));
+            when(upcApiService.fetchProductDataBatchAsync(List.of(fetched, failing))).thenReturn(Map.of(
+                    fetched, CompletableFuture.completedFuture(ProductResponse.builder().name("Nutella").build()),
+                    failing, CompletableFuture.failedFuture(new ExternalServiceException("Open Food Facts API", "down"))));
+            when(productWriteService.insertAllIfAbsent(anyList())).thenAnswer(inv -> inv.getArgument(0));
+
+            // When
+            Map<String, ProductResponse> products = productService.getProductsByUpcs(
+                    List.of(testProduct.getUpc(), fetched, failing, fetched));
+
+            // Then
+            assertThat(products).hasSize(3);
+            assertThat(products.get(Gtin.canonical(testProduct.getUpc())).getId()).isEqualTo(productId);
+            assertThat(products.get(Gtin.canonical(fetched)).getName()).isEqualTo("Nutella");
+            assertThat(products.get(Gtin.canonical(failing)).getRequiresApiRetry()).isTrue();
+            @SuppressWarnings("unchecked")
+            ArgumentCaptor<List<Product>> inserted = ArgumentCaptor.forClass(List.class);
+            verify(productWriteService).insertAllIfAbsent(inserted.capture());
+            assertThat(inserted.getValue()).extracting(Product::getUpc).containsExactly(fetched, failing);
+            assertThat(inserted.getValue()).allSatisfy(product -> assertThat(product.getId()).isNotNull());
+            verify(productCache).put(eq(Gtin.canonical(fetched)), any());
+            verify(productCache, never()).put(eq(Gtin.canonical(failing)), any());
+            verify(upcApiService, never()).fetchProductData(anyString());
+            verify(productWriteService, never()).insertIfAbsent(any());
+        }
+
+        @Test
+        @DisplayName("should record UPCs unknown to the external database and store nothing")
+        void shouldThrowNotFoundExceptionForUnknownUpc() {
+            // Given
+            String fetched = "3017624010701";
+            String unknown = "4000000000001";
+            mockAuthenticatedUser(testUserId);
+            when(productRepository.findByCodeIn(anyCollection())).thenReturn(List.of());
+            when(upcApiService.fetchProductDataBatchAsync(List.of(fetched, unknown))).thenReturn(Map.of(
+                    fetched, CompletableFuture.completedFuture(ProductResponse.builder().name("Nutella").build()),
+                    unknown, CompletableFuture.failedFuture(new NotFoundException("unknown"))));
+
+            // When/Then
+            assertThatThrownBy(() -> productService.getProductsByUpcs(List.of(fetched, unknown)))
+                    .isInstanceOf(NotFoundException.class)
+                    .hasMessageContaining(unknown);
+
+            verify(unknownUpcFilter).recordAbsent(Gtin.canonical(unknown));
+            verify(productWriteService, never()).insertAllIfAbsent(anyList());
+        }
+
+        @Test
+        @DisplayName("should reject UPCs recorded as unknown without calling the external API")
+        void shouldRejectKnownAbsentUpc() {
+            // Given
+            String unknown = "4000000000001";
+            mockAuthenticatedUser(testUserId);
+            when(productRepository.findByCodeIn(anyCollection())).thenReturn(List.of(testProduct));
+            when(unknownUpcFilter.isKnownAbsent(Gtin.canonical(unknown))).thenReturn(true);
+
+            // When/Then
+            assertThatThrownBy(() -> productService.getProductsByUpcs(List.of(testProduct.getUpc(), unknown)))
+                    .isInstanceOf(NotFoundException.class);
+
+            verifyNoInteractions(upcApiService, productWriteService);
+        }
+
+        @Test
+        @DisplayName("should store products one by one when one of them was inserted concurrently")
+        void shouldFallBackToSingleInsertsOnConflict() {
+            // Given
+            String fetched = "3017624010701";
+            mockAuthenticatedUser(testUserId);
+            when(productRepository.findByCodeIn(anyCollection())).thenReturn(List.of());
+            when(upcApiService.fetchProductDataBatchAsync(List.of(fetched))).thenReturn(Map.of(
+                    fetched, CompletableFuture.completedFuture(ProductResponse.builder().name("Nutella").build())));
+            when(productWriteService.insertAllIfAbsent(anyList()))
+                    .thenThrow(new DataIntegrityViolationException("uq_products_gtin"));
+            when(productWriteService.insertIfAbsent(any(Product.class))).thenReturn(testProduct);
+
+            // When
+            Map<String, ProductResponse> products = productService.getProductsByUpcs(List.of(fetched));
+
+            // Then
+            assertThat(products.values()).extracting(ProductResponse::getId).containsExactly(productId);
+            verify(productWriteService).insertIfAbsent(argThat(product -> fetched.equals(product.getUpc())));
+        }
+
+        @Test
+        @DisplayName("should throw ValidationException when a UPC is blank")
+        void shouldThrowValidationExceptionForBlankUpc() {
+            // When/Then
+            assertThatThrownBy(() -> productService.getProductsByUpcs(List.of("123456789012", " ")))
+                    .isInstanceOf(ValidationException.class);
+
+            verifyNoInteractions(productRepository, upcApiService);
         }
     }
 
@@ -377,7 +727,7 @@ class ProductServiceTest {
         void shouldCreateProductWithApiEnrichment() {
             // Given
             mockAuthenticatedUser(testUserId);
-            when(productRepository.findByUpc(eq(testProductRequest.getUpc()))).thenReturn(Optional.empty());
+            when(productRepository.findByCode(eq(testProductRequest.getUpc()))).thenReturn(Optional.empty());
 
             ProductResponse apiResponse = ProductResponse.builder()
                     .upc(testProductRequest.getUpc())
@@ -386,7 +736,7 @@ class ProductServiceTest {
                     .category("API Category")
                     .build();
             when(upcApiService.fetchProductData(eq(testProductRequest.getUpc()))).thenReturn(apiResponse);
-            when(productRepository.save(any(Product.class))).thenAnswer(inv -> {
+            when(productWriteService.insertIfAbsent(any(Product.class))).thenAnswer(inv -> {
                 Product p = inv.getArgument(0);
                 p.setId(productId);
                 return p;
@@ -400,12 +750,13 @@ class ProductServiceTest {
             assertThat(response.getUpc()).isEqualTo(testProductRequest.getUpc());
 
             verify(securityService).getCurrentUserId();
-            verify(productRepository).findByUpc(eq(testProductRequest.getUpc()));
+            verify(productRepository).findByCode(eq(testProductRequest.getUpc()));
             verify(upcApiService).fetchProductData(eq(testProductRequest.getUpc()));
-            verify(productRepository).save(argThat(product ->
+            verify(productWriteService).insertIfAbsent(argThat(product ->
                     product.getDataSource() == ProductDataSource.OPEN_FOOD_FACTS &&
                             !product.getRequiresApiRetry()
             ));
+            verify(unknownUpcFilter).forget(eq("00123456789012"));
         }
 
         @Test
@@ -413,10 +764,10 @@ class ProductServiceTest {
         void shouldCreateManualProductWhenApiFails() {
             // Given
             mockAuthenticatedUser(testUserId);
-            when(productRepository.findByUpc(eq(testProductRequest.getUpc()))).thenReturn(Optional.empty());
+            when(productRepository.findByCode(eq(testProductRequest.getUpc()))).thenReturn(Optional.empty());
             when(upcApiService.fetchProductData(eq(testProductRequest.getUpc())))
                     .thenThrow(new RuntimeException("API unavailable"));
-            when(productRepository.save(any(Product.class))).thenAnswer(inv -> {
+            when(productWriteService.insertIfAbsent(any(Product.class))).thenAnswer(inv -> {
                 Product p = inv.getArgument(0);
                 p.setId(productId);
                 return p;
@@ -430,7 +781,7 @@ class ProductServiceTest {
             assertThat(response.getUpc()).isEqualTo(testProductRequest.getUpc());
 
             verify(securityService).getCurrentUserId();
-            verify(productRepository).save(argThat(product ->
+            verify(productWriteService).insertIfAbsent(argThat(product ->
                     product.getDataSource() == ProductDataSource.MANUAL &&
                             product.getRequiresApiRetry() &&
                             product.getRetryAttempts() == 0
@@ -446,7 +797,7 @@ class ProductServiceTest {
                     .hasMessageContaining("Product request cannot be null");
 
             verify(securityService, never()).getCurrentUserId();
-            verify(productRepository, never()).save(any());
+            verify(productWriteService, never()).insertIfAbsent(any());
         }
 
         @Test
@@ -464,7 +815,7 @@ class ProductServiceTest {
                     .hasMessageContaining("UPC cannot be null or empty");
 
             verify(securityService).getCurrentUserId();
-            verify(productRepository, never()).save(any());
+            verify(productWriteService, never()).insertIfAbsent(any());
         }
 
         @Test
@@ -472,7 +823,7 @@ class ProductServiceTest {
         void shouldThrowConflictExceptionWhenUpcExists() {
             // Given
             mockAuthenticatedUser(testUserId);
-            when(productRepository.findByUpc(eq(testProductRequest.getUpc())))
+            when(productRepository.findByCode(eq(testProductRequest.getUpc())))
                     .thenReturn(Optional.of(testProduct));
 
             // When/Then
@@ -481,8 +832,43 @@ class ProductServiceTest {
                     .hasMessageContaining("Product with UPC '" + testProductRequest.getUpc() + "' already exists");
 
             verify(securityService).getCurrentUserId();
-            verify(productRepository).findByUpc(eq(testProductRequest.getUpc()));
-            verify(productRepository, never()).save(any());
+            verify(productRepository).findByCode(eq(testProductRequest.getUpc()));
+            verify(productWriteService, never()).insertIfAbsent(any());
+        }
+
+        @Test
+        @DisplayName("should throw ConflictException when the UPC is created during the API call")
+        void shouldThrowConflictExceptionWhenUpcCreatedConcurrently() {
+            // Given
+            mockAuthenticatedUser(testUserId);
+            when(productRepository.findByCode(eq(testProductRequest.getUpc()))).thenReturn(Optional.empty());
+            when(upcApiService.fetchProductData(eq(testProductRequest.getUpc())))
+                    .thenThrow(new RuntimeException("API unavailable"));
+            when(productWriteService.insertIfAbsent(any(Product.class))).thenReturn(testProduct);
+
+            // When/Then
+            assertThatThrownBy(() -> productService.createProduct(testProductRequest))
+                    .isInstanceOf(ConflictException.class)
+                    .hasMessageContaining("already exists");
+
+            verify(productGtinIndex, never()).put(any(), any());
+        }
+
+        @Test
+        @DisplayName("should throw ConflictException when a concurrent insert wins the GTIN index")
+        void shouldThrowConflictExceptionWhenInsertViolatesGtinIndex() {
+            // Given
+            mockAuthenticatedUser(testUserId);
+            when(productRepository.findByCode(eq(testProductRequest.getUpc()))).thenReturn(Optional.empty());
+            when(upcApiService.fetchProductData(eq(testProductRequest.getUpc())))
+                    .thenThrow(new RuntimeException("API unavailable"));
+            when(productWriteService.insertIfAbsent(any(Product.class)))
+                    .thenThrow(new DataIntegrityViolationException("uq_products_gtin"));
+
+            // When/Then
+            assertThatThrownBy(() -> productService.createProduct(testProductRequest))
+                    .isInstanceOf(ConflictException.class)
+                    .hasMessageContaining("already exists");
         }
     }
 
@@ -497,7 +883,8 @@ class ProductServiceTest {
         void shouldUpdateProductSuccessfullyAsAdmin() {
             // Given
             when(productRepository.findById(eq(productId))).thenReturn(Optional.of(testProduct));
-            when(productRepository.save(any(Product.class))).thenAnswer(inv -> inv.getArgument(0));
+            when(productWriteService.saveWithPantryItemNames(any(Product.class), any()))
+                    .thenAnswer(inv -> inv.getArgument(0));
 
             // When
             ProductResponse response = productService.updateProduct(productId, testProductUpdateRequest);
@@ -509,7 +896,8 @@ class ProductServiceTest {
 
             verify(securityService).getCurrentUserId();
             verify(productRepository).findById(eq(productId));
-            verify(productRepository).save(any(Product.class));
+            verify(productWriteService).saveWithPantryItemNames(testProduct, "Test Product");
+            verify(productCache, atLeastOnce()).invalidate(eq("00123456789012"));
         }
 
         @Test
@@ -549,7 +937,7 @@ class ProductServiceTest {
 
             verify(securityService).getCurrentUserId();
             verify(productRepository).findById(eq(productId));
-            verify(productRepository, never()).save(any());
+            verify(productWriteService, never()).saveWithPantryItemNames(any(), any());
         }
     }
 
@@ -566,7 +954,8 @@ class ProductServiceTest {
             patchData.put("defaultExpirationDays", 60);
 
             when(productRepository.findById(eq(productId))).thenReturn(Optional.of(testProduct));
-            when(productRepository.save(any(Product.class))).thenAnswer(inv -> inv.getArgument(0));
+            when(productWriteService.saveWithPantryItemNames(any(Product.class), any()))
+                    .thenAnswer(inv -> inv.getArgument(0));
 
             // When
             ProductResponse response = productService.patchProduct(productId, patchData);
@@ -576,10 +965,11 @@ class ProductServiceTest {
 
             verify(securityService).getCurrentUserId();
             verify(productRepository).findById(eq(productId));
-            verify(productRepository).save(argThat(product ->
+            verify(productWriteService).saveWithPantryItemNames(argThat(product ->
                     product.getName().equals("Patched Name") &&
                             product.getDefaultExpirationDays() == 60
-            ));
+            ), eq("Test Product"));
+            verify(productCache, atLeastOnce()).invalidate(eq("00123456789012"));
         }
 
         @Test
@@ -631,7 +1021,7 @@ class ProductServiceTest {
                     .hasMessageContaining("Unsupported field for patching: invalidField");
 
             verify(securityService).getCurrentUserId();
-            verify(productRepository, never()).save(any());
+            verify(productWriteService, never()).saveWithPantryItemNames(any(), any());
         }
     }
 
@@ -655,6 +1045,7 @@ class ProductServiceTest {
             verify(securityService).getCurrentUserId();
             verify(productRepository).findById(eq(productId));
             verify(productRepository).delete(eq(testProduct));
+            verify(productCache).invalidate(eq("00123456789012"));
         }
 
         @Test
@@ -686,112 +1077,168 @@ class ProductServiceTest {
         }
     }
 
-    // ==================== Retry Operations Tests ====================
+    // ==================== Bulk Operations Tests ====================
 
     @Nested
-    @DisplayName("retryApiEnrichment")
-    class RetryApiEnrichmentTests {
+    @DisplayName("bulkImportProducts")
+    class BulkImportProductsTests {
 
         @Test
-        @DisplayName("should retry API enrichment successfully as admin")
-        void shouldRetryApiEnrichmentSuccessfully() {
+        @DisplayName("should dedupe, skip existing UPCs, fetch in one batch and insert in one step")
+        void shouldImportThroughPipeline() {
             // Given
-            Product productToRetry = Product.builder()
-                    .id(UUID.randomUUID())
-                    .upc("999999999999")
-                    .name("Retry Product")
-                    .dataSource(ProductDataSource.MANUAL)
-                    .requiresApiRetry(true)
-                    .retryAttempts(1)
-                    .build();
+            mockAuthenticatedUser(adminUserId);
+            ProductRequest known = ProductRequest.builder().upc("3017624010701").name("Nutella").build();
+            ProductRequest unknown = ProductRequest.builder().upc("4000000000001").name("Mystery").build();
+            ProductRequest existing = ProductRequest.builder().upc(testProduct.getUpc()).name("Test").build();
+            ProductRequest repeated = ProductRequest.builder().upc(known.getUpc()).name("Nutella again").build();
+            ProductRequest invalid = ProductRequest.builder().upc("12ab").name("Invalid").build();
+            when(productRepository.findByCodeIn(anyCollection()))
+                    .thenReturn(List.of(testProduct));
+            when(upcApiService.fetchProductDataBatchAsync(List.of(known.getUpc(), unknown.getUpc())))
+                    .thenReturn(Map.of(
+                            known.getUpc(), CompletableFuture.completedFuture(ProductResponse.builder()
+                                    .upc(known.getUpc()).name("Nutella").brand("Ferrero").build()),
+                            unknown.getUpc(), CompletableFuture.failedFuture(new NotFoundException("unknown"))));
 
-            when(productRepository.findByRequiresApiRetryTrueAndRetryAttemptsLessThan(5))
-                    .thenReturn(List.of(productToRetry));
+            // When
+            BulkProductImportResponse response = productService.bulkImportProducts(
+                    List.of(known, unknown, existing, repeated, invalid));
 
-            ProductResponse apiResponse = ProductResponse.builder()
-                    .upc(productToRetry.getUpc())
-                    .name("API Enriched Name")
-                    .build();
-            when(upcApiService.fetchProductData(eq(productToRetry.getUpc()))).thenReturn(apiResponse);
-            when(productRepository.save(any(Product.class))).thenAnswer(inv -> inv.getArgument(0));
+            // Then
+            assertThat(response.getItems()).extracting(BulkProductImportItem::getStatus).containsExactly(
+                    BulkProductImportItem.Status.CREATED,
+                    BulkProductImportItem.Status.CREATED,
+                    BulkProductImportItem.Status.ALREADY_EXISTS,
+                    BulkProductImportItem.Status.DUPLICATE,
+                    BulkProductImportItem.Status.INVALID);
+            assertThat(response.getCreatedCount()).isEqualTo(2);
+            assertThat(response.getSkippedCount()).isEqualTo(2);
+            assertThat(response.getFailedCount()).isEqualTo(1);
+            assertThat(response.getItems().get(0).getDataSource()).isEqualTo(ProductDataSource.OPEN_FOOD_FACTS);
+            assertThat(response.getItems().get(1).getDataSource()).isEqualTo(ProductDataSource.MANUAL);
+            assertThat(response.getItems().get(2).getProductId()).isEqualTo(testProduct.getId());
+
+            @SuppressWarnings("unchecked")
+            ArgumentCaptor<List<Product>> inserted = ArgumentCaptor.forClass(List.class);
+            verify(productCatalogImportService).insertProducts(inserted.capture());
+            assertThat(inserted.getValue()).extracting(Product::getUpc)
+                    .containsExactly(known.getUpc(), unknown.getUpc());
+            assertThat(inserted.getValue().get(0).getBrand()).isEqualTo("Ferrero");
+            assertThat(inserted.getValue().get(1).getRequiresApiRetry()).isTrue();
+            assertThat(inserted.getValue()).allSatisfy(product -> assertThat(product.getId()).isNotNull());
+            assertThat(response.getItems().get(0).getProductId()).isEqualTo(inserted.getValue().get(0).getId());
+            verify(upcApiService, never()).fetchProductData(anyString());
+            verify(productRepository, never()).save(any(Product.class));
+        }
+
+        @Test
+        @DisplayName("should report new products as failed when the insert fails")
+        void shouldReportFailedInsert() {
+            // Given
+            mockAuthenticatedUser(adminUserId);
+            ProductRequest request = ProductRequest.builder().upc("3017624010701").name("Nutella").build();
+            when(productRepository.findByCodeIn(anyCollection())).thenReturn(List.of());
+            when(upcApiService.fetchProductDataBatchAsync(anyCollection())).thenReturn(Map.of());
+            doThrow(new RuntimeException("connection lost")).when(productCatalogImportService)
+                    .insertProducts(anyList());
 
             // When
-            int result = productService.retryApiEnrichment();
+            BulkProductImportResponse response = productService.bulkImportProducts(List.of(request));
 
             // Then
-            assertThat(result).isEqualTo(1);
-
-            verify(securityService).getCurrentUserId();
-            verify(productRepository).findByRequiresApiRetryTrueAndRetryAttemptsLessThan(5);
-            verify(upcApiService).fetchProductData(eq(productToRetry.getUpc()));
-            verify(productRepository).save(argThat(product ->
-                    product.getDataSource() == ProductDataSource.OPEN_FOOD_FACTS &&
-                            !product.getRequiresApiRetry()
-            ));
+            assertThat(response.getFailedCount()).isEqualTo(1);
+            assertThat(response.getItems().get(0).getStatus()).isEqualTo(BulkProductImportItem.Status.FAILED);
+            assertThat(response.getItems().get(0).getProductId()).isNull();
         }
+    }
+
+    @Nested
+    @DisplayName("importCatalog")
+    class ImportCatalogTests {
 
         @Test
-        @DisplayName("should increment retry attempts when API fails")
-        void shouldIncrementRetryAttemptsWhenApiFails() {
+        @DisplayName("should start the catalog importer for the given file")
+        void shouldStartCatalogImporter() {
             // Given
-            Product productToRetry = Product.builder()
-                    .id(UUID.randomUUID())
-                    .upc("999999999999")
-                    .name("Retry Product")
-                    .dataSource(ProductDataSource.MANUAL)
-                    .requiresApiRetry(true)
-                    .retryAttempts(1)
-                    .build();
+            mockAuthenticatedUser(adminUserId);
 
-            when(productRepository.findByRequiresApiRetryTrueAndRetryAttemptsLessThan(5))
-                    .thenReturn(List.of(productToRetry));
-            when(upcApiService.fetchProductData(eq(productToRetry.getUpc())))
-                    .thenThrow(new RuntimeException("API failed"));
-            when(productRepository.save(any(Product.class))).thenAnswer(inv -> inv.getArgument(0));
+            // When
+            productService.importCatalog("products.jsonl.gz");
+
+            // Then
+            verify(productCatalogImporter).startImport("products.jsonl.gz");
+        }
+    }
+
+    // ==================== Retry Operations Tests ====================
+
+    @Nested
+    @DisplayName("retryApiEnrichment")
+    class RetryApiEnrichmentTests {
+
+        @Test
+        @DisplayName("should run the enrichment worker with the default attempt limit")
+        void shouldRunEnrichmentWorker() {
+            // Given
+            when(productEnrichmentWorker.enrichDue(5)).thenReturn(3);
 
             // When
             int result = productService.retryApiEnrichment();
 
             // Then
-            assertThat(result).isEqualTo(0);
-
+            assertThat(result).isEqualTo(3);
             verify(securityService).getCurrentUserId();
-            verify(productRepository).save(argThat(product ->
-                    product.getRetryAttempts() == 2 &&
-                            product.getRequiresApiRetry()
-            ));
+            verify(productEnrichmentWorker).enrichDue(5);
+            verifyNoInteractions(upcApiService, productRepository);
         }
 
         @Test
-        @DisplayName("should disable retry after max attempts")
-        void shouldDisableRetryAfterMaxAttempts() {
+        @DisplayName("should invalidate the cached product after saving the enriched product")
+        void shouldInvalidateCacheAfterSave() {
             // Given
-            Product productToRetry = Product.builder()
-                    .id(UUID.randomUUID())
-                    .upc("999999999999")
-                    .name("Retry Product")
-                    .dataSource(ProductDataSource.MANUAL)
-                    .requiresApiRetry(true)
-                    .retryAttempts(4) // One below max
-                    .build();
+            when(productRepository.findById(eq(productId))).thenReturn(Optional.of(testProduct));
+            when(upcApiService.fetchProductData(eq(testProduct.getUpc())))
+                    .thenReturn(ProductResponse.builder().name("Enriched Product").build());
+            when(productWriteService.saveWithPantryItemNames(any(Product.class), any()))
+                    .thenAnswer(inv -> inv.getArgument(0));
+
+            // When
+            ProductResponse response = productService.retryApiEnrichment(productId);
+
+            // Then
+            assertThat(response.getName()).isEqualTo("Enriched Product");
+            InOrder inOrder = inOrder(productWriteService, productCache);
+            inOrder.verify(productWriteService).saveWithPantryItemNames(testProduct, "Test Product");
+            inOrder.verify(productCache).invalidate(eq("00123456789012"));
+        }
+    }
 
-            when(productRepository.findByRequiresApiRetryTrueAndRetryAttemptsLessThan(5))
-                    .thenReturn(List.of(productToRetry));
-            when(upcApiService.fetchProductData(eq(productToRetry.getUpc())))
-                    .thenThrow(new RuntimeException("API failed"));
-            when(productRepository.save(any(Product.class))).thenAnswer(inv -> inv.getArgument(0));
+    @Nested
+    @DisplayName("processBatchRetry")
+    class ProcessBatchRetryTests {
+
+        @Test
+        @DisplayName("should run the enrichment worker with the requested attempt limit")
+        void shouldRunEnrichmentWorkerWithRequestedLimit() {
+            // Given
+            when(productEnrichmentWorker.enrichDue(3)).thenReturn(2);
 
             // When
-            int result = productService.retryApiEnrichment();
+            int result = productService.processBatchRetry(3);
 
             // Then
-            assertThat(result).isEqualTo(0);
+            assertThat(result).isEqualTo(2);
+            verify(productEnrichmentWorker).enrichDue(3);
+        }
 
-            verify(securityService).getCurrentUserId();
-            verify(productRepository).save(argThat(product ->
-                    product.getRetryAttempts() == 5 &&
-                            !product.getRequiresApiRetry() // Disabled after max attempts
-            ));
+        @Test
+        @DisplayName("should throw ValidationException for a non-positive attempt limit")
+        void shouldRejectNonPositiveAttemptLimit() {
+            assertThatThrownBy(() -> productService.processBatchRetry(0))
+                    .isInstanceOf(ValidationException.class)
+                    .hasMessageContaining("must be positive");
+            verifyNoInteractions(productEnrichmentWorker);
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,146 @@
+package org.cubord.cubordbackend.service;
+
+import org.cubord.cubordbackend.domain.Product;
+import org.cubord.cubordbackend.domain.ProductDataSource;
+import org.cubord.cubordbackend.dto.product.ProductResponse;
+import org.cubord.cubordbackend.repository.ProductRepository;
+import org.cubord.cubordbackend.security.SecurityService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Saves renamed products against the real repositories with no test transaction open, as the
+ * service runs in production, and checks that the product and its pantry items change together.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ProductService.class, ProductWriteService.class})
+@DisplayName("Product writes with pantry item names")
+class ProductWriteServiceTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductWriteService productWriteService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private UpcApiService upcApiService;
+
+    @MockitoBean
+    private SecurityService securityService;
+
+    @MockitoBean
+    private ProductCache productCache;
+
+    @MockitoBean
+    private UnknownUpcFilter unknownUpcFilter;
+
+    @MockitoBean
+    private UpcLookupCoalescer upcLookupCoalescer;
+
+    @MockitoBean
+    private ProductEnrichmentWorker productEnrichmentWorker;
+
+    @MockitoBean
+    private ProductCatalogImporter productCatalogImporter;
+
+    @MockitoBean
+    private ProductCatalogImportService productCatalogImportService;
+
+    @MockitoBean
+    private ProductGtinIndex productGtinIndex;
+
+    private Product placeholder;
+    private UUID householdId;
+    private UUID locationId;
+
+    @BeforeEach
+    void setUp() {
+        placeholder = productRepository.saveAndFlush(Product.builder()
+                .upc("123456789012")
+                .name(ProductService.PLACEHOLDER_NAME)
+                .dataSource(ProductDataSource.MANUAL)
+                .requiresApiRetry(true)
+                .retryAttempts(0)
+                .build());
+        householdId = UUID.randomUUID();
+        locationId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO households (id, name) VALUES (?, 'Home')", householdId);
+        jdbcTemplate.update("INSERT INTO locations (id, name, household_id) VALUES (?, 'Pantry', ?)",
+                locationId, householdId);
+        jdbcTemplate.update("INSERT INTO pantry_items (id, product_id, location_id, quantity, household_id, " +
+                        "product_name) VALUES (?, ?, ?, 1, ?, ?)",
+                UUID.randomUUID(), placeholder.getId(), locationId, householdId, ProductService.PLACEHOLDER_NAME);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM pantry_items WHERE location_id = ?", locationId);
+        jdbcTemplate.update("DELETE FROM locations WHERE id = ?", locationId);
+        jdbcTemplate.update("DELETE FROM households WHERE id = ?", householdId);
+        productRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("should rename the pantry items of a placeholder product enriched on manual retry")
+    void shouldRenamePantryItemsOnManualRetry() {
+        // Given
+        when(upcApiService.fetchProductData(anyString()))
+                .thenReturn(ProductResponse.builder().name("Whole Milk").build());
+
+        // When
+        ProductResponse response = productService.retryApiEnrichment(placeholder.getId());
+
+        // Then
+        Product saved = productRepository.findById(placeholder.getId()).orElseThrow();
+        assertThat(response.getName()).isEqualTo("Whole Milk");
+        assertThat(saved.getRequiresApiRetry()).isFalse();
+        assertThat(saved.getRetryAttempts()).isZero();
+        assertThat(pantryItemNames()).isEqualTo("Whole Milk");
+    }
+
+    @Test
+    @DisplayName("should save the product and its pantry item names in a transaction of its own")
+    void shouldSaveWithPantryItemNamesWithoutCallerTransaction() {
+        // Given
+        placeholder.setName("Oat Milk");
+
+        // When
+        productWriteService.saveWithPantryItemNames(placeholder, ProductService.PLACEHOLDER_NAME);
+
+        // Then
+        assertThat(productRepository.findById(placeholder.getId()).orElseThrow().getName()).isEqualTo("Oat Milk");
+        assertThat(pantryItemNames()).isEqualTo("Oat Milk");
+    }
+
+    private String pantryItemNames() {
+        return jdbcTemplate.queryForObject(
+                "SELECT product_name FROM pantry_items WHERE location_id = ?", String.class, locationId);
+    }
+}
@@ -0,0 +1,166 @@
+package org.cubord.cubordbackend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.cubord.cubordbackend.domain.UnknownUpc;
+import org.cubord.cubordbackend.repository.UnknownUpcRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UnknownUpcFilter Tests")
+class UnknownUpcFilterTest {
+
+    private static final String UPC = "000000000000";
+
+    @Mock
+    private UnknownUpcRepository unknownUpcRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private UnknownUpcFilter unknownUpcFilter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        unknownUpcFilter = new UnknownUpcFilter(unknownUpcRepository, meterRegistry);
+        ReflectionTestUtils.setField(unknownUpcFilter, "ttl", Duration.ofDays(7));
+        ReflectionTestUtils.setField(unknownUpcFilter, "expectedInsertions", 1000);
+        ReflectionTestUtils.setField(unknownUpcFilter, "falsePositiveProbability", 0.01);
+        unknownUpcFilter.init();
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("cubord.product.unknown-upc.lookups").tag("result", result).counter().count();
+    }
+
+    @Nested
+    @DisplayName("isKnownAbsent")
+    class IsKnownAbsentTests {
+
+        @Test
+        @DisplayName("should pass unrecorded UPCs without querying the database")
+        void shouldPassUnrecordedUpcsWithoutQuery() {
+            // When
+            boolean absent = unknownUpcFilter.isKnownAbsent(UPC);
+
+            // Then
+            assertThat(absent).isFalse();
+            assertThat(count("passed")).isEqualTo(1);
+            verifyNoInteractions(unknownUpcRepository);
+        }
+
+        @Test
+        @DisplayName("should reject a recorded UPC that has not expired")
+        void shouldRejectRecordedUpc() {
+            // Given
+            unknownUpcFilter.recordAbsent(UPC);
+            when(unknownUpcRepository.existsByUpcAndExpiresAtAfter(eq(UPC), any())).thenReturn(true);
+
+            // When
+            boolean absent = unknownUpcFilter.isKnownAbsent(UPC);
+
+            // Then
+            assertThat(absent).isTrue();
+            assertThat(count("known_absent")).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("should pass a UPC the filter reports but the table no longer holds")
+        void shouldPassFilterFalsePositive() {
+            // Given
+            unknownUpcFilter.recordAbsent(UPC);
+            when(unknownUpcRepository.existsByUpcAndExpiresAtAfter(eq(UPC), any())).thenReturn(false);
+
+            // When
+            boolean absent = unknownUpcFilter.isKnownAbsent(UPC);
+
+            // Then
+            assertThat(absent).isFalse();
+            assertThat(count("false_positive")).isEqualTo(1);
+        }
+    }
+
+    @Nested
+    @DisplayName("recordAbsent")
+    class RecordAbsentTests {
+
+        @Test
+        @DisplayName("should store the UPC with an expiry of the configured TTL")
+        void shouldStoreUpcWithExpiry() {
+            // Given
+            LocalDateTime before = LocalDateTime.now();
+
+            // When
+            unknownUpcFilter.recordAbsent(UPC);
+
+            // Then
+            verify(unknownUpcRepository).save(argThat((UnknownUpc entry) ->
+                    entry.getUpc().equals(UPC) &&
+                            !entry.getExpiresAt().isBefore(before.plusDays(7))
+            ));
+        }
+    }
+
+    @Nested
+    @DisplayName("rebuild")
+    class RebuildTests {
+
+        @Test
+        @DisplayName("should drop expired entries and keep active ones")
+        void shouldDropExpiredAndKeepActiveEntries() {
+            // Given
+            unknownUpcFilter.recordAbsent("111111111111");
+            when(unknownUpcRepository.deleteExpired(any())).thenReturn(1);
+            when(unknownUpcRepository.findActiveUpcs(any())).thenReturn(List.of(UPC));
+            when(unknownUpcRepository.existsByUpcAndExpiresAtAfter(anyString(), any())).thenReturn(true);
+
+            // When
+            unknownUpcFilter.rebuild();
+
+            // Then
+            assertThat(unknownUpcFilter.isKnownAbsent(UPC)).isTrue();
+            assertThat(unknownUpcFilter.isKnownAbsent("111111111111")).isFalse();
+            verify(unknownUpcRepository, never()).existsByUpcAndExpiresAtAfter(eq("111111111111"), any());
+        }
+    }
+
+    @Nested
+    @DisplayName("BloomFilter")
+    class BloomFilterTests {
+
+        @Test
+        @DisplayName("should contain every inserted value and stay near the target false positive rate")
+        void shouldContainInsertedValuesWithLowFalsePositiveRate() {
+            // Given
+            UnknownUpcFilter.BloomFilter filter = UnknownUpcFilter.BloomFilter.create(10_000, 0.01);
+            IntStream.range(0, 10_000).forEach(i -> filter.put(String.format("%012d", i)));
+
+            // When
+            long falsePositives = IntStream.range(10_000, 110_000)
+                    .filter(i -> filter.mightContain(String.format("%012d", i)))
+                    .count();
+
+            // Then
+            assertThat(IntStream.range(0, 10_000).allMatch(i -> filter.mightContain(String.format("%012d", i))))
+                    .isTrue();
+            assertThat(falsePositives).isLessThan(2_000);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package org.cubord.cubordbackend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.cubord.cubordbackend.dto.product.BulkProductImportResponse;
+import org.cubord.cubordbackend.dto.product.ProductRequest;
+import org.cubord.cubordbackend.dto.product.ProductResponse;
+import org.cubord.cubordbackend.exception.NotFoundException;
+import org.cubord.cubordbackend.repository.ProductRepository;
+import org.cubord.cubordbackend.repository.ProductRepositoryCustom.CatalogEntry;
+import org.cubord.cubordbackend.repository.UnknownUpcRepository;
+import org.cubord.cubordbackend.security.SecurityService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Records a UPC as unknown to the external database, imports a product for it, and scans it
+ * again, with the real unknown UPC table and no test transaction open.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ProductService.class, ProductWriteService.class, ProductCatalogImportService.class,
+        UnknownUpcFilter.class, SimpleMeterRegistry.class})
+@DisplayName("Imports of UPCs recorded as unknown")
+class UnknownUpcImportTest {
+
+    private static final String UPC = "3017624010701";
+    private static final String SOURCE = "/imports/catalog.jsonl";
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductCatalogImportService importService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UnknownUpcRepository unknownUpcRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private UpcApiService upcApiService;
+
+    @MockitoBean
+    private SecurityService securityService;
+
+    @MockitoBean
+    private ProductCache productCache;
+
+    @MockitoBean
+    private UpcLookupCoalescer upcLookupCoalescer;
+
+    @MockitoBean
+    private ProductEnrichmentWorker productEnrichmentWorker;
+
+    @MockitoBean
+    private ProductCatalogImporter productCatalogImporter;
+
+    @MockitoBean
+    private ProductGtinIndex productGtinIndex;
+
+    @BeforeEach
+    void setUp() {
+        when(productCache.get(anyString(), any())).thenAnswer(inv -> {
+            Function<String, ProductResponse> loader = inv.getArgument(1);
+            return loader.apply(inv.getArgument(0));
+        });
+        when(upcLookupCoalescer.coalesce(anyString(), any())).thenAnswer(inv -> {
+            Supplier<ProductResponse> lookup = inv.getArgument(1);
+            return lookup.get();
+        });
+        when(upcApiService.fetchProductData(anyString()))
+                .thenThrow(new NotFoundException("Product not found in external database"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        unknownUpcRepository.deleteAll();
+        productRepository.deleteAll();
+        jdbcTemplate.update("DELETE FROM product_import_checkpoints");
+    }
+
+    @Test
+    @DisplayName("should find a catalog-imported product that was recorded as unknown")
+    void shouldFindImportedProductRecordedAsUnknown() {
+        // Given
+        assertThatThrownBy(() -> productService.getProductByUpc(UPC)).isInstanceOf(NotFoundException.class);
+        assertThat(unknownUpcRepository.count()).isEqualTo(1);
+
+        // When
+        importService.startOrResume(SOURCE, 100);
+        importService.applyChunk(SOURCE, List.of(new CatalogEntry(UPC, "Nutella", "Ferrero", null, null, null)), 1);
+        ProductResponse scanned = productService.getProductByUpc(UPC);
+
+        // Then
+        assertThat(scanned.getName()).isEqualTo("Nutella");
+        assertThat(unknownUpcRepository.count()).isZero();
+        verify(upcApiService, times(1)).fetchProductData(anyString());
+    }
+
+    @Test
+    @DisplayName("should find a bulk-imported product that was recorded as unknown")
+    void shouldFindBulkImportedProductRecordedAsUnknown() {
+        // Given
+        assertThatThrownBy(() -> productService.getProductByUpc(UPC)).isInstanceOf(NotFoundException.class);
+        assertThat(unknownUpcRepository.count()).isEqualTo(1);
+        when(upcApiService.fetchProductDataBatchAsync(anyList())).thenReturn(Map.of());
+
+        // When
+        BulkProductImportResponse imported = productService.bulkImportProducts(List.of(ProductRequest.builder()
+                .upc(UPC)
+                .name("Nutella")
+                .build()));
+        ProductResponse scanned = productService.getProductByUpc(UPC);
+
+        // Then
+        assertThat(imported.getCreatedCount()).isEqualTo(1);
+        assertThat(scanned.getName()).isEqualTo("Nutella");
+        assertThat(unknownUpcRepository.count()).isZero();
+    }
+}
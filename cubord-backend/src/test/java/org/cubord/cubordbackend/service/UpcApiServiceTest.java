@@ -1,9 +1,11 @@
 
 package org.cubord.cubordbackend.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.cubord.cubordbackend.dto.product.ProductResponse;
 import org.cubord.cubordbackend.exception.ExternalServiceException;
 import org.cubord.cubordbackend.exception.NotFoundException;
+import org.cubord.cubordbackend.exception.ServiceUnavailableException;
 import org.cubord.cubordbackend.exception.ValidationException;
 import org.cubord.cubordbackend.security.SecurityService;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,12 +15,31 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.Ordered;
 import org.springframework.test.util.ReflectionTestUtils;
-import org.springframework.web.client.RestClientException;
-import org.springframework.web.client.RestTemplate;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -44,11 +65,23 @@ import static org.mockito.Mockito.*;
 class UpcApiServiceTest {
 
     @Mock
-    private RestTemplate restTemplate;
+    private HttpClient httpClient;
 
     @Mock
     private SecurityService securityService;
 
+    @Mock
+    private OpenFoodFactsResilience resilience;
+
+    @Mock
+    private OpenFoodFactsResilience.Call call;
+
+    @Mock
+    private ObjectProvider<ProductDataProvider> pluggedProviders;
+
+    @Spy
+    private HedgedProductLookup hedgedLookup = new HedgedProductLookup(new SimpleMeterRegistry());
+
     @InjectMocks
     private UpcApiService upcApiService;
 
@@ -66,14 +99,58 @@ class UpcApiServiceTest {
         private static final String INCOMPLETE_DATA_RESPONSE = 
                 "{\"status\":1,\"product\":{\"code\":\"3017624010701\"}}";
 
+    private static final String FIELDS_QUERY = "?fields=product_name,brands,categories,image_url,image_small_url";
+
     @BeforeEach
     void setUp() {
         // Configure the service with test values
         ReflectionTestUtils.setField(upcApiService, "apiUrl", "https://world.openfoodfacts.org/api/v2");
         ReflectionTestUtils.setField(upcApiService, "timeout", 5000);
         ReflectionTestUtils.setField(upcApiService, "userAgent", "CubordApp/1.0-Test");
+        ReflectionTestUtils.setField(upcApiService, "batchSize", 2);
+        ReflectionTestUtils.setField(upcApiService, "maxConcurrentLookups", 2);
+        ReflectionTestUtils.setField(hedgedLookup, "hedgingEnabled", true);
+        ReflectionTestUtils.setField(hedgedLookup, "hedgePercentile", 0.95);
+        ReflectionTestUtils.setField(hedgedLookup, "initialHedgeDelay", Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(hedgedLookup, "minHedgeDelay", Duration.ZERO);
+        ReflectionTestUtils.setField(hedgedLookup, "latencyWindowSize", 10);
+        ReflectionTestUtils.setField(hedgedLookup, "minimumSamples", 5);
+        ReflectionTestUtils.invokeMethod(upcApiService, "initProviders");
 
         lenient().when(securityService.getCurrentUserId()).thenReturn(SAMPLE_USER_ID);
+        lenient().when(resilience.acquire()).thenReturn(call);
+        lenient().when(resilience.acquire(anyString())).thenReturn(call);
+        lenient().when(call.timeoutMillis()).thenReturn(5000L);
+    }
+
+    /**
+     * Stubs the HTTP call for the given URL with a response streaming the given body.
+     */
+    private void stubApiResponse(String url, int status, byte[] body, Map<String, List<String>> headers)
+            throws Exception {
+        HttpResponse<InputStream> response = mock();
+        when(response.statusCode()).thenReturn(status);
+        when(response.body()).thenReturn(new ByteArrayInputStream(body));
+        when(response.headers()).thenReturn(HttpHeaders.of(headers, (name, value) -> true));
+        when(httpClient.send(argThat(request -> request != null && request.uri().equals(URI.create(url))),
+                anyBodyHandler()))
+                .thenReturn(response);
+    }
+
+    /**
+     * Matches the streaming body handler the service passes to the HTTP client.
+     */
+    private static HttpResponse.BodyHandler<InputStream> anyBodyHandler() {
+        return any();
+    }
+
+    private void stubApiResponse(String url, String body) throws Exception {
+        stubApiResponse(url, 200, body.getBytes(StandardCharsets.UTF_8), Map.of());
+    }
+
+    private void verifyApiCalled(String url) throws Exception {
+        verify(httpClient).send(argThat((HttpRequest request) -> request.uri().equals(URI.create(url))),
+                anyBodyHandler());
     }
 
     // ==================== Configuration Tests ====================
@@ -160,11 +237,10 @@ class UpcApiServiceTest {
 
         @Test
         @DisplayName("should successfully fetch product data for valid UPC")
-        void whenValidUpc_returnsProductData() {
+        void whenValidUpc_returnsProductData() throws Exception {
             // Given
-            String expectedUrl = "https://world.openfoodfacts.org/api/v2/product/" + VALID_UPC + ".json";
-            when(restTemplate.getForObject(eq(expectedUrl), eq(String.class)))
-                    .thenReturn(VALID_API_RESPONSE);
+            String expectedUrl = "https://world.openfoodfacts.org/api/v2/product/" + VALID_UPC + ".json" + FIELDS_QUERY;
+            stubApiResponse(expectedUrl, VALID_API_RESPONSE);
 
             // When
             ProductResponse response = upcApiService.fetchProductData(VALID_UPC);
@@ -176,140 +252,169 @@ class UpcApiServiceTest {
             assertThat(response.getBrand()).isEqualTo("Ferrero");
             assertThat(response.getCategory()).isEqualTo("Spreads"); // First category only
 
-            verify(restTemplate).getForObject(eq(expectedUrl), eq(String.class));
+            verifyApiCalled(expectedUrl);
             verify(securityService).getCurrentUserId();
         }
 
+        @Test
+        @DisplayName("should decompress a gzip-encoded response")
+        void whenResponseIsGzipped_decompressesBody() throws Exception {
+            // Given
+            String expectedUrl = "https://world.openfoodfacts.org/api/v2/product/" + VALID_UPC + ".json" + FIELDS_QUERY;
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(VALID_API_RESPONSE.getBytes(StandardCharsets.UTF_8));
+            }
+            stubApiResponse(expectedUrl, 200, compressed.toByteArray(), Map.of("Content-Encoding", List.of("gzip")));
+
+            // When
+            ProductResponse response = upcApiService.fetchProductData(VALID_UPC);
+
+            // Then
+            assertThat(response.getName()).isEqualTo("Nutella");
+            verify(httpClient).send(argThat((HttpRequest request) ->
+                            request.headers().firstValue("Accept-Encoding").orElse("").contains("gzip")),
+                    anyBodyHandler());
+        }
+
         @Test
         @DisplayName("should throw NotFoundException when product not found in API")
-        void whenProductNotFoundInApi_throwsNotFoundException() {
+        void whenProductNotFoundInApi_throwsNotFoundException() throws Exception {
             // Given
-            String expectedUrl = "https://world.openfoodfacts.org/api/v2/product/" + INVALID_UPC + ".json";
-            when(restTemplate.getForObject(eq(expectedUrl), eq(String.class)))
-                    .thenReturn(NOT_FOUND_RESPONSE);
+            String expectedUrl = "https://world.openfoodfacts.org/api/v2/product/" + INVALID_UPC + ".json" + FIELDS_QUERY;
+            stubApiResponse(expectedUrl, NOT_FOUND_RESPONSE);
 
             // When & Then
             assertThatThrownBy(() -> upcApiService.fetchProductData(INVALID_UPC))
                     .isInstanceOf(NotFoundException.class)
                     .hasMessageContaining("not found in external database");
 
-            verify(restTemplate).getForObject(eq(expectedUrl), eq(String.class));
+            verifyApiCalled(expectedUrl);
             verify(securityService).getCurrentUserId();
         }
 
+        @Test
+        @DisplayName("should throw NotFoundException when API answers 404")
+        void whenApiAnswers404_throwsNotFoundException() throws Exception {
+            // Given
+            String expectedUrl = "https://world.openfoodfacts.org/api/v2/product/" + INVALID_UPC + ".json" + FIELDS_QUERY;
+            stubApiResponse(expectedUrl, 404, NOT_FOUND_RESPONSE.getBytes(StandardCharsets.UTF_8), Map.of());
+
+            // When & Then
+            assertThatThrownBy(() -> upcApiService.fetchProductData(INVALID_UPC))
+                    .isInstanceOf(NotFoundException.class)
+                    .hasMessageContaining("not found in external database");
+        }
+
         @Test
         @DisplayName("should throw ExternalServiceException when API returns empty response")
-        void whenApiReturnsEmptyResponse_throwsExternalServiceException() {
+        void whenApiReturnsEmptyResponse_throwsExternalServiceException() throws Exception {
             // Given
-            String expectedUrl = "https://world.openfoodfacts.org/api/v2/product/" + VALID_UPC + ".json";
-            when(restTemplate.getForObject(eq(expectedUrl), eq(String.class)))
-                    .thenReturn("");
+            String expectedUrl = "https://world.openfoodfacts.org/api/v2/product/" + VALID_UPC + ".json" + FIELDS_QUERY;
+            stubApiResponse(expectedUrl, "");
 
             // When & Then
             assertThatThrownBy(() -> upcApiService.fetchProductData(VALID_UPC))
                     .isInstanceOf(ExternalServiceException.class)
                     .hasMessageContaining("Empty response");
 
-            verify(restTemplate).getForObject(eq(expectedUrl), eq(String.class));
+            verifyApiCalled(expectedUrl);
             verify(securityService).getCurrentUserId();
         }
 
         @Test
-        @DisplayName("should throw ExternalServiceException when API returns null")
-        void whenApiReturnsNull_throwsExternalServiceException() {
+        @DisplayName("should throw ExternalServiceException when API answers with a server error")
+        void whenApiAnswersServerError_throwsExternalServiceException() throws Exception {
             // Given
-            String expectedUrl = "https://world.openfoodfacts.org/api/v2/product/" + VALID_UPC + ".json";
-            when(restTemplate.getForObject(eq(expectedUrl), eq(String.class)))
-                    .thenReturn(null);
+            String expectedUrl = "https://world.openfoodfacts.org/api/v2/product/" + VALID_UPC + ".json" + FIELDS_QUERY;
+            stubApiResponse(expectedUrl, 503, new byte[0], Map.of());
 
             // When & Then
             assertThatThrownBy(() -> upcApiService.fetchProductData(VALID_UPC))
                     .isInstanceOf(ExternalServiceException.class)
-                    .hasMessageContaining("Empty response");
+                    .hasMessageContaining("HTTP 503");
 
-            verify(restTemplate).getForObject(eq(expectedUrl), eq(String.class));
+            verifyApiCalled(expectedUrl);
             verify(securityService).getCurrentUserId();
         }
 
         @Test
         @DisplayName("should throw ExternalServiceException when API returns insufficient data")
-        void whenApiReturnsInsufficientData_throwsExternalServiceException() {
+        void whenApiReturnsInsufficientData_throwsExternalServiceException() throws Exception {
             // Given
-            String expectedUrl = "https://world.openfoodfacts.org/api/v2/product/" + VALID_UPC + ".json";
-            when(restTemplate.getForObject(eq(expectedUrl), eq(String.class)))
-                    .thenReturn(INCOMPLETE_DATA_RESPONSE);
+            String expectedUrl = "https://world.openfoodfacts.org/api/v2/product/" + VALID_UPC + ".json" + FIELDS_QUERY;
+            stubApiResponse(expectedUrl, INCOMPLETE_DATA_RESPONSE);
 
             // When & Then
             assertThatThrownBy(() -> upcApiService.fetchProductData(VALID_UPC))
                     .isInstanceOf(ExternalServiceException.class)
                     .hasMessageContaining("Insufficient product data");
 
-            verify(restTemplate).getForObject(eq(expectedUrl), eq(String.class));
+            verifyApiCalled(expectedUrl);
             verify(securityService).getCurrentUserId();
         }
 
         @Test
-        @DisplayName("should throw ExternalServiceException when RestTemplate throws exception")
-        void whenRestTemplateThrowsException_throwsExternalServiceException() {
+        @DisplayName("should throw ExternalServiceException when the HTTP client throws exception")
+        void whenHttpClientThrowsException_throwsExternalServiceException() throws Exception {
             // Given
-            String expectedUrl = "https://world.openfoodfacts.org/api/v2/product/" + VALID_UPC + ".json";
-            when(restTemplate.getForObject(eq(expectedUrl), eq(String.class)))
-                    .thenThrow(new RestClientException("Connection timeout"));
+            String expectedUrl = "https://world.openfoodfacts.org/api/v2/product/" + VALID_UPC + ".json" + FIELDS_QUERY;
+            when(httpClient.send(any(HttpRequest.class), anyBodyHandler()))
+                    .thenThrow(new IOException("Connection reset"));
 
             // When & Then
             assertThatThrownBy(() -> upcApiService.fetchProductData(VALID_UPC))
                     .isInstanceOf(ExternalServiceException.class)
                     .hasMessageContaining("Failed to fetch product data")
-                    .hasCauseInstanceOf(RestClientException.class);
+                    .hasCauseInstanceOf(IOException.class);
 
-            verify(restTemplate).getForObject(eq(expectedUrl), eq(String.class));
+            verifyApiCalled(expectedUrl);
             verify(securityService).getCurrentUserId();
         }
 
         @Test
         @DisplayName("should throw ValidationException when UPC is null")
-        void whenUpcIsNull_throwsValidationException() {
+        void whenUpcIsNull_throwsValidationException() throws Exception {
             // When & Then
             assertThatThrownBy(() -> upcApiService.fetchProductData(null))
                     .isInstanceOf(ValidationException.class)
                     .hasMessageContaining("UPC cannot be null or empty");
 
-            verify(restTemplate, never()).getForObject(anyString(), eq(String.class));
+            verify(httpClient, never()).send(any(), any());
             verify(securityService, never()).getCurrentUserId();
         }
 
         @Test
         @DisplayName("should throw ValidationException when UPC is empty")
-        void whenUpcIsEmpty_throwsValidationException() {
+        void whenUpcIsEmpty_throwsValidationException() throws Exception {
             // When & Then
             assertThatThrownBy(() -> upcApiService.fetchProductData(""))
                     .isInstanceOf(ValidationException.class)
                     .hasMessageContaining("UPC cannot be null or empty");
 
-            verify(restTemplate, never()).getForObject(anyString(), eq(String.class));
+            verify(httpClient, never()).send(any(), any());
             verify(securityService, never()).getCurrentUserId();
         }
 
         @Test
         @DisplayName("should throw ValidationException when UPC is blank")
-        void whenUpcIsBlank_throwsValidationException() {
+        void whenUpcIsBlank_throwsValidationException() throws Exception {
             // When & Then
             assertThatThrownBy(() -> upcApiService.fetchProductData("   "))
                     .isInstanceOf(ValidationException.class)
                     .hasMessageContaining("UPC cannot be null or empty");
 
-            verify(restTemplate, never()).getForObject(anyString(), eq(String.class));
+            verify(httpClient, never()).send(any(), any());
             verify(securityService, never()).getCurrentUserId();
         }
 
             @Test
             @DisplayName("should handle product with only name")
-            void whenProductHasOnlyName_returnsProductWithName() {
+            void whenProductHasOnlyName_returnsProductWithName() throws Exception {
                 // Given
                 String responseWithNameOnly = "{\"status\":1,\"product\":{\"product_name\":\"Test Product\"}}";
-                String expectedUrl = "https://world.openfoodfacts.org/api/v2/product/" + VALID_UPC + ".json";
-                when(restTemplate.getForObject(eq(expectedUrl), eq(String.class)))
-                        .thenReturn(responseWithNameOnly);
+                String expectedUrl = "https://world.openfoodfacts.org/api/v2/product/" + VALID_UPC + ".json" + FIELDS_QUERY;
+                stubApiResponse(expectedUrl, responseWithNameOnly);
 
                 // When
                 ProductResponse response = upcApiService.fetchProductData(VALID_UPC);
@@ -326,18 +431,17 @@ class UpcApiServiceTest {
                     assertThat(response.getCategory()).isEmpty();
                 }
 
-                verify(restTemplate).getForObject(eq(expectedUrl), eq(String.class));
+                verifyApiCalled(expectedUrl);
                 verify(securityService).getCurrentUserId();
             }
 
             @Test
             @DisplayName("should handle product with only brand")
-            void whenProductHasOnlyBrand_returnsProductWithBrand() {
+            void whenProductHasOnlyBrand_returnsProductWithBrand() throws Exception {
                 // Given
                 String responseWithBrandOnly = "{\"status\":1,\"product\":{\"brands\":\"Test Brand\"}}";
-                String expectedUrl = "https://world.openfoodfacts.org/api/v2/product/" + VALID_UPC + ".json";
-                when(restTemplate.getForObject(eq(expectedUrl), eq(String.class)))
-                        .thenReturn(responseWithBrandOnly);
+                String expectedUrl = "https://world.openfoodfacts.org/api/v2/product/" + VALID_UPC + ".json" + FIELDS_QUERY;
+                stubApiResponse(expectedUrl, responseWithBrandOnly);
 
                 // When
                 ProductResponse response = upcApiService.fetchProductData(VALID_UPC);
@@ -354,9 +458,253 @@ class UpcApiServiceTest {
                     assertThat(response.getCategory()).isEmpty();
                 }
 
-                verify(restTemplate).getForObject(eq(expectedUrl), eq(String.class));
+                verifyApiCalled(expectedUrl);
                 verify(securityService).getCurrentUserId();
             }
     }
 
+    @Nested
+    @DisplayName("Resilience")
+    class ResilienceTests {
+
+        private final String expectedUrl =
+                "https://world.openfoodfacts.org/api/v2/product/" + VALID_UPC + ".json" + FIELDS_QUERY;
+
+        @Test
+        @DisplayName("should fail fast without calling the API when the call is rejected")
+        void whenCallIsRejected_failsFastWithoutCallingApi() throws Exception {
+            // Given
+            when(resilience.acquire()).thenThrow(new ServiceUnavailableException("circuit open", null));
+
+            // When & Then
+            assertThatThrownBy(() -> upcApiService.fetchProductData(VALID_UPC))
+                    .isInstanceOf(ServiceUnavailableException.class);
+            verify(httpClient, never()).send(any(), any());
+        }
+
+        @Test
+        @DisplayName("should use the call's adaptive timeout for the request")
+        void whenCallIsAdmitted_usesItsTimeout() throws Exception {
+            // Given
+            when(call.timeoutMillis()).thenReturn(750L);
+            stubApiResponse(expectedUrl, VALID_API_RESPONSE);
+
+            // When
+            upcApiService.fetchProductData(VALID_UPC);
+
+            // Then
+            verify(httpClient).send(argThat((HttpRequest request) ->
+                            request.timeout().orElseThrow().toMillis() == 750),
+                    anyBodyHandler());
+        }
+
+        @Test
+        @DisplayName("should record a not-found answer as a success and release the call")
+        void whenApiAnswersNotFound_recordsSuccess() throws Exception {
+            // Given
+            stubApiResponse(expectedUrl, 404, NOT_FOUND_RESPONSE.getBytes(StandardCharsets.UTF_8), Map.of());
+
+            // When
+            assertThatThrownBy(() -> upcApiService.fetchProductData(VALID_UPC))
+                    .isInstanceOf(NotFoundException.class);
+
+            // Then
+            verify(call).succeeded();
+            verify(call, never()).failed();
+            verify(call).release();
+        }
+
+        @Test
+        @DisplayName("should record a server error as a failure and release the call")
+        void whenApiAnswersServerError_recordsFailure() throws Exception {
+            // Given
+            stubApiResponse(expectedUrl, 503, new byte[0], Map.of());
+
+            // When
+            assertThatThrownBy(() -> upcApiService.fetchProductData(VALID_UPC))
+                    .isInstanceOf(ExternalServiceException.class);
+
+            // Then
+            verify(call).failed();
+            verify(call, never()).succeeded();
+            verify(call).release();
+        }
+    }
+
+    // ==================== Product Data Provider Tests ====================
+
+    @Nested
+    @DisplayName("Product Data Providers")
+    class ProductDataProviderTests {
+
+        private static final String MIRROR_URL = "https://world.openfoodfacts.net/api/v2";
+
+        private final String expectedUrl =
+                "https://world.openfoodfacts.org/api/v2/product/" + VALID_UPC + ".json" + FIELDS_QUERY;
+        private final String mirrorUrl = MIRROR_URL + "/product/" + VALID_UPC + ".json" + FIELDS_QUERY;
+
+        @Test
+        @DisplayName("should fall back to a mirror when the API fails")
+        void whenApiFails_fallsBackToMirror() throws Exception {
+            // Given
+            ReflectionTestUtils.setField(upcApiService, "mirrorUrls", new String[]{MIRROR_URL});
+            ReflectionTestUtils.invokeMethod(upcApiService, "initProviders");
+            stubApiResponse(expectedUrl, 503, new byte[0], Map.of());
+            stubApiResponse(mirrorUrl, VALID_API_RESPONSE);
+
+            // When
+            ProductResponse response = upcApiService.fetchProductData(VALID_UPC);
+
+            // Then
+            assertThat(response.getName()).isEqualTo("Nutella");
+            verifyApiCalled(expectedUrl);
+            verifyApiCalled(mirrorUrl);
+        }
+
+        @Test
+        @DisplayName("should still ask a mirror while the API's circuit is open")
+        void whenApiCircuitIsOpen_mirrorStillAnswers() throws Exception {
+            // Given
+            ReflectionTestUtils.setField(upcApiService, "mirrorUrls", new String[]{MIRROR_URL});
+            ReflectionTestUtils.invokeMethod(upcApiService, "initProviders");
+            when(resilience.acquire()).thenThrow(new ServiceUnavailableException("circuit open", null));
+            stubApiResponse(mirrorUrl, VALID_API_RESPONSE);
+
+            // When
+            ProductResponse response = upcApiService.fetchProductData(VALID_UPC);
+
+            // Then
+            assertThat(response.getName()).isEqualTo("Nutella");
+            verify(resilience).acquire("world.openfoodfacts.net");
+            verify(httpClient, never()).send(argThat((HttpRequest request) -> request.uri().equals(URI.create(expectedUrl))),
+                    anyBodyHandler());
+        }
+
+        @Test
+        @DisplayName("should ask provider beans in their order before the API")
+        void whenProviderBeanComesFirst_skipsApi() throws Exception {
+            // Given
+            ProductDataProvider standIn = mock(ProductDataProvider.class,
+                    withSettings().extraInterfaces(Ordered.class));
+            when(standIn.getName()).thenReturn("stand-in");
+            when(((Ordered) standIn).getOrder()).thenReturn(-1);
+            when(standIn.fetch(VALID_UPC)).thenReturn(CompletableFuture.completedFuture(
+                    ProductResponse.builder().upc(VALID_UPC).name("Stand-in Nutella").build()));
+            when(pluggedProviders.stream()).thenReturn(Stream.of(standIn));
+            ReflectionTestUtils.invokeMethod(upcApiService, "initProviders");
+
+            // When
+            ProductResponse response = upcApiService.fetchProductData(VALID_UPC);
+
+            // Then
+            assertThat(response.getName()).isEqualTo("Stand-in Nutella");
+            verifyNoInteractions(httpClient);
+        }
+    }
+
+    // ==================== Batch Fetch Tests ====================
+
+    @Nested
+    @DisplayName("Batch Fetch")
+    class BatchFetchTests {
+
+        private static final String UPC_A = "012345678905";
+        private static final String UPC_B = "4006381333931";
+        private static final String UPC_C = "5000112548167";
+
+        private String searchUrl(String codes, int pageSize) {
+            return "https://world.openfoodfacts.org/api/v2/search?code=" + codes
+                    + "&fields=code,product_name,brands,categories,image_url,image_small_url&page_size=" + pageSize;
+        }
+
+        @Test
+        @DisplayName("should fetch UPCs in requests of the batch size and map misses to not found")
+        void whenFetchingBatch_splitsRequestsAndMapsMisses() throws Exception {
+            // Given
+            stubApiResponse(searchUrl(UPC_A + "," + UPC_B, 2),
+                    "{\"count\":1,\"products\":[{\"code\":\"0" + UPC_A + "\",\"product_name\":\"Pencils\","
+                            + "\"brands\":\"Staedtler\"}]}");
+            stubApiResponse(searchUrl(UPC_C, 1),
+                    "{\"count\":1,\"products\":[{\"code\":\"" + UPC_C + "\",\"product_name\":\"Cola\"}]}");
+
+            // When
+            Map<String, CompletableFuture<ProductResponse>> results =
+                    upcApiService.fetchProductDataBatchAsync(List.of(UPC_A, UPC_B, UPC_C));
+
+            // Then
+            assertThat(results).containsOnlyKeys(UPC_A, UPC_B, UPC_C);
+            ProductResponse pencils = results.get(UPC_A).get(5, TimeUnit.SECONDS);
+            assertThat(pencils.getUpc()).isEqualTo(UPC_A);
+            assertThat(pencils.getName()).isEqualTo("Pencils");
+            assertThat(pencils.getBrand()).isEqualTo("Staedtler");
+            assertThat(results.get(UPC_B)).failsWithin(Duration.ofSeconds(5))
+                    .withThrowableOfType(ExecutionException.class)
+                    .withCauseInstanceOf(NotFoundException.class);
+            assertThat(results.get(UPC_C).get(5, TimeUnit.SECONDS).getName()).isEqualTo("Cola");
+            verify(httpClient, times(2)).send(any(HttpRequest.class), anyBodyHandler());
+            verify(call, times(2)).release();
+        }
+
+        @Test
+        @DisplayName("should fail only the malformed UPC of a batch")
+        void whenBatchContainsInvalidUpc_failsOnlyThatUpc() throws Exception {
+            // Given
+            stubApiResponse(searchUrl(UPC_B, 1),
+                    "{\"products\":[{\"code\":\"" + UPC_B + "\",\"product_name\":\"Eraser\"}]}");
+
+            // When
+            Map<String, CompletableFuture<ProductResponse>> results =
+                    upcApiService.fetchProductDataBatchAsync(List.of("abc", UPC_B, UPC_B));
+
+            // Then
+            assertThat(results).containsOnlyKeys("abc", UPC_B);
+            assertThat(results.get("abc")).isCompletedExceptionally();
+            assertThatThrownBy(() -> results.get("abc").join()).hasCauseInstanceOf(ValidationException.class);
+            assertThat(results.get(UPC_B).get(5, TimeUnit.SECONDS).getName()).isEqualTo("Eraser");
+        }
+
+        @Test
+        @DisplayName("should fail every UPC of a request that fails")
+        void whenBatchRequestFails_failsEveryUpcOfRequest() throws Exception {
+            // Given
+            stubApiResponse(searchUrl(UPC_A + "," + UPC_B, 2), 503, new byte[0], Map.of());
+
+            // When
+            Map<String, CompletableFuture<ProductResponse>> results =
+                    upcApiService.fetchProductDataBatchAsync(List.of(UPC_A, UPC_B));
+
+            // Then
+            for (CompletableFuture<ProductResponse> result : results.values()) {
+                assertThat(result).failsWithin(Duration.ofSeconds(5))
+                        .withThrowableOfType(ExecutionException.class)
+                        .withCauseInstanceOf(ExternalServiceException.class)
+                        .withMessageContaining("HTTP 503");
+            }
+            verify(call).failed();
+        }
+
+        @Test
+        @DisplayName("should fail the UPCs of a rejected request with ServiceUnavailableException")
+        void whenBatchRequestRejected_failsWithServiceUnavailable() {
+            // Given
+            when(resilience.acquire()).thenThrow(new ServiceUnavailableException("circuit open", null));
+
+            // When
+            Map<String, CompletableFuture<ProductResponse>> results =
+                    upcApiService.fetchProductDataBatchInBackground(List.of(UPC_A));
+
+            // Then
+            assertThat(results.get(UPC_A)).failsWithin(Duration.ofSeconds(5))
+                    .withThrowableOfType(ExecutionException.class)
+                    .withCauseInstanceOf(ServiceUnavailableException.class);
+            verifyNoInteractions(httpClient, securityService);
+        }
+
+        @Test
+        @DisplayName("should throw ValidationException when no UPCs are given")
+        void whenNoUpcsGiven_throwsValidationException() {
+            assertThatThrownBy(() -> upcApiService.fetchProductDataBatchAsync(List.of()))
+                    .isInstanceOf(ValidationException.class);
+        }
+    }
 }
\ No newline at end of file
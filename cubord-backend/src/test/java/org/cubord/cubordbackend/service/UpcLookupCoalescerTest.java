@@ -0,0 +1,277 @@
+package org.cubord.cubordbackend.service;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.cubord.cubordbackend.domain.Product;
+import org.cubord.cubordbackend.dto.product.ProductResponse;
+import org.cubord.cubordbackend.exception.NotFoundException;
+import org.cubord.cubordbackend.repository.PantryItemRepository;
+import org.cubord.cubordbackend.repository.ProductRepository;
+import org.cubord.cubordbackend.security.SecurityService;
+import org.cubord.cubordbackend.util.UrlValidator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@DisplayName("UpcLookupCoalescer Tests")
+class UpcLookupCoalescerTest {
+
+    private static final String UPC = "3017624010701";
+
+    private SimpleMeterRegistry meterRegistry;
+    private UpcLookupCoalescer upcLookupCoalescer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        upcLookupCoalescer = new UpcLookupCoalescer(meterRegistry);
+        ReflectionTestUtils.setField(upcLookupCoalescer, "waitTimeout", Duration.ofSeconds(10));
+        upcLookupCoalescer.init();
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("cubord.product.lookup.calls").tag("result", result).counter().count();
+    }
+
+    /**
+     * Waits until the given number of callers have joined an in-flight lookup.
+     */
+    private void awaitCoalesced(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (count("coalesced") < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    @Nested
+    @DisplayName("coalesce")
+    class CoalesceTests {
+
+        @Test
+        @DisplayName("should run sequential lookups independently")
+        void shouldRunSequentialLookupsIndependently() {
+            // Given
+            AtomicInteger lookups = new AtomicInteger();
+
+            // When
+            upcLookupCoalescer.coalesce(UPC, () -> ProductResponse.builder().name("#" + lookups.incrementAndGet()).build());
+            ProductResponse second = upcLookupCoalescer.coalesce(UPC,
+                    () -> ProductResponse.builder().name("#" + lookups.incrementAndGet()).build());
+
+            // Then
+            assertThat(second.getName()).isEqualTo("#2");
+            assertThat(count("executed")).isEqualTo(2);
+            assertThat(count("coalesced")).isZero();
+        }
+
+        @Test
+        @DisplayName("should share the in-flight lookup's exception with joined callers")
+        void shouldShareExceptionWithJoinedCallers() throws Exception {
+            // Given
+            CountDownLatch release = new CountDownLatch(1);
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            try {
+                Future<?> leader = executor.submit(() -> upcLookupCoalescer.coalesce(UPC, () -> {
+                    awaitQuietly(release);
+                    throw new NotFoundException("Product with UPC '" + UPC + "' not found");
+                }));
+                awaitInFlight();
+
+                // When
+                CompletableFuture<ProductResponse> joined = CompletableFuture.supplyAsync(() ->
+                        upcLookupCoalescer.coalesce(UPC, () -> {
+                            throw new AssertionError("joined caller must not run its own lookup");
+                        }));
+                awaitCoalesced(1);
+                release.countDown();
+
+                // Then
+                assertThatThrownBy(joined::join).hasCauseInstanceOf(NotFoundException.class);
+                assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(NotFoundException.class);
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        @Test
+        @DisplayName("should release the lookup when it finishes, even inside a transaction")
+        void shouldReleaseLookupInsideTransaction() {
+            // Given
+            AtomicInteger lookups = new AtomicInteger();
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                upcLookupCoalescer.coalesce(UPC, () -> ProductResponse.builder().name("#" + lookups.incrementAndGet()).build());
+
+                // When
+                ProductResponse second = upcLookupCoalescer.coalesce(UPC,
+                        () -> ProductResponse.builder().name("#" + lookups.incrementAndGet()).build());
+
+                // Then
+                assertThat(second.getName()).isEqualTo("#2");
+                assertThat(TransactionSynchronizationManager.getSynchronizations()).isEmpty();
+                assertThat(meterRegistry.get("cubord.product.lookup.in-flight").gauge().value()).isZero();
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+        }
+
+        private void awaitInFlight() throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (meterRegistry.get("cubord.product.lookup.in-flight").gauge().value() < 1
+                    && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+        }
+
+        private void awaitQuietly(CountDownLatch latch) {
+            try {
+                latch.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("concurrent product lookups against a stub Open Food Facts server")
+    class StubServerTests {
+
+        private static final int CALLERS = 16;
+        private static final String API_RESPONSE =
+                "{\"status\":1,\"product\":{\"product_name\":\"Nutella\",\"brands\":\"Ferrero\",\"categories\":\"Spreads\"}}";
+
+        private HttpServer server;
+        private AtomicInteger requests;
+        private ProductRepository productRepository;
+        private ProductService productService;
+
+        @BeforeEach
+        void setUp() throws Exception {
+            requests = new AtomicInteger();
+            server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            server.createContext("/api/v2/product/", exchange -> {
+                requests.incrementAndGet();
+                try {
+                    // Hold the response until every other caller has joined the in-flight lookup
+                    awaitCoalesced(CALLERS - 1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                byte[] body = API_RESPONSE.getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+                exchange.close();
+            });
+            server.setExecutor(Executors.newCachedThreadPool());
+            server.start();
+
+            SecurityService securityService = mock(SecurityService.class);
+            OpenFoodFactsResilience resilience = new OpenFoodFactsResilience(new SimpleMeterRegistry());
+            ReflectionTestUtils.setField(resilience, "maxTimeoutMillis", 10000L);
+            ReflectionTestUtils.setField(resilience, "slidingWindowSize", 20);
+            ReflectionTestUtils.setField(resilience, "minimumCalls", 10);
+            ReflectionTestUtils.setField(resilience, "maxConcurrentCalls", 16);
+            ReflectionTestUtils.setField(resilience, "latencyWindowSize", 20);
+            ReflectionTestUtils.setField(resilience, "openDuration", Duration.ofSeconds(30));
+            ReflectionTestUtils.setField(resilience, "minTimeout", Duration.ofMillis(500));
+            resilience.init();
+            HedgedProductLookup hedgedLookup = new HedgedProductLookup(new SimpleMeterRegistry());
+            ReflectionTestUtils.setField(hedgedLookup, "initialHedgeDelay", Duration.ofSeconds(10));
+            ReflectionTestUtils.setField(hedgedLookup, "minHedgeDelay", Duration.ZERO);
+            ReflectionTestUtils.setField(hedgedLookup, "latencyWindowSize", 20);
+            ReflectionTestUtils.setField(hedgedLookup, "minimumSamples", 10);
+            @SuppressWarnings("unchecked")
+            ObjectProvider<ProductDataProvider> pluggedProviders = mock(ObjectProvider.class);
+            UpcApiService upcApiService = new UpcApiService(HttpClient.newHttpClient(), securityService, resilience,
+                    hedgedLookup, pluggedProviders);
+            ReflectionTestUtils.setField(upcApiService, "apiUrl",
+                    "http://127.0.0.1:" + server.getAddress().getPort() + "/api/v2");
+            ReflectionTestUtils.setField(upcApiService, "timeout", 10000);
+            ReflectionTestUtils.setField(upcApiService, "userAgent", "Cubord-Test/1.0");
+            ReflectionTestUtils.invokeMethod(upcApiService, "initProviders");
+
+            productRepository = mock(ProductRepository.class);
+            when(productRepository.findByCode(anyString())).thenReturn(Optional.empty());
+            when(productRepository.saveAndFlush(any(Product.class))).thenAnswer(inv -> {
+                Product product = inv.getArgument(0);
+                product.setId(UUID.randomUUID());
+                return product;
+            });
+
+            productService = new ProductService(productRepository, upcApiService, securityService,
+                    mock(ProductCache.class), mock(UnknownUpcFilter.class), upcLookupCoalescer,
+                    mock(ProductEnrichmentWorker.class), mock(ProductCatalogImporter.class),
+                    mock(ProductCatalogImportService.class), mock(ProductGtinIndex.class),
+                    new ProductWriteService(productRepository, mock(PantryItemRepository.class)));
+        }
+
+        @AfterEach
+        void tearDown() {
+            server.stop(0);
+        }
+
+        @Test
+        @DisplayName("should fetch and insert a new product once for concurrent scans")
+        void shouldFetchAndInsertOnceForConcurrentScans() throws Exception {
+            // Given
+            ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<ProductResponse>> results = new ArrayList<>();
+
+            // When
+            try {
+                for (int i = 0; i < CALLERS; i++) {
+                    results.add(executor.submit(() -> {
+                        start.await();
+                        // Static mocks are per thread; the stub host would fail SSRF validation
+                        try (MockedStatic<UrlValidator> urlValidator = mockStatic(UrlValidator.class)) {
+                            urlValidator.when(() -> UrlValidator.isValidExternalUrl(anyString())).thenReturn(true);
+                            return productService.getProductByUpc(UPC);
+                        }
+                    }));
+                }
+                start.countDown();
+
+                // Then
+                List<UUID> productIds = new ArrayList<>();
+                for (Future<ProductResponse> result : results) {
+                    ProductResponse response = result.get(30, TimeUnit.SECONDS);
+                    assertThat(response.getName()).isEqualTo("Nutella");
+                    productIds.add(response.getId());
+                }
+                assertThat(productIds).containsOnly(productIds.get(0));
+            } finally {
+                executor.shutdownNow();
+            }
+
+            assertThat(requests).hasValue(1);
+            verify(productRepository, times(1)).saveAndFlush(any(Product.class));
+            assertThat(count("executed")).isEqualTo(1);
+            assertThat(count("coalesced")).isEqualTo(CALLERS - 1);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package org.cubord.cubordbackend.util;
+
+import org.cubord.cubordbackend.exception.ValidationException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for CursorCodec.
+ */
+class CursorCodecTest {
+
+    @Test
+    void testEncodeDecode_RoundTripsKeys() {
+        // Given
+        UUID id = UUID.randomUUID();
+        LocalDate date = LocalDate.of(2025, 3, 14);
+
+        // When
+        String cursor = CursorCodec.encode("Peanut Butter, crunchy", date, id);
+        List<String> keys = CursorCodec.decode(cursor, 3);
+
+        // Then
+        assertThat(cursor).matches("[A-Za-z0-9_-]+");
+        assertThat(keys).containsExactly("Peanut Butter, crunchy", date.toString(), id.toString());
+    }
+
+    @Test
+    void testEncodeDecode_PreservesEmptyKeys() {
+        // When
+        List<String> keys = CursorCodec.decode(CursorCodec.encode("", 5), 2);
+
+        // Then
+        assertThat(keys).containsExactly("", "5");
+    }
+
+    @Test
+    void testDecode_RejectsWrongKeyCount() {
+        // Given
+        String cursor = CursorCodec.encode("a", "b");
+
+        // When/Then
+        assertThatThrownBy(() -> CursorCodec.decode(cursor, 3))
+                .isInstanceOf(ValidationException.class)
+                .hasMessageContaining("Invalid pagination cursor");
+    }
+
+    @Test
+    void testDecode_RejectsMalformedCursor() {
+        assertThatThrownBy(() -> CursorCodec.decode("not*base64", 1))
+                .isInstanceOf(ValidationException.class);
+        assertThatThrownBy(() -> CursorCodec.decode(" ", 1))
+                .isInstanceOf(ValidationException.class);
+    }
+
+    @Test
+    void testValidateLimit_RejectsOutOfRange() {
+        assertThatThrownBy(() -> CursorCodec.validateLimit(0))
+                .isInstanceOf(ValidationException.class);
+        assertThatThrownBy(() -> CursorCodec.validateLimit(CursorCodec.MAX_PAGE_SIZE + 1))
+                .isInstanceOf(ValidationException.class);
+    }
+}
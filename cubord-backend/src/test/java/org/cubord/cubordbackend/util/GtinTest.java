@@ -0,0 +1,66 @@
+package org.cubord.cubordbackend.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for Gtin.
+ */
+class GtinTest {
+
+    @Test
+    void testNormalize_MapsEquivalentFormsToOneValue() {
+        // When / Then
+        assertThat(Gtin.normalize("012345678905")).isEqualTo(12345678905L);
+        assertThat(Gtin.normalize("0012345678905")).isEqualTo(12345678905L);
+        assertThat(Gtin.normalize("00012345678905")).isEqualTo(12345678905L);
+        assertThat(Gtin.normalize(" 012345678905 ")).isEqualTo(12345678905L);
+    }
+
+    @Test
+    void testNormalize_ReadsEan13AndEan8() {
+        assertThat(Gtin.normalize("3017624010701")).isEqualTo(3017624010701L);
+        assertThat(Gtin.normalize("96385074")).isEqualTo(96385074L);
+    }
+
+    @Test
+    void testNormalize_ExpandsUpcE() {
+        // When
+        Long fromUpcE = Gtin.normalize("04252614");
+
+        // Then
+        assertThat(fromUpcE).isEqualTo(Gtin.normalize("042100005264"));
+    }
+
+    @Test
+    void testNormalize_RejectsInvalidCodes() {
+        assertThat(Gtin.normalize("012345678906")).isNull();
+        assertThat(Gtin.normalize("1234567")).isNull();
+        assertThat(Gtin.normalize("123456789012345")).isNull();
+        assertThat(Gtin.normalize("01234abc8905")).isNull();
+        assertThat(Gtin.normalize(null)).isNull();
+    }
+
+    @Test
+    void testExpandUpcE_CoversEverySuppressionPattern() {
+        assertThat(Gtin.expandUpcE("01234505")).isEqualTo("012000003455");
+        assertThat(Gtin.expandUpcE("01234535")).isEqualTo("012300000455");
+        assertThat(Gtin.expandUpcE("01234545")).isEqualTo("012340000055");
+        assertThat(Gtin.expandUpcE("01234565")).isEqualTo("012345000065");
+        assertThat(Gtin.expandUpcE("21234565")).isNull();
+    }
+
+    @Test
+    void testCanonical_PadsGtinsAndKeepsOtherCodes() {
+        assertThat(Gtin.canonical("012345678905")).isEqualTo("00012345678905");
+        assertThat(Gtin.canonical("04252614")).isEqualTo("00042100005264");
+        assertThat(Gtin.canonical(" 012345678906 ")).isEqualTo("012345678906");
+    }
+
+    @Test
+    void testHasValidCheckDigit() {
+        assertThat(Gtin.hasValidCheckDigit("4006381333931")).isTrue();
+        assertThat(Gtin.hasValidCheckDigit("4006381333932")).isFalse();
+    }
+}